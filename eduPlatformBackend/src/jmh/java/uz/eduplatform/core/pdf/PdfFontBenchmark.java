@@ -0,0 +1,176 @@
+package uz.eduplatform.core.pdf;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one variant of a 50-question Cyrillic test: with the fonts parsed once and their
+ * metrics cached ({@link PdfFonts}), and the way every document did it before: parse both
+ * TrueType files, probe each character with {@code PDFont.encode}, wrap by character count.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PdfFontBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfFontBenchmark {
+
+    private static final int QUESTIONS = 50;
+    private static final float MARGIN = 50;
+    private static final float CONTENT_WIDTH = PDRectangle.A4.getWidth() - 2 * MARGIN;
+    private static final float LINE_HEIGHT = 16;
+
+    private PdfFonts fonts;
+    private List<String> questions;
+    private List<List<String>> options;
+
+    @Setup
+    public void setUp() {
+        fonts = new PdfFonts();
+        questions = new ArrayList<>();
+        options = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            questions.add((i + 1) + ". Қуйидаги тенгламанинг илдизларини топинг ва жавобни соддалаштиринг: "
+                    + "x² − " + (i + 2) + "x + " + (i + 1) + " = 0. Жавобингизни асосланг ва текширинг, "
+                    + "агар илдизлар бир нечта бўлса, уларнинг йиғиндисини ҳам кўрсатинг.");
+            options.add(List.of("A) x = " + i, "B) x = " + (i + 1) + " ва x = 1", "C) Ечими йўқ", "D) √" + (i + 3)));
+        }
+    }
+
+    @Benchmark
+    public void renderWithSharedFonts(Blackhole bh) throws IOException {
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupMainMemoryOnly())) {
+            DocumentFont bold = fonts.bold().embedIn(document);
+            DocumentFont regular = fonts.regular().embedIn(document);
+            render(document, new Text() {
+                public PDFont font(boolean isBold) { return (isBold ? bold : regular).font(); }
+                public String sanitize(String text, boolean isBold) { return (isBold ? bold : regular).sanitize(text); }
+                public List<String> wrap(String text) { return bold.wrap(text, 11, CONTENT_WIDTH); }
+                public float width(String text, float size) { return bold.width(text, size); }
+            });
+            document.save(OutputStream.nullOutputStream());
+            bh.consume(document);
+        }
+    }
+
+    @Benchmark
+    public void renderParsingFontsPerDocument(Blackhole bh) throws IOException {
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupMainMemoryOnly())) {
+            PDFont bold = parse(document, PdfFonts.BOLD_PATH);
+            PDFont regular = parse(document, PdfFonts.REGULAR_PATH);
+            render(document, new Text() {
+                public PDFont font(boolean isBold) { return isBold ? bold : regular; }
+                public String sanitize(String text, boolean isBold) { return probe(text, isBold ? bold : regular); }
+                public List<String> wrap(String text) { return wrapByChars(probe(text, regular), 85); }
+                public float width(String text, float size) throws IOException { return bold.getStringWidth(text) / 1000 * size; }
+            });
+            document.save(OutputStream.nullOutputStream());
+            bh.consume(document);
+        }
+    }
+
+    private interface Text {
+        PDFont font(boolean bold);
+
+        String sanitize(String text, boolean bold);
+
+        List<String> wrap(String text);
+
+        float width(String text, float size) throws IOException;
+    }
+
+    private void render(PDDocument document, Text text) throws IOException {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        PDPageContentStream cs = new PDPageContentStream(document, page);
+        float y = PDRectangle.A4.getHeight() - MARGIN;
+
+        String title = text.sanitize("Алгебра — назорат иши, 1-вариант", true);
+        cs.beginText();
+        cs.setFont(text.font(true), 16);
+        cs.newLineAtOffset((PDRectangle.A4.getWidth() - text.width(title, 16)) / 2, y);
+        cs.showText(title);
+        cs.endText();
+        y -= 30;
+
+        for (int q = 0; q < QUESTIONS; q++) {
+            List<String> lines = text.wrap(questions.get(q));
+            if (y - (lines.size() + 4) * LINE_HEIGHT < MARGIN) {
+                cs.close();
+                page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                cs = new PDPageContentStream(document, page);
+                y = PDRectangle.A4.getHeight() - MARGIN;
+            }
+            for (int i = 0; i < lines.size(); i++) {
+                cs.beginText();
+                cs.setFont(text.font(i == 0), 11);
+                cs.newLineAtOffset(MARGIN, y);
+                cs.showText(text.sanitize(lines.get(i), i == 0));
+                cs.endText();
+                y -= LINE_HEIGHT;
+            }
+            for (String option : options.get(q)) {
+                cs.beginText();
+                cs.setFont(text.font(false), 10);
+                cs.newLineAtOffset(MARGIN + 20, y);
+                cs.showText(text.sanitize(option, false));
+                cs.endText();
+                y -= LINE_HEIGHT;
+            }
+            y -= 12;
+        }
+        cs.close();
+    }
+
+    private static PDFont parse(PDDocument document, String path) throws IOException {
+        try (InputStream in = PdfFontBenchmark.class.getResourceAsStream(path)) {
+            return PDType0Font.load(document, in);
+        }
+    }
+
+    private static String probe(String text, PDFont font) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            String ch = new String(Character.toChars(cp));
+            try {
+                font.encode(ch);
+                sb.append(ch);
+            } catch (Exception e) {
+                sb.append('?');
+            }
+            i += Character.charCount(cp);
+        }
+        return sb.toString();
+    }
+
+    private static List<String> wrapByChars(String text, int maxChars) {
+        List<String> lines = new ArrayList<>();
+        while (text.length() > maxChars) {
+            int breakAt = text.lastIndexOf(' ', maxChars);
+            if (breakAt <= 0) breakAt = maxChars;
+            lines.add(text.substring(0, breakAt));
+            text = text.substring(breakAt).trim();
+        }
+        if (!text.isEmpty()) lines.add(text);
+        return lines;
+    }
+}
@@ -0,0 +1,83 @@
+package uz.eduplatform.modules.assessment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uz.eduplatform.modules.content.domain.Question;
+import uz.eduplatform.modules.content.domain.QuestionType;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading throughput for one 40-question attempt: with the plan compiled once and reused, and
+ * with the plan compiled per attempt (the cost every attempt paid before plans were cached).
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradingBenchmark {
+
+    private static final int QUESTIONS = 40;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Question> questions;
+    private List<CompiledQuestion> plan;
+    private List<String> selections;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        questions = new ArrayList<>();
+        selections = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            QuestionType type = switch (i % 4) {
+                case 0, 1 -> QuestionType.MCQ_SINGLE;
+                case 2 -> QuestionType.MCQ_MULTI;
+                default -> QuestionType.TRUE_FALSE;
+            };
+            questions.add(Question.builder()
+                    .id(UUID.randomUUID())
+                    .questionType(type)
+                    .points(new BigDecimal("2.00"))
+                    .options(type == QuestionType.TRUE_FALSE ? null : options(type == QuestionType.MCQ_MULTI))
+                    .correctAnswer(type == QuestionType.TRUE_FALSE ? "true" : null)
+                    .build());
+            selections.add(switch (type) {
+                case MCQ_SINGLE -> "\"" + (char) ('a' + random.nextInt(4)) + "\"";
+                case MCQ_MULTI -> "[\"a\",\"" + (char) ('b' + random.nextInt(3)) + "\"]";
+                default -> String.valueOf(random.nextBoolean());
+            });
+        }
+        plan = questions.stream().map(q -> CompiledQuestion.compile(q, objectMapper)).toList();
+    }
+
+    @Benchmark
+    public void gradeWithCachedPlan(Blackhole bh) {
+        grade(plan, bh);
+    }
+
+    @Benchmark
+    public void gradeCompilingPlanPerAttempt(Blackhole bh) {
+        grade(questions.stream().map(q -> CompiledQuestion.compile(q, objectMapper)).toList(), bh);
+    }
+
+    private void grade(List<CompiledQuestion> compiled, Blackhole bh) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < QUESTIONS; i++) {
+            total = total.add(compiled.get(i).grade(selections.get(i), objectMapper).earned());
+        }
+        bh.consume(total);
+    }
+
+    private static String options(boolean multi) {
+        return "[{\"id\":\"a\",\"isCorrect\":true},{\"id\":\"b\",\"isCorrect\":" + multi + "},"
+                + "{\"id\":\"c\",\"isCorrect\":false},{\"id\":\"d\",\"isCorrect\":false}]";
+    }
+}
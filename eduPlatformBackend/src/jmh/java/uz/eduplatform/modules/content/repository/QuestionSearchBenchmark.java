@@ -0,0 +1,162 @@
+package uz.eduplatform.modules.content.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page plus count of a question search over 1M questions: through the folded
+ * {@code search_text} column and its trigram index, and the way search worked before: LIKE over
+ * four lower-cased JSONB keys, with an exact count.
+ * <p>
+ * Needs a PostgreSQL database migrated to V29 (for {@code pg_trgm}, {@code search_fold} and
+ * {@code search_pattern}), taken from the same environment variables as the application. The
+ * first run seeds the {@code question_search_bench} table, which takes a few minutes; later runs
+ * reuse it. Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=QuestionSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class QuestionSearchBenchmark {
+
+    private static final int QUESTIONS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    private static final String TABLE = "question_search_bench";
+
+    private static final String INDEXED_PAGE = "SELECT q.id FROM " + TABLE + " q WHERE q.deleted_at IS NULL " +
+            "AND " + QuestionRepository.SEARCH_MATCH.replace(":search", "?") + " " +
+            "ORDER BY " + QuestionRepository.SEARCH_RANK.replace(":search", "?") + " LIMIT " + PAGE_SIZE;
+    private static final String INDEXED_COUNT = "SELECT COUNT(*) FROM (SELECT 1 FROM " + TABLE + " q " +
+            "WHERE q.deleted_at IS NULL AND " + QuestionRepository.SEARCH_MATCH.replace(":search", "?") + " " +
+            "LIMIT " + QuestionRepository.SEARCH_COUNT_LIMIT + ") matches";
+
+    private static final String LEGACY_MATCH = "(LOWER(q.question_text ->> 'uz_latn') LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+            " LOWER(q.question_text ->> 'uz_cyrl') LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+            " LOWER(q.question_text ->> 'en') LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+            " LOWER(q.question_text ->> 'ru') LIKE LOWER(CONCAT('%', ?, '%')))";
+    private static final String LEGACY_PAGE = "SELECT q.id FROM " + TABLE + " q WHERE q.deleted_at IS NULL AND " +
+            LEGACY_MATCH + " ORDER BY q.created_at DESC LIMIT " + PAGE_SIZE;
+    private static final String LEGACY_COUNT = "SELECT COUNT(*) FROM " + TABLE + " q WHERE q.deleted_at IS NULL AND " +
+            LEGACY_MATCH;
+
+    // A rare word, a common one, and a Cyrillic spelling of a Latin-only word
+    @Param({"parallelepiped", "tenglama", "учбурчак"})
+    public String term;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("DATABASE_URL", "jdbc:postgresql://localhost:5432/eduplatform"),
+                env("DB_USERNAME", "postgres"),
+                env("DB_PASSWORD", "1234"));
+        if (seededRows() != QUESTIONS) seed();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void indexedSearch(Blackhole bh) throws SQLException {
+        bh.consume(page(INDEXED_PAGE, term, term));
+        bh.consume(count(INDEXED_COUNT, term));
+    }
+
+    @Benchmark
+    public void legacyLikeScan(Blackhole bh) throws SQLException {
+        bh.consume(page(LEGACY_PAGE, term, term, term, term));
+        bh.consume(count(LEGACY_COUNT, term, term, term, term));
+    }
+
+    private int page(String sql, String... params) throws SQLException {
+        try (PreparedStatement ps = prepare(sql, params); ResultSet rs = ps.executeQuery()) {
+            int rows = 0;
+            while (rs.next()) rows++;
+            return rows;
+        }
+    }
+
+    private long count(String sql, String... params) throws SQLException {
+        try (PreparedStatement ps = prepare(sql, params); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private PreparedStatement prepare(String sql, String... params) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql);
+        for (int i = 0; i < params.length; i++) {
+            ps.setString(i + 1, params[i]);
+        }
+        return ps;
+    }
+
+    private long seededRows() throws SQLException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT to_regclass('" + TABLE + "') IS NOT NULL")) {
+            rs.next();
+            if (!rs.getBoolean(1)) return -1;
+        }
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Eight words per locale drawn from small vocabularies; "parallelepiped" lands in about one question in 5,000
+    private void seed() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + TABLE);
+            st.execute("CREATE TABLE " + TABLE + " (" +
+                    "id UUID PRIMARY KEY, " +
+                    "question_text JSONB NOT NULL, " +
+                    "created_at TIMESTAMP NOT NULL, " +
+                    "deleted_at TIMESTAMP, " +
+                    "search_text TEXT GENERATED ALWAYS AS (search_fold(" +
+                    "coalesce(question_text ->> 'uz_latn', '') || E'\\n' || " +
+                    "coalesce(question_text ->> 'uz_cyrl', '') || E'\\n' || " +
+                    "coalesce(question_text ->> 'en', '') || E'\\n' || " +
+                    "coalesce(question_text ->> 'ru', ''))) STORED)");
+            st.execute("CREATE FUNCTION pg_temp.bench_words(seed BIGINT, vocabulary TEXT[]) RETURNS TEXT " +
+                    "LANGUAGE sql IMMUTABLE AS $$ " +
+                    "SELECT string_agg(vocabulary[1 + ((seed * 7919 + k * 104729) % cardinality(vocabulary))::int], ' ') " +
+                    "FROM generate_series(0, 7) k $$");
+            st.execute("INSERT INTO " + TABLE + " (id, question_text, created_at, deleted_at) " +
+                    "SELECT gen_random_uuid(), jsonb_build_object(" +
+                    "  'uz_latn', pg_temp.bench_words(i, ARRAY['tenglama','ildiz','kasr','burchak','uchburchak','perimetr'," +
+                    "      'yuza','hajm','daraja','funksiya','grafik','kvadrat','kub','yig''indi','ko''paytma'," +
+                    "      'toping','hisoblang','soddalashtiring','isbotlang','aylana','radius','vektor']), " +
+                    "  'uz_cyrl', pg_temp.bench_words(i + 1, ARRAY['тенглама','илдиз','каср','бурчак','периметр','юза'," +
+                    "      'ҳажм','даража','функция','график','квадрат','куб','йиғинди','кўпайтма','топинг'," +
+                    "      'ҳисобланг','айлана','радиус','вектор']), " +
+                    "  'en', pg_temp.bench_words(i + 2, ARRAY['equation','root','fraction','angle','triangle','perimeter'," +
+                    "      'area','volume','power','function','graph','square','cube','sum','product','find'," +
+                    "      'compute','simplify','prove','circle','radius','vector']), " +
+                    "  'ru', pg_temp.bench_words(i + 3, ARRAY['уравнение','корень','дробь','угол','треугольник','периметр'," +
+                    "      'площадь','объём','степень','функция','график','квадрат','куб','сумма'," +
+                    "      'произведение','найдите','вычислите','упростите','докажите','окружность'])" +
+                    "  ) || CASE WHEN i % 5000 = 0 THEN jsonb_build_object('en', 'parallelepiped volume') " +
+                    "            ELSE '{}'::jsonb END, " +
+                    "  now() - i * INTERVAL '1 minute', " +
+                    "  CASE WHEN i % 50 = 0 THEN now() END " +
+                    "FROM generate_series(1, " + QUESTIONS + ") i");
+            st.execute("CREATE INDEX ON " + TABLE + " USING gin (search_text gin_trgm_ops) WHERE deleted_at IS NULL");
+            st.execute("ANALYZE " + TABLE);
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
@@ -10,7 +10,10 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_created", columnList = "created_at, id"),
+        @Index(name = "idx_audit_logs_user_created", columnList = "user_id, created_at, id")
+})
 @Getter
 @Setter
 @Builder
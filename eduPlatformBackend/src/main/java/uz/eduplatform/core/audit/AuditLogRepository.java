@@ -3,9 +3,12 @@ package uz.eduplatform.core.audit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -22,4 +25,23 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
             LocalDateTime from, LocalDateTime to, Pageable pageable);
 
     Page<AuditLog> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    long countByUserId(UUID userId);
+
+    // Keyset pages: entries created before the cursor, newest first
+
+    @Query("SELECT a FROM AuditLog a " +
+            "WHERE (a.createdAt, a.id) < (:createdAt, :id) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLog> scrollAll(@Param("createdAt") LocalDateTime createdAt,
+                             @Param("id") UUID id,
+                             Pageable limit);
+
+    @Query("SELECT a FROM AuditLog a WHERE a.userId = :userId " +
+            "AND (a.createdAt, a.id) < (:createdAt, :id) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLog> scrollByUserId(@Param("userId") UUID userId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") UUID id,
+                                  Pageable limit);
 }
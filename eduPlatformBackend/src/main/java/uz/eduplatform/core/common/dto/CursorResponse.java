@@ -0,0 +1,48 @@
+package uz.eduplatform.core.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.eduplatform.core.common.utils.PageCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a cursor listing. Pass {@code nextCursor} back as {@code cursor} for the next
+ * page; it is {@code null} on the last one. {@code totalElements} is only counted on request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+
+    /**
+     * @param rows     up to {@code size + 1} rows from a {@link PageCursor#fetch} query
+     * @param cursorOf position of a row
+     * @param mapper   maps the rows of the page, in order
+     */
+    public static <E, T> CursorResponse<T> of(List<E> rows, int size, Function<E, PageCursor> cursorOf,
+                                              Function<List<E>, List<T>> mapper, Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        return CursorResponse.<T>builder()
+                .content(mapper.apply(page))
+                .size(size)
+                .nextCursor(hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .totalElements(totalElements)
+                .build();
+    }
+}
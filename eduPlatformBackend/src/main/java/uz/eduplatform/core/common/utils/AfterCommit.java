@@ -0,0 +1,47 @@
+package uz.eduplatform.core.common.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory cache updates tied to the current transaction.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Run {@code eviction} now and, inside a transaction, once more after commit: a concurrent
+     * reader may otherwise re-cache the rows as they were before the commit. Caches evicted this
+     * way keep their TTL only as a backstop.
+     */
+    public static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Run {@code update} once the current transaction commits, or now outside one, so memory
+     * never shows a change the database rolled back.
+     */
+    public static void run(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package uz.eduplatform.core.common.utils;
+
+import uz.eduplatform.core.i18n.TranslatedField;
+import uz.eduplatform.modules.auth.domain.User;
+import uz.eduplatform.modules.auth.repository.UserRepository;
+import uz.eduplatform.modules.content.domain.Subject;
+import uz.eduplatform.modules.content.domain.Topic;
+import uz.eduplatform.modules.content.repository.SubjectRepository;
+import uz.eduplatform.modules.content.repository.TopicRepository;
+
+import java.util.*;
+
+/**
+ * Per-request cache of user / subject / topic projections.
+ * <p>
+ * Callers {@code preload*} the IDs a response needs so each entity type is fetched with a
+ * single {@code findAllById}; later lookups are served from memory. A lookup for an ID that
+ * was not preloaded falls back to a batch fetch of just that ID, and misses are remembered too.
+ * <p>
+ * Instances are not thread-safe; obtain one via {@link LookupResolver#context()}.
+ */
+public class LookupContext {
+
+    public record UserRef(UUID id, String firstName, String lastName, String email) {
+        public String fullName() {
+            return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+    private final TopicRepository topicRepository;
+
+    // Optional.empty() marks an ID that was looked up and not found
+    private final Map<UUID, Optional<UserRef>> users = new HashMap<>();
+    private final Map<UUID, Optional<Map<String, String>>> subjectNames = new HashMap<>();
+    private final Map<UUID, Optional<Map<String, String>>> topicNames = new HashMap<>();
+
+    LookupContext(UserRepository userRepository, SubjectRepository subjectRepository,
+                  TopicRepository topicRepository) {
+        this.userRepository = userRepository;
+        this.subjectRepository = subjectRepository;
+        this.topicRepository = topicRepository;
+    }
+
+    // ==================== Preload ====================
+
+    public LookupContext preloadUsers(Collection<UUID> ids) {
+        List<UUID> missing = missing(users, ids);
+        if (missing.isEmpty()) return this;
+        for (User u : userRepository.findAllById(missing)) {
+            users.put(u.getId(), Optional.of(new UserRef(u.getId(), u.getFirstName(), u.getLastName(), u.getEmail())));
+        }
+        missing.forEach(id -> users.putIfAbsent(id, Optional.empty()));
+        return this;
+    }
+
+    public LookupContext preloadSubjects(Collection<UUID> ids) {
+        List<UUID> missing = missing(subjectNames, ids);
+        if (missing.isEmpty()) return this;
+        for (Subject s : subjectRepository.findAllById(missing)) {
+            subjectNames.put(s.getId(), Optional.ofNullable(s.getName()));
+        }
+        missing.forEach(id -> subjectNames.putIfAbsent(id, Optional.empty()));
+        return this;
+    }
+
+    public LookupContext preloadTopics(Collection<UUID> ids) {
+        List<UUID> missing = missing(topicNames, ids);
+        if (missing.isEmpty()) return this;
+        for (Topic t : topicRepository.findAllById(missing)) {
+            topicNames.put(t.getId(), Optional.ofNullable(t.getName()));
+        }
+        missing.forEach(id -> topicNames.putIfAbsent(id, Optional.empty()));
+        return this;
+    }
+
+    // ==================== Lookup ====================
+
+    public Optional<UserRef> user(UUID id) {
+        if (id == null) return Optional.empty();
+        preloadUsers(List.of(id));
+        return users.get(id);
+    }
+
+    /** "First Last", or {@code null} if the user does not exist. */
+    public String userFullName(UUID id) {
+        return user(id).map(UserRef::fullName).orElse(null);
+    }
+
+    /** Subject name in the current locale, or {@code null} if unknown. */
+    public String subjectName(UUID id) {
+        if (id == null) return null;
+        preloadSubjects(List.of(id));
+        return subjectNames.get(id).map(TranslatedField::resolve).orElse(null);
+    }
+
+    /** Topic name in the current locale, or {@code null} if unknown. */
+    public String topicName(UUID id) {
+        if (id == null) return null;
+        preloadTopics(List.of(id));
+        return topicNames.get(id).map(TranslatedField::resolve).orElse(null);
+    }
+
+    private static <V> List<UUID> missing(Map<UUID, V> cache, Collection<UUID> ids) {
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            if (id != null && !cache.containsKey(id)) missing.add(id);
+        }
+        return missing;
+    }
+}
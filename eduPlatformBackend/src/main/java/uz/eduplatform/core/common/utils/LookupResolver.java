@@ -0,0 +1,43 @@
+package uz.eduplatform.core.common.utils;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import uz.eduplatform.modules.auth.repository.UserRepository;
+import uz.eduplatform.modules.content.repository.SubjectRepository;
+import uz.eduplatform.modules.content.repository.TopicRepository;
+
+/**
+ * Hands out the {@link LookupContext} for the current HTTP request, so every service
+ * that builds part of a response shares one name/subject/topic cache.
+ * Outside a request (schedulers, async jobs) each call gets a fresh, unshared context.
+ */
+@Component
+@RequiredArgsConstructor
+public class LookupResolver {
+
+    private static final String ATTRIBUTE = LookupContext.class.getName();
+
+    private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+    private final TopicRepository topicRepository;
+
+    public LookupContext context() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return newContext();
+        }
+        Object existing = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (existing instanceof LookupContext ctx) {
+            return ctx;
+        }
+        LookupContext ctx = newContext();
+        attributes.setAttribute(ATTRIBUTE, ctx, RequestAttributes.SCOPE_REQUEST);
+        return ctx;
+    }
+
+    public LookupContext newContext() {
+        return new LookupContext(userRepository, subjectRepository, topicRepository);
+    }
+}
@@ -0,0 +1,63 @@
+package uz.eduplatform.core.common.utils;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import uz.eduplatform.core.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a newest-first listing: the {@code (created_at, id)} of the last row a client has
+ * seen. The next page is the rows strictly before it, which an index on
+ * {@code (..., created_at, id)} serves in constant time however deep the client has scrolled.
+ * <p>
+ * Clients only see the opaque {@link #encode() token}.
+ */
+public record PageCursor(LocalDateTime createdAt, UUID id) {
+
+    public static final int MAX_SIZE = 100;
+
+    // Sorts after every real row, so the first page needs no separate query
+    public static final PageCursor FIRST = new PageCursor(LocalDateTime.of(9999, 12, 31, 0, 0), new UUID(-1L, -1L));
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * @return the position {@code token} names, or {@link #FIRST} when there is none
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) return FIRST;
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = text.indexOf(SEPARATOR);
+            if (separator < 0) throw BusinessException.ofKey("error.cursor.invalid");
+            return new PageCursor(LocalDateTime.parse(text.substring(0, separator)),
+                    UUID.fromString(text.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw BusinessException.ofKey("error.cursor.invalid");
+        }
+    }
+
+    public String encode() {
+        String text = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Page size actually served for a requested {@code size}, between 1 and {@link #MAX_SIZE}.
+     */
+    public static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Limit for a keyset query: one row past the page tells whether there is a next one.
+     */
+    public static Pageable fetch(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+}
@@ -10,6 +10,7 @@ import uz.eduplatform.modules.content.domain.Topic;
 import uz.eduplatform.modules.content.repository.QuestionRepository;
 import uz.eduplatform.modules.content.repository.SubjectRepository;
 import uz.eduplatform.modules.content.repository.TopicRepository;
+import uz.eduplatform.modules.content.service.QuestionCandidateIndex;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,6 +24,7 @@ public class SoftDeleteCascadeService {
     private final SubjectRepository subjectRepository;
     private final TopicRepository topicRepository;
     private final QuestionRepository questionRepository;
+    private final QuestionCandidateIndex candidateIndex;
 
     @Transactional
     public void softDeleteSubject(UUID subjectId) {
@@ -62,5 +64,6 @@ public class SoftDeleteCascadeService {
 
         // Cascade to questions via native query
         questionRepository.softDeleteByTopicId(topic.getId(), now);
+        candidateIndex.evictTopic(topic.getId());
     }
 }
@@ -0,0 +1,129 @@
+package uz.eduplatform.core.common.utils;
+
+import java.util.*;
+
+/**
+ * Hierarchical timer wheel: four levels of 64 slots, each level covering 64 times the span of
+ * the one below. With one-second ticks, level 0 covers about a minute, level 1 about an hour,
+ * level 2 about three days and level 3 about six months. Timers further out are parked in the
+ * top level and re-placed each time it cascades.
+ * <p>
+ * Scheduling and cancelling are O(1); {@link #advance(long)} costs one slot per elapsed tick
+ * plus the occasional cascade, however many timers are pending. Not tied to any thread: the
+ * owner calls {@code advance} periodically and acts on the keys it returns. All methods are
+ * synchronized.
+ *
+ * @param <K> timer key; scheduling a key again replaces its previous deadline
+ */
+public class TimerWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final List<List<Set<K>>> wheels = new ArrayList<>(LEVELS);
+    private final Map<K, Timer> timers = new HashMap<>();
+    private long currentTick;
+
+    public TimerWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<K>> slots = new ArrayList<>(SLOTS);
+            for (int i = 0; i < SLOTS; i++) {
+                slots.add(new HashSet<>());
+            }
+            wheels.add(slots);
+        }
+    }
+
+    /**
+     * Fire {@code key} at the first tick at or after {@code deadlineMillis}. Deadlines already
+     * passed fire on the next {@link #advance(long)}.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        place(key, tick);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer timer = timers.remove(key);
+        if (timer == null) return false;
+        wheels.get(timer.level()).get(timer.slot()).remove(key);
+        return true;
+    }
+
+    /**
+     * Move the wheel forward to {@code nowMillis} and return the keys whose deadline was
+     * reached, in deadline order.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+
+            Set<K> slot = wheels.get(0).get((int) (currentTick & MASK));
+            if (slot.isEmpty()) continue;
+            List<K> due = new ArrayList<>(slot);
+            slot.clear();
+            for (K key : due) {
+                Timer timer = timers.remove(key);
+                if (timer.tick() <= currentTick) {
+                    expired.add(key);
+                } else {
+                    place(key, timer.tick());
+                }
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    public synchronized boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    // On every 64th tick pull the current slot of the next level down, recursing upward
+    // while the lower index wraps to zero.
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            long lowerBits = currentTick & ((1L << (SLOT_BITS * level)) - 1);
+            if (lowerBits != 0) return;
+
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & MASK);
+            Set<K> slot = wheels.get(level).get(index);
+            if (slot.isEmpty()) continue;
+            List<K> moving = new ArrayList<>(slot);
+            slot.clear();
+            for (K key : moving) {
+                place(key, timers.remove(key).tick());
+            }
+        }
+    }
+
+    private void place(K key, long tick) {
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Beyond the top level's span: park one rotation out and re-place on cascade
+        long slotTick = delta >= MAX_SPAN ? currentTick + MAX_SPAN - 1 : tick;
+        int slot = (int) ((slotTick >>> (SLOT_BITS * level)) & MASK);
+        wheels.get(level).get(slot).add(key);
+        timers.put(key, new Timer(tick, level, slot));
+    }
+
+    private record Timer(long tick, int level, int slot) {
+    }
+}
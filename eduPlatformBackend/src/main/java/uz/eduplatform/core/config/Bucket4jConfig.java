@@ -2,61 +2,61 @@ package uz.eduplatform.core.config;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import uz.eduplatform.core.ratelimit.InMemoryRateLimitStore;
+import uz.eduplatform.core.ratelimit.JdbcRateLimitStore;
+import uz.eduplatform.core.ratelimit.RateLimitStore;
 
+import javax.sql.DataSource;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Configuration
 public class Bucket4jConfig {
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    /**
+     * {@code memory} keeps buckets per node; {@code jdbc} shares them between replicas through
+     * PostgreSQL.
+     */
+    @Bean
+    public RateLimitStore rateLimitStore(@Value("${app.rate-limit.store:memory}") String store,
+                                         @Value("${app.rate-limit.max-buckets-per-limiter:100000}") long maxBuckets,
+                                         MeterRegistry meterRegistry,
+                                         DataSource dataSource) {
+        if ("jdbc".equalsIgnoreCase(store)) {
+            return new JdbcRateLimitStore(meterRegistry, dataSource);
+        }
+        return new InMemoryRateLimitStore(meterRegistry, maxBuckets);
+    }
 
     @Bean(name = "otpSendRateLimiter")
-    public Function<String, Bucket> otpSendBucketResolver() {
-        return key -> buckets.computeIfAbsent("otp_send:" + key, k ->
-                Bucket.builder()
-                        .addLimit(Bandwidth.classic(
-                                3, Refill.intervally(3, Duration.ofMinutes(5))
-                        ))
-                        .build()
-        );
+    public Function<String, Bucket> otpSendBucketResolver(RateLimitStore rateLimitStore) {
+        return rateLimitStore.limiter("otp_send", limit(3, Duration.ofMinutes(5)));
     }
 
     @Bean(name = "otpVerifyRateLimiter")
-    public Function<String, Bucket> otpVerifyBucketResolver() {
-        return key -> buckets.computeIfAbsent("otp_verify:" + key, k ->
-                Bucket.builder()
-                        .addLimit(Bandwidth.classic(
-                                5, Refill.intervally(5, Duration.ofMinutes(5))
-                        ))
-                        .build()
-        );
+    public Function<String, Bucket> otpVerifyBucketResolver(RateLimitStore rateLimitStore) {
+        return rateLimitStore.limiter("otp_verify", limit(5, Duration.ofMinutes(5)));
     }
 
     @Bean(name = "paymentInitiateRateLimiter")
-    public Function<String, Bucket> paymentInitiateBucketResolver() {
-        return key -> buckets.computeIfAbsent("payment_initiate:" + key, k ->
-                Bucket.builder()
-                        .addLimit(Bandwidth.classic(
-                                5, Refill.intervally(5, Duration.ofMinutes(15))
-                        ))
-                        .build()
-        );
+    public Function<String, Bucket> paymentInitiateBucketResolver(RateLimitStore rateLimitStore) {
+        return rateLimitStore.limiter("payment_initiate", limit(5, Duration.ofMinutes(15)));
     }
 
     @Bean(name = "promoCodeRedeemRateLimiter")
-    public Function<String, Bucket> promoCodeRedeemBucketResolver() {
-        return key -> buckets.computeIfAbsent("promo_redeem:" + key, k ->
-                Bucket.builder()
-                        .addLimit(Bandwidth.classic(
-                                5, Refill.intervally(5, Duration.ofMinutes(5))
-                        ))
-                        .build()
-        );
+    public Function<String, Bucket> promoCodeRedeemBucketResolver(RateLimitStore rateLimitStore) {
+        return rateLimitStore.limiter("promo_redeem", limit(5, Duration.ofMinutes(5)));
+    }
+
+    private static BucketConfiguration limit(long tokens, Duration period) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(tokens, Refill.intervally(tokens, period)))
+                .build();
     }
 }
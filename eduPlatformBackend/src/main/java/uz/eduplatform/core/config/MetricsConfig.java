@@ -79,4 +79,20 @@ public class MetricsConfig {
                 .tag("type", "total")
                 .register(registry);
     }
+
+    @Bean
+    public Counter liveProgressFramesInCounter(MeterRegistry registry) {
+        return Counter.builder("websocket.progress.frames.in")
+                .description("Live monitoring events published before coalescing")
+                .tag("type", "total")
+                .register(registry);
+    }
+
+    @Bean
+    public Counter liveProgressFramesOutCounter(MeterRegistry registry) {
+        return Counter.builder("websocket.progress.frames.out")
+                .description("Live monitoring frames sent to the STOMP broker")
+                .tag("type", "total")
+                .register(registry);
+    }
 }
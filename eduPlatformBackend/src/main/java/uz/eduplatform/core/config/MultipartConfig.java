@@ -0,0 +1,60 @@
+package uz.eduplatform.core.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.List;
+
+/**
+ * Upload limits. {@code spring.servlet.multipart} stays the limit for ordinary uploads; only the
+ * scanned answer sheet route may send up to {@code app.omr.max-file-size}.
+ */
+@Configuration
+public class MultipartConfig {
+
+    private static final List<String> LARGE_UPLOAD_PATTERNS = List.of("/api/v1/assignments/*/answer-sheets/scans");
+
+    private final MultipartProperties properties;
+    private final DataSize largeMaxFileSize;
+    private final DataSize largeMaxRequestSize;
+
+    public MultipartConfig(MultipartProperties properties,
+                           @Value("${app.omr.max-file-size:200MB}") DataSize largeMaxFileSize,
+                           @Value("${app.omr.max-request-size:210MB}") DataSize largeMaxRequestSize) {
+        this.properties = properties;
+        this.largeMaxFileSize = largeMaxFileSize;
+        this.largeMaxRequestSize = largeMaxRequestSize;
+    }
+
+    // The servlet container applies one limit to every route, so it gets the largest one
+    @Bean
+    public MultipartConfigElement multipartConfigElement() {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(properties.getLocation());
+        factory.setFileSizeThreshold(properties.getFileSizeThreshold());
+        factory.setMaxFileSize(largest(properties.getMaxFileSize(), largeMaxFileSize));
+        factory.setMaxRequestSize(largest(properties.getMaxRequestSize(), largeMaxRequestSize));
+        return factory.createMultipartConfig();
+    }
+
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public MultipartResolver multipartResolver() {
+        RouteLimitedMultipartResolver resolver = new RouteLimitedMultipartResolver(
+                properties.getMaxFileSize().toBytes(), properties.getMaxRequestSize().toBytes(),
+                LARGE_UPLOAD_PATTERNS);
+        resolver.setResolveLazily(properties.isResolveLazily());
+        resolver.setStrictServletCompliance(properties.isStrictServletCompliance());
+        return resolver;
+    }
+
+    private static DataSize largest(DataSize a, DataSize b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,65 @@
+package uz.eduplatform.core.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.List;
+
+/**
+ * Enforces the default upload limits on every route except the few that take bulk uploads.
+ * The servlet's own multipart limits are set to the bulk ceiling, since they cannot vary per path.
+ */
+public class RouteLimitedMultipartResolver extends StandardServletMultipartResolver {
+
+    private final long maxFileSize;
+    private final long maxRequestSize;
+    private final List<String> largeUploadPatterns;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public RouteLimitedMultipartResolver(long maxFileSize, long maxRequestSize, List<String> largeUploadPatterns) {
+        this.maxFileSize = maxFileSize;
+        this.maxRequestSize = maxRequestSize;
+        this.largeUploadPatterns = largeUploadPatterns;
+    }
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        if (allowsLargeUploads(request)) {
+            return super.resolveMultipart(request);
+        }
+        // Refuse by the declared length before anything is spooled to disk
+        if (request.getContentLengthLong() > maxRequestSize) {
+            throw new MaxUploadSizeExceededException(maxRequestSize);
+        }
+
+        MultipartHttpServletRequest multipart = super.resolveMultipart(request);
+        // Chunked requests declare no length, so the parsed parts are checked as well
+        long total = 0;
+        for (List<MultipartFile> files : multipart.getMultiFileMap().values()) {
+            for (MultipartFile file : files) {
+                total += file.getSize();
+                if (file.getSize() > maxFileSize || total > maxRequestSize) {
+                    cleanupMultipart(multipart);
+                    throw new MaxUploadSizeExceededException(file.getSize() > maxFileSize ? maxFileSize : maxRequestSize);
+                }
+            }
+        }
+        return multipart;
+    }
+
+    private boolean allowsLargeUploads(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (String pattern : largeUploadPatterns) {
+            if (pathMatcher.match(pattern, path)) return true;
+        }
+        return false;
+    }
+}
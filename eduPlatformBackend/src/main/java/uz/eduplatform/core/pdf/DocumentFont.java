@@ -0,0 +1,24 @@
+package uz.eduplatform.core.pdf;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.util.List;
+
+/**
+ * A {@link PdfFont} embedded in one document: the {@link PDFont} to draw with, plus the shared
+ * face's cached metrics for preparing text.
+ */
+public record DocumentFont(PDFont font, PdfFont face) {
+
+    public String sanitize(String text) {
+        return face.sanitize(text);
+    }
+
+    public float width(String text, float fontSize) {
+        return face.width(text, fontSize);
+    }
+
+    public List<String> wrap(String text, float fontSize, float maxWidth) {
+        return face.wrap(text, fontSize, maxWidth);
+    }
+}
@@ -0,0 +1,217 @@
+package uz.eduplatform.core.pdf;
+
+import org.apache.fontbox.ttf.CmapLookup;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One TrueType face, parsed once and shared by every document. PDFBox reads the font's tables
+ * under its own locks, so documents rendered on different threads can embed it at the same time;
+ * {@link #embedIn} gives each document its own subset.
+ * <p>
+ * Glyph coverage and advance widths of the Basic Multilingual Plane are tabulated when the font
+ * is parsed, so sanitizing, measuring and wrapping text are array lookups.
+ */
+public final class PdfFont implements Closeable {
+
+    private static final int BMP_SIZE = 0x10000;
+    private static final float NO_GLYPH = -1;
+
+    private final String name;
+    private final TrueTypeFont ttf;
+    private final CmapLookup cmap;
+    // Font units to PDF glyph space (1000 per em)
+    private final float scale;
+    // Advance width per BMP code point in glyph space, NO_GLYPH where the font has none
+    private final float[] advances;
+
+    private PdfFont(String name, TrueTypeFont ttf) throws IOException {
+        this.name = name;
+        this.ttf = ttf;
+        this.cmap = ttf.getUnicodeCmapLookup();
+        this.scale = 1000f / ttf.getUnitsPerEm();
+        this.advances = new float[BMP_SIZE];
+        Arrays.fill(advances, NO_GLYPH);
+        for (int cp = 0; cp < BMP_SIZE; cp++) {
+            if (Character.isSurrogate((char) cp)) continue;
+            int gid = cmap.getGlyphId(cp);
+            if (gid != 0) advances[cp] = ttf.getAdvanceWidth(gid) * scale;
+        }
+    }
+
+    static PdfFont parse(String name, InputStream in) throws IOException {
+        TrueTypeFont ttf = new TTFParser().parse(in);
+        try {
+            return new PdfFont(name, ttf);
+        } catch (IOException | RuntimeException e) {
+            ttf.close();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Embed this face (as a subset) into {@code document}. The parsed font stays owned by this
+     * object; closing the document does not close it.
+     */
+    public DocumentFont embedIn(PDDocument document) throws IOException {
+        return new DocumentFont(PDType0Font.load(document, ttf, true), this);
+    }
+
+    public boolean canDisplay(int codePoint) {
+        return advance(codePoint) != NO_GLYPH;
+    }
+
+    /**
+     * {@code text} with every character the font has no glyph for replaced by an ASCII
+     * stand-in, so it can be shown without PDFBox rejecting it. Returns {@code text} itself
+     * when nothing needs replacing.
+     */
+    public String sanitize(String text) {
+        if (text == null || text.isEmpty()) return "";
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            if (!canDisplay(cp)) break;
+            i += Character.charCount(cp);
+        }
+        if (i == text.length()) return text;
+
+        StringBuilder sb = new StringBuilder(text.length() + 8).append(text, 0, i);
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            if (canDisplay(cp)) {
+                sb.appendCodePoint(cp);
+            } else {
+                sb.append(replacement(cp));
+            }
+            i += Character.charCount(cp);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Width of already sanitized {@code text} at {@code fontSize}, in PDF units.
+     */
+    public float width(String text, float fontSize) {
+        float width = 0;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            width += Math.max(advance(cp), 0);
+            i += Character.charCount(cp);
+        }
+        return width / 1000 * fontSize;
+    }
+
+    /**
+     * Sanitize {@code text} and break it into lines no wider than {@code maxWidth} at
+     * {@code fontSize}: at the last space that fits, or mid-word when a word alone is too wide.
+     * Newlines always break; empty lines are dropped.
+     */
+    public List<String> wrap(String text, float fontSize, float maxWidth) {
+        List<String> lines = new ArrayList<>();
+        if (text == null) return lines;
+        float limit = maxWidth * 1000 / fontSize;
+        for (String paragraph : text.split("\n")) {
+            wrapParagraph(sanitize(paragraph), limit, lines);
+        }
+        return lines;
+    }
+
+    private void wrapParagraph(String text, float limit, List<String> lines) {
+        int start = 0;           // first char of the current line
+        int space = -1;          // last space on the current line
+        float width = 0;         // of text[start, i)
+        float widthToSpace = 0;  // of text[start, space]
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            int next = i + Character.charCount(cp);
+            float advance = Math.max(advance(cp), 0);
+
+            if (cp == ' ') {
+                if (width + advance > limit) {
+                    // Break on this space and drop it
+                    if (i > start) lines.add(text.substring(start, i));
+                    start = next;
+                    space = -1;
+                    width = 0;
+                    i = next;
+                    continue;
+                }
+                space = i;
+                widthToSpace = width + advance;
+            } else {
+                if (width + advance > limit && space >= start) {
+                    lines.add(text.substring(start, space));
+                    start = space + 1;
+                    width -= widthToSpace;
+                    space = -1;
+                }
+                if (width + advance > limit && i > start) {
+                    lines.add(text.substring(start, i));
+                    start = i;
+                    width = 0;
+                }
+            }
+            width += advance;
+            i = next;
+        }
+        if (start < text.length()) lines.add(text.substring(start));
+    }
+
+    private float advance(int codePoint) {
+        if (codePoint < BMP_SIZE) return advances[codePoint];
+        try {
+            int gid = cmap.getGlyphId(codePoint);
+            return gid != 0 ? ttf.getAdvanceWidth(gid) * scale : NO_GLYPH;
+        } catch (IOException e) {
+            return NO_GLYPH;
+        }
+    }
+
+    private static String replacement(int codePoint) {
+        return switch (codePoint) {
+            case 0x221A -> "sqrt";   // √
+            case 0x03C0 -> "pi";     // π
+            case 0x2211 -> "sum";    // ∑
+            case 0x222B -> "int";    // ∫
+            case 0x2260 -> "!=";     // ≠
+            case 0x2264 -> "<=";     // ≤
+            case 0x2265 -> ">=";     // ≥
+            case 0x00B2 -> "^2";     // ²
+            case 0x00B3 -> "^3";     // ³
+            case 0x2248 -> "~=";     // ≈
+            case 0x221E -> "inf";    // ∞
+            case 0x00B1 -> "+/-";    // ±
+            case 0x00D7 -> "*";      // ×
+            case 0x00F7 -> "/";      // ÷
+            case 0x2013 -> "-";      // –
+            case 0x2014 -> "--";     // —
+            case 0x2018, 0x2019 -> "'";  // ' '
+            case 0x201C, 0x201D -> "\""; // " "
+            case 0x2026 -> "...";    // …
+            case 0x0394 -> "delta";  // Δ
+            case 0x03B1 -> "alpha";  // α
+            case 0x03B2 -> "beta";   // β
+            case 0x03B3 -> "gamma";  // γ
+            default -> "?";
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        ttf.close();
+    }
+}
@@ -0,0 +1,55 @@
+package uz.eduplatform.core.pdf;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The Unicode fonts used for every generated PDF, parsed once per process. A missing or broken
+ * font fails startup instead of the first export.
+ */
+@Slf4j
+@Component
+public class PdfFonts {
+
+    static final String REGULAR_PATH = "/fonts/NotoSans-Regular.ttf";
+    static final String BOLD_PATH = "/fonts/NotoSans-Bold.ttf";
+
+    private final PdfFont regular;
+    private final PdfFont bold;
+
+    public PdfFonts() {
+        this.regular = read(REGULAR_PATH);
+        this.bold = read(BOLD_PATH);
+        log.info("PDF fonts loaded: {}, {}", regular.getName(), bold.getName());
+    }
+
+    public PdfFont regular() {
+        return regular;
+    }
+
+    public PdfFont bold() {
+        return bold;
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        regular.close();
+        bold.close();
+    }
+
+    private static PdfFont read(String path) {
+        try (InputStream in = PdfFonts.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Required font missing: " + path
+                        + ". PDF export will not work without Unicode fonts.");
+            }
+            return PdfFont.parse(path.substring(path.lastIndexOf('/') + 1), in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse font " + path + ": " + e.getMessage(), e);
+        }
+    }
+}
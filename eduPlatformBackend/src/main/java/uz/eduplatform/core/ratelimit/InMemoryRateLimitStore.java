@@ -0,0 +1,54 @@
+package uz.eduplatform.core.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.BucketListener;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Buckets kept on this node, one Caffeine cache per namespace bounded by
+ * {@code maxBucketsPerLimiter} and expiring after a full refill period without use. Limits are
+ * per node, so behind a load balancer each replica enforces its own.
+ */
+public class InMemoryRateLimitStore extends RateLimitStore {
+
+    private final long maxBucketsPerLimiter;
+    private final Map<String, Cache<String, Bucket>> namespaces = new ConcurrentHashMap<>();
+
+    public InMemoryRateLimitStore(MeterRegistry meterRegistry, long maxBucketsPerLimiter) {
+        super(meterRegistry);
+        this.maxBucketsPerLimiter = maxBucketsPerLimiter;
+    }
+
+    @Override
+    protected Function<String, Bucket> resolver(String namespace, BucketConfiguration configuration,
+                                                BucketListener listener) {
+        Cache<String, Bucket> buckets = Caffeine.newBuilder()
+                .maximumSize(maxBucketsPerLimiter)
+                .expireAfterAccess(fullRefillTime(configuration))
+                .build();
+        namespaces.put(namespace, buckets);
+
+        return key -> buckets.get(key, k -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : configuration.getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build().toListenable(listener);
+        });
+    }
+
+    @Override
+    protected long liveBuckets(String namespace) {
+        Cache<String, Bucket> buckets = namespaces.get(namespace);
+        return buckets != null ? buckets.estimatedSize() : 0;
+    }
+}
@@ -0,0 +1,190 @@
+package uz.eduplatform.core.ratelimit;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.BucketExceptions;
+import io.github.bucket4j.BucketListener;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.AbstractSelectForUpdateBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.LockAndGetResult;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.SelectForUpdateBasedTransaction;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Buckets shared by every replica through the {@code rate_limit_buckets} table. Each consume
+ * runs in its own short transaction on a pooled connection, locking the bucket row with
+ * {@code SELECT ... FOR UPDATE}.
+ * <p>
+ * A row records when its bucket will be full again; {@link #purgeExpired()} deletes rows past
+ * that time.
+ */
+@Slf4j
+public class JdbcRateLimitStore extends RateLimitStore {
+
+    private final PostgresProxyManager proxyManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, AtomicLong> liveBuckets = new ConcurrentHashMap<>();
+
+    public JdbcRateLimitStore(MeterRegistry meterRegistry, DataSource dataSource) {
+        super(meterRegistry);
+        this.proxyManager = new PostgresProxyManager(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    protected Function<String, Bucket> resolver(String namespace, BucketConfiguration configuration,
+                                                BucketListener listener) {
+        liveBuckets.put(namespace, new AtomicLong());
+        String prefix = namespace + ":";
+        return key -> proxyManager.builder().build(prefix + key, () -> configuration).toListenable(listener);
+    }
+
+    @Override
+    protected long liveBuckets(String namespace) {
+        AtomicLong count = liveBuckets.get(namespace);
+        return count != null ? count.get() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.jdbc.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE expires_at < NOW()");
+        if (deleted > 0) {
+            log.debug("Purged {} refilled rate-limit buckets", deleted);
+        }
+
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT split_part(id, ':', 1), COUNT(*) FROM rate_limit_buckets GROUP BY 1",
+                rs -> {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                });
+        liveBuckets.forEach((namespace, count) -> count.set(counts.getOrDefault(namespace, 0L)));
+    }
+
+    static final class PostgresProxyManager extends AbstractSelectForUpdateBasedProxyManager<String> {
+
+        private static final String SELECT_FOR_UPDATE = "SELECT state FROM rate_limit_buckets WHERE id = ? FOR UPDATE";
+        // A row that is never updated (failed first consume) is purged after an hour
+        private static final String INSERT_EMPTY = "INSERT INTO rate_limit_buckets (id, state, expires_at) "
+                + "VALUES (?, NULL, NOW() + INTERVAL '1 hour') ON CONFLICT (id) DO NOTHING";
+        private static final String UPDATE = "UPDATE rate_limit_buckets SET state = ?, expires_at = ? WHERE id = ?";
+
+        private final DataSource dataSource;
+
+        PostgresProxyManager(DataSource dataSource) {
+            super(ClientSideConfig.getDefault());
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void removeProxy(String key) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("DELETE FROM rate_limit_buckets WHERE id = ?")) {
+                statement.setString(1, key);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        protected SelectForUpdateBasedTransaction allocateTransaction(String key) {
+            Connection connection;
+            try {
+                connection = dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+            return new RowLockTransaction(connection, key);
+        }
+    }
+
+    private record RowLockTransaction(Connection connection, String key) implements SelectForUpdateBasedTransaction {
+
+        @Override
+        public void begin() {
+            run(() -> connection.setAutoCommit(false));
+        }
+
+        @Override
+        public void commit() {
+            run(connection::commit);
+        }
+
+        @Override
+        public void rollback() {
+            run(connection::rollback);
+        }
+
+        @Override
+        public LockAndGetResult tryLockAndGet() {
+            try (PreparedStatement statement = connection.prepareStatement(PostgresProxyManager.SELECT_FOR_UPDATE)) {
+                statement.setString(1, key);
+                try (ResultSet rs = statement.executeQuery()) {
+                    return rs.next() ? LockAndGetResult.locked(rs.getBytes(1)) : LockAndGetResult.notLocked();
+                }
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public boolean tryInsertEmptyData() {
+            try (PreparedStatement statement = connection.prepareStatement(PostgresProxyManager.INSERT_EMPTY)) {
+                statement.setString(1, key);
+                statement.executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public void update(byte[] data, RemoteBucketState newState) {
+            long nowMillis = System.currentTimeMillis();
+            long refillMillis = newState.calculateFullRefillingTime(nowMillis * 1_000_000) / 1_000_000;
+            try (PreparedStatement statement = connection.prepareStatement(PostgresProxyManager.UPDATE)) {
+                statement.setBytes(1, data);
+                statement.setTimestamp(2, new Timestamp(nowMillis + refillMillis));
+                statement.setString(3, key);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+
+        @Override
+        public void release() {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+                // The pool resets or discards the connection either way
+            }
+            run(connection::close);
+        }
+
+        private static void run(SqlAction action) {
+            try {
+                action.run();
+            } catch (SQLException e) {
+                throw new BucketExceptions.BucketExecutionException(e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,94 @@
+package uz.eduplatform.core.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.BucketListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Storage for rate-limit buckets, one namespace per limiter (e.g. {@code otp_send}). Every
+ * limiter reports {@code ratelimit.requests} (tagged {@code outcome=allowed|rejected}) and
+ * {@code ratelimit.buckets} (live buckets), both tagged with the limiter name.
+ * <p>
+ * Buckets are dropped once they have been idle long enough to refill completely, so a dropped
+ * bucket and a freshly created one behave the same.
+ */
+public abstract class RateLimitStore {
+
+    private final MeterRegistry meterRegistry;
+
+    protected RateLimitStore(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * A resolver from key (phone, email, user id) to that key's bucket in {@code namespace}.
+     */
+    public final Function<String, Bucket> limiter(String namespace, BucketConfiguration configuration) {
+        BucketListener listener = new MeteredListener(
+                requestCounter(namespace, "allowed"), requestCounter(namespace, "rejected"));
+        Function<String, Bucket> resolver = resolver(namespace, configuration, listener);
+
+        Gauge.builder("ratelimit.buckets", this, store -> store.liveBuckets(namespace))
+                .description("Rate-limit buckets currently stored")
+                .tag("limiter", namespace)
+                .register(meterRegistry);
+        return resolver;
+    }
+
+    protected abstract Function<String, Bucket> resolver(String namespace, BucketConfiguration configuration,
+                                                         BucketListener listener);
+
+    protected abstract long liveBuckets(String namespace);
+
+    /**
+     * Longest time any limit of the configuration needs to refill from empty to capacity.
+     */
+    static Duration fullRefillTime(BucketConfiguration configuration) {
+        long nanos = 0;
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            long periods = (bandwidth.getCapacity() + bandwidth.getRefillTokens() - 1) / bandwidth.getRefillTokens();
+            nanos = Math.max(nanos, periods * bandwidth.getRefillPeriodNanos());
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    private Counter requestCounter(String namespace, String outcome) {
+        return Counter.builder("ratelimit.requests")
+                .description("Rate-limited requests by outcome")
+                .tag("limiter", namespace)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record MeteredListener(Counter allowed, Counter rejected) implements BucketListener {
+
+        @Override
+        public void onConsumed(long tokens) {
+            allowed.increment();
+        }
+
+        @Override
+        public void onRejected(long tokens) {
+            rejected.increment();
+        }
+
+        @Override
+        public void onParked(long nanos) {
+        }
+
+        @Override
+        public void onInterrupted(InterruptedException e) {
+        }
+
+        @Override
+        public void onDelayed(long nanos) {
+        }
+    }
+}
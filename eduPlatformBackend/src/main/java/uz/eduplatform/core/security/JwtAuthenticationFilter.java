@@ -1,5 +1,6 @@
 package uz.eduplatform.core.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider tokenProvider;
     private final UserRepository userRepository;
     private final TokenBlacklistService tokenBlacklistService;
+    private final UserPrincipalCache principalCache;
 
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
@@ -60,26 +62,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String tokenType = tokenProvider.getTokenType(jwt);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseValidClaims(jwt) : null;
+            if (claims != null) {
+                String tokenType = claims.get("type", String.class);
                 if (!"ACCESS".equals(tokenType)) {
                     log.debug("Non-ACCESS token type '{}' used for request: {}", tokenType, request.getServletPath());
                     filterChain.doFilter(request, response);
                     return;
                 }
 
-                String jti = tokenProvider.getJtiFromToken(jwt);
+                String jti = claims.getId();
                 if (jti != null && tokenBlacklistService.isBlacklisted(jti)) {
                     log.warn("Blacklisted token used, JTI: {}", jti);
                     filterChain.doFilter(request, response);
                     return;
                 }
 
-                UUID userId = tokenProvider.getUserIdFromToken(jwt);
-                User user = userRepository.findById(userId).orElse(null);
+                UUID userId = UUID.fromString(claims.getSubject());
+                UserPrincipal principal = principalCache.get(userId, this::loadPrincipal);
 
-                if (user != null && user.isActive() && user.getDeletedAt() == null) {
-                    UserPrincipal principal = UserPrincipal.from(user);
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -95,6 +97,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserPrincipal loadPrincipal(UUID userId) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || !user.isActive() || user.getDeletedAt() != null) {
+            return null;
+        }
+        return UserPrincipal.from(user);
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -29,10 +29,12 @@ public class JwtTokenProvider {
     private static final long RESET_TOKEN_EXPIRATION = 10 * 60 * 1000L; // 10 minutes
 
     private SecretKey key;
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
     }
 
     public TokenPair generateTokenPair(UUID userId, String email, String phone, Role role) {
@@ -129,9 +131,16 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        return parseValidClaims(token) != null;
+    }
+
+    /**
+     * Verify and parse a token once, for callers that need several claims from it.
+     * Returns {@code null} when the token is invalid or expired.
+     */
+    public Claims parseValidClaims(String token) {
         try {
-            parseClaims(token);
-            return true;
+            return parseClaims(token);
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -143,14 +152,10 @@ public class JwtTokenProvider {
         } catch (Exception ex) {
             log.error("JWT validation error: {}", ex.getMessage());
         }
-        return false;
+        return null;
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
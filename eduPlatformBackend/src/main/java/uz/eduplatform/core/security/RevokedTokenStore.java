@@ -0,0 +1,94 @@
+package uz.eduplatform.core.security;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * The {@code revoked_tokens} table, shared by every node, and the {@code token_revoked}
+ * notification channel. Writes join the caller's transaction; PostgreSQL delivers the
+ * notification to listening nodes when it commits.
+ * <p>
+ * Notification payloads are lines of {@code <jti> <expiry epoch millis>}.
+ */
+@Component
+public class RevokedTokenStore {
+
+    static final String CHANNEL = "token_revoked";
+    // PostgreSQL rejects payloads of 8000 bytes or more
+    private static final int MAX_PAYLOAD_CHARS = 7000;
+
+    private static final String UPSERT_SQL = "INSERT INTO revoked_tokens (jti, expires_at) VALUES (?, ?) "
+            + "ON CONFLICT (jti) DO UPDATE SET expires_at = GREATEST(revoked_tokens.expires_at, EXCLUDED.expires_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RevokedTokenStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record revocations and notify the other nodes, in one batch however many tokens.
+     */
+    public void save(Map<String, Instant> expiryByJti) {
+        if (expiryByJti.isEmpty()) return;
+
+        List<Map.Entry<String, Instant>> entries = new ArrayList<>(expiryByJti.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getKey());
+            ps.setTimestamp(2, Timestamp.from(entry.getValue()));
+        });
+
+        for (String payload : payloads(expiryByJti)) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+            }, CHANNEL, payload);
+        }
+    }
+
+    public Map<String, Instant> loadActive() {
+        Map<String, Instant> active = new HashMap<>();
+        jdbcTemplate.query("SELECT jti, expires_at FROM revoked_tokens WHERE expires_at > NOW()",
+                rs -> {
+                    active.put(rs.getString(1), rs.getTimestamp(2).toInstant());
+                });
+        return active;
+    }
+
+    public int purgeExpired() {
+        return jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at <= NOW()");
+    }
+
+    static List<String> payloads(Map<String, Instant> expiryByJti) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        for (Map.Entry<String, Instant> entry : expiryByJti.entrySet()) {
+            String line = entry.getKey() + " " + entry.getValue().toEpochMilli();
+            if (payload.length() > 0 && payload.length() + line.length() + 1 > MAX_PAYLOAD_CHARS) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+            }
+            if (payload.length() > 0) payload.append('\n');
+            payload.append(line);
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    static Map<String, Instant> parsePayload(String payload) {
+        Map<String, Instant> revoked = new HashMap<>();
+        if (payload == null) return revoked;
+        for (String line : payload.split("\n")) {
+            int space = line.lastIndexOf(' ');
+            if (space <= 0) continue;
+            try {
+                revoked.put(line.substring(0, space), Instant.ofEpochMilli(Long.parseLong(line.substring(space + 1))));
+            } catch (NumberFormatException ignored) {
+                // Not ours; skip the line
+            }
+        }
+        return revoked;
+    }
+}
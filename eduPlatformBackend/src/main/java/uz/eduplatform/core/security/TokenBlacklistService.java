@@ -4,14 +4,26 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import uz.eduplatform.core.common.utils.AfterCommit;
 import uz.eduplatform.modules.auth.domain.UserSession;
 import uz.eduplatform.modules.auth.repository.UserSessionRepository;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Revoked JTIs. {@link RevokedTokenStore} is the source of truth shared by all nodes; each node
+ * keeps a full copy of the live revocations in memory, so {@link #isBlacklisted} on every request
+ * is a single map lookup and never touches the database.
+ * <p>
+ * The copy is loaded and kept current by {@link TokenRevocationListener}, which applies
+ * revocations made on other nodes as PostgreSQL notifies them. Local revocations reach the copy
+ * only when the caller's transaction commits, like the notification the other nodes get.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -20,11 +32,14 @@ public class TokenBlacklistService {
     private final ConcurrentHashMap<String, Instant> blacklistedTokens = new ConcurrentHashMap<>();
 
     private final UserSessionRepository userSessionRepository;
+    private final RevokedTokenStore revokedTokenStore;
 
     public void blacklist(String jti, long remainingTtlMillis) {
         if (jti == null || remainingTtlMillis <= 0) return;
 
-        blacklistedTokens.put(jti, Instant.now().plusMillis(remainingTtlMillis));
+        Instant expiry = Instant.now().plusMillis(remainingTtlMillis);
+        revokedTokenStore.save(Map.of(jti, expiry));
+        AfterCommit.run(() -> remember(jti, expiry));
         log.debug("Blacklisted JTI: {} with TTL: {}ms", jti, remainingTtlMillis);
     }
 
@@ -43,17 +58,39 @@ public class TokenBlacklistService {
 
     public void blacklistAllForUser(UUID userId, long defaultTtlMillis) {
         List<UserSession> activeSessions = userSessionRepository.findByUserIdAndIsActiveTrue(userId);
+        Instant expiry = Instant.now().plusMillis(defaultTtlMillis);
+        Map<String, Instant> revoked = new HashMap<>();
         for (UserSession session : activeSessions) {
             if (session.getAccessJti() != null) {
-                blacklist(session.getAccessJti(), defaultTtlMillis);
+                revoked.put(session.getAccessJti(), expiry);
             }
             if (session.getRefreshJti() != null) {
-                blacklist(session.getRefreshJti(), defaultTtlMillis);
+                revoked.put(session.getRefreshJti(), expiry);
             }
         }
+        if (defaultTtlMillis > 0 && !revoked.isEmpty()) {
+            revokedTokenStore.save(revoked);
+            AfterCommit.run(() -> revoked.forEach(this::remember));
+        }
         log.info("Blacklisted all JTIs for user: {}, sessions: {}", userId, activeSessions.size());
     }
 
+    /**
+     * Apply revocations already stored elsewhere (a notification or a reload).
+     */
+    void applyRemote(Map<String, Instant> revoked) {
+        Instant now = Instant.now();
+        revoked.forEach((jti, expiry) -> {
+            if (expiry.isAfter(now)) remember(jti, expiry);
+        });
+    }
+
+    void reload() {
+        Map<String, Instant> active = revokedTokenStore.loadActive();
+        applyRemote(active);
+        log.info("Loaded {} revoked tokens", active.size());
+    }
+
     @Scheduled(fixedRate = 300_000)
     public void cleanupExpired() {
         int before = blacklistedTokens.size();
@@ -64,4 +101,16 @@ public class TokenBlacklistService {
             log.debug("Cleaned up {} expired blacklisted tokens, {} remaining", removed, blacklistedTokens.size());
         }
     }
+
+    @Scheduled(fixedRate = 3_600_000, initialDelay = 600_000)
+    public void purgeExpiredRevocations() {
+        int purged = revokedTokenStore.purgeExpired();
+        if (purged > 0) {
+            log.debug("Purged {} expired revoked tokens", purged);
+        }
+    }
+
+    private void remember(String jti, Instant expiry) {
+        blacklistedTokens.merge(jti, expiry, (current, added) -> added.isAfter(current) ? added : current);
+    }
 }
@@ -0,0 +1,86 @@
+package uz.eduplatform.core.security;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Keeps {@link TokenBlacklistService}'s in-memory copy in step with other nodes. A dedicated
+ * thread holds its own connection (outside the pool), {@code LISTEN}s on
+ * {@link RevokedTokenStore#CHANNEL} and applies each notification.
+ * <p>
+ * Every (re)connect reloads the live revocations from the table first, so nothing revoked while
+ * this node was starting or disconnected is missed.
+ */
+@Slf4j
+@Component
+public class TokenRevocationListener {
+
+    private static final int POLL_TIMEOUT_MILLIS = 10_000;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000;
+
+    private final TokenBlacklistService tokenBlacklistService;
+    private final DataSourceProperties dataSourceProperties;
+    private volatile boolean running;
+    private Thread thread;
+
+    public TokenRevocationListener(TokenBlacklistService tokenBlacklistService,
+                                   DataSourceProperties dataSourceProperties) {
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "token-revocation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (thread != null) thread.interrupt();
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + RevokedTokenStore.CHANNEL);
+                }
+                tokenBlacklistService.reload();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        tokenBlacklistService.applyRemote(RevokedTokenStore.parsePayload(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) return;
+                log.warn("Token revocation listener disconnected, retrying in {}ms: {}",
+                        RECONNECT_DELAY_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+}
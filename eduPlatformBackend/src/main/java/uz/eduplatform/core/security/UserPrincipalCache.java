@@ -0,0 +1,52 @@
+package uz.eduplatform.core.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.utils.AfterCommit;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Authenticated principals by user id, so {@link JwtAuthenticationFilter} does not load the
+ * user row on every request. Only principals of active, non-deleted users are cached, and only
+ * for a short time.
+ * <p>
+ * Code that blocks, deletes or unlocks a user, changes their role or password, or logs them out
+ * must call {@link #evict(UUID)} so the change applies to the next request rather than after
+ * the TTL.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final long MAX_ENTRIES = 100_000;
+
+    private final Cache<UUID, UserPrincipal> principals;
+
+    public UserPrincipalCache(@Value("${app.security.principal-cache-ttl-seconds:30}") long ttlSeconds) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * The cached principal, or the one {@code loader} returns on a miss. A {@code null} from the
+     * loader (unknown or disabled user) is returned as is and not cached.
+     */
+    public UserPrincipal get(UUID userId, Function<UUID, UserPrincipal> loader) {
+        return principals.get(userId, loader);
+    }
+
+    public void evict(UUID userId) {
+        if (userId == null) return;
+        AfterCommit.evict(() -> principals.invalidate(userId));
+    }
+
+    long estimatedSize() {
+        return principals.estimatedSize();
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import uz.eduplatform.core.common.dto.ApiResponse;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.modules.admin.dto.AuditLogDto;
 import uz.eduplatform.modules.admin.service.AuditLogService;
@@ -37,6 +38,17 @@ public class AuditLogController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Audit loglarni kursor bilan olish", description = "Katta audit tarixi uchun kursorli sahifalash — oxirgi yozuvlar birinchi. Keyingi sahifa uchun nextCursor qiymatini cursor sifatida yuboring; includeTotal=true bo'lsa umumiy son ham hisoblanadi.")
+    public ResponseEntity<ApiResponse<CursorResponse<AuditLogDto>>> scrollAuditLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        CursorResponse<AuditLogDto> response = auditLogService.scrollAuditLogs(cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Foydalanuvchi audit loglari", description = "Berilgan foydalanuvchining barcha harakatlari tarixini ko'rish.")
     public ResponseEntity<ApiResponse<PagedResponse<AuditLogDto>>> getAuditLogsByUser(
@@ -49,6 +61,19 @@ public class AuditLogController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/user/{userId}/scroll")
+    @Operation(summary = "Foydalanuvchi audit loglarini kursor bilan olish", description = "Berilgan foydalanuvchi harakatlarini kursorli sahifalash — oxirgi yozuvlar birinchi.")
+    public ResponseEntity<ApiResponse<CursorResponse<AuditLogDto>>> scrollAuditLogsByUser(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        CursorResponse<AuditLogDto> response = auditLogService.scrollAuditLogsByUserId(
+                userId, cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/category/{category}")
     @Operation(summary = "Kategoriya bo'yicha audit loglar", description = "Berilgan kategoriya (masalan: AUTH, PAYMENT, SUBSCRIPTION) bo'yicha loglarni filtrlash.")
     public ResponseEntity<ApiResponse<PagedResponse<AuditLogDto>>> getAuditLogsByCategory(
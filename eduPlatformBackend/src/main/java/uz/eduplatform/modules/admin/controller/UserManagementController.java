@@ -11,6 +11,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import uz.eduplatform.core.common.dto.ApiResponse;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.utils.MessageService;
 import uz.eduplatform.core.i18n.AcceptLanguage;
@@ -49,6 +50,20 @@ public class UserManagementController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Foydalanuvchilarni kursor bilan olish", description = "Foydalanuvchilar ro'yxatini kursorli sahifalash — eng yangilari birinchi, rol yoki holat bo'yicha filtr bilan (qidiruvsiz). Keyingi sahifa uchun nextCursor qiymatini cursor sifatida yuboring.")
+    public ResponseEntity<ApiResponse<CursorResponse<AdminUserDto>>> scrollUsers(
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        CursorResponse<AdminUserDto> response = userManagementService.scrollUsers(
+                role, status, cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Foydalanuvchi tafsilotlari", description = "Berilgan ID bo'yicha foydalanuvchining to'liq ma'lumotlarini olish.")
     public ResponseEntity<ApiResponse<AdminUserDto>> getUserById(@PathVariable UUID id) {
@@ -7,7 +7,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.audit.AuditLog;
 import uz.eduplatform.core.audit.AuditLogRepository;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
+import uz.eduplatform.core.common.utils.PageCursor;
 import uz.eduplatform.modules.admin.dto.AuditLogDto;
 
 import java.time.LocalDateTime;
@@ -51,6 +53,28 @@ public class AuditLogService {
         return toPagedResponse(page);
     }
 
+    @Transactional(readOnly = true)
+    public CursorResponse<AuditLogDto> scrollAuditLogs(String cursor, int size, boolean includeTotal) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.pageSize(size);
+        List<AuditLog> rows = auditLogRepository.scrollAll(after.createdAt(), after.id(), PageCursor.fetch(pageSize));
+        return toCursorResponse(rows, pageSize, includeTotal ? auditLogRepository.count() : null);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorResponse<AuditLogDto> scrollAuditLogsByUserId(UUID userId, String cursor, int size, boolean includeTotal) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.pageSize(size);
+        List<AuditLog> rows = auditLogRepository.scrollByUserId(
+                userId, after.createdAt(), after.id(), PageCursor.fetch(pageSize));
+        return toCursorResponse(rows, pageSize, includeTotal ? auditLogRepository.countByUserId(userId) : null);
+    }
+
+    private CursorResponse<AuditLogDto> toCursorResponse(List<AuditLog> rows, int pageSize, Long total) {
+        return CursorResponse.of(rows, pageSize, log -> new PageCursor(log.getCreatedAt(), log.getId()),
+                page -> page.stream().map(this::mapToDto).toList(), total);
+    }
+
     private PagedResponse<AuditLogDto> toPagedResponse(Page<AuditLog> page) {
         List<AuditLogDto> dtos = page.getContent().stream()
                 .map(this::mapToDto)
@@ -6,9 +6,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.audit.AuditService;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.PageCursor;
+import uz.eduplatform.core.security.UserPrincipalCache;
 import uz.eduplatform.modules.admin.dto.AdminUserDto;
 import uz.eduplatform.modules.admin.dto.ChangeRoleRequest;
 import uz.eduplatform.modules.admin.dto.ChangeStatusRequest;
@@ -30,6 +33,7 @@ public class UserManagementService {
     private final UserRepository userRepository;
     private final UserSessionRepository userSessionRepository;
     private final AuditService auditService;
+    private final UserPrincipalCache principalCache;
 
     @Transactional(readOnly = true)
     public PagedResponse<AdminUserDto> getUsers(String search, Role role, UserStatus status, Pageable pageable) {
@@ -53,6 +57,29 @@ public class UserManagementService {
                 page.getTotalElements(), page.getTotalPages());
     }
 
+    @Transactional(readOnly = true)
+    public CursorResponse<AdminUserDto> scrollUsers(Role role, UserStatus status, String cursor, int size,
+                                                    boolean includeTotal) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.pageSize(size);
+        List<User> rows;
+        Long total = null;
+
+        if (role != null) {
+            rows = userRepository.scrollByRole(role, after.createdAt(), after.id(), PageCursor.fetch(pageSize));
+            if (includeTotal) total = userRepository.countByRole(role);
+        } else if (status != null) {
+            rows = userRepository.scrollByStatus(status, after.createdAt(), after.id(), PageCursor.fetch(pageSize));
+            if (includeTotal) total = userRepository.countByStatus(status);
+        } else {
+            rows = userRepository.scrollAll(after.createdAt(), after.id(), PageCursor.fetch(pageSize));
+            if (includeTotal) total = userRepository.count();
+        }
+
+        return CursorResponse.of(rows, pageSize, u -> new PageCursor(u.getCreatedAt(), u.getId()),
+                page -> page.stream().map(this::mapToAdminDto).toList(), total);
+    }
+
     @Transactional(readOnly = true)
     public AdminUserDto getUserById(UUID userId) {
         User user = userRepository.findById(userId)
@@ -72,6 +99,7 @@ public class UserManagementService {
         Role oldRole = user.getRole();
         user.setRole(request.getRole());
         userRepository.save(user);
+        principalCache.evict(targetUserId);
 
         auditService.log(adminId, "ADMIN", "USER_ROLE_CHANGED", "USER_MANAGEMENT",
                 "User", targetUserId,
@@ -104,6 +132,7 @@ public class UserManagementService {
         }
 
         userRepository.save(user);
+        principalCache.evict(targetUserId);
 
         auditService.log(adminId, "ADMIN", "USER_STATUS_CHANGED", "USER_MANAGEMENT",
                 "User", targetUserId,
@@ -127,6 +156,7 @@ public class UserManagementService {
         user.setStatus(UserStatus.INACTIVE);
         userSessionRepository.deactivateAllByUserId(targetUserId);
         userRepository.save(user);
+        principalCache.evict(targetUserId);
 
         auditService.log(adminId, "ADMIN", "USER_DELETED", "USER_MANAGEMENT",
                 "User", targetUserId);
@@ -139,6 +169,7 @@ public class UserManagementService {
 
         user.resetFailedAttempts();
         userRepository.save(user);
+        principalCache.evict(targetUserId);
 
         auditService.log(adminId, "ADMIN", "USER_UNLOCKED", "USER_MANAGEMENT",
                 "User", targetUserId);
@@ -0,0 +1,7 @@
+package uz.eduplatform.modules.analytics.domain;
+
+public enum RollupScope {
+    OVERALL,
+    SUBJECT,
+    TOPIC
+}
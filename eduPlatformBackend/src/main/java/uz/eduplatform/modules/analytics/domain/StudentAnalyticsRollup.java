@@ -0,0 +1,89 @@
+package uz.eduplatform.modules.analytics.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Entity
+@Table(name = "student_analytics_rollup", indexes = {
+        @Index(name = "idx_rollup_student", columnList = "student_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(
+                name = "uk_rollup_student_scope",
+                columnNames = {"student_id", "scope_type", "scope_id"}
+        )
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class StudentAnalyticsRollup {
+
+    /** scope_id of the OVERALL row — scope_id is part of the unique key and must be non-null. */
+    public static final UUID OVERALL_SCOPE_ID = new UUID(0L, 0L);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", nullable = false, length = 10)
+    private RollupScope scopeType;
+
+    @Column(name = "scope_id", nullable = false)
+    private UUID scopeId;
+
+    // Parent subject for TOPIC rows, same as scope_id for SUBJECT rows
+    @Column(name = "subject_id")
+    private UUID subjectId;
+
+    // --- Running aggregates (graded attempts only) ---
+    @Builder.Default
+    @Column(name = "attempt_count", nullable = false)
+    private Integer attemptCount = 0;
+
+    @Builder.Default
+    @Column(name = "score_sum", nullable = false, precision = 12, scale = 2)
+    private BigDecimal scoreSum = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "time_spent_seconds", nullable = false)
+    private Long timeSpentSeconds = 0L;
+
+    @Builder.Default
+    @Column(name = "question_count", nullable = false)
+    private Long questionCount = 0L;
+
+    @Column(name = "last_attempt_at")
+    private LocalDateTime lastAttemptAt;
+
+    // --- OVERALL only: last N scored attempts, newest first ---
+    // [{attemptId, assignmentTitle, percentage, submittedAt}]
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "recent_points", columnDefinition = "jsonb")
+    private List<Map<String, Object>> recentPoints;
+
+    // --- OVERALL only: per-day activity keyed by ISO date ---
+    // {"2024-05-01": {count, scoreSum, seconds}}
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "daily_activity", columnDefinition = "jsonb")
+    private Map<String, Map<String, Object>> dailyActivity;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
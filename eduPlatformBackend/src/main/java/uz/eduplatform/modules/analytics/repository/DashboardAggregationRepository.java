@@ -0,0 +1,98 @@
+package uz.eduplatform.modules.analytics.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only grouped projections for the teacher dashboard.
+ * Every method is a single GROUP BY statement over test_attempts / test_assignments,
+ * so the number of queries per dashboard does not depend on how many groups,
+ * assignments or attempts a teacher has.
+ */
+@Repository
+public interface DashboardAggregationRepository extends org.springframework.data.repository.Repository<TestAttempt, UUID> {
+
+    // [distinct students across the teacher's groups]
+    @Query(value = "SELECT COUNT(DISTINCT m.student_id) FROM group_members m " +
+            "JOIN student_groups g ON g.id = m.group_id " +
+            "WHERE g.teacher_id = :teacherId AND g.deleted_at IS NULL",
+            nativeQuery = true)
+    long countDistinctStudentsInTeacherGroups(@Param("teacherId") UUID teacherId);
+
+    // [total, active, assigned slots]
+    @Query(value = "SELECT COUNT(*), " +
+            "COUNT(*) FILTER (WHERE a.status = 'ACTIVE'), " +
+            "(SELECT COUNT(*) FROM assignment_students s " +
+            "    JOIN test_assignments sa ON sa.id = s.assignment_id " +
+            "    WHERE sa.teacher_id = :teacherId AND sa.deleted_at IS NULL) " +
+            "FROM test_assignments a " +
+            "WHERE a.teacher_id = :teacherId AND a.deleted_at IS NULL",
+            nativeQuery = true)
+    List<Object[]> summarizeAssignments(@Param("teacherId") UUID teacherId);
+
+    // [student_id, attempts, scored attempts, percentage sum, last submitted_at]
+    @Query(value = "SELECT ta.student_id, COUNT(ta.id), COUNT(ta.percentage), " +
+            "COALESCE(SUM(ta.percentage), 0), MAX(ta.submitted_at) " +
+            "FROM test_attempts ta " +
+            "JOIN test_assignments a ON a.id = ta.assignment_id " +
+            "WHERE a.teacher_id = :teacherId AND a.deleted_at IS NULL " +
+            "GROUP BY ta.student_id",
+            nativeQuery = true)
+    List<Object[]> aggregateAttemptsByStudent(@Param("teacherId") UUID teacherId);
+
+    // [student_id, assignments assigned to the student without a scored attempt]
+    @Query(value = "SELECT s.student_id, COUNT(*) " +
+            "FROM test_assignments a " +
+            "JOIN assignment_students s ON s.assignment_id = a.id " +
+            "WHERE a.teacher_id = :teacherId AND a.deleted_at IS NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM test_attempts ta " +
+            "    WHERE ta.assignment_id = a.id " +
+            "    AND ta.student_id = s.student_id " +
+            "    AND ta.percentage IS NOT NULL) " +
+            "GROUP BY s.student_id",
+            nativeQuery = true)
+    List<Object[]> countMissedAssignmentsByStudent(@Param("teacherId") UUID teacherId);
+
+    // [id, title, status, created_at, assigned count, avg percentage, submitted count]
+    @Query(value = "SELECT a.id, a.title, a.status, a.created_at, " +
+            "(SELECT COUNT(*) FROM assignment_students s WHERE s.assignment_id = a.id), " +
+            "AVG(ta.percentage), " +
+            "COUNT(ta.id) FILTER (WHERE ta.status <> 'IN_PROGRESS') " +
+            "FROM test_assignments a " +
+            "LEFT JOIN test_attempts ta ON ta.assignment_id = a.id " +
+            "WHERE a.teacher_id = :teacherId AND a.deleted_at IS NULL " +
+            "GROUP BY a.id " +
+            "ORDER BY a.created_at DESC " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> summarizeRecentAssignments(@Param("teacherId") UUID teacherId,
+                                              @Param("limit") int limit);
+
+    // [topic_id, subject_id, attempts, scored attempts, percentage sum]
+    @Query(value = "SELECT CAST(t.topic_id AS uuid), (ARRAY_AGG(th.subject_id))[1], " +
+            "COUNT(ta.id), COUNT(ta.percentage), COALESCE(SUM(ta.percentage), 0) " +
+            "FROM test_assignments a " +
+            "JOIN test_history th ON th.id = a.test_history_id " +
+            "CROSS JOIN LATERAL jsonb_array_elements_text(th.topic_ids) AS t(topic_id) " +
+            "LEFT JOIN test_attempts ta ON ta.assignment_id = a.id " +
+            "WHERE a.teacher_id = :teacherId AND a.deleted_at IS NULL " +
+            "AND jsonb_typeof(th.topic_ids) = 'array' " +
+            "GROUP BY t.topic_id",
+            nativeQuery = true)
+    List<Object[]> aggregateAttemptsByTopic(@Param("teacherId") UUID teacherId);
+
+    // [yyyy-MM, tests created]
+    @Query(value = "SELECT TO_CHAR(DATE_TRUNC('month', created_at), 'YYYY-MM') AS month, COUNT(*) " +
+            "FROM test_history " +
+            "WHERE user_id = :teacherId AND deleted_at IS NULL AND created_at >= :since " +
+            "GROUP BY month",
+            nativeQuery = true)
+    List<Object[]> countMonthlyTestCreations(@Param("teacherId") UUID teacherId,
+                                             @Param("since") LocalDateTime since);
+}
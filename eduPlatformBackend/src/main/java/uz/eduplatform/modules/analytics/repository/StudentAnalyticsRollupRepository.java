@@ -0,0 +1,33 @@
+package uz.eduplatform.modules.analytics.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.eduplatform.modules.analytics.domain.StudentAnalyticsRollup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StudentAnalyticsRollupRepository extends JpaRepository<StudentAnalyticsRollup, UUID> {
+
+    List<StudentAnalyticsRollup> findByStudentId(UUID studentId);
+
+    // Idempotent: guarantees the OVERALL row exists so it can serve as the per-student lock
+    @Modifying
+    @Query(value = "INSERT INTO student_analytics_rollup (student_id, scope_type, scope_id) " +
+            "VALUES (:studentId, 'OVERALL', '00000000-0000-0000-0000-000000000000') " +
+            "ON CONFLICT (student_id, scope_type, scope_id) DO NOTHING",
+            nativeQuery = true)
+    int insertOverallIfAbsent(@Param("studentId") UUID studentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StudentAnalyticsRollup r WHERE r.studentId = :studentId " +
+            "AND r.scopeType = uz.eduplatform.modules.analytics.domain.RollupScope.OVERALL")
+    Optional<StudentAnalyticsRollup> lockOverall(@Param("studentId") UUID studentId);
+}
@@ -6,8 +6,9 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.springframework.stereotype.Service;
+import uz.eduplatform.core.pdf.DocumentFont;
+import uz.eduplatform.core.pdf.PdfFonts;
 import uz.eduplatform.modules.analytics.dto.GroupStatisticsDto;
 import uz.eduplatform.modules.analytics.dto.TeacherDashboardDto;
 
@@ -26,13 +27,15 @@ public class AnalyticsPdfExportService {
     private static final float LINE_HEIGHT = 18;
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
+    private final PdfFonts pdfFonts;
+
     public byte[] exportTeacherDashboard(TeacherDashboardDto dto) {
         try (PDDocument doc = new PDDocument()) {
             PDPage page = new PDPage(PDRectangle.A4);
             doc.addPage(page);
 
-            PDType1Font fontBold = PDType1Font.HELVETICA_BOLD;
-            PDType1Font fontNormal = PDType1Font.HELVETICA;
+            DocumentFont fontBold = pdfFonts.bold().embedIn(doc);
+            DocumentFont fontNormal = pdfFonts.regular().embedIn(doc);
 
             try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
                 float y = page.getMediaBox().getHeight() - MARGIN;
@@ -107,8 +110,8 @@ public class AnalyticsPdfExportService {
             PDPage page = new PDPage(PDRectangle.A4);
             doc.addPage(page);
 
-            PDType1Font fontBold = PDType1Font.HELVETICA_BOLD;
-            PDType1Font fontNormal = PDType1Font.HELVETICA;
+            DocumentFont fontBold = pdfFonts.bold().embedIn(doc);
+            DocumentFont fontNormal = pdfFonts.regular().embedIn(doc);
 
             try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
                 float y = page.getMediaBox().getHeight() - MARGIN;
@@ -158,12 +161,12 @@ public class AnalyticsPdfExportService {
         }
     }
 
-    private float drawText(PDPageContentStream cs, String text, PDType1Font font, float fontSize,
+    private float drawText(PDPageContentStream cs, String text, DocumentFont font, float fontSize,
                             float x, float y) throws IOException {
         cs.beginText();
-        cs.setFont(font, fontSize);
+        cs.setFont(font.font(), fontSize);
         cs.newLineAtOffset(x, y);
-        cs.showText(text);
+        cs.showText(font.sanitize(text));
         cs.endText();
         return y - LINE_HEIGHT;
     }
@@ -7,18 +7,19 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
-import uz.eduplatform.core.i18n.TranslatedField;
+import uz.eduplatform.core.common.utils.LookupContext;
+import uz.eduplatform.core.common.utils.LookupResolver;
 import uz.eduplatform.modules.analytics.dto.GroupStatisticsDto;
 import uz.eduplatform.modules.analytics.dto.StudentAnalyticsDto;
+import uz.eduplatform.modules.analytics.domain.StudentAnalyticsRollup;
 import uz.eduplatform.modules.analytics.dto.TeacherDashboardDto;
 import uz.eduplatform.modules.assessment.domain.*;
 import uz.eduplatform.modules.assessment.repository.AnswerRepository;
+import uz.eduplatform.modules.assessment.repository.AssignmentStudentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
 import uz.eduplatform.modules.auth.domain.User;
 import uz.eduplatform.modules.auth.repository.UserRepository;
-import uz.eduplatform.modules.content.repository.SubjectRepository;
-import uz.eduplatform.modules.content.repository.TopicRepository;
 import uz.eduplatform.modules.group.domain.StudentGroup;
 import uz.eduplatform.modules.group.repository.GroupMemberRepository;
 import uz.eduplatform.modules.group.repository.StudentGroupRepository;
@@ -27,7 +28,6 @@ import uz.eduplatform.modules.test.repository.TestHistoryRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.*;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoField;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -39,15 +39,16 @@ public class AnalyticsService {
 
     private final TestAssignmentRepository assignmentRepository;
     private final TestAttemptRepository attemptRepository;
+    private final AssignmentStudentRepository assignmentStudentRepository;
     private final AnswerRepository answerRepository;
     private final StudentGroupRepository groupRepository;
     private final GroupMemberRepository memberRepository;
     private final UserRepository userRepository;
-    private final SubjectRepository subjectRepository;
-    private final TopicRepository topicRepository;
     private final TestHistoryRepository testHistoryRepository;
+    private final TeacherDashboardService teacherDashboardService;
+    private final StudentAnalyticsRollupService rollupService;
+    private final LookupResolver lookupResolver;
 
-    private static final BigDecimal AT_RISK_THRESHOLD = new BigDecimal("40.00");
     private static final BigDecimal WEAK_AREA_THRESHOLD = new BigDecimal("60.00");
     private static final BigDecimal STRONG_AREA_THRESHOLD = new BigDecimal("80.00");
 
@@ -57,95 +58,7 @@ public class AnalyticsService {
 
     @Transactional(readOnly = true)
     public TeacherDashboardDto getTeacherDashboard(UUID teacherId) {
-        long totalGroups = groupRepository.countByTeacherId(teacherId);
-
-        Set<UUID> studentIds = new HashSet<>();
-        groupRepository.findByTeacherIdOrderByCreatedAtDesc(teacherId, PageRequest.of(0, 1000))
-                .getContent()
-                .forEach(g -> studentIds.addAll(groupRepository.findStudentIdsByGroupId(g.getId())));
-
-        Page<TestAssignment> allAssignments = assignmentRepository
-                .findByTeacherIdOrderByCreatedAtDesc(teacherId, PageRequest.of(0, 1000));
-        long totalAssignments = allAssignments.getTotalElements();
-        long activeAssignments = assignmentRepository
-                .countByTeacherIdAndStatus(teacherId, AssignmentStatus.ACTIVE);
-
-        List<TestAttempt> allAttempts = new ArrayList<>();
-        allAssignments.getContent().forEach(a ->
-                allAttempts.addAll(attemptRepository.findByAssignmentIdOrderByCreatedAtDesc(a.getId())));
-
-        BigDecimal overallAverage = calculateAverage(allAttempts);
-
-        long totalAssignedSlots = allAssignments.getContent().stream()
-                .mapToLong(a -> a.getAssignedStudentIds() != null ? a.getAssignedStudentIds().size() : 0)
-                .sum();
-        long totalSubmitted = allAttempts.stream().filter(a -> a.getPercentage() != null).count();
-        double completionRate = totalAssignedSlots > 0
-                ? totalSubmitted * 100.0 / totalAssignedSlots : 0.0;
-
-        long totalTests = testHistoryRepository.countByUserId(teacherId);
-
-        List<TeacherDashboardDto.TrendPointDto> testCreationTrend =
-                buildMonthlyTestTrend(teacherId);
-
-        Map<UUID, List<TestAttempt>> attemptsByStudent = allAttempts.stream()
-                .collect(Collectors.groupingBy(TestAttempt::getStudentId));
-
-        List<TeacherDashboardDto.StudentPerformanceDto> studentPerformances =
-                attemptsByStudent.entrySet().stream()
-                        .map(e -> buildStudentPerformance(e.getKey(), e.getValue(),
-                                allAssignments.getContent()))
-                        .sorted(Comparator.comparing(
-                                TeacherDashboardDto.StudentPerformanceDto::getAverageScore,
-                                Comparator.nullsLast(Comparator.reverseOrder())))
-                        .toList();
-
-        List<TeacherDashboardDto.StudentPerformanceDto> topStudents =
-                studentPerformances.stream().limit(5).toList();
-
-        List<TeacherDashboardDto.StudentPerformanceDto> atRiskStudents =
-                studentPerformances.stream()
-                        .filter(s -> s.getAverageScore() != null
-                                && s.getAverageScore().compareTo(AT_RISK_THRESHOLD) < 0)
-                        .toList();
-
-        List<TeacherDashboardDto.AssignmentSummaryDto> recentAssignments =
-                allAssignments.getContent().stream()
-                        .limit(10)
-                        .map(this::buildAssignmentSummary)
-                        .toList();
-
-        List<TeacherDashboardDto.ActivityDto> recentActivity =
-                allAssignments.getContent().stream()
-                        .limit(10)
-                        .map(a -> TeacherDashboardDto.ActivityDto.builder()
-                                .type("ASSIGNMENT")
-                                .description(a.getTitle())
-                                .createdAt(a.getCreatedAt() != null
-                                        ? a.getCreatedAt().toString()
-                                        : LocalDateTime.now().toString())
-                                .build())
-                        .toList();
-
-        List<TeacherDashboardDto.TopicPerformanceDto> topicBreakdown =
-                buildTopicBreakdown(allAssignments.getContent(), allAttempts);
-
-        return TeacherDashboardDto.builder()
-                .totalGroups((int) totalGroups)
-                .totalStudents(studentIds.size())
-                .totalAssignments((int) totalAssignments)
-                .activeAssignments((int) activeAssignments)
-                .totalTests((int) totalTests)
-                .overallAverageScore(overallAverage)
-                .averageScore(overallAverage.doubleValue())
-                .completionRate(completionRate)
-                .testCreationTrend(testCreationTrend)
-                .recentActivity(recentActivity)
-                .topStudents(topStudents)
-                .atRiskStudents(atRiskStudents)
-                .recentAssignments(recentAssignments)
-                .topicBreakdown(topicBreakdown)
-                .build();
+        return teacherDashboardService.getTeacherDashboard(teacherId);
     }
 
     // ────────────────────────────────────────────────
@@ -175,54 +88,51 @@ public class AnalyticsService {
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", studentId));
 
-        List<TestAttempt> attempts = attemptRepository
-                .findByStudentIdOrderByCreatedAtDesc(studentId);
+        StudentRollupSnapshot rollup = rollupService.getSnapshot(studentId);
+        long totalAttempts = attemptRepository.countByStudentId(studentId);
 
-        String studentIdJson = "[\"" + studentId + "\"]";
         Page<TestAssignment> studentAssignmentsPage = assignmentRepository
-                .findAssignmentsForStudent(studentIdJson,
+                .findAssignmentsForStudent(studentId,
                         org.springframework.data.domain.Pageable.unpaged());
         long totalAssignments = studentAssignmentsPage.getTotalElements();
-        long completedAttempts = attempts.stream().filter(a -> a.getPercentage() != null).count();
+        long completedAttempts = rollup.getGradedCount();
 
-        BigDecimal overallAverage = calculateAverage(attempts);
+        BigDecimal overallAverage = rollup.getAverageScore();
         double completionRate = totalAssignments > 0
                 ? completedAttempts * 100.0 / totalAssignments : 0.0;
 
         String firstName = student.getFirstName() != null ? student.getFirstName() : "";
         String lastName = student.getLastName() != null ? student.getLastName() : "";
 
+        List<StudentRollupSnapshot.TrendPoint> recentPoints = rollup.getRecentPoints();
+
         // Score trend — frontend shape: [{date, value}]
-        List<StudentAnalyticsDto.TrendPointDto> scoreTrend = attempts.stream()
-                .filter(a -> a.getPercentage() != null && a.getSubmittedAt() != null)
-                .limit(20)
-                .map(a -> StudentAnalyticsDto.TrendPointDto.builder()
-                        .date(a.getSubmittedAt().toLocalDate().toString())
-                        .value(a.getPercentage().doubleValue())
+        List<StudentAnalyticsDto.TrendPointDto> scoreTrend = recentPoints.stream()
+                .filter(p -> p.submittedAt() != null)
+                .map(p -> StudentAnalyticsDto.TrendPointDto.builder()
+                        .date(p.submittedAt().toLocalDate().toString())
+                        .value(p.percentage().doubleValue())
                         .build())
                 .toList();
 
         // Legacy score trend details
-        List<StudentAnalyticsDto.ScoreTrendDetailDto> scoreTrendDetails = attempts.stream()
-                .filter(a -> a.getPercentage() != null)
-                .limit(20)
-                .map(a -> StudentAnalyticsDto.ScoreTrendDetailDto.builder()
-                        .attemptId(a.getId())
-                        .assignmentTitle(a.getAssignment() != null
-                                ? a.getAssignment().getTitle() : "Unknown")
-                        .percentage(a.getPercentage())
-                        .submittedAt(a.getSubmittedAt())
+        List<StudentAnalyticsDto.ScoreTrendDetailDto> scoreTrendDetails = recentPoints.stream()
+                .map(p -> StudentAnalyticsDto.ScoreTrendDetailDto.builder()
+                        .attemptId(p.attemptId())
+                        .assignmentTitle(p.assignmentTitle() != null ? p.assignmentTitle() : "Unknown")
+                        .percentage(p.percentage())
+                        .submittedAt(p.submittedAt())
                         .build())
                 .toList();
 
         List<StudentAnalyticsDto.SubjectBreakdownDto> subjectBreakdown =
-                buildSubjectBreakdown(attempts);
+                buildSubjectBreakdown(rollup);
 
         List<StudentAnalyticsDto.WeeklyActivityItemDto> weeklyActivity =
-                buildDailyActivity(attempts);
+                buildDailyActivity(rollup);
 
         StudentAnalyticsDto.WeeklyActivitySummaryDto weeklyActivitySummary =
-                buildWeeklyActivitySummary(attempts);
+                buildWeeklyActivitySummary(rollup);
 
         List<StudentAnalyticsDto.WeakAreaDto> weakAreas = buildWeakAreas(subjectBreakdown);
         List<StudentAnalyticsDto.WeakAreaDto> strongAreas = buildStrongAreas(subjectBreakdown);
@@ -233,7 +143,7 @@ public class AnalyticsService {
         List<StudentAnalyticsDto.InProgressAttemptDto> inProgressAttempts =
                 buildInProgressAttempts(studentId);
 
-        StudentAnalyticsDto.TimeManagementDto timeManagement = buildTimeManagement(attempts);
+        StudentAnalyticsDto.TimeManagementDto timeManagement = buildTimeManagement(rollup);
 
         return StudentAnalyticsDto.builder()
                 .studentId(studentId)
@@ -243,7 +153,7 @@ public class AnalyticsService {
                 .totalAssignments((int) totalAssignments)
                 .completedAssignments((int) completedAttempts)
                 .pendingAssignments((int) (totalAssignments - completedAttempts))
-                .totalAttempts(attempts.size())
+                .totalAttempts((int) totalAttempts)
                 .overallAverageScore(overallAverage)
                 .overallAverage(overallAverage.doubleValue())
                 .completionRate(completionRate)
@@ -271,13 +181,18 @@ public class AnalyticsService {
 
         List<UUID> studentIds = groupRepository.findStudentIdsByGroupId(groupId);
 
-        Page<TestAssignment> teacherAssignments = assignmentRepository
-                .findByTeacherIdOrderByCreatedAtDesc(teacherId, PageRequest.of(0, 1000));
+        List<TestAssignment> groupAssignments = studentIds.isEmpty()
+                ? List.of()
+                : assignmentRepository.findByTeacherIdAssignedToAnyOf(teacherId, studentIds);
 
-        List<TestAssignment> groupAssignments = teacherAssignments.getContent().stream()
-                .filter(a -> a.getAssignedStudentIds() != null
-                        && a.getAssignedStudentIds().stream().anyMatch(studentIds::contains))
-                .toList();
+        // How many of this group's students each assignment targets
+        Map<UUID, Long> groupAssignedCount = new HashMap<>();
+        if (!groupAssignments.isEmpty()) {
+            for (Object[] row : assignmentStudentRepository.countByAssignmentForStudents(
+                    groupAssignments.stream().map(TestAssignment::getId).toList(), studentIds)) {
+                groupAssignedCount.put((UUID) row[0], ((Number) row[1]).longValue());
+            }
+        }
 
         List<TestAttempt> allGroupAttempts = new ArrayList<>();
         for (TestAssignment assignment : groupAssignments) {
@@ -299,10 +214,7 @@ public class AnalyticsService {
                 .map(TestAttempt::getPercentage)
                 .min(Comparator.naturalOrder()).orElse(BigDecimal.ZERO);
 
-        long totalAssignedSlots = groupAssignments.stream()
-                .mapToLong(a -> a.getAssignedStudentIds().stream()
-                        .filter(studentIds::contains).count())
-                .sum();
+        long totalAssignedSlots = groupAssignedCount.values().stream().mapToLong(Long::longValue).sum();
         long totalSubmitted = allGroupAttempts.stream()
                 .filter(a -> a.getPercentage() != null).count();
         BigDecimal completionRate = totalAssignedSlots > 0
@@ -313,11 +225,11 @@ public class AnalyticsService {
         Map<UUID, List<TestAttempt>> attemptsByStudent = allGroupAttempts.stream()
                 .collect(Collectors.groupingBy(TestAttempt::getStudentId));
 
+        LookupContext lookup = lookupResolver.context().preloadUsers(studentIds);
+
         List<GroupStatisticsDto.StudentScoreDto> studentScores = studentIds.stream()
                 .map(sid -> {
-                    String name = userRepository.findById(sid)
-                            .map(u -> u.getFirstName() + " " + u.getLastName())
-                            .orElse("Unknown");
+                    String name = Objects.requireNonNullElse(lookup.userFullName(sid), "Unknown");
                     List<TestAttempt> sa = attemptsByStudent.getOrDefault(sid, List.of());
                     BigDecimal avg = calculateAverage(sa);
                     long completed = sa.stream().filter(a -> a.getPercentage() != null).count();
@@ -358,8 +270,7 @@ public class AnalyticsService {
                                     .toList();
                             BigDecimal avg = calculateAverage(aa);
                             long sub = aa.stream().filter(att -> att.getPercentage() != null).count();
-                            int totalAssigned = (int) a.getAssignedStudentIds().stream()
-                                    .filter(studentIds::contains).count();
+                            int totalAssigned = groupAssignedCount.getOrDefault(a.getId(), 0L).intValue();
                             return GroupStatisticsDto.AssignmentBreakdownDto.builder()
                                     .assignmentId(a.getId()).title(a.getTitle())
                                     .averageScore(avg).submittedCount((int) sub)
@@ -387,130 +298,28 @@ public class AnalyticsService {
     //  Private helpers
     // ────────────────────────────────────────────────
 
-    private List<TeacherDashboardDto.TrendPointDto> buildMonthlyTestTrend(UUID teacherId) {
-        Map<String, Long> monthlyCount = new LinkedHashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM");
-        for (int i = 5; i >= 0; i--) {
-            monthlyCount.put(now.minusMonths(i).format(fmt), 0L);
-        }
-        testHistoryRepository
-                .findByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(teacherId,
-                        PageRequest.of(0, 1000))
-                .getContent()
-                .forEach(th -> {
-                    if (th.getCreatedAt() != null) {
-                        String key = th.getCreatedAt().format(fmt);
-                        monthlyCount.computeIfPresent(key, (k, v) -> v + 1);
-                    }
-                });
-        return monthlyCount.entrySet().stream()
-                .map(e -> TeacherDashboardDto.TrendPointDto.builder()
-                        .date(e.getKey()).value(e.getValue()).build())
-                .toList();
-    }
-
-    private TeacherDashboardDto.StudentPerformanceDto buildStudentPerformance(
-            UUID studentId, List<TestAttempt> attempts, List<TestAssignment> allAssignments) {
-
-        User user = userRepository.findById(studentId).orElse(null);
-        String firstName = user != null && user.getFirstName() != null ? user.getFirstName() : "";
-        String lastName = user != null && user.getLastName() != null ? user.getLastName() : "";
-        String studentName = (firstName + " " + lastName).trim();
-
-        BigDecimal avgScore = calculateAverage(attempts);
-        long completed = attempts.stream().filter(a -> a.getPercentage() != null).count();
-        double completionRate = attempts.size() > 0
-                ? completed * 100.0 / attempts.size() : 0.0;
-
-        int missedAssignments = (int) allAssignments.stream()
-                .filter(a -> a.getAssignedStudentIds() != null
-                        && a.getAssignedStudentIds().contains(studentId))
-                .filter(a -> attempts.stream().noneMatch(att ->
-                        att.getAssignment() != null
-                                && att.getAssignment().getId().equals(a.getId())
-                                && att.getPercentage() != null))
-                .count();
-
-        String lastActivityAt = attempts.stream()
-                .filter(a -> a.getSubmittedAt() != null)
-                .max(Comparator.comparing(TestAttempt::getSubmittedAt))
-                .map(a -> a.getSubmittedAt().toString())
-                .orElse(null);
-
-        return TeacherDashboardDto.StudentPerformanceDto.builder()
-                .studentId(studentId).studentName(studentName)
-                .firstName(firstName).lastName(lastName)
-                .averageScore(avgScore).totalAttempts(attempts.size())
-                .completedAttempts((int) completed).completionRate(completionRate)
-                .missedAssignments(missedAssignments).lastActivityAt(lastActivityAt)
-                .build();
-    }
-
-    private TeacherDashboardDto.AssignmentSummaryDto buildAssignmentSummary(
-            TestAssignment assignment) {
-        Double avgPercentage = attemptRepository
-                .averagePercentageByAssignmentId(assignment.getId());
-        long submittedCount = attemptRepository
-                .countSubmittedByAssignmentId(assignment.getId());
-
-        return TeacherDashboardDto.AssignmentSummaryDto.builder()
-                .assignmentId(assignment.getId()).title(assignment.getTitle())
-                .totalStudents(assignment.getAssignedStudentIds() != null
-                        ? assignment.getAssignedStudentIds().size() : 0)
-                .submittedCount((int) submittedCount)
-                .averageScore(avgPercentage != null
-                        ? BigDecimal.valueOf(avgPercentage).setScale(2, RoundingMode.HALF_UP)
-                        : null)
-                .status(assignment.getStatus().name())
-                .createdAt(assignment.getCreatedAt() != null
-                        ? assignment.getCreatedAt().toString() : null)
-                .build();
-    }
-
     private List<StudentAnalyticsDto.SubjectBreakdownDto> buildSubjectBreakdown(
-            List<TestAttempt> attempts) {
-        Map<UUID, List<TestAttempt>> bySubject = new HashMap<>();
-        for (TestAttempt attempt : attempts) {
-            if (attempt.getAssignment() == null) continue;
-            UUID testHistoryId = attempt.getAssignment().getTestHistoryId();
-            if (testHistoryId == null) continue;
-            testHistoryRepository.findById(testHistoryId).ifPresent(th -> {
-                UUID subjectId = th.getSubjectId();
-                if (subjectId != null) {
-                    bySubject.computeIfAbsent(subjectId, k -> new ArrayList<>()).add(attempt);
-                }
-            });
-        }
-        return bySubject.entrySet().stream()
-                .map(entry -> {
-                    String subjectName = subjectRepository.findById(entry.getKey())
-                            .map(s -> TranslatedField.resolve(s.getName())).orElse("Unknown");
-                    BigDecimal avgScore = calculateAverage(entry.getValue());
-                    int count = entry.getValue().size();
-                    return StudentAnalyticsDto.SubjectBreakdownDto.builder()
-                            .subjectId(entry.getKey().toString())
-                            .subjectName(subjectName)
-                            .attemptCount(count).totalAttempts(count)
-                            .averageScore(avgScore).build();
-                })
+            StudentRollupSnapshot rollup) {
+        if (rollup.getSubjects().isEmpty()) return List.of();
+        LookupContext lookup = lookupResolver.context().preloadSubjects(rollup.getSubjects().stream()
+                .map(StudentAnalyticsRollup::getScopeId).toList());
+        return rollup.getSubjects().stream()
+                .map(r -> StudentAnalyticsDto.SubjectBreakdownDto.builder()
+                        .subjectId(r.getScopeId().toString())
+                        .subjectName(Objects.requireNonNullElse(lookup.subjectName(r.getScopeId()), "Unknown"))
+                        .attemptCount(r.getAttemptCount()).totalAttempts(r.getAttemptCount())
+                        .averageScore(StudentRollupSnapshot.average(r)).build())
                 .sorted(Comparator.comparing(StudentAnalyticsDto.SubjectBreakdownDto::getSubjectName))
                 .toList();
     }
 
     private List<StudentAnalyticsDto.WeeklyActivityItemDto> buildDailyActivity(
-            List<TestAttempt> allAttempts) {
+            StudentRollupSnapshot rollup) {
         List<StudentAnalyticsDto.WeeklyActivityItemDto> result = new ArrayList<>();
         LocalDate today = LocalDate.now();
         for (int i = 29; i >= 0; i--) {
             LocalDate date = today.minusDays(i);
-            LocalDateTime startOfDay = date.atStartOfDay();
-            LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
-            long count = allAttempts.stream()
-                    .filter(a -> a.getSubmittedAt() != null
-                            && a.getSubmittedAt().isAfter(startOfDay)
-                            && a.getSubmittedAt().isBefore(endOfDay))
-                    .count();
+            long count = rollup.activityBetween(date, date.plusDays(1)).count();
             result.add(StudentAnalyticsDto.WeeklyActivityItemDto.builder()
                     .date(date.toString()).attemptCount((int) count).build());
         }
@@ -518,33 +327,21 @@ public class AnalyticsService {
     }
 
     private StudentAnalyticsDto.WeeklyActivitySummaryDto buildWeeklyActivitySummary(
-            List<TestAttempt> allAttempts) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfThisWeek = now.with(ChronoField.DAY_OF_WEEK, 1)
-                .toLocalDate().atStartOfDay();
-        LocalDateTime startOfLastWeek = startOfThisWeek.minusWeeks(1);
-
-        List<TestAttempt> thisWeek = allAttempts.stream()
-                .filter(a -> a.getSubmittedAt() != null
-                        && a.getSubmittedAt().isAfter(startOfThisWeek))
-                .toList();
-        List<TestAttempt> lastWeek = allAttempts.stream()
-                .filter(a -> a.getSubmittedAt() != null
-                        && a.getSubmittedAt().isAfter(startOfLastWeek)
-                        && a.getSubmittedAt().isBefore(startOfThisWeek))
-                .toList();
+            StudentRollupSnapshot rollup) {
+        LocalDate today = LocalDate.now();
+        LocalDate startOfThisWeek = today.with(ChronoField.DAY_OF_WEEK, 1);
+        LocalDate startOfLastWeek = startOfThisWeek.minusWeeks(1);
 
-        BigDecimal avgThisWeek = calculateAverage(thisWeek);
-        long totalTimeMinutes = thisWeek.stream()
-                .filter(a -> a.getStartedAt() != null && a.getSubmittedAt() != null)
-                .mapToLong(a -> Duration.between(a.getStartedAt(), a.getSubmittedAt()).toMinutes())
-                .sum();
+        StudentRollupSnapshot.DayTotals thisWeek =
+                rollup.activityBetween(startOfThisWeek, today.plusDays(1));
+        StudentRollupSnapshot.DayTotals lastWeek =
+                rollup.activityBetween(startOfLastWeek, startOfThisWeek);
 
         return StudentAnalyticsDto.WeeklyActivitySummaryDto.builder()
-                .testsCompletedThisWeek(thisWeek.size())
-                .testsCompletedLastWeek(lastWeek.size())
-                .averageScoreThisWeek(avgThisWeek)
-                .totalTimeSpentMinutes(totalTimeMinutes)
+                .testsCompletedThisWeek((int) thisWeek.count())
+                .testsCompletedLastWeek((int) lastWeek.count())
+                .averageScoreThisWeek(thisWeek.averageScore())
+                .totalTimeSpentMinutes(thisWeek.seconds() / 60)
                 .build();
     }
 
@@ -613,30 +410,33 @@ public class AnalyticsService {
     private List<GroupStatisticsDto.SubjectPerformanceDto> buildGroupSubjectPerformance(
             List<TestAssignment> groupAssignments, List<TestAttempt> allGroupAttempts) {
         Map<UUID, List<TestAttempt>> attemptsBySubject = new HashMap<>();
-        Map<UUID, String> subjectNames = new HashMap<>();
         Map<UUID, Long> assignmentCountBySubject = new HashMap<>();
 
+        Map<UUID, UUID> subjectByHistory = new HashMap<>();
+        testHistoryRepository.findAllById(groupAssignments.stream()
+                        .map(TestAssignment::getTestHistoryId).filter(Objects::nonNull).distinct().toList())
+                .forEach(th -> {
+                    if (th.getSubjectId() != null) subjectByHistory.put(th.getId(), th.getSubjectId());
+                });
+
+        Map<UUID, List<TestAttempt>> attemptsByAssignment = allGroupAttempts.stream()
+                .filter(a -> a.getAssignment() != null)
+                .collect(Collectors.groupingBy(a -> a.getAssignment().getId()));
+
         for (TestAssignment assignment : groupAssignments) {
-            if (assignment.getTestHistoryId() == null) continue;
-            testHistoryRepository.findById(assignment.getTestHistoryId()).ifPresent(th -> {
-                UUID subjectId = th.getSubjectId();
-                if (subjectId == null) return;
-                subjectNames.computeIfAbsent(subjectId, k ->
-                        subjectRepository.findById(k)
-                                .map(s -> TranslatedField.resolve(s.getName())).orElse("Unknown"));
-                List<TestAttempt> aa = allGroupAttempts.stream()
-                        .filter(a -> a.getAssignment() != null
-                                && a.getAssignment().getId().equals(assignment.getId()))
-                        .toList();
-                attemptsBySubject.computeIfAbsent(subjectId, k -> new ArrayList<>()).addAll(aa);
-                assignmentCountBySubject.merge(subjectId, 1L, Long::sum);
-            });
+            UUID subjectId = subjectByHistory.get(assignment.getTestHistoryId());
+            if (subjectId == null) continue;
+            attemptsBySubject.computeIfAbsent(subjectId, k -> new ArrayList<>())
+                    .addAll(attemptsByAssignment.getOrDefault(assignment.getId(), List.of()));
+            assignmentCountBySubject.merge(subjectId, 1L, Long::sum);
         }
 
+        LookupContext lookup = lookupResolver.context().preloadSubjects(attemptsBySubject.keySet());
+
         return attemptsBySubject.entrySet().stream()
                 .map(e -> GroupStatisticsDto.SubjectPerformanceDto.builder()
                         .subjectId(e.getKey())
-                        .subjectName(subjectNames.getOrDefault(e.getKey(), "Unknown"))
+                        .subjectName(Objects.requireNonNullElse(lookup.subjectName(e.getKey()), "Unknown"))
                         .averageScore(calculateAverage(e.getValue()).doubleValue())
                         .assignmentCount(Math.toIntExact(
                                 assignmentCountBySubject.getOrDefault(e.getKey(), 0L)))
@@ -645,51 +445,6 @@ public class AnalyticsService {
                 .toList();
     }
 
-    private List<TeacherDashboardDto.TopicPerformanceDto> buildTopicBreakdown(
-            List<TestAssignment> assignments, List<TestAttempt> allAttempts) {
-        Map<UUID, List<TestAttempt>> byTopic = new HashMap<>();
-        Map<UUID, UUID> topicToSubject = new HashMap<>();
-
-        for (TestAssignment assignment : assignments) {
-            UUID testHistoryId = assignment.getTestHistoryId();
-            if (testHistoryId == null) continue;
-            testHistoryRepository.findById(testHistoryId).ifPresent(th -> {
-                List<UUID> topicIds = th.getTopicIds();
-                UUID subjectId = th.getSubjectId();
-                if (topicIds == null || topicIds.isEmpty()) return;
-                List<TestAttempt> aa = allAttempts.stream()
-                        .filter(a -> a.getAssignment() != null
-                                && a.getAssignment().getId().equals(assignment.getId()))
-                        .toList();
-                for (UUID topicId : topicIds) {
-                    byTopic.computeIfAbsent(topicId, k -> new ArrayList<>()).addAll(aa);
-                    topicToSubject.putIfAbsent(topicId, subjectId);
-                }
-            });
-        }
-
-        return byTopic.entrySet().stream()
-                .map(entry -> {
-                    UUID topicId = entry.getKey();
-                    BigDecimal avg = calculateAverage(entry.getValue());
-                    String topicName = topicRepository.findById(topicId)
-                            .map(t -> TranslatedField.resolve(t.getName())).orElse("Unknown");
-                    UUID subjectId = topicToSubject.get(topicId);
-                    String subjectName = subjectId != null
-                            ? subjectRepository.findById(subjectId)
-                                    .map(s -> TranslatedField.resolve(s.getName())).orElse("Unknown")
-                            : "Unknown";
-                    String difficulty = avg.compareTo(new BigDecimal("80")) >= 0 ? "EASY"
-                            : avg.compareTo(new BigDecimal("50")) >= 0 ? "MEDIUM" : "HARD";
-                    return TeacherDashboardDto.TopicPerformanceDto.builder()
-                            .topicId(topicId).topicName(topicName).subjectName(subjectName)
-                            .averageScore(avg).attemptCount(entry.getValue().size())
-                            .difficulty(difficulty).build();
-                })
-                .sorted(Comparator.comparing(TeacherDashboardDto.TopicPerformanceDto::getAverageScore))
-                .toList();
-    }
-
     private List<StudentAnalyticsDto.UpcomingAssignmentDto> buildUpcomingAssignments(
             List<TestAssignment> assignments) {
         LocalDateTime now = LocalDateTime.now();
@@ -734,24 +489,17 @@ public class AnalyticsService {
     }
 
     private StudentAnalyticsDto.TimeManagementDto buildTimeManagement(
-            List<TestAttempt> attempts) {
-        List<TestAttempt> completed = attempts.stream()
-                .filter(a -> a.getStartedAt() != null && a.getSubmittedAt() != null).toList();
-        if (completed.isEmpty()) {
+            StudentRollupSnapshot rollup) {
+        int completed = rollup.getGradedCount();
+        if (completed == 0) {
             return StudentAnalyticsDto.TimeManagementDto.builder()
                     .averageTimePerTestMinutes(BigDecimal.ZERO)
                     .averageTimePerQuestionSeconds(BigDecimal.ZERO).build();
         }
-        long totalTestMinutes = completed.stream()
-                .mapToLong(a -> Duration.between(a.getStartedAt(), a.getSubmittedAt()).toMinutes())
-                .sum();
-        BigDecimal avgTestMinutes = BigDecimal.valueOf(totalTestMinutes)
-                .divide(BigDecimal.valueOf(completed.size()), 2, RoundingMode.HALF_UP);
-        long totalQuestions = completed.stream()
-                .mapToLong(a -> answerRepository.countByAttemptId(a.getId())).sum();
-        long totalTestSeconds = completed.stream()
-                .mapToLong(a -> Duration.between(a.getStartedAt(), a.getSubmittedAt()).getSeconds())
-                .sum();
+        long totalTestSeconds = rollup.getTimeSpentSeconds();
+        BigDecimal avgTestMinutes = BigDecimal.valueOf(totalTestSeconds / 60)
+                .divide(BigDecimal.valueOf(completed), 2, RoundingMode.HALF_UP);
+        long totalQuestions = rollup.getQuestionCount();
         BigDecimal avgTimePerQuestion = totalQuestions > 0
                 ? BigDecimal.valueOf(totalTestSeconds)
                         .divide(BigDecimal.valueOf(totalQuestions), 2, RoundingMode.HALF_UP)
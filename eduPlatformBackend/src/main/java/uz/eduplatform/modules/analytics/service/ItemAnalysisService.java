@@ -0,0 +1,236 @@
+package uz.eduplatform.modules.analytics.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.eduplatform.modules.content.domain.Question;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Item analysis for questions, fed by graded answers. Graded attempts are consumed in
+ * {@code (graded_at, id)} order from a watermark; each answer adds to running sums per question
+ * in {@code question_item_stats}, and the derived statistics are written to {@code questions}:
+ * <ul>
+ *   <li>{@code correct_rate}: p-value as a percentage of auto-graded responses</li>
+ *   <li>{@code avg_time_seconds}: mean time over answers that report time</li>
+ *   <li>{@code discrimination}: point-biserial correlation between answering the item
+ *       correctly and the attempt percentage</li>
+ * </ul>
+ * Sums, question statistics and the watermark move in one transaction, so a crash simply
+ * resumes from the last committed batch and nothing is counted twice. Only attempts graded at
+ * least {@code app.item-analysis.lag-seconds} ago are read, so grading transactions still in
+ * flight when the watermark passes are not skipped.
+ * <p>
+ * An attempt is counted once, at its first grading; re-grades and manual scores do not feed
+ * back. Editing a question starts its statistics over through {@link #resetQuestion}.
+ */
+@Slf4j
+@Service
+public class ItemAnalysisService {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String LOCK_WATERMARK_SQL =
+            "SELECT last_graded_at, last_attempt_id FROM item_analysis_watermark WHERE id = 1 FOR UPDATE SKIP LOCKED";
+
+    private static final String NEXT_ATTEMPTS_SQL = """
+            SELECT id, percentage, graded_at FROM test_attempts
+            WHERE graded_at IS NOT NULL AND graded_at < ? AND (graded_at, id) > (?, ?)
+            ORDER BY graded_at, id
+            LIMIT ?
+            """;
+
+    private static final String UPSERT_SUMS_SQL = """
+            INSERT INTO question_item_stats (question_id, responses, correct_count, score_sum, score_sq_sum,
+                                             correct_score_sum, timed_count, time_sum, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, NOW())
+            ON CONFLICT (question_id) DO UPDATE SET
+                responses         = question_item_stats.responses + EXCLUDED.responses,
+                correct_count     = question_item_stats.correct_count + EXCLUDED.correct_count,
+                score_sum         = question_item_stats.score_sum + EXCLUDED.score_sum,
+                score_sq_sum      = question_item_stats.score_sq_sum + EXCLUDED.score_sq_sum,
+                correct_score_sum = question_item_stats.correct_score_sum + EXCLUDED.correct_score_sum,
+                timed_count       = question_item_stats.timed_count + EXCLUDED.timed_count,
+                time_sum          = question_item_stats.time_sum + EXCLUDED.time_sum,
+                updated_at        = NOW()
+            """;
+
+    private static final String UPDATE_QUESTION_SQL =
+            "UPDATE questions SET correct_rate = ?, avg_time_seconds = ?, discrimination = ?, response_count = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long lagSeconds;
+
+    public ItemAnalysisService(JdbcTemplate jdbcTemplate,
+                               @Value("${app.item-analysis.lag-seconds:120}") long lagSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lagSeconds = lagSeconds;
+    }
+
+    /**
+     * Consume the next batch of graded attempts after the watermark.
+     *
+     * @return attempts consumed; 0 when caught up or another node is processing
+     */
+    @Transactional
+    public int processNextBatch() {
+        List<Object[]> watermark = jdbcTemplate.query(LOCK_WATERMARK_SQL,
+                (rs, i) -> new Object[]{rs.getTimestamp(1), rs.getObject(2, UUID.class)});
+        if (watermark.isEmpty()) return 0;
+
+        Timestamp horizon = Timestamp.valueOf(LocalDateTime.now().minusSeconds(lagSeconds));
+        List<Object[]> attempts = jdbcTemplate.query(NEXT_ATTEMPTS_SQL,
+                (rs, i) -> new Object[]{rs.getObject(1, UUID.class), rs.getBigDecimal(2), rs.getTimestamp(3)},
+                horizon, watermark.get(0)[0], watermark.get(0)[1], BATCH_SIZE);
+        if (attempts.isEmpty()) return 0;
+
+        Map<UUID, Double> scoreByAttempt = new HashMap<>();
+        for (Object[] attempt : attempts) {
+            BigDecimal percentage = (BigDecimal) attempt[1];
+            scoreByAttempt.put((UUID) attempt[0], percentage != null ? percentage.doubleValue() : 0.0);
+        }
+
+        Map<UUID, Sums> deltas = new HashMap<>();
+        jdbcTemplate.query("SELECT attempt_id, question_id, is_correct, time_spent_seconds FROM answers "
+                        + "WHERE attempt_id IN (" + placeholders(scoreByAttempt.size()) + ")",
+                rs -> {
+                    double score = scoreByAttempt.get(rs.getObject(1, UUID.class));
+                    Boolean correct = (Boolean) rs.getObject(3);
+                    Integer time = (Integer) rs.getObject(4);
+                    deltas.computeIfAbsent(rs.getObject(2, UUID.class), id -> new Sums()).add(correct, score, time);
+                },
+                scoreByAttempt.keySet().toArray());
+
+        if (!deltas.isEmpty()) {
+            applyDeltas(deltas);
+        }
+
+        Object[] last = attempts.get(attempts.size() - 1);
+        jdbcTemplate.update("UPDATE item_analysis_watermark SET last_graded_at = ?, last_attempt_id = ?, updated_at = NOW() "
+                + "WHERE id = 1", last[2], last[0]);
+        log.debug("Item analysis consumed {} attempts, {} questions updated", attempts.size(), deltas.size());
+        return attempts.size();
+    }
+
+    /**
+     * Drop a question's statistics, e.g. after an edit changed what its answers mean.
+     */
+    @Transactional
+    public void resetQuestion(Question question) {
+        jdbcTemplate.update("DELETE FROM question_item_stats WHERE question_id = ?", question.getId());
+        jdbcTemplate.update(UPDATE_QUESTION_SQL, null, null, null, 0, question.getId());
+        question.setCorrectRate(null);
+        question.setAvgTimeSeconds(null);
+        question.setDiscrimination(null);
+        question.setResponseCount(0);
+    }
+
+    private void applyDeltas(Map<UUID, Sums> deltas) {
+        List<UUID> questionIds = new ArrayList<>(deltas.keySet());
+        jdbcTemplate.batchUpdate(UPSERT_SUMS_SQL, questionIds, questionIds.size(), (ps, questionId) -> {
+            Sums d = deltas.get(questionId);
+            ps.setObject(1, questionId);
+            ps.setLong(2, d.responses);
+            ps.setLong(3, d.correct);
+            ps.setDouble(4, d.scoreSum);
+            ps.setDouble(5, d.scoreSqSum);
+            ps.setDouble(6, d.correctScoreSum);
+            ps.setLong(7, d.timed);
+            ps.setLong(8, d.timeSum);
+        });
+
+        Map<UUID, ItemStats> stats = new HashMap<>();
+        jdbcTemplate.query("SELECT question_id, responses, correct_count, score_sum, score_sq_sum, correct_score_sum, "
+                        + "timed_count, time_sum FROM question_item_stats WHERE question_id IN ("
+                        + placeholders(questionIds.size()) + ")",
+                rs -> {
+                    Sums total = new Sums();
+                    total.responses = rs.getLong(2);
+                    total.correct = rs.getLong(3);
+                    total.scoreSum = rs.getDouble(4);
+                    total.scoreSqSum = rs.getDouble(5);
+                    total.correctScoreSum = rs.getDouble(6);
+                    total.timed = rs.getLong(7);
+                    total.timeSum = rs.getLong(8);
+                    stats.put(rs.getObject(1, UUID.class), total.toStats());
+                },
+                questionIds.toArray());
+
+        List<UUID> updated = new ArrayList<>(stats.keySet());
+        jdbcTemplate.batchUpdate(UPDATE_QUESTION_SQL, updated, updated.size(), (ps, questionId) -> {
+            ItemStats s = stats.get(questionId);
+            ps.setObject(1, s.correctRate(), Types.NUMERIC);
+            ps.setObject(2, s.avgTimeSeconds(), Types.INTEGER);
+            ps.setObject(3, s.discrimination(), Types.NUMERIC);
+            ps.setInt(4, s.responses());
+            ps.setObject(5, questionId);
+        });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    record ItemStats(BigDecimal correctRate, Integer avgTimeSeconds, BigDecimal discrimination, int responses) {
+    }
+
+    /**
+     * Running sums for one question. Answers without an auto-graded verdict (manual types) only
+     * contribute their time.
+     */
+    static final class Sums {
+        long responses;
+        long correct;
+        double scoreSum;
+        double scoreSqSum;
+        double correctScoreSum;
+        long timed;
+        long timeSum;
+
+        void add(Boolean isCorrect, double attemptScore, Integer timeSpentSeconds) {
+            if (isCorrect != null) {
+                responses++;
+                scoreSum += attemptScore;
+                scoreSqSum += attemptScore * attemptScore;
+                if (isCorrect) {
+                    correct++;
+                    correctScoreSum += attemptScore;
+                }
+            }
+            if (timeSpentSeconds != null && timeSpentSeconds > 0) {
+                timed++;
+                timeSum += timeSpentSeconds;
+            }
+        }
+
+        ItemStats toStats() {
+            BigDecimal correctRate = responses > 0
+                    ? BigDecimal.valueOf(100.0 * correct / responses).setScale(2, RoundingMode.HALF_UP)
+                    : null;
+            Integer avgTime = timed > 0 ? (int) Math.round((double) timeSum / timed) : null;
+            return new ItemStats(correctRate, avgTime, pointBiserial(), (int) Math.min(responses, Integer.MAX_VALUE));
+        }
+
+        // r = (M1 - M0) / s * sqrt(p * q), with s the population deviation of attempt scores
+        private BigDecimal pointBiserial() {
+            if (responses < 2 || correct == 0 || correct == responses) return null;
+            double mean = scoreSum / responses;
+            double variance = scoreSqSum / responses - mean * mean;
+            if (variance <= 1e-9) return null;
+
+            double meanCorrect = correctScoreSum / correct;
+            double meanWrong = (scoreSum - correctScoreSum) / (responses - correct);
+            double p = (double) correct / responses;
+            double r = (meanCorrect - meanWrong) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+            return BigDecimal.valueOf(Math.max(-1.0, Math.min(1.0, r))).setScale(4, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package uz.eduplatform.modules.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAnalysisTask {
+
+    // Caps one run at 10k attempts so a backfill drains over several runs
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final ItemAnalysisService itemAnalysisService;
+
+    /**
+     * Fold newly graded attempts into question statistics, a batch at a time until caught up.
+     */
+    @Scheduled(fixedDelayString = "${app.item-analysis.interval-ms:60000}")
+    public void updateItemStatistics() {
+        int consumed = 0;
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                int batch = itemAnalysisService.processNextBatch();
+                consumed += batch;
+                if (batch < ItemAnalysisService.BATCH_SIZE) break;
+            }
+        } catch (Exception e) {
+            log.error("Item analysis run failed after {} attempts: {}", consumed, e.getMessage(), e);
+        }
+        if (consumed > 0) {
+            log.info("Item analysis consumed {} graded attempts", consumed);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package uz.eduplatform.modules.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.eduplatform.modules.analytics.domain.RollupScope;
+import uz.eduplatform.modules.analytics.domain.StudentAnalyticsRollup;
+import uz.eduplatform.modules.analytics.repository.StudentAnalyticsRollupRepository;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.modules.test.domain.TestHistory;
+import uz.eduplatform.modules.test.repository.TestHistoryRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Maintains the per-student analytics rollup incrementally as attempts are graded.
+ * Each grade applies a delta, so the cost is independent of the student's attempt history.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudentAnalyticsRollupService {
+
+    private final StudentAnalyticsRollupRepository rollupRepository;
+    private final TestHistoryRepository testHistoryRepository;
+
+    static final int RECENT_POINTS_LIMIT = 20;
+    static final int DAILY_ACTIVITY_DAYS = 62;
+
+    /**
+     * Apply a graded (or re-graded) attempt to the student's rollup.
+     *
+     * @param previousPercentage the attempt's percentage before this grading run,
+     *                           {@code null} if it is being graded for the first time
+     * @param questionCount      number of answers in the attempt
+     */
+    @Transactional
+    public void recordGradedAttempt(TestAttempt attempt, BigDecimal previousPercentage, int questionCount) {
+        BigDecimal percentage = attempt.getPercentage();
+        if (percentage == null) return;
+
+        boolean firstGrade = previousPercentage == null;
+        BigDecimal delta = firstGrade ? percentage : percentage.subtract(previousPercentage);
+        if (!firstGrade && delta.signum() == 0) return;
+
+        UUID studentId = attempt.getStudentId();
+        TestAssignment assignment = attempt.getAssignment();
+        Optional<TestHistory> testHistory = assignment != null && assignment.getTestHistoryId() != null
+                ? testHistoryRepository.findById(assignment.getTestHistoryId())
+                : Optional.empty();
+        UUID subjectId = testHistory.map(TestHistory::getSubjectId).orElse(null);
+        List<UUID> topicIds = testHistory.map(TestHistory::getTopicIds).orElse(List.of());
+
+        // The OVERALL row doubles as a per-student lock; rows read after it are current
+        rollupRepository.insertOverallIfAbsent(studentId);
+        StudentAnalyticsRollup overall = rollupRepository.lockOverall(studentId)
+                .orElseThrow(() -> new IllegalStateException("Rollup row missing for student " + studentId));
+
+        Map<String, StudentAnalyticsRollup> existing = new HashMap<>();
+        for (StudentAnalyticsRollup r : rollupRepository.findByStudentId(studentId)) {
+            existing.put(key(r.getScopeType(), r.getScopeId()), r);
+        }
+
+        List<StudentAnalyticsRollup> touched = new ArrayList<>();
+        touched.add(overall);
+        if (subjectId != null) {
+            touched.add(getOrCreate(existing, studentId, RollupScope.SUBJECT, subjectId, subjectId));
+        }
+        if (topicIds != null) {
+            for (UUID topicId : new LinkedHashSet<>(topicIds)) {
+                touched.add(getOrCreate(existing, studentId, RollupScope.TOPIC, topicId, subjectId));
+            }
+        }
+
+        LocalDateTime submittedAt = attempt.getSubmittedAt() != null
+                ? attempt.getSubmittedAt() : LocalDateTime.now();
+        long seconds = attempt.getStartedAt() != null && attempt.getSubmittedAt() != null
+                ? Math.max(0, Duration.between(attempt.getStartedAt(), attempt.getSubmittedAt()).getSeconds())
+                : 0L;
+
+        for (StudentAnalyticsRollup rollup : touched) {
+            rollup.setScoreSum(rollup.getScoreSum().add(delta));
+            if (firstGrade) {
+                rollup.setAttemptCount(rollup.getAttemptCount() + 1);
+                rollup.setTimeSpentSeconds(rollup.getTimeSpentSeconds() + seconds);
+                rollup.setQuestionCount(rollup.getQuestionCount() + questionCount);
+                if (rollup.getLastAttemptAt() == null || submittedAt.isAfter(rollup.getLastAttemptAt())) {
+                    rollup.setLastAttemptAt(submittedAt);
+                }
+            }
+        }
+
+        if (firstGrade) {
+            addRecentPoint(overall, attempt, assignment != null ? assignment.getTitle() : null, submittedAt);
+        } else {
+            updateRecentPoint(overall, attempt.getId(), percentage);
+        }
+        addDailyActivity(overall, submittedAt.toLocalDate(), firstGrade ? 1 : 0, delta, firstGrade ? seconds : 0);
+
+        rollupRepository.saveAll(touched);
+    }
+
+    @Transactional(readOnly = true)
+    public StudentRollupSnapshot getSnapshot(UUID studentId) {
+        StudentAnalyticsRollup overall = null;
+        List<StudentAnalyticsRollup> subjects = new ArrayList<>();
+        List<StudentAnalyticsRollup> topics = new ArrayList<>();
+        for (StudentAnalyticsRollup r : rollupRepository.findByStudentId(studentId)) {
+            switch (r.getScopeType()) {
+                case OVERALL -> overall = r;
+                case SUBJECT -> subjects.add(r);
+                case TOPIC -> topics.add(r);
+            }
+        }
+        return new StudentRollupSnapshot(overall, subjects, topics);
+    }
+
+    // ==================== Helpers ====================
+
+    private StudentAnalyticsRollup getOrCreate(Map<String, StudentAnalyticsRollup> existing, UUID studentId,
+                                               RollupScope scope, UUID scopeId, UUID subjectId) {
+        return existing.computeIfAbsent(key(scope, scopeId), k -> StudentAnalyticsRollup.builder()
+                .studentId(studentId)
+                .scopeType(scope)
+                .scopeId(scopeId)
+                .subjectId(subjectId)
+                .build());
+    }
+
+    private void addRecentPoint(StudentAnalyticsRollup overall, TestAttempt attempt,
+                                String assignmentTitle, LocalDateTime submittedAt) {
+        Map<String, Object> point = new HashMap<>();
+        point.put("attemptId", attempt.getId() != null ? attempt.getId().toString() : null);
+        point.put("assignmentTitle", assignmentTitle);
+        point.put("percentage", attempt.getPercentage());
+        point.put("submittedAt", submittedAt.toString());
+
+        List<Map<String, Object>> points = new ArrayList<>();
+        points.add(point);
+        if (overall.getRecentPoints() != null) {
+            points.addAll(overall.getRecentPoints());
+        }
+        points.sort(Comparator.comparing(
+                (Map<String, Object> p) -> p.get("submittedAt") != null
+                        ? LocalDateTime.parse(p.get("submittedAt").toString()) : LocalDateTime.MIN)
+                .reversed());
+        overall.setRecentPoints(new ArrayList<>(points.subList(0, Math.min(points.size(), RECENT_POINTS_LIMIT))));
+    }
+
+    private void updateRecentPoint(StudentAnalyticsRollup overall, UUID attemptId, BigDecimal percentage) {
+        if (overall.getRecentPoints() == null || attemptId == null) return;
+        List<Map<String, Object>> points = new ArrayList<>();
+        for (Map<String, Object> p : overall.getRecentPoints()) {
+            Map<String, Object> copy = new HashMap<>(p);
+            if (attemptId.toString().equals(String.valueOf(p.get("attemptId")))) {
+                copy.put("percentage", percentage);
+            }
+            points.add(copy);
+        }
+        overall.setRecentPoints(points);
+    }
+
+    private void addDailyActivity(StudentAnalyticsRollup overall, LocalDate day,
+                                  int count, BigDecimal scoreDelta, long seconds) {
+        LocalDate cutoff = LocalDate.now().minusDays(DAILY_ACTIVITY_DAYS);
+        Map<String, Map<String, Object>> days = new TreeMap<>();
+        if (overall.getDailyActivity() != null) {
+            overall.getDailyActivity().forEach((d, v) -> {
+                if (!LocalDate.parse(d).isBefore(cutoff)) days.put(d, new HashMap<>(v));
+            });
+        }
+        if (!day.isBefore(cutoff)) {
+            Map<String, Object> totals = days.computeIfAbsent(day.toString(), k -> new HashMap<>());
+            totals.put("count", StudentRollupSnapshot.toLong(totals.get("count")) + count);
+            totals.put("scoreSum", StudentRollupSnapshot.toBigDecimal(totals.get("scoreSum")).add(scoreDelta));
+            totals.put("seconds", StudentRollupSnapshot.toLong(totals.get("seconds")) + seconds);
+        }
+        overall.setDailyActivity(days);
+    }
+
+    private static String key(RollupScope scope, UUID scopeId) {
+        return scope + ":" + scopeId;
+    }
+}
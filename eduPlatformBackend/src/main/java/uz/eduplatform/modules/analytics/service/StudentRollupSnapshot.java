@@ -0,0 +1,106 @@
+package uz.eduplatform.modules.analytics.service;
+
+import lombok.Getter;
+import uz.eduplatform.modules.analytics.domain.StudentAnalyticsRollup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Read view over a student's rollup rows. Built from a single query, so the
+ * dashboards that use it cost the same regardless of attempt history size.
+ */
+@Getter
+public class StudentRollupSnapshot {
+
+    private final StudentAnalyticsRollup overall;
+    private final List<StudentAnalyticsRollup> subjects;
+    private final List<StudentAnalyticsRollup> topics;
+
+    public StudentRollupSnapshot(StudentAnalyticsRollup overall,
+                                 List<StudentAnalyticsRollup> subjects,
+                                 List<StudentAnalyticsRollup> topics) {
+        this.overall = overall;
+        this.subjects = subjects;
+        this.topics = topics;
+    }
+
+    public int getGradedCount() {
+        return overall != null ? overall.getAttemptCount() : 0;
+    }
+
+    public BigDecimal getAverageScore() {
+        return overall != null ? average(overall) : BigDecimal.ZERO;
+    }
+
+    public long getTimeSpentSeconds() {
+        return overall != null ? overall.getTimeSpentSeconds() : 0L;
+    }
+
+    public long getQuestionCount() {
+        return overall != null ? overall.getQuestionCount() : 0L;
+    }
+
+    /** Most recent scored attempts, newest first. */
+    public List<TrendPoint> getRecentPoints() {
+        if (overall == null || overall.getRecentPoints() == null) return List.of();
+        return overall.getRecentPoints().stream()
+                .map(p -> new TrendPoint(
+                        p.get("attemptId") != null ? UUID.fromString(p.get("attemptId").toString()) : null,
+                        p.get("assignmentTitle") != null ? p.get("assignmentTitle").toString() : null,
+                        toBigDecimal(p.get("percentage")),
+                        p.get("submittedAt") != null ? LocalDateTime.parse(p.get("submittedAt").toString()) : null))
+                .toList();
+    }
+
+    /** Graded attempts submitted on days in [from, to). */
+    public DayTotals activityBetween(LocalDate from, LocalDate toExclusive) {
+        if (overall == null || overall.getDailyActivity() == null) return DayTotals.EMPTY;
+        long count = 0;
+        long seconds = 0;
+        BigDecimal scoreSum = BigDecimal.ZERO;
+        for (Map.Entry<String, Map<String, Object>> e : overall.getDailyActivity().entrySet()) {
+            LocalDate day = LocalDate.parse(e.getKey());
+            if (day.isBefore(from) || !day.isBefore(toExclusive)) continue;
+            count += toLong(e.getValue().get("count"));
+            seconds += toLong(e.getValue().get("seconds"));
+            scoreSum = scoreSum.add(toBigDecimal(e.getValue().get("scoreSum")));
+        }
+        return new DayTotals(count, scoreSum, seconds);
+    }
+
+    public static BigDecimal average(StudentAnalyticsRollup rollup) {
+        return average(rollup.getScoreSum(), rollup.getAttemptCount());
+    }
+
+    public static BigDecimal average(BigDecimal sum, long count) {
+        if (count <= 0 || sum == null) return BigDecimal.ZERO;
+        return sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    static BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal bd) return bd;
+        return new BigDecimal(value.toString());
+    }
+
+    static long toLong(Object value) {
+        if (value instanceof Number n) return n.longValue();
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+
+    public record TrendPoint(UUID attemptId, String assignmentTitle,
+                             BigDecimal percentage, LocalDateTime submittedAt) {
+    }
+
+    public record DayTotals(long count, BigDecimal scoreSum, long seconds) {
+        static final DayTotals EMPTY = new DayTotals(0, BigDecimal.ZERO, 0);
+
+        public BigDecimal averageScore() {
+            return average(scoreSum, count);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package uz.eduplatform.modules.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.eduplatform.core.i18n.TranslatedField;
+import uz.eduplatform.modules.analytics.dto.TeacherDashboardDto;
+import uz.eduplatform.modules.analytics.repository.DashboardAggregationRepository;
+import uz.eduplatform.modules.auth.domain.User;
+import uz.eduplatform.modules.auth.repository.UserRepository;
+import uz.eduplatform.modules.content.domain.Subject;
+import uz.eduplatform.modules.content.domain.Topic;
+import uz.eduplatform.modules.content.repository.SubjectRepository;
+import uz.eduplatform.modules.content.repository.TopicRepository;
+import uz.eduplatform.modules.group.repository.StudentGroupRepository;
+import uz.eduplatform.modules.test.repository.TestHistoryRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Teacher dashboard built from a fixed set of grouped SQL projections.
+ * Query count is constant: it does not grow with groups, assignments or attempts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeacherDashboardService {
+
+    private final DashboardAggregationRepository aggregationRepository;
+    private final StudentGroupRepository groupRepository;
+    private final TestHistoryRepository testHistoryRepository;
+    private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+    private final TopicRepository topicRepository;
+
+    private static final BigDecimal AT_RISK_THRESHOLD = new BigDecimal("40.00");
+    private static final int TOP_STUDENTS_LIMIT = 5;
+    private static final int RECENT_ASSIGNMENTS_LIMIT = 10;
+    private static final int TREND_MONTHS = 6;
+
+    @Transactional(readOnly = true)
+    public TeacherDashboardDto getTeacherDashboard(UUID teacherId) {
+        long totalGroups = groupRepository.countByTeacherId(teacherId);
+        long totalStudents = aggregationRepository.countDistinctStudentsInTeacherGroups(teacherId);
+        long totalTests = testHistoryRepository.countByUserId(teacherId);
+
+        Object[] summary = firstRow(aggregationRepository.summarizeAssignments(teacherId));
+        long totalAssignments = toLong(summary[0]);
+        long activeAssignments = toLong(summary[1]);
+        long totalAssignedSlots = toLong(summary[2]);
+
+        List<Object[]> studentRows = aggregationRepository.aggregateAttemptsByStudent(teacherId);
+
+        BigDecimal percentageSum = BigDecimal.ZERO;
+        long totalSubmitted = 0;
+        for (Object[] row : studentRows) {
+            totalSubmitted += toLong(row[2]);
+            percentageSum = percentageSum.add(toBigDecimal(row[3]));
+        }
+        BigDecimal overallAverage = average(percentageSum, totalSubmitted);
+        double completionRate = totalAssignedSlots > 0
+                ? totalSubmitted * 100.0 / totalAssignedSlots : 0.0;
+
+        List<TeacherDashboardDto.StudentPerformanceDto> studentPerformances =
+                buildStudentPerformances(teacherId, studentRows);
+
+        List<TeacherDashboardDto.StudentPerformanceDto> topStudents =
+                studentPerformances.stream().limit(TOP_STUDENTS_LIMIT).toList();
+
+        List<TeacherDashboardDto.StudentPerformanceDto> atRiskStudents =
+                studentPerformances.stream()
+                        .filter(s -> s.getAverageScore() != null
+                                && s.getAverageScore().compareTo(AT_RISK_THRESHOLD) < 0)
+                        .toList();
+
+        List<Object[]> recentRows = aggregationRepository
+                .summarizeRecentAssignments(teacherId, RECENT_ASSIGNMENTS_LIMIT);
+
+        List<TeacherDashboardDto.AssignmentSummaryDto> recentAssignments = recentRows.stream()
+                .map(this::toAssignmentSummary)
+                .toList();
+
+        List<TeacherDashboardDto.ActivityDto> recentActivity = recentRows.stream()
+                .map(row -> {
+                    LocalDateTime createdAt = toLocalDateTime(row[3]);
+                    return TeacherDashboardDto.ActivityDto.builder()
+                            .type("ASSIGNMENT")
+                            .description((String) row[1])
+                            .createdAt(createdAt != null
+                                    ? createdAt.toString()
+                                    : LocalDateTime.now().toString())
+                            .build();
+                })
+                .toList();
+
+        return TeacherDashboardDto.builder()
+                .totalGroups((int) totalGroups)
+                .totalStudents((int) totalStudents)
+                .totalAssignments((int) totalAssignments)
+                .activeAssignments((int) activeAssignments)
+                .totalTests((int) totalTests)
+                .overallAverageScore(overallAverage)
+                .averageScore(overallAverage.doubleValue())
+                .completionRate(completionRate)
+                .testCreationTrend(buildMonthlyTestTrend(teacherId))
+                .recentActivity(recentActivity)
+                .topStudents(topStudents)
+                .atRiskStudents(atRiskStudents)
+                .recentAssignments(recentAssignments)
+                .topicBreakdown(buildTopicBreakdown(teacherId))
+                .build();
+    }
+
+    // ────────────────────────────────────────────────
+    //  Private helpers
+    // ────────────────────────────────────────────────
+
+    private List<TeacherDashboardDto.StudentPerformanceDto> buildStudentPerformances(
+            UUID teacherId, List<Object[]> studentRows) {
+        if (studentRows.isEmpty()) return List.of();
+
+        Map<UUID, Long> missedByStudent = new HashMap<>();
+        for (Object[] row : aggregationRepository.countMissedAssignmentsByStudent(teacherId)) {
+            missedByStudent.put(toUuid(row[0]), toLong(row[1]));
+        }
+
+        List<UUID> studentIds = studentRows.stream().map(row -> toUuid(row[0])).toList();
+        Map<UUID, User> users = userRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return studentRows.stream()
+                .map(row -> {
+                    UUID studentId = toUuid(row[0]);
+                    long attempts = toLong(row[1]);
+                    long completed = toLong(row[2]);
+                    LocalDateTime lastSubmittedAt = toLocalDateTime(row[4]);
+
+                    User user = users.get(studentId);
+                    String firstName = user != null && user.getFirstName() != null ? user.getFirstName() : "";
+                    String lastName = user != null && user.getLastName() != null ? user.getLastName() : "";
+
+                    return TeacherDashboardDto.StudentPerformanceDto.builder()
+                            .studentId(studentId)
+                            .studentName((firstName + " " + lastName).trim())
+                            .firstName(firstName).lastName(lastName)
+                            .averageScore(average(toBigDecimal(row[3]), completed))
+                            .totalAttempts((int) attempts)
+                            .completedAttempts((int) completed)
+                            .completionRate(attempts > 0 ? completed * 100.0 / attempts : 0.0)
+                            .missedAssignments(missedByStudent.getOrDefault(studentId, 0L).intValue())
+                            .lastActivityAt(lastSubmittedAt != null ? lastSubmittedAt.toString() : null)
+                            .build();
+                })
+                .sorted(Comparator.comparing(
+                        TeacherDashboardDto.StudentPerformanceDto::getAverageScore,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+    }
+
+    private TeacherDashboardDto.AssignmentSummaryDto toAssignmentSummary(Object[] row) {
+        LocalDateTime createdAt = toLocalDateTime(row[3]);
+        return TeacherDashboardDto.AssignmentSummaryDto.builder()
+                .assignmentId(toUuid(row[0]))
+                .title((String) row[1])
+                .status((String) row[2])
+                .totalStudents((int) toLong(row[4]))
+                .averageScore(row[5] != null
+                        ? toBigDecimal(row[5]).setScale(2, RoundingMode.HALF_UP)
+                        : null)
+                .submittedCount((int) toLong(row[6]))
+                .createdAt(createdAt != null ? createdAt.toString() : null)
+                .build();
+    }
+
+    private List<TeacherDashboardDto.TopicPerformanceDto> buildTopicBreakdown(UUID teacherId) {
+        List<Object[]> topicRows = aggregationRepository.aggregateAttemptsByTopic(teacherId);
+        if (topicRows.isEmpty()) return List.of();
+
+        Set<UUID> topicIds = new HashSet<>();
+        Set<UUID> subjectIds = new HashSet<>();
+        for (Object[] row : topicRows) {
+            topicIds.add(toUuid(row[0]));
+            if (row[1] != null) subjectIds.add(toUuid(row[1]));
+        }
+
+        Map<UUID, String> topicNames = new HashMap<>();
+        for (Topic topic : topicRepository.findAllById(topicIds)) {
+            topicNames.put(topic.getId(), TranslatedField.resolve(topic.getName()));
+        }
+        Map<UUID, String> subjectNames = new HashMap<>();
+        for (Subject subject : subjectRepository.findAllById(subjectIds)) {
+            subjectNames.put(subject.getId(), TranslatedField.resolve(subject.getName()));
+        }
+
+        return topicRows.stream()
+                .map(row -> {
+                    UUID topicId = toUuid(row[0]);
+                    UUID subjectId = row[1] != null ? toUuid(row[1]) : null;
+                    BigDecimal avg = average(toBigDecimal(row[4]), toLong(row[3]));
+                    String difficulty = avg.compareTo(new BigDecimal("80")) >= 0 ? "EASY"
+                            : avg.compareTo(new BigDecimal("50")) >= 0 ? "MEDIUM" : "HARD";
+                    return TeacherDashboardDto.TopicPerformanceDto.builder()
+                            .topicId(topicId)
+                            .topicName(Objects.requireNonNullElse(topicNames.get(topicId), "Unknown"))
+                            .subjectName(subjectId != null
+                                    ? Objects.requireNonNullElse(subjectNames.get(subjectId), "Unknown")
+                                    : "Unknown")
+                            .averageScore(avg)
+                            .attemptCount((int) toLong(row[2]))
+                            .difficulty(difficulty)
+                            .build();
+                })
+                .sorted(Comparator.comparing(TeacherDashboardDto.TopicPerformanceDto::getAverageScore))
+                .toList();
+    }
+
+    private List<TeacherDashboardDto.TrendPointDto> buildMonthlyTestTrend(UUID teacherId) {
+        Map<String, Long> monthlyCount = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM");
+        for (int i = TREND_MONTHS - 1; i >= 0; i--) {
+            monthlyCount.put(now.minusMonths(i).format(fmt), 0L);
+        }
+        LocalDateTime since = now.minusMonths(TREND_MONTHS - 1L)
+                .withDayOfMonth(1).toLocalDate().atStartOfDay();
+        for (Object[] row : aggregationRepository.countMonthlyTestCreations(teacherId, since)) {
+            monthlyCount.computeIfPresent((String) row[0], (k, v) -> v + toLong(row[1]));
+        }
+        return monthlyCount.entrySet().stream()
+                .map(e -> TeacherDashboardDto.TrendPointDto.builder()
+                        .date(e.getKey()).value(e.getValue()).build())
+                .toList();
+    }
+
+    private static BigDecimal average(BigDecimal sum, long count) {
+        if (count <= 0) return BigDecimal.ZERO;
+        return sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private static Object[] firstRow(List<Object[]> rows) {
+        return rows.isEmpty() ? new Object[]{0L, 0L, 0L} : rows.get(0);
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal bd) return bd;
+        return new BigDecimal(value.toString());
+    }
+
+    private static UUID toUuid(Object value) {
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value == null) return null;
+        if (value instanceof LocalDateTime ldt) return ldt;
+        if (value instanceof Timestamp ts) return ts.toLocalDateTime();
+        return LocalDateTime.parse(value.toString());
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import uz.eduplatform.core.common.dto.ApiResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.utils.MessageService;
@@ -20,12 +21,15 @@ import uz.eduplatform.core.i18n.AcceptLanguage;
 import uz.eduplatform.core.security.UserPrincipal;
 import uz.eduplatform.modules.assessment.domain.AssignmentStatus;
 import uz.eduplatform.modules.assessment.dto.*;
+import uz.eduplatform.modules.assessment.service.AssignmentRegradeService;
 import uz.eduplatform.modules.assessment.service.AssignmentService;
 import uz.eduplatform.modules.assessment.service.LiveMonitoringService;
 import uz.eduplatform.modules.assessment.service.PromoCodeService;
 import uz.eduplatform.modules.assessment.service.ResultService;
 import uz.eduplatform.modules.assessment.service.export.ResultExportFacade;
 import uz.eduplatform.modules.assessment.service.export.ResultExportFormat;
+import uz.eduplatform.modules.assessment.service.omr.AnswerSheetService;
+import uz.eduplatform.modules.assessment.service.omr.OmrGradingService;
 
 import java.util.Locale;
 import java.util.UUID;
@@ -39,9 +43,12 @@ public class AssignmentController {
 
     private final AssignmentService assignmentService;
     private final ResultService resultService;
+    private final AssignmentRegradeService regradeService;
     private final ResultExportFacade resultExportFacade;
     private final LiveMonitoringService liveMonitoringService;
     private final PromoCodeService promoCodeService;
+    private final AnswerSheetService answerSheetService;
+    private final OmrGradingService omrGradingService;
     private final MessageService messageService;
 
     /** Returns true if the principal has ADMIN or SUPER_ADMIN authority. */
@@ -162,6 +169,18 @@ public class AssignmentController {
         return ResponseEntity.ok(ApiResponse.success(results));
     }
 
+    @PostMapping("/{id}/regrade")
+    @Operation(summary = "Topshiriq natijalarini qayta baholash", description = "Javob kalitlari tuzatilgandan keyin barcha baholangan urinishlarni qayta hisoblaydi. Qo'lda qo'yilgan ballar saqlanadi.")
+    public ResponseEntity<ApiResponse<RegradeResultDto>> regradeAssignment(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language,
+            @PathVariable UUID id) {
+
+        UUID teacherId = isAdmin(principal) ? null : principal.getId();
+        RegradeResultDto result = regradeService.regradeAssignment(id, teacherId);
+        return ResponseEntity.ok(ApiResponse.success(result, messageService.get("success.assignment.regraded", language.toLocale())));
+    }
+
     @GetMapping("/{id}/results/export")
     @Operation(summary = "Natijalarni eksport qilish")
     public ResponseEntity<byte[]> exportResults(
@@ -188,6 +207,38 @@ public class AssignmentController {
                 .body(data);
     }
 
+    // ── Paper Answer Sheets ──
+
+    @GetMapping("/{id}/answer-sheets")
+    @Operation(summary = "Javob varaqalarini chop etish", description = "Har bir biriktirilgan o'quvchi uchun QR kodli javob varaqasi (PDF).")
+    public ResponseEntity<byte[]> printAnswerSheets(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language,
+            @PathVariable UUID id) {
+
+        UUID teacherId = isAdmin(principal) ? null : principal.getId();
+        byte[] data = answerSheetService.printSheets(id, teacherId, language.toLocale());
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"answer-sheets-" + id + ".pdf\"")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(data);
+    }
+
+    @PostMapping("/{id}/answer-sheets/scans")
+    @Operation(summary = "Skanerlangan javob varaqalarini baholash", description = "Ko'p sahifali PDF yoki rasmlar ZIP arxivini qabul qiladi, varaqalarni parallel o'qib urinishlarni baholaydi.")
+    public ResponseEntity<ApiResponse<OmrBatchResultDto>> gradeAnswerSheetScans(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language,
+            @PathVariable UUID id,
+            @RequestParam("file") MultipartFile file) {
+
+        UUID teacherId = isAdmin(principal) ? null : principal.getId();
+        OmrBatchResultDto result = omrGradingService.gradeScans(id, teacherId, file, language.toLocale());
+        return ResponseEntity.ok(ApiResponse.success(result, messageService.get("omr.sheets.graded",
+                language.toLocale(), result.getGraded(), result.getFailed())));
+    }
+
     // ── Promo Code Management ──
 
     @PostMapping("/{id}/promo-code")
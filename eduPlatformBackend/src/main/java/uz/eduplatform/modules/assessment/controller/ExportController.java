@@ -3,6 +3,8 @@ package uz.eduplatform.modules.assessment.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -57,7 +59,7 @@ public class ExportController {
     @GetMapping("/{jobId}/download")
     @Operation(summary = "Eksport faylini yuklab olish",
             description = "Tayyor bo'lgan eksport faylini yuklab olish. Faqat COMPLETED holatdagi ishlar uchun ishlaydi.")
-    public ResponseEntity<byte[]> downloadExport(
+    public ResponseEntity<Resource> downloadExport(
             @AuthenticationPrincipal UserPrincipal principal,
             @PathVariable UUID jobId) {
 
@@ -65,6 +67,6 @@ public class ExportController {
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFileName() + "\"")
                 .contentType(MediaType.parseMediaType(job.getContentType()))
-                .body(job.getFileData());
+                .body(new FileSystemResource(asyncExportService.resolveFile(job)));
     }
 }
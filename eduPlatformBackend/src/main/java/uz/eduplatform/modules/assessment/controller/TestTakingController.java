@@ -15,6 +15,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import uz.eduplatform.core.common.dto.ApiResponse;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.utils.MessageService;
@@ -115,6 +116,7 @@ public class TestTakingController {
             @AuthenticationPrincipal UserPrincipal principal,
             @PathVariable UUID attemptId) {
 
+        testTakingService.awaitBufferedAnswers(attemptId);
         AttemptDto dto = testTakingService.submitAttempt(attemptId, principal.getId());
         return ResponseEntity.ok(ApiResponse.success(dto));
     }
@@ -154,6 +156,20 @@ public class TestTakingController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/my-attempts/scroll")
+    @Operation(summary = "Urinishlar tarixini kursor bilan olish", description = "O'quvchi urinishlarini kursorli sahifalash — eng yangilari birinchi. Keyingi sahifa uchun nextCursor qiymatini cursor sifatida yuboring.")
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
+    public ResponseEntity<ApiResponse<CursorResponse<AttemptDto>>> scrollMyAttempts(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        CursorResponse<AttemptDto> response = testTakingService.scrollStudentAttempts(
+                principal.getId(), cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     // ==================== Promo Code Endpoint ====================
 
     @PostMapping("/promo/redeem")
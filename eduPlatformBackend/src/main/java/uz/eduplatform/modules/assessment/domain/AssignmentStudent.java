@@ -0,0 +1,56 @@
+package uz.eduplatform.modules.assessment.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row per (assignment, student). Normalized mirror of
+ * {@link TestAssignment#getAssignedStudentIds()} used for index lookups.
+ */
+@Entity
+@Table(name = "assignment_students", indexes = {
+        @Index(name = "idx_as_student_assignment", columnList = "student_id, assignment_id"),
+        @Index(name = "idx_as_assignment_status", columnList = "assignment_id, status")
+}, uniqueConstraints = {
+        @UniqueConstraint(
+                name = "uk_assignment_student",
+                columnNames = {"assignment_id", "student_id"}
+        )
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class AssignmentStudent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "assignment_id", nullable = false)
+    private UUID assignmentId;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private AssignmentStudentStatus status = AssignmentStudentStatus.ASSIGNED;
+
+    @CreatedDate
+    @Column(name = "assigned_at", updatable = false)
+    private LocalDateTime assignedAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
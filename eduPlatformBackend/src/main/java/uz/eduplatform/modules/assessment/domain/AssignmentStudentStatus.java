@@ -0,0 +1,7 @@
+package uz.eduplatform.modules.assessment.domain;
+
+public enum AssignmentStudentStatus {
+    ASSIGNED,
+    STARTED,
+    SUBMITTED
+}
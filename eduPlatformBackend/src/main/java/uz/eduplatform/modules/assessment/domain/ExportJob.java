@@ -51,9 +51,29 @@ public class ExportJob {
     @Column(name = "content_type")
     private String contentType;
 
-    @Lob
-    @Column(name = "file_data")
-    private byte[] fileData;
+    // Relative to app.storage.upload-dir
+    @Column(name = "file_path", length = 500)
+    private String filePath;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer progress = 0;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
 
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
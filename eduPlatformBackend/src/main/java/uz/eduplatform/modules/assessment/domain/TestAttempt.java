@@ -16,7 +16,9 @@ import java.util.UUID;
 @Table(name = "test_attempts", indexes = {
         @Index(name = "idx_attempt_assignment", columnList = "assignment_id"),
         @Index(name = "idx_attempt_student", columnList = "student_id"),
-        @Index(name = "idx_attempt_status", columnList = "status")
+        @Index(name = "idx_attempt_status", columnList = "status"),
+        @Index(name = "idx_attempt_graded_at", columnList = "graded_at, id"),
+        @Index(name = "idx_attempt_student_created", columnList = "student_id, created_at, id")
 }, uniqueConstraints = {
         @UniqueConstraint(
                 name = "uk_attempt_assignment_student_number",
@@ -56,6 +58,10 @@ public class TestAttempt {
     @Column(name = "submitted_at")
     private LocalDateTime submittedAt;
 
+    // First time the attempt was graded; item analysis streams attempts in this order
+    @Column(name = "graded_at")
+    private LocalDateTime gradedAt;
+
     // --- Scoring ---
     @Column(name = "raw_score", precision = 7, scale = 2)
     private BigDecimal rawScore;
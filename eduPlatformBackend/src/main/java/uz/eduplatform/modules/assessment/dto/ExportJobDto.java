@@ -21,6 +21,8 @@ public class ExportJobDto {
     private ExportJobStatus status;
     private ResultExportFormat format;
     private String fileName;
+    private Integer progress;
+    private Integer attempts;
     private String errorMessage;
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
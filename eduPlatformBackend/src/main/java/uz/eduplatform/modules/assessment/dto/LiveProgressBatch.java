@@ -0,0 +1,28 @@
+package uz.eduplatform.modules.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One coalesced frame on {@code /topic/assignment/{id}/progress}: the latest update per student
+ * since the previous frame. Immediate events (submit, tab switch) are still sent as single
+ * {@link LiveTestEvent}s on the same topic.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveProgressBatch {
+
+    public static final String EVENT_TYPE = "PROGRESS_BATCH";
+
+    @Builder.Default
+    private String eventType = EVENT_TYPE;
+    private UUID assignmentId;
+    private List<LiveTestEvent> updates;
+}
@@ -0,0 +1,37 @@
+package uz.eduplatform.modules.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OmrBatchResultDto {
+
+    private UUID assignmentId;
+    private int sheets;
+    private int graded;
+    private int failed;
+    private long durationMs;
+
+    @Builder.Default
+    private List<SheetError> errors = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SheetError {
+        // 1-based page or image number in upload order
+        private int sheet;
+        private String fileName;
+        private String message;
+    }
+}
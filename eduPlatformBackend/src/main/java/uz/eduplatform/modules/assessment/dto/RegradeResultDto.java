@@ -0,0 +1,21 @@
+package uz.eduplatform.modules.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegradeResultDto {
+
+    private UUID assignmentId;
+    private int regradedAttempts;
+    private int changedAttempts;
+    private int failedAttempts;
+    private long durationMs;
+}
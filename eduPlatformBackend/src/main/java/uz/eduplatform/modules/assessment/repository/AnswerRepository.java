@@ -1,9 +1,12 @@
 package uz.eduplatform.modules.assessment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uz.eduplatform.modules.assessment.domain.Answer;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +16,8 @@ public interface AnswerRepository extends JpaRepository<Answer, UUID> {
 
     List<Answer> findByAttemptIdOrderByQuestionIndexAsc(UUID attemptId);
 
+    List<Answer> findByAttemptIdIn(Collection<UUID> attemptIds);
+
     Optional<Answer> findByAttemptIdAndQuestionId(UUID attemptId, UUID questionId);
 
     long countByAttemptId(UUID attemptId);
@@ -20,4 +25,11 @@ public interface AnswerRepository extends JpaRepository<Answer, UUID> {
     long countByAttemptIdAndSelectedAnswerIsNotNull(UUID attemptId);
 
     long countByAttemptIdAndNeedsManualGradingTrue(UUID attemptId);
+
+    /**
+     * Per-attempt answer counts for a whole assignment: attemptId, total answers, answered.
+     */
+    @Query("SELECT a.attempt.id, COUNT(a), COUNT(a.selectedAnswer) FROM Answer a " +
+            "WHERE a.attempt.assignment.id = :assignmentId GROUP BY a.attempt.id")
+    List<Object[]> findAnswerCountsByAssignmentId(@Param("assignmentId") UUID assignmentId);
 }
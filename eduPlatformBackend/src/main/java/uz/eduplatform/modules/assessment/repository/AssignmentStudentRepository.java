@@ -0,0 +1,70 @@
+package uz.eduplatform.modules.assessment.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.eduplatform.modules.assessment.domain.AssignmentStudent;
+import uz.eduplatform.modules.assessment.domain.AssignmentStudentStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AssignmentStudentRepository extends JpaRepository<AssignmentStudent, UUID> {
+
+    @Query("SELECT s.studentId FROM AssignmentStudent s WHERE s.assignmentId = :assignmentId")
+    List<UUID> findStudentIdsByAssignmentId(@Param("assignmentId") UUID assignmentId);
+
+    boolean existsByAssignmentIdAndStudentId(UUID assignmentId, UUID studentId);
+
+    long countByAssignmentId(UUID assignmentId);
+
+    long countByAssignmentIdAndStatus(UUID assignmentId, AssignmentStudentStatus status);
+
+    @Modifying
+    @Query("DELETE FROM AssignmentStudent s WHERE s.assignmentId = :assignmentId AND s.studentId IN :studentIds")
+    int deleteByAssignmentIdAndStudentIdIn(@Param("assignmentId") UUID assignmentId,
+                                           @Param("studentIds") Collection<UUID> studentIds);
+
+    // Status only moves forward: ASSIGNED -> STARTED -> SUBMITTED
+    @Modifying
+    @Query("UPDATE AssignmentStudent s SET s.status = :status, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.assignmentId = :assignmentId AND s.studentId = :studentId AND s.status IN :fromStatuses")
+    int advanceStatus(@Param("assignmentId") UUID assignmentId,
+                      @Param("studentId") UUID studentId,
+                      @Param("status") AssignmentStudentStatus status,
+                      @Param("fromStatuses") Collection<AssignmentStudentStatus> fromStatuses);
+
+    @Modifying
+    @Query("UPDATE AssignmentStudent s SET s.status = :status, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.assignmentId = :assignmentId AND s.studentId IN :studentIds AND s.status IN :fromStatuses")
+    int advanceStatusForStudents(@Param("assignmentId") UUID assignmentId,
+                                 @Param("studentIds") Collection<UUID> studentIds,
+                                 @Param("status") AssignmentStudentStatus status,
+                                 @Param("fromStatuses") Collection<AssignmentStudentStatus> fromStatuses);
+
+    // [assignment_id, students of the given set assigned to it]
+    @Query("SELECT s.assignmentId, COUNT(s) FROM AssignmentStudent s " +
+            "WHERE s.assignmentId IN :assignmentIds AND s.studentId IN :studentIds " +
+            "GROUP BY s.assignmentId")
+    List<Object[]> countByAssignmentForStudents(@Param("assignmentIds") Collection<UUID> assignmentIds,
+                                                @Param("studentIds") Collection<UUID> studentIds);
+
+    // Assignments whose JSONB student list and link rows disagree (either direction)
+    @Query(value = "SELECT a.id FROM test_assignments a " +
+            "WHERE a.deleted_at IS NULL AND (EXISTS (SELECT 1 FROM jsonb_array_elements_text(" +
+            "        CASE WHEN jsonb_typeof(a.assigned_student_ids) = 'array' " +
+            "             THEN a.assigned_student_ids ELSE '[]'::jsonb END) AS e(student_id) " +
+            "    WHERE NOT EXISTS (SELECT 1 FROM assignment_students s " +
+            "        WHERE s.assignment_id = a.id AND s.student_id = CAST(e.student_id AS uuid))) " +
+            "OR EXISTS (SELECT 1 FROM assignment_students s " +
+            "    WHERE s.assignment_id = a.id " +
+            "    AND NOT COALESCE(a.assigned_student_ids, '[]'::jsonb) " +
+            "        @> jsonb_build_array(CAST(s.student_id AS text)))) " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findInconsistentAssignmentIds(@Param("limit") int limit);
+}
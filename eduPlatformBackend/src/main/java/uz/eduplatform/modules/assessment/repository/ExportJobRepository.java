@@ -8,6 +8,8 @@ import org.springframework.stereotype.Repository;
 import uz.eduplatform.modules.assessment.domain.ExportJob;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,7 +18,36 @@ public interface ExportJobRepository extends JpaRepository<ExportJob, UUID> {
 
     Optional<ExportJob> findByIdAndTeacherId(UUID id, UUID teacherId);
 
+    // Only finished jobs carry an expiry; the status check keeps queued and running ones safe regardless
+    @Query("SELECT e FROM ExportJob e WHERE e.status IN ('COMPLETED', 'FAILED') AND e.expiresAt < :now")
+    List<ExportJob> findFinishedExpiredBefore(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM ExportJob e WHERE e.status IN ('COMPLETED', 'FAILED') AND e.expiresAt < :now")
+    int deleteFinishedExpiredBefore(@Param("now") LocalDateTime now);
+
+    // Rows locked by other workers are skipped rather than waited on, so nodes never
+    // claim the same job and never block each other.
+    @Query(value = "SELECT * FROM export_jobs WHERE status = 'PENDING' " +
+            "AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ExportJob> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Progress doubles as a heartbeat, but only for the worker still holding the job
+    @Modifying
+    @Query("UPDATE ExportJob e SET e.progress = :progress, e.lockedAt = :now " +
+            "WHERE e.id = :id AND e.status = 'PROCESSING' AND e.lockedBy = :workerId")
+    int updateProgress(@Param("id") UUID id, @Param("workerId") String workerId,
+                       @Param("progress") int progress, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ExportJob e SET e.lockedAt = :now " +
+            "WHERE e.id IN :ids AND e.status = 'PROCESSING' AND e.lockedBy = :workerId")
+    int refreshLocks(@Param("ids") Collection<UUID> ids, @Param("workerId") String workerId,
+                     @Param("now") LocalDateTime now);
+
     @Modifying
-    @Query("DELETE FROM ExportJob e WHERE e.expiresAt < :now")
-    int deleteExpiredJobs(@Param("now") LocalDateTime now);
+    @Query("UPDATE ExportJob e SET e.status = 'PENDING', e.lockedBy = NULL, e.lockedAt = NULL, e.progress = 0 " +
+            "WHERE e.status = 'PROCESSING' AND e.lockedAt < :before")
+    int releaseStale(@Param("before") LocalDateTime before);
 }
@@ -10,6 +10,7 @@ import uz.eduplatform.modules.assessment.domain.AssignmentStatus;
 import uz.eduplatform.modules.assessment.domain.TestAssignment;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,19 +30,37 @@ public interface TestAssignmentRepository extends JpaRepository<TestAssignment,
 
     Optional<TestAssignment> findByIdAndTeacherId(UUID id, UUID teacherId);
 
-    // Find assignments for a specific student (JSONB contains)
-    @Query(value = "SELECT * FROM test_assignments " +
-            "WHERE assigned_student_ids @> CAST(:studentIdJson AS jsonb) " +
-            "AND status IN ('ACTIVE', 'SCHEDULED') " +
-            "AND deleted_at IS NULL " +
-            "ORDER BY created_at DESC",
-            countQuery = "SELECT COUNT(*) FROM test_assignments " +
-                    "WHERE assigned_student_ids @> CAST(:studentIdJson AS jsonb) " +
-                    "AND status IN ('ACTIVE', 'SCHEDULED') " +
-                    "AND deleted_at IS NULL",
+    // Find assignments for a specific student (assignment_students index lookup)
+    @Query(value = "SELECT a.* FROM test_assignments a " +
+            "JOIN assignment_students s ON s.assignment_id = a.id " +
+            "WHERE s.student_id = :studentId " +
+            "AND a.status IN ('ACTIVE', 'SCHEDULED') " +
+            "AND a.deleted_at IS NULL " +
+            "ORDER BY a.created_at DESC",
+            countQuery = "SELECT COUNT(*) FROM test_assignments a " +
+                    "JOIN assignment_students s ON s.assignment_id = a.id " +
+                    "WHERE s.student_id = :studentId " +
+                    "AND a.status IN ('ACTIVE', 'SCHEDULED') " +
+                    "AND a.deleted_at IS NULL",
             nativeQuery = true)
     Page<TestAssignment> findAssignmentsForStudent(
-            @Param("studentIdJson") String studentIdJson, Pageable pageable);
+            @Param("studentId") UUID studentId, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM test_assignments a " +
+            "JOIN assignment_students s ON s.assignment_id = a.id " +
+            "WHERE s.student_id = :studentId " +
+            "AND a.status IN ('ACTIVE', 'SCHEDULED') " +
+            "AND a.deleted_at IS NULL",
+            nativeQuery = true)
+    long countAssignmentsForStudent(@Param("studentId") UUID studentId);
+
+    // Teacher's assignments that include at least one of the given students
+    @Query("SELECT a FROM TestAssignment a WHERE a.teacherId = :teacherId " +
+            "AND a.id IN (SELECT s.assignmentId FROM AssignmentStudent s WHERE s.studentId IN :studentIds) " +
+            "ORDER BY a.createdAt DESC")
+    List<TestAssignment> findByTeacherIdAssignedToAnyOf(
+            @Param("teacherId") UUID teacherId,
+            @Param("studentIds") Collection<UUID> studentIds);
 
     // Find assignments that need status updates (scheduling)
     @Query("SELECT a FROM TestAssignment a WHERE a.status = 'SCHEDULED' " +
@@ -77,13 +96,14 @@ public interface TestAssignmentRepository extends JpaRepository<TestAssignment,
     long countByStatus(AssignmentStatus status);
 
     // Find global test assignment for a specific student (for global tests)
-    @Query(value = "SELECT * FROM test_assignments " +
-            "WHERE test_history_id = :testHistoryId " +
-            "AND assigned_student_ids @> CAST(:studentIdJson AS jsonb) " +
-            "AND deleted_at IS NULL " +
+    @Query(value = "SELECT a.* FROM test_assignments a " +
+            "JOIN assignment_students s ON s.assignment_id = a.id " +
+            "WHERE a.test_history_id = :testHistoryId " +
+            "AND s.student_id = :studentId " +
+            "AND a.deleted_at IS NULL " +
             "LIMIT 1",
             nativeQuery = true)
     Optional<TestAssignment> findGlobalAssignmentForStudent(
             @Param("testHistoryId") UUID testHistoryId,
-            @Param("studentIdJson") String studentIdJson);
+            @Param("studentId") UUID studentId);
 }
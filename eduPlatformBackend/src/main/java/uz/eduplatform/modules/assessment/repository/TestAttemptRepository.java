@@ -1,9 +1,11 @@
 package uz.eduplatform.modules.assessment.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,6 +13,7 @@ import uz.eduplatform.modules.assessment.domain.AttemptStatus;
 import uz.eduplatform.modules.assessment.domain.TestAttempt;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,11 +28,24 @@ public interface TestAttemptRepository extends JpaRepository<TestAttempt, UUID>
 
     List<TestAttempt> findByStudentIdOrderByCreatedAtDesc(UUID studentId);
 
+    // Keyset page: the student's attempts created before the cursor, newest first
+    @EntityGraph(attributePaths = {"assignment"})
+    @Query("SELECT a FROM TestAttempt a WHERE a.studentId = :studentId " +
+            "AND (a.createdAt, a.id) < (:createdAt, :id) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<TestAttempt> scrollByStudentId(@Param("studentId") UUID studentId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") UUID id,
+                                        Pageable limit);
+
     List<TestAttempt> findByAssignmentIdAndStudentIdOrderByAttemptNumberAsc(
             UUID assignmentId, UUID studentId);
 
     Optional<TestAttempt> findByIdAndStudentId(UUID id, UUID studentId);
 
+    @EntityGraph(attributePaths = {"assignment"})
+    Optional<TestAttempt> findWithAssignmentByIdAndStudentId(UUID id, UUID studentId);
+
     Optional<TestAttempt> findByAssignmentIdAndStudentIdAndStatus(
             UUID assignmentId, UUID studentId, AttemptStatus status);
 
@@ -37,10 +53,15 @@ public interface TestAttemptRepository extends JpaRepository<TestAttempt, UUID>
 
     long countByAssignmentId(UUID assignmentId);
 
+    long countByStudentId(UUID studentId);
+
     @Query("SELECT COUNT(a) FROM TestAttempt a WHERE a.assignment.id = :assignmentId " +
             "AND a.status NOT IN ('IN_PROGRESS')")
     long countSubmittedByAssignmentId(@Param("assignmentId") UUID assignmentId);
 
+    @Query("SELECT DISTINCT a.studentId FROM TestAttempt a WHERE a.assignment.id = :assignmentId")
+    List<UUID> findStudentIdsByAssignmentId(@Param("assignmentId") UUID assignmentId);
+
     @Query("SELECT COUNT(DISTINCT a.studentId) FROM TestAttempt a " +
             "WHERE a.assignment.id = :assignmentId")
     long countDistinctStudentsByAssignmentId(@Param("assignmentId") UUID assignmentId);
@@ -57,13 +78,28 @@ public interface TestAttemptRepository extends JpaRepository<TestAttempt, UUID>
             "WHERE a.assignment.id = :assignmentId AND a.percentage IS NOT NULL")
     Double minPercentageByAssignmentId(@Param("assignmentId") UUID assignmentId);
 
-    // Auto-submit scheduler: find expired IN_PROGRESS attempts
-    @Query(value = "SELECT ta.* FROM test_attempts ta " +
+    // Auto-submit safety sweep: ids of expired IN_PROGRESS attempts
+    @Query(value = "SELECT ta.id FROM test_attempts ta " +
             "JOIN test_assignments tsg ON ta.assignment_id = tsg.id " +
             "WHERE ta.status = 'IN_PROGRESS' " +
             "AND ta.started_at + (tsg.duration_minutes * interval '1 minute') < :now",
             nativeQuery = true)
-    List<TestAttempt> findExpiredInProgressAttempts(@Param("now") LocalDateTime now);
+    List<UUID> findExpiredInProgressAttemptIds(@Param("now") LocalDateTime now);
+
+    // Auto-submit timer seeding: [id, started_at, duration_minutes] of every timed IN_PROGRESS attempt
+    @Query("SELECT a.id, a.startedAt, a.assignment.durationMinutes FROM TestAttempt a " +
+            "WHERE a.status = 'IN_PROGRESS' AND a.assignment.durationMinutes IS NOT NULL")
+    List<Object[]> findTimedInProgressDeadlines();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM TestAttempt a WHERE a.id = :id")
+    Optional<TestAttempt> lockById(@Param("id") UUID id);
+
+    // Bulk re-grade: [id, student_id] of attempts in these statuses, grouped by student
+    @Query("SELECT a.id, a.studentId FROM TestAttempt a " +
+            "WHERE a.assignment.id = :assignmentId AND a.status IN :statuses ORDER BY a.studentId")
+    List<Object[]> findAttemptRefsByAssignmentIdAndStatusIn(@Param("assignmentId") UUID assignmentId,
+                                                            @Param("statuses") Collection<AttemptStatus> statuses);
 
     // Student dashboard: find by student and status
     List<TestAttempt> findByStudentIdAndStatus(UUID studentId, AttemptStatus status);
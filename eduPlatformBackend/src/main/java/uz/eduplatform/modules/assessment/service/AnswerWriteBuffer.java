@@ -0,0 +1,415 @@
+package uz.eduplatform.modules.assessment.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.modules.assessment.domain.Answer;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.modules.assessment.dto.SubmitAnswerRequest;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for autosaved answers. While an attempt is in progress its answers are
+ * accepted into memory and acknowledged straight away; a background flush upserts them into
+ * {@code answers} in one JDBC batch per interval, the latest value per question winning.
+ * <p>
+ * Grading must see every answer, so {@link GradingService#gradeAttempt} calls
+ * {@link #close(UUID)} first, which writes whatever is still pending inside the grading
+ * transaction and drops the session. Each row carries the time the student saved it and an
+ * upsert never replaces a newer row, so a background batch that lands after the grading flush
+ * cannot roll an answer back.
+ * <p>
+ * Sessions are per node, and saves for one attempt may land on several nodes. Each node with a
+ * session registers it in {@code answer_buffer_sessions} and bumps its {@code flush_seq} after
+ * every flush; {@link #close(UUID)} waits until every other node has flushed twice since the
+ * submit (the second flush necessarily started after it), then removes the attempt's rows. A node
+ * whose row is gone drops its session, so saves that arrive after grading fall through to the
+ * database path and are rejected there.
+ * <p>
+ * A row that fails to write on its own (a constraint violation) is logged and dropped; anything
+ * else is treated as an outage and the whole buffer is retried on the next flush.
+ */
+@Slf4j
+@Component
+public class AnswerWriteBuffer {
+
+    // Sessions without pending writes are dropped after this long without a save
+    private static final long IDLE_MILLIS = 15 * 60 * 1000L;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO answers (id, attempt_id, question_id, question_index, selected_answer,
+                                 time_spent_seconds, bookmarked, created_at, updated_at)
+            SELECT ?, ?, ?, ?, ?::jsonb, ?, COALESCE(?, FALSE), ?, ?
+            WHERE ? OR EXISTS (SELECT 1 FROM test_attempts WHERE id = ? AND status = 'IN_PROGRESS')
+            ON CONFLICT (attempt_id, question_id) DO UPDATE SET
+                selected_answer    = EXCLUDED.selected_answer,
+                time_spent_seconds = COALESCE(EXCLUDED.time_spent_seconds, answers.time_spent_seconds),
+                bookmarked         = COALESCE(?, answers.bookmarked),
+                updated_at         = EXCLUDED.updated_at
+            WHERE answers.updated_at IS NULL OR answers.updated_at <= EXCLUDED.updated_at
+            """;
+
+    private static final String REGISTER_SQL =
+            "INSERT INTO answer_buffer_sessions (attempt_id, node_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String HEARTBEAT_SQL = """
+            UPDATE answer_buffer_sessions SET flush_seq = flush_seq + 1
+            WHERE node_id = ? AND attempt_id = ANY (CAST(? AS uuid[]))
+            RETURNING attempt_id
+            """;
+    private static final String OTHER_NODES_SQL =
+            "SELECT node_id, flush_seq FROM answer_buffer_sessions WHERE attempt_id = ? AND node_id <> ?";
+    private static final String FORGET_SQL =
+            "DELETE FROM answer_buffer_sessions WHERE attempt_id = ? AND node_id = ?";
+    private static final String FORGET_ALL_SQL = "DELETE FROM answer_buffer_sessions WHERE attempt_id = ?";
+
+    // Flushes another node must complete after a submit before its buffer is known to be written
+    private static final int REMOTE_FLUSHES = 2;
+    // How many flush intervals grading waits for other nodes before going ahead without them
+    private static final int REMOTE_WAIT_INTERVALS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long flushIntervalMillis;
+    private final UUID nodeId = UUID.randomUUID();
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+
+    public AnswerWriteBuffer(JdbcTemplate jdbcTemplate,
+                             @Value("${app.assessment.answer-flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * What the caller needs to acknowledge a buffered answer and report progress.
+     */
+    public record Ack(UUID answerId, UUID assignmentId, int questionIndex, Integer timeSpentSeconds,
+                      Boolean bookmarked, int answeredQuestions, int totalQuestions) {
+    }
+
+    /**
+     * Start buffering for an attempt that has just been validated as in progress, seeded with
+     * the answers already stored for it. {@code questionIds} are the questions of the attempt's
+     * variant in exam order; only those are accepted, at their position in this list.
+     * Re-opening an existing session keeps it as is.
+     */
+    public void open(TestAttempt attempt, LocalDateTime deadline, List<Answer> existing, List<UUID> questionIds) {
+        if (sessions.containsKey(attempt.getId())) return;
+        jdbcTemplate.update(REGISTER_SQL, attempt.getId(), nodeId);
+        sessions.computeIfAbsent(attempt.getId(), id -> {
+            Session session = new Session(id, attempt.getStudentId(), attempt.getAssignment().getId(), deadline);
+            for (int i = 0; i < questionIds.size(); i++) {
+                session.questionIndexes.putIfAbsent(questionIds.get(i), i);
+            }
+            for (Answer answer : existing) {
+                session.known.put(answer.getQuestionId(), new Known(answer.getId(), answer.getQuestionIndex(),
+                        answer.getSelectedAnswer() != null, answer.getTimeSpentSeconds(), answer.getBookmarked()));
+                if (answer.getSelectedAnswer() != null) session.answeredCount++;
+            }
+            return session;
+        });
+    }
+
+    /**
+     * Buffer one answer. Returns {@code null} when there is no live session for this attempt and
+     * student (never opened, closed by grading, evicted, or past its deadline); the caller then
+     * goes to the database to validate the attempt and {@link #open} a session.
+     *
+     * @throws BusinessException when the question is not in the attempt's variant, or not at
+     *                           the index the request names
+     */
+    public Ack accept(UUID attemptId, UUID studentId, SubmitAnswerRequest request, String selectedAnswerJson) {
+        Session session = sessions.get(attemptId);
+        if (session == null || !session.studentId.equals(studentId)) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (session.deadline != null && now.isAfter(session.deadline)) {
+            return null;
+        }
+
+        synchronized (session) {
+            if (session.closed) return null;
+
+            Integer questionIndex = session.questionIndexes.get(request.getQuestionId());
+            if (questionIndex == null || (request.getQuestionIndex() != null
+                    && !request.getQuestionIndex().equals(questionIndex))) {
+                throw BusinessException.ofKey("test.taking.question.not.in.attempt");
+            }
+
+            Known previous = session.known.get(request.getQuestionId());
+            UUID answerId = previous != null ? previous.id() : UUID.randomUUID();
+            Integer timeSpent = request.getTimeSpentSeconds() != null ? request.getTimeSpentSeconds()
+                    : previous != null ? previous.timeSpentSeconds() : null;
+            Boolean bookmarked = request.getBookmarked() != null ? request.getBookmarked()
+                    : previous != null && previous.bookmarked() != null ? previous.bookmarked() : Boolean.FALSE;
+
+            Known current = new Known(answerId, questionIndex, selectedAnswerJson != null, timeSpent, bookmarked);
+            session.answeredCount += (current.answered() ? 1 : 0) - (previous != null && previous.answered() ? 1 : 0);
+            session.known.put(request.getQuestionId(), current);
+
+            // Overwrite any unwritten save for this question, keeping fields this request left out
+            Pending unwritten = session.pending.get(request.getQuestionId());
+            Integer pendingTime = request.getTimeSpentSeconds() != null || unwritten == null
+                    ? request.getTimeSpentSeconds() : unwritten.timeSpentSeconds();
+            Boolean pendingBookmark = request.getBookmarked() != null || unwritten == null
+                    ? request.getBookmarked() : unwritten.bookmarked();
+            session.pending.put(request.getQuestionId(), new Pending(answerId, request.getQuestionId(), questionIndex,
+                    selectedAnswerJson, pendingTime, pendingBookmark, now));
+            session.lastAccessMillis = System.currentTimeMillis();
+
+            return new Ack(answerId, session.assignmentId, questionIndex, timeSpent, bookmarked,
+                    session.answeredCount, session.known.size());
+        }
+    }
+
+    /**
+     * Stop buffering for an attempt and write this node's pending answers in the caller's
+     * transaction. Answers buffered on other nodes must already have been collected with
+     * {@link #awaitOtherNodes}. Later saves for the attempt fall through to the database path
+     * and are rejected there.
+     */
+    public void close(UUID attemptId) {
+        Session session = sessions.remove(attemptId);
+        if (session != null) {
+            List<Pending> pending;
+            synchronized (session) {
+                session.closed = true;
+                pending = new ArrayList<>(session.pending.values());
+            }
+            if (!pending.isEmpty()) {
+                write(pending.stream().map(p -> new Row(attemptId, p)).toList(), true);
+            }
+        }
+        jdbcTemplate.update(FORGET_ALL_SQL, attemptId);
+    }
+
+    /**
+     * Write every pending answer in one batch, then report this node's sessions as flushed.
+     * Entries are only removed once written, and only if no newer save replaced them meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${app.assessment.answer-flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        List<Session> live = new ArrayList<>();
+        List<UUID> idle = new ArrayList<>();
+        List<Row> batch = new ArrayList<>();
+
+        for (Session session : sessions.values()) {
+            synchronized (session) {
+                if (session.pending.isEmpty() && now - session.lastAccessMillis > IDLE_MILLIS) {
+                    session.closed = true;
+                    sessions.remove(session.attemptId, session);
+                    idle.add(session.attemptId);
+                    continue;
+                }
+                live.add(session);
+                for (Pending p : session.pending.values()) {
+                    batch.add(new Row(session.attemptId, p));
+                }
+            }
+        }
+
+        if (!idle.isEmpty()) {
+            jdbcTemplate.batchUpdate(FORGET_SQL, idle.stream().map(id -> new Object[]{id, nodeId}).toList());
+        }
+        if (!batch.isEmpty() && !flushBatch(batch)) {
+            return;
+        }
+        if (!live.isEmpty()) {
+            heartbeat(live);
+        }
+    }
+
+    /**
+     * @return false when the database looks unavailable and the rest of the flush should wait
+     */
+    private boolean flushBatch(List<Row> batch) {
+        try {
+            write(batch, false);
+            batch.forEach(row -> removePending(row));
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} buffered answers as a batch, writing them one by one: {}",
+                    batch.size(), e.getMessage());
+        }
+
+        for (Row row : batch) {
+            try {
+                write(List.of(row), false);
+                removePending(row);
+            } catch (DataIntegrityViolationException e) {
+                log.error("Dropping buffered answer for question {} of attempt {}: {}",
+                        row.pending().questionId(), row.attemptId(), e.getMessage());
+                removePending(row);
+            } catch (DataAccessException e) {
+                log.error("Failed to flush buffered answers, will retry: {}", e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removePending(Row row) {
+        Session session = sessions.get(row.attemptId());
+        if (session == null) return;
+        synchronized (session) {
+            session.pending.remove(row.pending().questionId(), row.pending());
+        }
+    }
+
+    // Sessions whose row is gone were graded elsewhere and stop here too
+    private void heartbeat(List<Session> live) {
+        Set<UUID> registered = new HashSet<>(jdbcTemplate.queryForList(HEARTBEAT_SQL, UUID.class,
+                nodeId, arrayLiteral(live.stream().map(s -> s.attemptId).toList())));
+        for (Session session : live) {
+            if (registered.contains(session.attemptId)) continue;
+            synchronized (session) {
+                session.closed = true;
+                sessions.remove(session.attemptId, session);
+            }
+        }
+    }
+
+    /**
+     * Wait until every other node buffering answers for the attempt has flushed twice since the
+     * call, or give up after a few flush intervals. This sleeps, so call it before the grading
+     * transaction opens: inside one it would hold a pooled connection, and any row lock, while
+     * it waits.
+     */
+    public void awaitOtherNodes(UUID attemptId) {
+        Map<UUID, Long> waiting = otherNodeFlushes(attemptId);
+        if (waiting.isEmpty()) return;
+
+        Map<UUID, Long> target = new HashMap<>();
+        waiting.forEach((node, seq) -> target.put(node, seq + REMOTE_FLUSHES));
+        long giveUpAt = System.currentTimeMillis() + REMOTE_WAIT_INTERVALS * flushIntervalMillis;
+        long pollMillis = Math.max(10, flushIntervalMillis / 4);
+
+        while (!target.isEmpty()) {
+            if (System.currentTimeMillis() > giveUpAt) {
+                log.warn("Grading attempt {} without answers still buffered on {} unresponsive node(s)",
+                        attemptId, target.size());
+                return;
+            }
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Map<UUID, Long> current = otherNodeFlushes(attemptId);
+            target.entrySet().removeIf(e -> !current.containsKey(e.getKey())
+                    || current.get(e.getKey()) >= e.getValue());
+        }
+    }
+
+    private Map<UUID, Long> otherNodeFlushes(UUID attemptId) {
+        Map<UUID, Long> flushes = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(OTHER_NODES_SQL, attemptId, nodeId)) {
+            flushes.put((UUID) row.get("node_id"), ((Number) row.get("flush_seq")).longValue());
+        }
+        return flushes;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        int left = sessions.values().stream().mapToInt(s -> s.pending.size()).sum();
+        if (left > 0) {
+            log.error("{} buffered answers could not be written before shutdown", left);
+        }
+        // Grading elsewhere need not wait for this node any more
+        jdbcTemplate.update("DELETE FROM answer_buffer_sessions WHERE node_id = ?", nodeId);
+    }
+
+    int pendingCount(UUID attemptId) {
+        Session session = sessions.get(attemptId);
+        return session != null ? session.pending.size() : 0;
+    }
+
+    private void write(List<Row> rows, boolean force) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UUID attemptId = rows.get(i).attemptId();
+                Pending p = rows.get(i).pending();
+                Timestamp savedAt = Timestamp.valueOf(p.savedAt());
+                ps.setObject(1, p.id());
+                ps.setObject(2, attemptId);
+                ps.setObject(3, p.questionId());
+                ps.setInt(4, p.questionIndex());
+                ps.setString(5, p.selectedAnswer());
+                setNullable(ps, 6, p.timeSpentSeconds(), Types.INTEGER);
+                setNullable(ps, 7, p.bookmarked(), Types.BOOLEAN);
+                ps.setTimestamp(8, savedAt);
+                ps.setTimestamp(9, savedAt);
+                ps.setBoolean(10, force);
+                ps.setObject(11, attemptId);
+                setNullable(ps, 12, p.bookmarked(), Types.BOOLEAN);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private static String arrayLiteral(List<UUID> ids) {
+        StringJoiner literal = new StringJoiner(",", "{", "}");
+        ids.forEach(id -> literal.add(id.toString()));
+        return literal.toString();
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+
+    private record Known(UUID id, int questionIndex, boolean answered, Integer timeSpentSeconds, Boolean bookmarked) {
+    }
+
+    // Request values as sent: null time/bookmark keep whatever the row already has
+    private record Pending(UUID id, UUID questionId, int questionIndex, String selectedAnswer,
+                           Integer timeSpentSeconds, Boolean bookmarked, LocalDateTime savedAt) {
+    }
+
+    private record Row(UUID attemptId, Pending pending) {
+    }
+
+    private static final class Session {
+        final UUID attemptId;
+        final UUID studentId;
+        final UUID assignmentId;
+        final LocalDateTime deadline;
+        final Map<UUID, Integer> questionIndexes = new HashMap<>();
+        final Map<UUID, Known> known = new HashMap<>();
+        final Map<UUID, Pending> pending = new LinkedHashMap<>();
+        int answeredCount;
+        volatile long lastAccessMillis = System.currentTimeMillis();
+        boolean closed;
+
+        Session(UUID attemptId, UUID studentId, UUID assignmentId, LocalDateTime deadline) {
+            this.attemptId = attemptId;
+            this.studentId = studentId;
+            this.assignmentId = assignmentId;
+            this.deadline = deadline;
+        }
+    }
+}
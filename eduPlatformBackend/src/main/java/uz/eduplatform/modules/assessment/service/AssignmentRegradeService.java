@@ -0,0 +1,112 @@
+package uz.eduplatform.modules.assessment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.dto.RegradeResultDto;
+import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Re-scores every graded attempt of an assignment after its answer keys were corrected. Attempts
+ * are split into chunks that never split a student, and the chunks are graded in parallel on
+ * {@code regradeExecutor}, each in its own transaction through
+ * {@link GradingService#regradeAttempts}. A failed chunk rolls back alone and is reported.
+ */
+@Slf4j
+@Service
+public class AssignmentRegradeService {
+
+    static final int CHUNK_SIZE = 100;
+
+    private final TestAssignmentRepository assignmentRepository;
+    private final TestAttemptRepository attemptRepository;
+    private final GradingService gradingService;
+    private final Executor regradeExecutor;
+
+    public AssignmentRegradeService(TestAssignmentRepository assignmentRepository,
+                                    TestAttemptRepository attemptRepository,
+                                    GradingService gradingService,
+                                    @Qualifier("regradeExecutor") Executor regradeExecutor) {
+        this.assignmentRepository = assignmentRepository;
+        this.attemptRepository = attemptRepository;
+        this.gradingService = gradingService;
+        this.regradeExecutor = regradeExecutor;
+    }
+
+    public RegradeResultDto regradeAssignment(UUID assignmentId, UUID teacherId) {
+        TestAssignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("TestAssignment", "id", assignmentId));
+
+        // teacherId == null means admin/super_admin — skip ownership check
+        if (teacherId != null && !assignment.getTeacherId().equals(teacherId)) {
+            throw new BusinessException("error.access.denied", null, HttpStatus.FORBIDDEN);
+        }
+
+        long started = System.currentTimeMillis();
+        List<List<UUID>> chunks = chunkByStudent(
+                attemptRepository.findAttemptRefsByAssignmentIdAndStatusIn(assignmentId, GradingService.REGRADABLE));
+
+        List<CompletableFuture<Integer>> results = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> gradingService.regradeAttempts(chunk), regradeExecutor))
+                .toList();
+
+        int regraded = 0;
+        int changed = 0;
+        int failed = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            try {
+                changed += results.get(i).join();
+                regraded += chunks.get(i).size();
+            } catch (CompletionException e) {
+                failed += chunks.get(i).size();
+                log.error("Re-grade of {} attempts in assignment {} failed: {}",
+                        chunks.get(i).size(), assignmentId, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Re-graded assignment {}: {} attempts, {} changed, {} failed in {} ms",
+                assignmentId, regraded, changed, failed, duration);
+
+        return RegradeResultDto.builder()
+                .assignmentId(assignmentId)
+                .regradedAttempts(regraded)
+                .changedAttempts(changed)
+                .failedAttempts(failed)
+                .durationMs(duration)
+                .build();
+    }
+
+    /**
+     * Split [attemptId, studentId] rows (ordered by student) into chunks of about
+     * {@link #CHUNK_SIZE}, keeping each student's attempts together so parallel chunks never
+     * touch the same student's analytics rows.
+     */
+    static List<List<UUID>> chunkByStudent(List<Object[]> refs) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        List<UUID> current = new ArrayList<>();
+        Object previousStudent = null;
+        for (Object[] ref : refs) {
+            if (current.size() >= CHUNK_SIZE && !ref[1].equals(previousStudent)) {
+                chunks.add(current);
+                current = new ArrayList<>();
+            }
+            current.add((UUID) ref[0]);
+            previousStudent = ref[1];
+        }
+        if (!current.isEmpty()) chunks.add(current);
+        return chunks;
+    }
+}
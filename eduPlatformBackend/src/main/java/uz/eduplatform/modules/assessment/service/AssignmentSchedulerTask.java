@@ -6,14 +6,13 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.modules.assessment.domain.AssignmentStatus;
-import uz.eduplatform.modules.assessment.domain.AttemptStatus;
 import uz.eduplatform.modules.assessment.domain.TestAssignment;
-import uz.eduplatform.modules.assessment.domain.TestAttempt;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -22,29 +21,30 @@ public class AssignmentSchedulerTask {
 
     private final TestAttemptRepository attemptRepository;
     private final TestAssignmentRepository assignmentRepository;
-    private final GradingService gradingService;
+    private final AttemptAutoSubmitService autoSubmitService;
+    private final AnswerWriteBuffer answerWriteBuffer;
 
-    @Scheduled(fixedDelay = 60000)
-    @Transactional
+    /**
+     * Safety net behind {@link AttemptDeadlineScheduler}, which submits attempts at their exact
+     * deadline. Catches attempts whose in-memory timer was lost; each is submitted in its own
+     * transaction so one failure does not hold up the rest.
+     */
+    @Scheduled(fixedDelay = 300000)
     public void autoSubmitExpiredAttempts() {
-        LocalDateTime now = LocalDateTime.now();
-        List<TestAttempt> expiredAttempts = attemptRepository.findExpiredInProgressAttempts(now);
+        List<UUID> expired = attemptRepository.findExpiredInProgressAttemptIds(LocalDateTime.now());
 
-        for (TestAttempt attempt : expiredAttempts) {
+        int submitted = 0;
+        for (UUID attemptId : expired) {
             try {
-                attempt.setSubmittedAt(now);
-                attempt.setStatus(AttemptStatus.SUBMITTED);
-                attemptRepository.save(attempt);
-                gradingService.gradeAttempt(attempt);
-                log.info("Auto-submitted expired attempt {} for student {}",
-                        attempt.getId(), attempt.getStudentId());
+                answerWriteBuffer.awaitOtherNodes(attemptId);
+                if (autoSubmitService.autoSubmit(attemptId)) submitted++;
             } catch (Exception e) {
-                log.error("Failed to auto-submit attempt {}: {}", attempt.getId(), e.getMessage());
+                log.error("Failed to auto-submit attempt {}: {}", attemptId, e.getMessage());
             }
         }
 
-        if (!expiredAttempts.isEmpty()) {
-            log.info("Auto-submitted {} expired attempts", expiredAttempts.size());
+        if (submitted > 0) {
+            log.warn("Sweep auto-submitted {} expired attempts missed by the deadline timer", submitted);
         }
     }
 
@@ -39,6 +39,7 @@ import java.util.UUID;
 public class AssignmentService {
 
     private final TestAssignmentRepository assignmentRepository;
+    private final AssignmentStudentService assignmentStudentService;
     private final TestAttemptRepository attemptRepository;
     private final TestHistoryRepository testHistoryRepository;
     private final UserRepository userRepository;
@@ -122,6 +123,7 @@ public class AssignmentService {
                 .build();
 
         assignment = assignmentRepository.save(assignment);
+        assignmentStudentService.sync(assignment);
         log.info("Created test assignment '{}' by teacher {}", assignment.getTitle(), teacherId);
         return mapToDto(assignment);
     }
@@ -176,8 +178,7 @@ public class AssignmentService {
 
     @Transactional(readOnly = true)
     public PagedResponse<AssignmentDto> getStudentAssignments(UUID studentId, Pageable pageable) {
-        String studentIdJson = "[\"" + studentId + "\"]";
-        Page<TestAssignment> page = assignmentRepository.findAssignmentsForStudent(studentIdJson, pageable);
+        Page<TestAssignment> page = assignmentRepository.findAssignmentsForStudent(studentId, pageable);
 
         List<AssignmentDto> dtos = page.getContent().stream()
                 .map(this::mapToDto)
@@ -225,6 +226,7 @@ public class AssignmentService {
         if (request.getAssignedStudentIds() != null) assignment.setAssignedStudentIds(request.getAssignedStudentIds());
 
         assignment = assignmentRepository.save(assignment);
+        if (request.getAssignedStudentIds() != null) assignmentStudentService.sync(assignment);
         return mapToDto(assignment);
     }
 
@@ -0,0 +1,28 @@
+package uz.eduplatform.modules.assessment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AssignmentStudentConsistencyTask {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final AssignmentStudentService assignmentStudentService;
+
+    /**
+     * Compare assignment_students with the JSONB assigned_student_ids column nightly at 3:30 AM
+     * and re-sync any assignment that drifted (e.g. written by an older node during rollout).
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void checkConsistency() {
+        int repaired = assignmentStudentService.repairInconsistencies(BATCH_SIZE);
+        if (repaired == 0) {
+            log.debug("assignment_students is consistent with assigned_student_ids");
+        }
+    }
+}
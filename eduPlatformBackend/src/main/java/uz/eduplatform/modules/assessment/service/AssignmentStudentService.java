@@ -0,0 +1,94 @@
+package uz.eduplatform.modules.assessment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.eduplatform.modules.assessment.domain.AssignmentStudent;
+import uz.eduplatform.modules.assessment.domain.AssignmentStudentStatus;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.repository.AssignmentStudentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+
+import java.util.*;
+
+/**
+ * Keeps the assignment_students link table in step with
+ * {@link TestAssignment#getAssignedStudentIds()}. Every code path that changes the
+ * JSONB list must call {@link #sync(TestAssignment)} after saving the assignment.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssignmentStudentService {
+
+    private final AssignmentStudentRepository assignmentStudentRepository;
+    private final TestAssignmentRepository assignmentRepository;
+
+    /**
+     * Insert links for newly assigned students and drop links for removed ones.
+     * Existing links keep their status.
+     */
+    @Transactional
+    public void sync(TestAssignment assignment) {
+        Set<UUID> desired = assignment.getAssignedStudentIds() != null
+                ? new LinkedHashSet<>(assignment.getAssignedStudentIds())
+                : new LinkedHashSet<>();
+        desired.remove(null);
+        Set<UUID> existing = new HashSet<>(
+                assignmentStudentRepository.findStudentIdsByAssignmentId(assignment.getId()));
+
+        List<UUID> removed = existing.stream().filter(id -> !desired.contains(id)).toList();
+        if (!removed.isEmpty()) {
+            assignmentStudentRepository.deleteByAssignmentIdAndStudentIdIn(assignment.getId(), removed);
+        }
+
+        List<AssignmentStudent> added = desired.stream()
+                .filter(id -> !existing.contains(id))
+                .map(id -> AssignmentStudent.builder()
+                        .assignmentId(assignment.getId())
+                        .studentId(id)
+                        .build())
+                .toList();
+        if (!added.isEmpty()) {
+            assignmentStudentRepository.saveAll(added);
+        }
+    }
+
+    @Transactional
+    public void markStarted(UUID assignmentId, UUID studentId) {
+        assignmentStudentRepository.advanceStatus(assignmentId, studentId,
+                AssignmentStudentStatus.STARTED, List.of(AssignmentStudentStatus.ASSIGNED));
+    }
+
+    @Transactional
+    public void markSubmitted(UUID assignmentId, UUID studentId) {
+        assignmentStudentRepository.advanceStatus(assignmentId, studentId,
+                AssignmentStudentStatus.SUBMITTED,
+                List.of(AssignmentStudentStatus.ASSIGNED, AssignmentStudentStatus.STARTED));
+    }
+
+    @Transactional
+    public void markSubmitted(UUID assignmentId, Collection<UUID> studentIds) {
+        if (studentIds.isEmpty()) return;
+        assignmentStudentRepository.advanceStatusForStudents(assignmentId, studentIds,
+                AssignmentStudentStatus.SUBMITTED,
+                List.of(AssignmentStudentStatus.ASSIGNED, AssignmentStudentStatus.STARTED));
+    }
+
+    /**
+     * Re-sync up to {@code limit} assignments whose link rows have drifted from the JSONB list.
+     *
+     * @return number of assignments repaired
+     */
+    @Transactional
+    public int repairInconsistencies(int limit) {
+        List<UUID> ids = assignmentStudentRepository.findInconsistentAssignmentIds(limit);
+        if (ids.isEmpty()) return 0;
+
+        List<TestAssignment> assignments = assignmentRepository.findAllById(ids);
+        assignments.forEach(this::sync);
+        log.warn("Repaired assignment_students drift for {} assignments: {}", assignments.size(), ids);
+        return assignments.size();
+    }
+}
@@ -0,0 +1,65 @@
+package uz.eduplatform.modules.assessment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.eduplatform.modules.assessment.domain.AttemptStatus;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttemptAutoSubmitService {
+
+    private final TestAttemptRepository attemptRepository;
+    private final GradingService gradingService;
+    private final AssignmentStudentService assignmentStudentService;
+    private final LiveMonitoringService liveMonitoringService;
+
+    /**
+     * Submit and grade one attempt whose time ran out, in its own transaction. The row is locked
+     * so a timer firing on two nodes, or racing the sweep, submits it only once.
+     *
+     * @return false when the attempt is gone, already submitted, or not yet due
+     */
+    @Transactional
+    public boolean autoSubmit(UUID attemptId) {
+        TestAttempt attempt = attemptRepository.lockById(attemptId).orElse(null);
+        if (attempt == null || attempt.getStatus() != AttemptStatus.IN_PROGRESS) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deadline = deadlineOf(attempt);
+        if (deadline == null || now.isBefore(deadline)) {
+            return false;
+        }
+
+        attempt.setSubmittedAt(deadline);
+        attempt.setStatus(AttemptStatus.SUBMITTED);
+        attemptRepository.save(attempt);
+        assignmentStudentService.markSubmitted(attempt.getAssignment().getId(), attempt.getStudentId());
+        gradingService.gradeAttempt(attempt);
+        try {
+            liveMonitoringService.attemptSubmitted(attempt);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast auto-submit event: {}", e.getMessage());
+        }
+        log.info("Auto-submitted expired attempt {} for student {}", attempt.getId(), attempt.getStudentId());
+        return true;
+    }
+
+    static LocalDateTime deadlineOf(TestAttempt attempt) {
+        TestAssignment assignment = attempt.getAssignment();
+        if (assignment == null || assignment.getDurationMinutes() == null || attempt.getStartedAt() == null) {
+            return null;
+        }
+        return attempt.getStartedAt().plusMinutes(assignment.getDurationMinutes());
+    }
+}
@@ -0,0 +1,121 @@
+package uz.eduplatform.modules.assessment.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.utils.TimerWheel;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires auto-submit for timed attempts at their deadline (to the second) instead of waiting for
+ * a polling sweep. Deadlines live in an in-memory {@link TimerWheel}, seeded from the database
+ * at startup and fed by {@link TestTakingService#startAttempt}. A dedicated thread advances the
+ * wheel every tick and hands expired attempts to {@code autoSubmitExecutor}, one transaction
+ * each.
+ * <p>
+ * The wheel is per node and not durable; {@link AssignmentSchedulerTask} still sweeps the table
+ * occasionally for attempts whose timer was lost (restart between seed and start, node crash).
+ */
+@Slf4j
+@Component
+public class AttemptDeadlineScheduler {
+
+    static final long TICK_MILLIS = 1000;
+
+    private final TestAttemptRepository attemptRepository;
+    private final AttemptAutoSubmitService autoSubmitService;
+    private final AnswerWriteBuffer answerWriteBuffer;
+    private final Executor autoSubmitExecutor;
+    private final TimerWheel<UUID> wheel = new TimerWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    private ScheduledExecutorService ticker;
+
+    public AttemptDeadlineScheduler(TestAttemptRepository attemptRepository,
+                                    AttemptAutoSubmitService autoSubmitService,
+                                    AnswerWriteBuffer answerWriteBuffer,
+                                    @Qualifier("autoSubmitExecutor") Executor autoSubmitExecutor) {
+        this.attemptRepository = attemptRepository;
+        this.autoSubmitService = autoSubmitService;
+        this.answerWriteBuffer = answerWriteBuffer;
+        this.autoSubmitExecutor = autoSubmitExecutor;
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "attempt-deadline-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<Object[]> rows = attemptRepository.findTimedInProgressDeadlines();
+        for (Object[] row : rows) {
+            LocalDateTime startedAt = (LocalDateTime) row[1];
+            Integer duration = (Integer) row[2];
+            if (startedAt != null && duration != null) {
+                wheel.schedule((UUID) row[0], toMillis(startedAt.plusMinutes(duration)));
+            }
+        }
+        log.info("Seeded {} attempt deadlines", wheel.size());
+    }
+
+    /**
+     * Start tracking an attempt's deadline. No-op for untimed assignments.
+     */
+    public void register(TestAttempt attempt) {
+        LocalDateTime deadline = AttemptAutoSubmitService.deadlineOf(attempt);
+        if (deadline != null) {
+            wheel.schedule(attempt.getId(), toMillis(deadline));
+        }
+    }
+
+    public void cancel(UUID attemptId) {
+        wheel.cancel(attemptId);
+    }
+
+    void tick() {
+        try {
+            for (UUID attemptId : wheel.advance(System.currentTimeMillis())) {
+                autoSubmitExecutor.execute(() -> submit(attemptId));
+            }
+        } catch (Exception e) {
+            // Never let an exception cancel the periodic task
+            log.error("Attempt deadline tick failed", e);
+        }
+    }
+
+    private void submit(UUID attemptId) {
+        try {
+            answerWriteBuffer.awaitOtherNodes(attemptId);
+            autoSubmitService.autoSubmit(attemptId);
+        } catch (Exception e) {
+            log.error("Failed to auto-submit attempt {}: {}", attemptId, e.getMessage());
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
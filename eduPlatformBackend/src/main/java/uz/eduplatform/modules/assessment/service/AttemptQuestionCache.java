@@ -0,0 +1,114 @@
+package uz.eduplatform.modules.assessment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.utils.AfterCommit;
+import uz.eduplatform.modules.assessment.dto.AttemptQuestionDto;
+import uz.eduplatform.modules.test.repository.TestQuestionRepository;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Built question lists for the exam and result pages, one per test variant and visibility
+ * combination, so every student opening the same assignment shares one list instead of
+ * reloading and re-parsing the questions. Entries are bounded by an estimate of their size in
+ * bytes.
+ * <p>
+ * Lists are keyed by the current versions of the variant's questions, read on every lookup, so a
+ * question edited on another node is rebuilt here on the next request. Cached lists are shared
+ * between requests and must be treated as read-only. Editors also call
+ * {@link #evictQuestion(UUID)} and {@link #evictTest(UUID)} to drop superseded lists early.
+ */
+@Component
+public class AttemptQuestionCache {
+
+    private static final Duration TTL = Duration.ofHours(6);
+
+    private final TestQuestionRepository testQuestionRepository;
+    private final Cache<Key, Entry> entries;
+
+    public AttemptQuestionCache(TestQuestionRepository testQuestionRepository,
+                                @Value("${app.assessment.question-cache.max-bytes:67108864}") long maxBytes) {
+        this.testQuestionRepository = testQuestionRepository;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .expireAfterWrite(TTL)
+                .build();
+    }
+
+    private record Key(UUID testHistoryId, String variantCode, boolean includeCorrectAnswer, boolean includeProof,
+                       List<Integer> questionVersions) {
+    }
+
+    private record Entry(List<AttemptQuestionDto> questions, Set<UUID> questionIds, int weight) {
+    }
+
+    /**
+     * The cached list for this variant, built with {@code loader} on a miss. Concurrent misses
+     * for the same key wait for a single load. A loader that throws caches nothing.
+     */
+    public List<AttemptQuestionDto> get(UUID testHistoryId, String variantCode, boolean includeCorrectAnswer,
+                                        boolean includeProof, Supplier<List<AttemptQuestionDto>> loader) {
+        Key key = new Key(testHistoryId, variantCode, includeCorrectAnswer, includeProof,
+                List.copyOf(testQuestionRepository.findCurrentQuestionVersions(testHistoryId, variantCode)));
+        return entries.get(key, k -> toEntry(loader.get())).questions();
+    }
+
+    public void evictQuestion(UUID questionId) {
+        if (questionId == null) return;
+        evictWhen(key -> false, questionId);
+    }
+
+    public void evictTest(UUID testHistoryId) {
+        if (testHistoryId == null) return;
+        evictWhen(key -> key.testHistoryId().equals(testHistoryId), null);
+    }
+
+    long estimatedSize() {
+        return entries.estimatedSize();
+    }
+
+    private void evictWhen(Predicate<Key> keyMatch, UUID questionId) {
+        AfterCommit.evict(() -> entries.asMap().entrySet().removeIf(e -> keyMatch.test(e.getKey())
+                || (questionId != null && e.getValue().questionIds().contains(questionId))));
+    }
+
+    private static Entry toEntry(List<AttemptQuestionDto> questions) {
+        Set<UUID> ids = new HashSet<>();
+        long bytes = 64;
+        for (AttemptQuestionDto q : questions) {
+            ids.add(q.getId());
+            bytes += 128 + estimateBytes(q.getQuestionText()) + estimateBytes(q.getOptions())
+                    + estimateBytes(q.getOptionsOrder()) + estimateBytes(q.getMedia())
+                    + estimateBytes(q.getCorrectAnswer()) + estimateBytes(q.getProof());
+        }
+        return new Entry(List.copyOf(questions), Set.copyOf(ids), (int) Math.min(bytes, Integer.MAX_VALUE));
+    }
+
+    // Rough heap size of parsed JSON: strings at two bytes per char plus per-node overhead
+    private static long estimateBytes(Object value) {
+        if (value == null) return 0;
+        if (value instanceof CharSequence s) return 40 + 2L * s.length();
+        if (value instanceof Map<?, ?> map) {
+            long size = 48;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                size += 32 + estimateBytes(e.getKey()) + estimateBytes(e.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> list) {
+            long size = 40;
+            for (Object item : list) {
+                size += 8 + estimateBytes(item);
+            }
+            return size;
+        }
+        return 24;
+    }
+}
@@ -0,0 +1,209 @@
+package uz.eduplatform.modules.assessment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uz.eduplatform.modules.content.domain.Question;
+import uz.eduplatform.modules.content.domain.QuestionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * A question reduced to what grading needs: the answer key parsed once (correct options as a
+ * bitset over option ids, matching pairs, ordering list) and every score the question can award
+ * already computed, so grading an answer only parses the student's selection.
+ * <p>
+ * Instances are immutable and shared between grading threads through {@link GradingPlanCache}.
+ */
+final class CompiledQuestion {
+
+    /**
+     * Outcome for one answer. {@code manual} means the question type is not auto-graded.
+     */
+    record Score(BigDecimal earned, boolean correct, boolean partial, boolean manual) {
+    }
+
+    private static final Score MANUAL = new Score(BigDecimal.ZERO, false, false, true);
+
+    private final QuestionType type;
+    private final BigDecimal points;
+    private final Score full;
+    private final Score zero;
+
+    // MCQ: option id -> bit, and the bits of the correct options
+    private final Map<String, Integer> optionBits;
+    private final BitSet correctOptions;
+    private final String correctOptionId;
+
+    private final String correctBoolean;
+    private final Map<String, Object> correctPairs;
+    private final List<?> correctOrder;
+
+    // Partial-credit scores indexed by net correct count (MCQ_MULTI) or matched pairs (MATCHING)
+    private final BigDecimal[] partialScores;
+
+    private CompiledQuestion(Question question, ObjectMapper objectMapper) {
+        this.type = question.getQuestionType();
+        this.points = question.getPoints() != null ? question.getPoints() : BigDecimal.ONE;
+        this.full = new Score(points, true, false, false);
+        this.zero = new Score(BigDecimal.ZERO, false, false, false);
+
+        Map<String, Integer> bits = new HashMap<>();
+        BitSet correct = new BitSet();
+        String firstCorrect = null;
+        String trueFalse = null;
+        Map<String, Object> pairs = Map.of();
+        List<?> order = List.of();
+        BigDecimal[] partial = new BigDecimal[0];
+
+        switch (type) {
+            case MCQ_SINGLE, MCQ_MULTI -> {
+                if (parseJson(objectMapper, question.getOptions()) instanceof List<?> options) {
+                    for (Object option : options) {
+                        if (!(option instanceof Map<?, ?> optionMap) || optionMap.get("id") == null) continue;
+                        String optionId = String.valueOf(optionMap.get("id"));
+                        int bit = bits.computeIfAbsent(optionId, k -> bits.size());
+                        if (Boolean.TRUE.equals(optionMap.get("isCorrect"))) {
+                            correct.set(bit);
+                            if (firstCorrect == null) firstCorrect = optionId;
+                        }
+                    }
+                }
+                if (type == QuestionType.MCQ_MULTI) {
+                    int totalCorrect = Math.max(1, correct.cardinality());
+                    partial = new BigDecimal[totalCorrect + 1];
+                    for (int net = 0; net <= totalCorrect; net++) {
+                        partial[net] = ratioOf(net, totalCorrect);
+                    }
+                }
+            }
+            case TRUE_FALSE -> {
+                Object value = parseJson(objectMapper, question.getCorrectAnswer());
+                trueFalse = value != null ? String.valueOf(value).toLowerCase() : null;
+            }
+            case MATCHING -> {
+                pairs = toMap(parseJson(objectMapper, question.getCorrectAnswer()));
+                partial = new BigDecimal[pairs.size() + 1];
+                for (int matched = 0; matched <= pairs.size(); matched++) {
+                    partial[matched] = pairs.isEmpty() ? BigDecimal.ZERO : ratioOf(matched, pairs.size());
+                }
+            }
+            case ORDERING -> order = toList(parseJson(objectMapper, question.getCorrectAnswer()));
+            default -> {
+            }
+        }
+
+        this.optionBits = Map.copyOf(bits);
+        this.correctOptions = correct;
+        this.correctOptionId = firstCorrect;
+        this.correctBoolean = trueFalse;
+        this.correctPairs = Collections.unmodifiableMap(pairs);
+        this.correctOrder = order;
+        this.partialScores = partial;
+    }
+
+    static CompiledQuestion compile(Question question, ObjectMapper objectMapper) {
+        return new CompiledQuestion(question, objectMapper);
+    }
+
+    BigDecimal points() {
+        return points;
+    }
+
+    /**
+     * Score a stored selection (the raw JSON from {@code answers.selected_answer}). Blank means
+     * unanswered and scores zero for every type.
+     */
+    Score grade(String selectedJson, ObjectMapper objectMapper) {
+        if (selectedJson == null || selectedJson.isBlank()) return zero;
+        if (!isAutoGraded()) return MANUAL;
+
+        Object selected = parseJson(objectMapper, selectedJson);
+        return switch (type) {
+            case MCQ_SINGLE -> selected != null && correctOptionId != null
+                    && correctOptionId.equals(String.valueOf(selected)) ? full : zero;
+            case MCQ_MULTI -> gradeMcqMulti(selected);
+            case TRUE_FALSE -> selected != null && String.valueOf(selected).toLowerCase().equals(correctBoolean)
+                    ? full : zero;
+            case MATCHING -> gradeMatching(selected);
+            case ORDERING -> selected != null && toList(selected).equals(correctOrder) ? full : zero;
+            default -> MANUAL;
+        };
+    }
+
+    boolean isAutoGraded() {
+        return switch (type) {
+            case MCQ_SINGLE, MCQ_MULTI, TRUE_FALSE, MATCHING, ORDERING -> true;
+            default -> false;
+        };
+    }
+
+    private Score gradeMcqMulti(Object selected) {
+        BitSet chosen = new BitSet();
+        Set<String> unknown = null;
+        if (selected != null) {
+            for (Object value : selected instanceof Collection<?> c ? c : List.of(selected)) {
+                String optionId = String.valueOf(value);
+                Integer bit = optionBits.get(optionId);
+                if (bit != null) {
+                    chosen.set(bit);
+                } else {
+                    if (unknown == null) unknown = new HashSet<>();
+                    unknown.add(optionId);
+                }
+            }
+        }
+        if (unknown == null && chosen.equals(correctOptions)) return full;
+
+        BitSet hits = (BitSet) chosen.clone();
+        hits.and(correctOptions);
+        int correctCount = hits.cardinality();
+        int wrongCount = chosen.cardinality() - correctCount + (unknown != null ? unknown.size() : 0);
+
+        BigDecimal earned = partialScores[Math.max(0, correctCount - wrongCount)];
+        return new Score(earned, false, earned.signum() > 0, false);
+    }
+
+    private Score gradeMatching(Object selected) {
+        if (correctPairs.isEmpty()) return zero;
+
+        int matched = 0;
+        for (Map.Entry<String, Object> entry : toMap(selected).entrySet()) {
+            if (correctPairs.containsKey(entry.getKey())
+                    && Objects.equals(entry.getValue(), correctPairs.get(entry.getKey()))) {
+                matched++;
+            }
+        }
+        if (matched == correctPairs.size()) return new Score(partialScores[matched], true, false, false);
+        return new Score(partialScores[matched], false, matched > 0, false);
+    }
+
+    private BigDecimal ratioOf(int count, int total) {
+        double ratio = (double) count / total;
+        return points.multiply(BigDecimal.valueOf(ratio)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Object parseJson(ObjectMapper objectMapper, String json) {
+        if (json == null || json.isBlank()) return null;
+        try {
+            return objectMapper.readValue(json, Object.class);
+        } catch (JsonProcessingException e) {
+            return json;
+        }
+    }
+
+    private static Map<String, Object> toMap(Object obj) {
+        if (obj instanceof Map<?, ?> map) {
+            Map<String, Object> result = new HashMap<>();
+            map.forEach((k, v) -> result.put(String.valueOf(k), v));
+            return result;
+        }
+        return Map.of();
+    }
+
+    private static List<?> toList(Object obj) {
+        if (obj instanceof List<?> list) return list;
+        return obj != null ? List.of(obj) : List.of();
+    }
+}
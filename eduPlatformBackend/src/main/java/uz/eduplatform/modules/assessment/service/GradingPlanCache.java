@@ -0,0 +1,81 @@
+package uz.eduplatform.modules.assessment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.utils.AfterCommit;
+import uz.eduplatform.modules.content.domain.Question;
+import uz.eduplatform.modules.content.repository.QuestionRepository;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Compiled grading plans: {@link CompiledQuestion}s by question id and version, shared by every
+ * attempt and variant that uses the question. A grading run reads the current versions of its
+ * questions and only the (id, version) pairs not cached yet are loaded and compiled, so a question
+ * edited on another node is recompiled here on the next run.
+ * <p>
+ * Every edit to a question's options, answer key, points or type bumps its version. Editors also
+ * call {@link #evict(UUID)} to drop the superseded plans on this node early.
+ */
+@Component
+public class GradingPlanCache {
+
+    private static final long MAX_QUESTIONS = 50_000;
+    private static final Duration TTL = Duration.ofHours(6);
+
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, CompiledQuestion> compiled;
+
+    private record Key(UUID questionId, Integer version) {
+    }
+
+    public GradingPlanCache(QuestionRepository questionRepository, ObjectMapper objectMapper) {
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+        this.compiled = Caffeine.newBuilder()
+                .maximumSize(MAX_QUESTIONS)
+                .expireAfterWrite(TTL)
+                .build();
+    }
+
+    /**
+     * The compiled plan for these questions. Ids with no question row are left out.
+     */
+    Map<UUID, CompiledQuestion> planFor(Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) return Map.of();
+        Set<Key> keys = new HashSet<>();
+        for (Object[] row : questionRepository.findVersionsByIds(new HashSet<>(questionIds))) {
+            keys.add(new Key((UUID) row[0], (Integer) row[1]));
+        }
+
+        Map<UUID, CompiledQuestion> plan = new HashMap<>();
+        compiled.getAll(keys, this::load).forEach((key, question) -> plan.put(key.questionId(), question));
+        return plan;
+    }
+
+    public void evict(UUID questionId) {
+        if (questionId == null) return;
+        AfterCommit.evict(() -> compiled.asMap().keySet().removeIf(key -> key.questionId().equals(questionId)));
+    }
+
+    long estimatedSize() {
+        return compiled.estimatedSize();
+    }
+
+    private Map<Key, CompiledQuestion> load(Set<? extends Key> keys) {
+        Map<UUID, Key> byId = new HashMap<>();
+        keys.forEach(key -> byId.put(key.questionId(), key));
+
+        // A row edited since its version was read is compiled as loaded; its key is only asked
+        // for by runs that started before the edit
+        Map<Key, CompiledQuestion> loaded = new HashMap<>();
+        for (Question question : questionRepository.findAllById(new ArrayList<>(byId.keySet()))) {
+            loaded.put(byId.get(question.getId()), CompiledQuestion.compile(question, objectMapper));
+        }
+        return loaded;
+    }
+}
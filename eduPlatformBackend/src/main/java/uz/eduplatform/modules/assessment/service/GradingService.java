@@ -1,7 +1,5 @@
 package uz.eduplatform.modules.assessment.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,30 +7,34 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.modules.analytics.service.StudentAnalyticsRollupService;
 import uz.eduplatform.modules.assessment.domain.Answer;
 import uz.eduplatform.modules.assessment.domain.AttemptStatus;
 import uz.eduplatform.modules.assessment.domain.TestAttempt;
 import uz.eduplatform.modules.assessment.dto.GradeAnswerRequest;
 import uz.eduplatform.modules.assessment.repository.AnswerRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
-import uz.eduplatform.modules.content.domain.Question;
-import uz.eduplatform.modules.content.domain.QuestionType;
-import uz.eduplatform.modules.content.repository.QuestionRepository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GradingService {
 
+    static final Set<AttemptStatus> REGRADABLE =
+            EnumSet.of(AttemptStatus.AUTO_GRADED, AttemptStatus.NEEDS_REVIEW, AttemptStatus.GRADED);
+
     private final TestAttemptRepository attemptRepository;
     private final AnswerRepository answerRepository;
-    private final QuestionRepository questionRepository;
+    private final GradingPlanCache gradingPlanCache;
     private final ObjectMapper objectMapper;
+    private final StudentAnalyticsRollupService rollupService;
+    private final AnswerWriteBuffer answerWriteBuffer;
 
     /**
      * Auto-grade an attempt based on PRD grading algorithm.
@@ -41,69 +43,101 @@ public class GradingService {
      */
     @Transactional
     public TestAttempt gradeAttempt(TestAttempt attempt) {
+        BigDecimal previousPercentage = attempt.getPercentage();
+        // This node's buffered autosaves go out in this transaction; callers collected other nodes' first
+        answerWriteBuffer.close(attempt.getId());
         List<Answer> answers = answerRepository.findByAttemptIdOrderByQuestionIndexAsc(attempt.getId());
 
-        // Collect all question IDs and fetch in batch
-        List<UUID> questionIds = answers.stream().map(Answer::getQuestionId).toList();
-        Map<UUID, Question> questionMap = new HashMap<>();
-        questionRepository.findAllById(questionIds).forEach(q -> questionMap.put(q.getId(), q));
-
-        BigDecimal totalScore = BigDecimal.ZERO;
-        BigDecimal maxScore = BigDecimal.ZERO;
-        boolean needsManualReview = false;
+        Map<UUID, CompiledQuestion> plan = gradingPlanCache.planFor(
+                answers.stream().map(Answer::getQuestionId).toList());
+        Totals totals = scoreAnswers(attempt.getId(), answers, plan);
 
-        for (Answer answer : answers) {
-            Question question = questionMap.get(answer.getQuestionId());
-            if (question == null) {
-                log.warn("Question {} not found during grading of attempt {}", answer.getQuestionId(), attempt.getId());
-                continue;
-            }
+        answerRepository.saveAll(answers);
 
-            BigDecimal questionPoints = question.getPoints() != null ? question.getPoints() : BigDecimal.ONE;
-            answer.setMaxPoints(questionPoints);
-            maxScore = maxScore.add(questionPoints);
+        // Update attempt scores
+        applyTotals(attempt, totals);
+        attempt.setStatus(totals.needsReview() ? AttemptStatus.NEEDS_REVIEW : AttemptStatus.AUTO_GRADED);
+        if (attempt.getGradedAt() == null) {
+            attempt.setGradedAt(LocalDateTime.now());
+        }
+        TestAttempt saved = attemptRepository.save(attempt);
+        rollupService.recordGradedAttempt(saved, previousPercentage, answers.size());
+        return saved;
+    }
 
-            if (answer.getSelectedAnswer() == null || answer.getSelectedAnswer().isBlank()) {
-                // Unanswered
-                answer.setEarnedPoints(BigDecimal.ZERO);
-                answer.setIsCorrect(false);
-                continue;
+    /**
+     * Re-score already graded attempts against the current answer keys, in one transaction.
+     * Scores a teacher entered by hand are kept. Used by {@link AssignmentRegradeService}, which
+     * passes all attempts of a student in the same call.
+     *
+     * @return how many attempts ended up with a different percentage
+     */
+    @Transactional
+    public int regradeAttempts(List<UUID> attemptIds) {
+        List<TestAttempt> attempts = new ArrayList<>(attemptRepository.findAllById(attemptIds));
+        attempts.removeIf(a -> !REGRADABLE.contains(a.getStatus()));
+        // Rollup rows are locked per student; take them in a fixed order
+        attempts.sort(Comparator.comparing(TestAttempt::getStudentId));
+
+        List<Answer> answers = answerRepository.findByAttemptIdIn(attemptIds);
+        Map<UUID, List<Answer>> answersByAttempt = new HashMap<>();
+        for (Answer answer : answers) {
+            answersByAttempt.computeIfAbsent(answer.getAttempt().getId(), id -> new ArrayList<>()).add(answer);
+        }
+        Map<UUID, CompiledQuestion> plan = gradingPlanCache.planFor(
+                answers.stream().map(Answer::getQuestionId).toList());
+
+        int changed = 0;
+        for (TestAttempt attempt : attempts) {
+            List<Answer> attemptAnswers = answersByAttempt.getOrDefault(attempt.getId(), List.of());
+            BigDecimal previousPercentage = attempt.getPercentage();
+            Totals totals = scoreAnswers(attempt.getId(), attemptAnswers, plan);
+
+            applyTotals(attempt, totals);
+            if (totals.needsReview()) {
+                attempt.setStatus(AttemptStatus.NEEDS_REVIEW);
+            } else if (attempt.getStatus() != AttemptStatus.GRADED) {
+                attempt.setStatus(totals.manuallyGraded() ? AttemptStatus.GRADED : AttemptStatus.AUTO_GRADED);
             }
-
-            QuestionType type = question.getQuestionType();
-            switch (type) {
-                case MCQ_SINGLE -> gradeMcqSingle(answer, question);
-                case MCQ_MULTI -> gradeMcqMulti(answer, question);
-                case TRUE_FALSE -> gradeTrueFalse(answer, question);
-                case MATCHING -> gradeMatching(answer, question);
-                case ORDERING -> gradeOrdering(answer, question);
-                default -> {
-                    // SHORT_ANSWER, ESSAY, FILL_BLANK - need manual grading
-                    answer.setNeedsManualGrading(true);
-                    answer.setEarnedPoints(BigDecimal.ZERO);
-                    needsManualReview = true;
-                }
-            }
-
-            if (answer.getEarnedPoints() != null) {
-                totalScore = totalScore.add(answer.getEarnedPoints());
+            if (previousPercentage == null || previousPercentage.compareTo(attempt.getPercentage()) != 0) {
+                changed++;
             }
+            rollupService.recordGradedAttempt(attempt, previousPercentage, attemptAnswers.size());
         }
 
         answerRepository.saveAll(answers);
+        attemptRepository.saveAll(attempts);
+        return changed;
+    }
 
-        // Update attempt scores
-        attempt.setRawScore(totalScore);
-        attempt.setMaxScore(maxScore);
-        if (maxScore.compareTo(BigDecimal.ZERO) > 0) {
-            attempt.setPercentage(totalScore.multiply(BigDecimal.valueOf(100))
-                    .divide(maxScore, 2, RoundingMode.HALF_UP));
-        } else {
-            attempt.setPercentage(BigDecimal.ZERO);
+    /**
+     * Grade and insert attempts that were completed elsewhere (scanned paper sheets), with their
+     * answers attached, in one transaction. Used by {@code OmrGradingService} in chunks.
+     */
+    @Transactional
+    public List<TestAttempt> gradeNewAttempts(List<TestAttempt> attempts) {
+        List<TestAttempt> sorted = new ArrayList<>(attempts);
+        // Rollup rows are locked per student; take them in a fixed order
+        sorted.sort(Comparator.comparing(TestAttempt::getStudentId));
+
+        Map<UUID, CompiledQuestion> plan = gradingPlanCache.planFor(sorted.stream()
+                .flatMap(a -> a.getAnswers().stream())
+                .map(Answer::getQuestionId)
+                .collect(Collectors.toSet()));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (TestAttempt attempt : sorted) {
+            Totals totals = scoreAnswers(attempt.getId(), attempt.getAnswers(), plan);
+            applyTotals(attempt, totals);
+            attempt.setStatus(totals.needsReview() ? AttemptStatus.NEEDS_REVIEW : AttemptStatus.AUTO_GRADED);
+            attempt.setGradedAt(now);
         }
 
-        attempt.setStatus(needsManualReview ? AttemptStatus.NEEDS_REVIEW : AttemptStatus.AUTO_GRADED);
-        return attemptRepository.save(attempt);
+        List<TestAttempt> saved = attemptRepository.saveAll(sorted);
+        for (TestAttempt attempt : saved) {
+            rollupService.recordGradedAttempt(attempt, null, attempt.getAnswers().size());
+        }
+        return saved;
     }
 
     /**
@@ -138,6 +172,7 @@ public class GradingService {
         TestAttempt attempt = attemptRepository.findById(attemptId)
                 .orElseThrow(() -> new ResourceNotFoundException("TestAttempt", "id", attemptId));
 
+        BigDecimal previousPercentage = attempt.getPercentage();
         List<Answer> answers = answerRepository.findByAttemptIdOrderByQuestionIndexAsc(attemptId);
 
         BigDecimal totalScore = BigDecimal.ZERO;
@@ -165,174 +200,61 @@ public class GradingService {
 
         attempt.setStatus(stillNeedsReview ? AttemptStatus.NEEDS_REVIEW : AttemptStatus.GRADED);
         attemptRepository.save(attempt);
+        rollupService.recordGradedAttempt(attempt, previousPercentage, answers.size());
     }
 
-    // ==================== Grading Methods ====================
-
-    @SuppressWarnings("unchecked")
-    private void gradeMcqSingle(Answer answer, Question question) {
-        Object selected = parseJson(answer.getSelectedAnswer());
-        if (selected == null) {
-            answer.setIsCorrect(false);
-            answer.setEarnedPoints(BigDecimal.ZERO);
-            return;
-        }
-        // Compare by option id (isCorrect flag), NOT by letter-label correctAnswer
-        String correctOptionId = findCorrectOptionId(question.getOptions());
-        boolean isCorrect = correctOptionId != null && correctOptionId.equals(String.valueOf(selected));
-        answer.setIsCorrect(isCorrect);
-        answer.setEarnedPoints(isCorrect ? question.getPoints() : BigDecimal.ZERO);
-    }
-
-    @SuppressWarnings("unchecked")
-    private void gradeMcqMulti(Answer answer, Question question) {
-        Set<Object> selectedRaw = toSet(parseJson(answer.getSelectedAnswer()));
-        Set<String> correctIds = findCorrectOptionIds(question.getOptions());
-        Set<String> selectedIds = selectedRaw.stream().map(String::valueOf).collect(java.util.stream.Collectors.toSet());
-
-        if (selectedIds.equals(correctIds)) {
-            answer.setIsCorrect(true);
-            answer.setEarnedPoints(question.getPoints());
-        } else {
-            // Partial credit
-            Set<String> intersection = new HashSet<>(selectedIds);
-            intersection.retainAll(correctIds);
-
-            Set<String> wrongSelections = new HashSet<>(selectedIds);
-            wrongSelections.removeAll(correctIds);
-
-            int correctCount = intersection.size();
-            int wrongCount = wrongSelections.size();
-            int totalCorrect = Math.max(1, correctIds.size());
-
-            double partialRatio = Math.max(0, (double) (correctCount - wrongCount) / totalCorrect);
-            BigDecimal partialScore = question.getPoints()
-                    .multiply(BigDecimal.valueOf(partialRatio))
-                    .setScale(2, RoundingMode.HALF_UP);
-
-            answer.setIsPartial(partialScore.compareTo(BigDecimal.ZERO) > 0);
-            answer.setIsCorrect(false);
-            answer.setEarnedPoints(partialScore);
-        }
-    }
-
-    private void gradeTrueFalse(Answer answer, Question question) {
-        Object selected = parseJson(answer.getSelectedAnswer());
-        Object correct = parseJson(question.getCorrectAnswer());
-
-        // Normalize to lowercase string to handle Boolean vs String mismatch
-        String selectedStr = selected != null ? String.valueOf(selected).toLowerCase() : null;
-        String correctStr = correct != null ? String.valueOf(correct).toLowerCase() : null;
+    // ==================== Helpers ====================
 
-        if (selectedStr != null && selectedStr.equals(correctStr)) {
-            answer.setIsCorrect(true);
-            answer.setEarnedPoints(question.getPoints());
-        } else {
-            answer.setIsCorrect(false);
-            answer.setEarnedPoints(BigDecimal.ZERO);
-        }
+    private record Totals(BigDecimal score, BigDecimal max, boolean needsReview, boolean manuallyGraded) {
     }
 
-    @SuppressWarnings("unchecked")
-    private String findCorrectOptionId(String optionsJson) {
-        Object parsed = parseJson(optionsJson);
-        if (!(parsed instanceof List<?> optionsList)) return null;
-        for (Object opt : optionsList) {
-            if (opt instanceof Map<?, ?> optMap && Boolean.TRUE.equals(optMap.get("isCorrect"))) {
-                Object id = optMap.get("id");
-                return id != null ? String.valueOf(id) : null;
-            }
-        }
-        return null;
-    }
+    private Totals scoreAnswers(UUID attemptId, List<Answer> answers, Map<UUID, CompiledQuestion> plan) {
+        BigDecimal totalScore = BigDecimal.ZERO;
+        BigDecimal maxScore = BigDecimal.ZERO;
+        boolean needsManualReview = false;
+        boolean manuallyGraded = false;
 
-    @SuppressWarnings("unchecked")
-    private Set<String> findCorrectOptionIds(String optionsJson) {
-        Object parsed = parseJson(optionsJson);
-        if (!(parsed instanceof List<?> optionsList)) return Set.of();
-        Set<String> correctIds = new HashSet<>();
-        for (Object opt : optionsList) {
-            if (opt instanceof Map<?, ?> optMap && Boolean.TRUE.equals(optMap.get("isCorrect"))) {
-                Object id = optMap.get("id");
-                if (id != null) correctIds.add(String.valueOf(id));
+        for (Answer answer : answers) {
+            CompiledQuestion question = plan.get(answer.getQuestionId());
+            if (question == null) {
+                log.warn("Question {} not found during grading of attempt {}", answer.getQuestionId(), attemptId);
+                continue;
             }
-        }
-        return correctIds;
-    }
 
-    private void gradeMatching(Answer answer, Question question) {
-        Map<String, Object> selectedPairs = toMap(parseJson(answer.getSelectedAnswer()));
-        Map<String, Object> correctPairs = toMap(parseJson(question.getCorrectAnswer()));
+            answer.setMaxPoints(question.points());
+            maxScore = maxScore.add(question.points());
 
-        if (correctPairs.isEmpty()) {
-            answer.setIsCorrect(false);
-            answer.setEarnedPoints(BigDecimal.ZERO);
-            return;
-        }
+            if (answer.getManualScore() != null) {
+                // A teacher's score stands on re-grade
+                answer.setEarnedPoints(answer.getManualScore());
+                totalScore = totalScore.add(answer.getManualScore());
+                manuallyGraded = true;
+                continue;
+            }
 
-        int correctCount = 0;
-        for (Map.Entry<String, Object> entry : selectedPairs.entrySet()) {
-            if (Objects.equals(entry.getValue(), correctPairs.get(entry.getKey()))) {
-                correctCount++;
+            CompiledQuestion.Score score = question.grade(answer.getSelectedAnswer(), objectMapper);
+            answer.setEarnedPoints(score.earned());
+            if (score.manual()) {
+                // SHORT_ANSWER, ESSAY, FILL_BLANK - need manual grading
+                answer.setNeedsManualGrading(true);
+                needsManualReview = true;
+            } else {
+                answer.setIsCorrect(score.correct());
+                answer.setIsPartial(score.partial());
             }
+            totalScore = totalScore.add(score.earned());
         }
-
-        double ratio = (double) correctCount / correctPairs.size();
-        BigDecimal earned = question.getPoints()
-                .multiply(BigDecimal.valueOf(ratio))
-                .setScale(2, RoundingMode.HALF_UP);
-
-        answer.setIsCorrect(correctCount == correctPairs.size());
-        answer.setIsPartial(correctCount > 0 && correctCount < correctPairs.size());
-        answer.setEarnedPoints(earned);
+        return new Totals(totalScore, maxScore, needsManualReview, manuallyGraded);
     }
 
-    private void gradeOrdering(Answer answer, Question question) {
-        List<?> selectedOrder = toList(parseJson(answer.getSelectedAnswer()));
-        List<?> correctOrder = toList(parseJson(question.getCorrectAnswer()));
-
-        if (selectedOrder.equals(correctOrder)) {
-            answer.setIsCorrect(true);
-            answer.setEarnedPoints(question.getPoints());
+    private static void applyTotals(TestAttempt attempt, Totals totals) {
+        attempt.setRawScore(totals.score());
+        attempt.setMaxScore(totals.max());
+        if (totals.max().compareTo(BigDecimal.ZERO) > 0) {
+            attempt.setPercentage(totals.score().multiply(BigDecimal.valueOf(100))
+                    .divide(totals.max(), 2, RoundingMode.HALF_UP));
         } else {
-            answer.setIsCorrect(false);
-            answer.setEarnedPoints(BigDecimal.ZERO);
-        }
-    }
-
-    // ==================== Helpers ====================
-
-    private Object parseJson(String json) {
-        if (json == null || json.isBlank()) return null;
-        try {
-            return objectMapper.readValue(json, Object.class);
-        } catch (JsonProcessingException e) {
-            return json;
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private Set<Object> toSet(Object obj) {
-        if (obj instanceof Collection<?> collection) {
-            return new HashSet<>(collection);
-        }
-        return Set.of(obj);
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> toMap(Object obj) {
-        if (obj instanceof Map<?, ?> map) {
-            Map<String, Object> result = new HashMap<>();
-            map.forEach((k, v) -> result.put(String.valueOf(k), v));
-            return result;
-        }
-        return Map.of();
-    }
-
-    private List<?> toList(Object obj) {
-        if (obj instanceof List<?> list) {
-            return list;
+            attempt.setPercentage(BigDecimal.ZERO);
         }
-        return List.of(obj);
     }
 }
@@ -0,0 +1,112 @@
+package uz.eduplatform.modules.assessment.service;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.modules.assessment.dto.LiveProgressBatch;
+import uz.eduplatform.modules.assessment.dto.LiveTestEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges live-monitoring events per student and sends at most one {@link LiveProgressBatch}
+ * frame per assignment per window, instead of one STOMP frame per answer save. Submits and tab
+ * switches skip the window and go out at once, carrying any progress still waiting for that
+ * student.
+ * <p>
+ * {@code websocket.progress.frames.in} and {@code websocket.progress.frames.out} count events
+ * accepted and frames handed to the broker.
+ */
+@Slf4j
+@Component
+public class LiveEventCoalescer {
+
+    private static final Set<LiveTestEvent.EventType> IMMEDIATE =
+            EnumSet.of(LiveTestEvent.EventType.SUBMITTED, LiveTestEvent.EventType.TAB_SWITCH);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Counter framesIn;
+    private final Counter framesOut;
+    private final Map<Key, LiveTestEvent> pending = new ConcurrentHashMap<>();
+
+    public LiveEventCoalescer(SimpMessagingTemplate messagingTemplate,
+                              @Qualifier("liveProgressFramesInCounter") Counter framesIn,
+                              @Qualifier("liveProgressFramesOutCounter") Counter framesOut) {
+        this.messagingTemplate = messagingTemplate;
+        this.framesIn = framesIn;
+        this.framesOut = framesOut;
+    }
+
+    public void publish(LiveTestEvent event) {
+        framesIn.increment();
+        if (event.getAssignmentId() == null || event.getStudentId() == null) {
+            send(event.getAssignmentId(), event);
+            return;
+        }
+
+        Key key = new Key(event.getAssignmentId(), event.getStudentId());
+        if (IMMEDIATE.contains(event.getEventType())) {
+            LiveTestEvent waiting = pending.remove(key);
+            send(event.getAssignmentId(), waiting != null ? merge(waiting, event) : event);
+        } else {
+            pending.merge(key, event, LiveEventCoalescer::merge);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.live-monitoring.coalesce-window-ms:250}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        Map<UUID, List<LiveTestEvent>> byAssignment = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            LiveTestEvent event = pending.remove(key);
+            if (event != null) {
+                byAssignment.computeIfAbsent(key.assignmentId(), id -> new ArrayList<>()).add(event);
+            }
+        }
+
+        byAssignment.forEach((assignmentId, updates) -> send(assignmentId, LiveProgressBatch.builder()
+                .assignmentId(assignmentId)
+                .updates(updates)
+                .build()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void send(UUID assignmentId, Object payload) {
+        try {
+            messagingTemplate.convertAndSend("/topic/assignment/" + assignmentId + "/progress", payload);
+            framesOut.increment();
+        } catch (Exception e) {
+            log.warn("Failed to broadcast WebSocket event: {}", e.getMessage());
+        }
+    }
+
+    // Newer values win; fields the newer event does not carry keep the older value
+    static LiveTestEvent merge(LiveTestEvent older, LiveTestEvent newer) {
+        return LiveTestEvent.builder()
+                .eventType(newer.getEventType())
+                .assignmentId(newer.getAssignmentId())
+                .studentId(newer.getStudentId())
+                .studentName(newer.getStudentName() != null ? newer.getStudentName() : older.getStudentName())
+                .answeredQuestions(newer.getAnsweredQuestions() != null
+                        ? newer.getAnsweredQuestions() : older.getAnsweredQuestions())
+                .totalQuestions(newer.getTotalQuestions() != null
+                        ? newer.getTotalQuestions() : older.getTotalQuestions())
+                .tabSwitchCount(newer.getTabSwitchCount() != null
+                        ? newer.getTabSwitchCount() : older.getTabSwitchCount())
+                .percentage(newer.getPercentage() != null ? newer.getPercentage() : older.getPercentage())
+                .build();
+    }
+
+    private record Key(UUID assignmentId, UUID studentId) {
+    }
+}
@@ -3,11 +3,12 @@ package uz.eduplatform.modules.assessment.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.LookupContext;
+import uz.eduplatform.core.common.utils.LookupResolver;
 import uz.eduplatform.modules.assessment.domain.AssignmentStatus;
 import uz.eduplatform.modules.assessment.domain.AttemptStatus;
 import uz.eduplatform.modules.assessment.domain.TestAssignment;
@@ -17,12 +18,13 @@ import uz.eduplatform.modules.assessment.dto.LiveTestEvent;
 import uz.eduplatform.modules.assessment.repository.AnswerRepository;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
-import uz.eduplatform.modules.auth.domain.User;
-import uz.eduplatform.modules.auth.repository.UserRepository;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -30,16 +32,74 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class LiveMonitoringService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final LiveEventCoalescer eventCoalescer;
     private final TestAssignmentRepository assignmentRepository;
     private final TestAttemptRepository attemptRepository;
     private final AnswerRepository answerRepository;
-    private final UserRepository userRepository;
+    private final LookupResolver lookupResolver;
+    private final LiveProgressRegistry progressRegistry;
+
+    public void attemptStarted(TestAttempt attempt) {
+        LookupContext.UserRef student = lookupResolver.context().user(attempt.getStudentId()).orElse(null);
+        UUID assignmentId = attempt.getAssignment().getId();
+        progressRegistry.started(assignmentId, attempt.getId(), attempt.getStudentId(),
+                student != null ? student.firstName() : null, student != null ? student.lastName() : null,
+                attempt.getStartedAt(), AttemptAutoSubmitService.deadlineOf(attempt));
+
+        broadcastEvent(LiveTestEvent.builder()
+                .eventType(LiveTestEvent.EventType.STUDENT_STARTED)
+                .assignmentId(assignmentId)
+                .studentId(attempt.getStudentId())
+                .studentName(student != null ? student.fullName() : "Unknown")
+                .answeredQuestions(0)
+                .totalQuestions(0)
+                .tabSwitchCount(0)
+                .build());
+    }
+
+    public void answerSaved(UUID assignmentId, UUID attemptId, UUID studentId, int answeredQuestions, int totalQuestions) {
+        LiveProgressRegistry.AttemptProgress progress = progressRegistry.answerSaved(
+                assignmentId, attemptId, studentId, answeredQuestions, totalQuestions);
+
+        broadcastEvent(LiveTestEvent.builder()
+                .eventType(LiveTestEvent.EventType.ANSWER_SAVED)
+                .assignmentId(assignmentId)
+                .studentId(studentId)
+                .answeredQuestions(answeredQuestions)
+                .totalQuestions(totalQuestions)
+                .tabSwitchCount(progress.getTabSwitches())
+                .build());
+    }
+
+    public void tabSwitched(TestAttempt attempt) {
+        UUID assignmentId = attempt.getAssignment().getId();
+        int tabSwitches = attempt.getTabSwitchCount() != null ? attempt.getTabSwitchCount() : 0;
+        progressRegistry.tabSwitched(assignmentId, attempt.getId(), attempt.getStudentId(), tabSwitches);
+
+        broadcastEvent(LiveTestEvent.builder()
+                .eventType(LiveTestEvent.EventType.TAB_SWITCH)
+                .assignmentId(assignmentId)
+                .studentId(attempt.getStudentId())
+                .tabSwitchCount(tabSwitches)
+                .build());
+    }
+
+    public void attemptSubmitted(TestAttempt attempt) {
+        UUID assignmentId = attempt.getAssignment().getId();
+        progressRegistry.submitted(assignmentId, attempt.getId(), attempt.getStudentId(), attempt.getStatus());
+
+        broadcastEvent(LiveTestEvent.builder()
+                .eventType(LiveTestEvent.EventType.SUBMITTED)
+                .assignmentId(assignmentId)
+                .studentId(attempt.getStudentId())
+                .percentage(attempt.getPercentage())
+                .tabSwitchCount(attempt.getTabSwitchCount())
+                .build());
+    }
 
     public void broadcastEvent(LiveTestEvent event) {
         try {
-            String destination = "/topic/assignment/" + event.getAssignmentId() + "/progress";
-            messagingTemplate.convertAndSend(destination, event);
+            eventCoalescer.publish(event);
         } catch (Exception e) {
             log.warn("Failed to broadcast WebSocket event: {}", e.getMessage());
         }
@@ -59,16 +119,24 @@ public class LiveMonitoringService {
             throw BusinessException.ofKey("monitoring.assignment.not.active");
         }
 
-        List<TestAttempt> attempts = attemptRepository.findByAssignmentIdOrderByCreatedAtDesc(assignmentId);
+        LiveProgressRegistry.AssignmentProgress progress = progressRegistry.get(assignmentId);
+        if (!progress.isHydrated()) {
+            hydrate(assignment);
+        }
+
+        List<LiveProgressRegistry.AttemptProgress> attempts = progress.attempts().stream()
+                .sorted(Comparator.comparing(LiveProgressRegistry.AttemptProgress::getStartedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
 
         List<LiveMonitoringDto.LiveStudentDto> students = attempts.stream()
-                .map(attempt -> buildStudentProgress(attempt, assignment))
+                .map(this::buildStudentProgress)
                 .toList();
 
         int totalStudents = assignment.getAssignedStudentIds() != null ? assignment.getAssignedStudentIds().size() : 0;
         long activeStudents = attempts.stream().filter(a -> a.getStatus() == AttemptStatus.IN_PROGRESS).count();
         long completedStudents = attempts.stream().filter(a -> a.getStatus() != AttemptStatus.IN_PROGRESS).count();
-        long startedStudents = attempts.stream().map(TestAttempt::getStudentId).distinct().count();
+        long startedStudents = attempts.stream().map(LiveProgressRegistry.AttemptProgress::getStudentId).distinct().count();
         int notStartedStudents = (int) Math.max(0, totalStudents - startedStudents);
 
         return LiveMonitoringDto.builder()
@@ -81,30 +149,56 @@ public class LiveMonitoringService {
                 .build();
     }
 
-    private LiveMonitoringDto.LiveStudentDto buildStudentProgress(TestAttempt attempt, TestAssignment assignment) {
-        User student = userRepository.findById(attempt.getStudentId()).orElse(null);
-        String firstName = student != null ? student.getFirstName() : "Unknown";
-        String lastName = student != null ? student.getLastName() : "";
+    // Cold start: load attempts already under way, with answer counts in one grouped query
+    private void hydrate(TestAssignment assignment) {
+        List<TestAttempt> attempts = attemptRepository.findByAssignmentIdOrderByCreatedAtDesc(assignment.getId());
+
+        Map<UUID, long[]> counts = new HashMap<>();
+        for (Object[] row : answerRepository.findAnswerCountsByAssignmentId(assignment.getId())) {
+            counts.put((UUID) row[0], new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+
+        LookupContext lookup = lookupResolver.context()
+                .preloadUsers(attempts.stream().map(TestAttempt::getStudentId).toList());
+
+        List<LiveProgressRegistry.StoredAttempt> stored = attempts.stream()
+                .map(attempt -> {
+                    LookupContext.UserRef student = lookup.user(attempt.getStudentId()).orElse(null);
+                    long[] answerCounts = counts.getOrDefault(attempt.getId(), new long[2]);
+                    return new LiveProgressRegistry.StoredAttempt(
+                            attempt.getId(),
+                            attempt.getStudentId(),
+                            student != null ? student.firstName() : null,
+                            student != null ? student.lastName() : null,
+                            attempt.getStatus(),
+                            attempt.getStartedAt(),
+                            attempt.getStartedAt() != null && assignment.getDurationMinutes() != null
+                                    ? attempt.getStartedAt().plusMinutes(assignment.getDurationMinutes()) : null,
+                            (int) answerCounts[1],
+                            (int) answerCounts[0],
+                            attempt.getTabSwitchCount() != null ? attempt.getTabSwitchCount() : 0);
+                })
+                .toList();
 
-        long answeredQuestions = answerRepository.countByAttemptIdAndSelectedAnswerIsNotNull(attempt.getId());
-        long totalQuestions = answerRepository.countByAttemptId(attempt.getId());
+        progressRegistry.hydrate(assignment.getId(), stored);
+    }
 
+    private LiveMonitoringDto.LiveStudentDto buildStudentProgress(LiveProgressRegistry.AttemptProgress attempt) {
         Long timeRemaining = null;
-        if (attempt.getStatus() == AttemptStatus.IN_PROGRESS) {
-            LocalDateTime deadline = attempt.getStartedAt().plusMinutes(assignment.getDurationMinutes());
-            Duration remaining = Duration.between(LocalDateTime.now(), deadline);
+        if (attempt.getStatus() == AttemptStatus.IN_PROGRESS && attempt.getDeadline() != null) {
+            Duration remaining = Duration.between(LocalDateTime.now(), attempt.getDeadline());
             timeRemaining = Math.max(0, remaining.getSeconds());
         }
 
         return LiveMonitoringDto.LiveStudentDto.builder()
                 .studentId(attempt.getStudentId())
-                .firstName(firstName)
-                .lastName(lastName)
+                .firstName(attempt.getFirstName() != null ? attempt.getFirstName() : "Unknown")
+                .lastName(attempt.getLastName() != null ? attempt.getLastName() : "")
                 .status(attempt.getStatus().name())
                 .currentQuestion(null)
-                .totalQuestions((int) totalQuestions)
-                .answeredQuestions((int) answeredQuestions)
-                .tabSwitches(attempt.getTabSwitchCount() != null ? attempt.getTabSwitchCount() : 0)
+                .totalQuestions(attempt.getTotalQuestions())
+                .answeredQuestions(attempt.getAnsweredQuestions())
+                .tabSwitches(attempt.getTabSwitches())
                 .startedAt(attempt.getStartedAt())
                 .timeRemaining(timeRemaining)
                 .build();
@@ -0,0 +1,175 @@
+package uz.eduplatform.modules.assessment.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.modules.assessment.domain.AttemptStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory progress of every attempt under live monitoring, keyed by assignment and attempt.
+ * Test-taking events (start, answer saved, tab switch, submit) update it as they happen, so the
+ * monitoring snapshot and the WebSocket events are served without per-attempt queries. The
+ * database is read once per assignment, on the first snapshot after startup, to pick up
+ * attempts that were already running.
+ * <p>
+ * Like the STOMP simple broker the events go out on, the registry is per node.
+ */
+@Component
+public class LiveProgressRegistry {
+
+    // Assignments nobody has touched for this long are dropped and rehydrated on demand
+    private static final long IDLE_MILLIS = 2 * 60 * 60 * 1000L;
+
+    private final Map<UUID, AssignmentProgress> assignments = new ConcurrentHashMap<>();
+
+    public static final class AssignmentProgress {
+        private final Map<UUID, AttemptProgress> attempts = new ConcurrentHashMap<>();
+        private volatile boolean hydrated;
+        private volatile long lastTouchedMillis = System.currentTimeMillis();
+
+        public boolean isHydrated() {
+            return hydrated;
+        }
+
+        public Collection<AttemptProgress> attempts() {
+            return attempts.values();
+        }
+
+        private AttemptProgress attempt(UUID attemptId, UUID studentId) {
+            return attempts.computeIfAbsent(attemptId, id -> new AttemptProgress(id, studentId));
+        }
+    }
+
+    /**
+     * One attempt's live state. Counters are atomics so events for the same attempt never
+     * block each other; the descriptive fields are written once, by the start event or by
+     * hydration, whichever comes first.
+     */
+    @Getter
+    public static final class AttemptProgress {
+        private final UUID attemptId;
+        private final UUID studentId;
+        @Getter(AccessLevel.NONE)
+        private final AtomicInteger answeredQuestions = new AtomicInteger();
+        @Getter(AccessLevel.NONE)
+        private final AtomicInteger totalQuestions = new AtomicInteger();
+        @Getter(AccessLevel.NONE)
+        private final AtomicInteger tabSwitches = new AtomicInteger();
+        @Getter(AccessLevel.NONE)
+        private volatile boolean countsKnown;
+        private volatile AttemptStatus status = AttemptStatus.IN_PROGRESS;
+        private volatile String firstName;
+        private volatile String lastName;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime deadline;
+
+        AttemptProgress(UUID attemptId, UUID studentId) {
+            this.attemptId = attemptId;
+            this.studentId = studentId;
+        }
+
+        public int getAnsweredQuestions() {
+            return answeredQuestions.get();
+        }
+
+        public int getTotalQuestions() {
+            return totalQuestions.get();
+        }
+
+        public int getTabSwitches() {
+            return tabSwitches.get();
+        }
+
+        private void describe(String firstName, String lastName, LocalDateTime startedAt, LocalDateTime deadline) {
+            if (this.firstName == null) this.firstName = firstName;
+            if (this.lastName == null) this.lastName = lastName;
+            if (this.startedAt == null) this.startedAt = startedAt;
+            if (this.deadline == null) this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Row read from the database when an assignment is hydrated.
+     */
+    public record StoredAttempt(UUID attemptId, UUID studentId, String firstName, String lastName,
+                                AttemptStatus status, LocalDateTime startedAt, LocalDateTime deadline,
+                                int answeredQuestions, int totalQuestions, int tabSwitches) {
+    }
+
+    public AssignmentProgress get(UUID assignmentId) {
+        AssignmentProgress progress = assignments.computeIfAbsent(assignmentId, id -> new AssignmentProgress());
+        progress.lastTouchedMillis = System.currentTimeMillis();
+        return progress;
+    }
+
+    /**
+     * Merge stored attempts into an assignment that has not been hydrated yet. Anything an
+     * event already recorded is newer than the database and is kept.
+     */
+    public void hydrate(UUID assignmentId, List<StoredAttempt> stored) {
+        AssignmentProgress progress = get(assignmentId);
+        for (StoredAttempt row : stored) {
+            boolean[] created = {false};
+            AttemptProgress attempt = progress.attempts.computeIfAbsent(row.attemptId(), id -> {
+                created[0] = true;
+                return new AttemptProgress(id, row.studentId());
+            });
+            attempt.describe(row.firstName(), row.lastName(), row.startedAt(), row.deadline());
+            attempt.tabSwitches.accumulateAndGet(row.tabSwitches(), Math::max);
+            if (created[0]) {
+                attempt.status = row.status();
+            }
+            if (!attempt.countsKnown) {
+                attempt.answeredQuestions.set(row.answeredQuestions());
+                attempt.totalQuestions.set(row.totalQuestions());
+                attempt.countsKnown = true;
+            }
+        }
+        progress.hydrated = true;
+    }
+
+    public AttemptProgress started(UUID assignmentId, UUID attemptId, UUID studentId, String firstName,
+                                   String lastName, LocalDateTime startedAt, LocalDateTime deadline) {
+        AttemptProgress attempt = get(assignmentId).attempt(attemptId, studentId);
+        attempt.describe(firstName, lastName, startedAt, deadline);
+        attempt.status = AttemptStatus.IN_PROGRESS;
+        attempt.countsKnown = true;
+        return attempt;
+    }
+
+    public AttemptProgress answerSaved(UUID assignmentId, UUID attemptId, UUID studentId,
+                                       int answeredQuestions, int totalQuestions) {
+        AttemptProgress attempt = get(assignmentId).attempt(attemptId, studentId);
+        attempt.answeredQuestions.set(answeredQuestions);
+        attempt.totalQuestions.set(totalQuestions);
+        attempt.countsKnown = true;
+        return attempt;
+    }
+
+    public AttemptProgress tabSwitched(UUID assignmentId, UUID attemptId, UUID studentId, int tabSwitches) {
+        AttemptProgress attempt = get(assignmentId).attempt(attemptId, studentId);
+        attempt.tabSwitches.accumulateAndGet(tabSwitches, Math::max);
+        return attempt;
+    }
+
+    public AttemptProgress submitted(UUID assignmentId, UUID attemptId, UUID studentId, AttemptStatus status) {
+        AttemptProgress attempt = get(assignmentId).attempt(attemptId, studentId);
+        attempt.status = status;
+        return attempt;
+    }
+
+    @Scheduled(fixedRate = 600000)
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_MILLIS;
+        assignments.values().removeIf(progress -> progress.lastTouchedMillis < cutoff);
+    }
+}
@@ -29,6 +29,7 @@ public class PromoCodeService {
 
     private final PromoCodeRepository promoCodeRepository;
     private final TestAssignmentRepository assignmentRepository;
+    private final AssignmentStudentService assignmentStudentService;
     private final AuditService auditService;
 
     private static final SecureRandom RANDOM = new SecureRandom();
@@ -110,6 +111,7 @@ public class PromoCodeService {
         assignedIds.add(studentId);
         assignment.setAssignedStudentIds(assignedIds);
         assignmentRepository.save(assignment);
+        assignmentStudentService.sync(assignment);
 
         auditService.log(studentId, "STUDENT", "PROMO_CODE_REDEEMED", "ASSESSMENT",
                 "TestAssignment", assignment.getId(),
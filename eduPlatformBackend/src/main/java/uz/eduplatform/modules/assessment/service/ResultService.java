@@ -7,14 +7,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.LookupContext;
+import uz.eduplatform.core.common.utils.LookupResolver;
 import uz.eduplatform.modules.assessment.domain.TestAssignment;
 import uz.eduplatform.modules.assessment.domain.TestAttempt;
 import uz.eduplatform.modules.assessment.dto.AssignmentResultDto;
 import uz.eduplatform.modules.assessment.dto.StudentResultDto;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
-import uz.eduplatform.modules.auth.domain.User;
-import uz.eduplatform.modules.auth.repository.UserRepository;
 import uz.eduplatform.modules.group.domain.StudentGroup;
 import uz.eduplatform.modules.group.repository.StudentGroupRepository;
 
@@ -30,7 +30,7 @@ public class ResultService {
 
     private final TestAssignmentRepository assignmentRepository;
     private final TestAttemptRepository attemptRepository;
-    private final UserRepository userRepository;
+    private final LookupResolver lookupResolver;
     private final StudentGroupRepository studentGroupRepository;
 
     @Transactional(readOnly = true)
@@ -49,6 +49,8 @@ public class ResultService {
         Map<UUID, List<TestAttempt>> attemptsByStudent = attempts.stream()
                 .collect(Collectors.groupingBy(TestAttempt::getStudentId));
 
+        LookupContext lookup = lookupResolver.context().preloadUsers(attemptsByStudent.keySet());
+
         List<StudentResultDto> studentResults = new ArrayList<>();
         for (Map.Entry<UUID, List<TestAttempt>> entry : attemptsByStudent.entrySet()) {
             UUID studentId = entry.getKey();
@@ -61,9 +63,9 @@ public class ResultService {
                     .orElse(studentAttempts.get(0));
 
             // Get student name
-            User student = userRepository.findById(studentId).orElse(null);
-            String firstName = student != null ? student.getFirstName() : null;
-            String lastName = student != null ? student.getLastName() : null;
+            LookupContext.UserRef student = lookup.user(studentId).orElse(null);
+            String firstName = student != null ? student.firstName() : null;
+            String lastName = student != null ? student.lastName() : null;
 
             // Calculate total tab switches across all attempts
             int totalTabSwitches = studentAttempts.stream()
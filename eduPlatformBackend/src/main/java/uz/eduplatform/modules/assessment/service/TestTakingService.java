@@ -9,15 +9,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.LookupResolver;
+import uz.eduplatform.core.common.utils.PageCursor;
 import uz.eduplatform.modules.assessment.domain.*;
 import uz.eduplatform.modules.assessment.dto.*;
 import uz.eduplatform.modules.assessment.repository.AnswerRepository;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
-import uz.eduplatform.modules.auth.repository.UserRepository;
 import uz.eduplatform.modules.content.domain.Question;
 import uz.eduplatform.modules.content.repository.QuestionRepository;
 import uz.eduplatform.modules.parent.service.ParentNotificationService;
@@ -32,7 +34,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -43,9 +44,14 @@ public class TestTakingService {
     private final TestAssignmentRepository assignmentRepository;
     private final TestAttemptRepository attemptRepository;
     private final AnswerRepository answerRepository;
-    private final UserRepository userRepository;
+    private final LookupResolver lookupResolver;
     private final GradingService gradingService;
+    private final AssignmentStudentService assignmentStudentService;
     private final LiveMonitoringService liveMonitoringService;
+    private final AttemptDeadlineScheduler deadlineScheduler;
+    private final AttemptAutoSubmitService autoSubmitService;
+    private final AnswerWriteBuffer answerWriteBuffer;
+    private final AttemptQuestionCache questionCache;
     private final ParentNotificationService parentNotificationService;
     private final TestHistoryRepository testHistoryRepository;
     private final TestQuestionRepository testQuestionRepository;
@@ -125,22 +131,13 @@ public class TestTakingService {
                 .build();
 
         attempt = attemptRepository.save(attempt);
+        assignmentStudentService.markStarted(assignmentId, studentId);
+        deadlineScheduler.register(attempt);
         log.info("Student {} started attempt #{} for assignment {}", studentId, attempt.getAttemptNumber(), assignmentId);
 
-        // Broadcast WebSocket event
+        // Track live progress and broadcast WebSocket event
         try {
-            String studentName = userRepository.findById(studentId)
-                    .map(u -> u.getFirstName() + " " + u.getLastName())
-                    .orElse("Unknown");
-            liveMonitoringService.broadcastEvent(LiveTestEvent.builder()
-                    .eventType(LiveTestEvent.EventType.STUDENT_STARTED)
-                    .assignmentId(assignmentId)
-                    .studentId(studentId)
-                    .studentName(studentName)
-                    .answeredQuestions(0)
-                    .totalQuestions(0)
-                    .tabSwitchCount(0)
-                    .build());
+            liveMonitoringService.attemptStarted(attempt);
         } catch (Exception e) {
             log.warn("Failed to broadcast start event: {}", e.getMessage());
         }
@@ -148,67 +145,36 @@ public class TestTakingService {
         return mapToDto(attempt, assignment);
     }
 
-    @Transactional
+    /**
+     * Autosave several answers at once. Answers go to the {@link AnswerWriteBuffer} and are
+     * written to the database in the background.
+     */
     public BatchSaveAnswerResponse saveAnswersBatch(UUID attemptId, UUID studentId, BatchSaveAnswerRequest request) {
-        TestAttempt attempt = attemptRepository.findByIdAndStudentId(attemptId, studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("TestAttempt", "id", attemptId));
-
-        if (attempt.getStatus() != AttemptStatus.IN_PROGRESS) {
-            throw BusinessException.ofKey("test.taking.attempt.not.in.progress");
-        }
-
-        checkTimeExpired(attempt);
-
-        // Load all existing answers in one query
-        List<Answer> existingAnswers = answerRepository.findByAttemptIdOrderByQuestionIndexAsc(attemptId);
-        Map<UUID, Answer> answerMap = existingAnswers.stream()
-                .collect(Collectors.toMap(Answer::getQuestionId, Function.identity()));
-
         List<AnswerDto> savedDtos = new ArrayList<>();
         int saved = 0;
         int failed = 0;
+        AnswerWriteBuffer.Ack last = null;
 
         for (SubmitAnswerRequest answerReq : request.getAnswers()) {
+            String json;
+            AnswerWriteBuffer.Ack ack;
             try {
-                Answer answer = answerMap.getOrDefault(answerReq.getQuestionId(),
-                        Answer.builder()
-                                .attempt(attempt)
-                                .questionId(answerReq.getQuestionId())
-                                .questionIndex(answerReq.getQuestionIndex() != null ? answerReq.getQuestionIndex() : 0)
-                                .build());
-
-                answer.setSelectedAnswer(toJson(answerReq.getSelectedAnswer()));
-                if (answerReq.getTimeSpentSeconds() != null) {
-                    answer.setTimeSpentSeconds(answerReq.getTimeSpentSeconds());
-                }
-                if (answerReq.getBookmarked() != null) {
-                    answer.setBookmarked(answerReq.getBookmarked());
-                }
-
-                answerMap.put(answerReq.getQuestionId(), answer);
-                saved++;
-            } catch (Exception e) {
+                json = toJson(answerReq.getSelectedAnswer());
+                ack = bufferAnswer(attemptId, studentId, answerReq, json);
+            } catch (BusinessException e) {
+                if (isAttemptLevel(e)) throw e;
                 failed++;
                 log.warn("Failed to process answer for question {}: {}", answerReq.getQuestionId(), e.getMessage());
+                continue;
             }
+            savedDtos.add(toAnswerDto(answerReq, json, ack));
+            saved++;
+            last = ack;
         }
 
-        // Save all at once
-        List<Answer> toSave = new ArrayList<>(answerMap.values());
-        answerRepository.saveAll(toSave);
-
-        for (SubmitAnswerRequest answerReq : request.getAnswers()) {
-            Answer savedAnswer = answerMap.get(answerReq.getQuestionId());
-            if (savedAnswer != null) {
-                savedDtos.add(AnswerDto.builder()
-                        .id(savedAnswer.getId())
-                        .questionId(savedAnswer.getQuestionId())
-                        .questionIndex(savedAnswer.getQuestionIndex())
-                        .selectedAnswer(parseJson(savedAnswer.getSelectedAnswer()))
-                        .bookmarked(savedAnswer.getBookmarked())
-                        .timeSpentSeconds(savedAnswer.getTimeSpentSeconds())
-                        .build());
-            }
+        // One progress event per batch, with the counts after its last answer
+        if (last != null) {
+            publishAnswerSaved(attemptId, studentId, last);
         }
 
         return BatchSaveAnswerResponse.builder()
@@ -218,62 +184,97 @@ public class TestTakingService {
                 .build();
     }
 
-    @Transactional
+    /**
+     * Autosave one answer. The answer is acknowledged from memory and written to the database
+     * by the {@link AnswerWriteBuffer}; only the first save of an attempt on this node reads
+     * the attempt to validate it.
+     */
     public AnswerDto saveAnswer(UUID attemptId, UUID studentId, SubmitAnswerRequest request) {
-        TestAttempt attempt = attemptRepository.findByIdAndStudentId(attemptId, studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("TestAttempt", "id", attemptId));
+        String json = toJson(request.getSelectedAnswer());
+        AnswerWriteBuffer.Ack ack = bufferAnswer(attemptId, studentId, request, json);
 
-        if (attempt.getStatus() != AttemptStatus.IN_PROGRESS) {
-            throw BusinessException.ofKey("test.taking.attempt.not.in.progress");
+        publishAnswerSaved(attemptId, studentId, ack);
+        return toAnswerDto(request, json, ack);
+    }
+
+    // Track live progress and broadcast WebSocket event
+    private void publishAnswerSaved(UUID attemptId, UUID studentId, AnswerWriteBuffer.Ack ack) {
+        try {
+            liveMonitoringService.answerSaved(ack.assignmentId(), attemptId, studentId,
+                    ack.answeredQuestions(), ack.totalQuestions());
+        } catch (Exception e) {
+            log.warn("Failed to broadcast answer event: {}", e.getMessage());
         }
+    }
 
-        // Check if time has expired
-        checkTimeExpired(attempt);
+    private AnswerWriteBuffer.Ack bufferAnswer(UUID attemptId, UUID studentId, SubmitAnswerRequest request, String json) {
+        AnswerWriteBuffer.Ack ack = answerWriteBuffer.accept(attemptId, studentId, request, json);
+        if (ack != null) {
+            return ack;
+        }
 
-        // Upsert answer
-        Answer answer = answerRepository.findByAttemptIdAndQuestionId(attemptId, request.getQuestionId())
-                .orElse(Answer.builder()
-                        .attempt(attempt)
-                        .questionId(request.getQuestionId())
-                        .questionIndex(request.getQuestionIndex() != null ? request.getQuestionIndex() : 0)
-                        .build());
+        openAnswerSession(attemptId, studentId);
+        ack = answerWriteBuffer.accept(attemptId, studentId, request, json);
+        if (ack == null) {
+            // Closed again in between, i.e. submitted concurrently
+            throw BusinessException.ofKey("test.taking.attempt.not.in.progress");
+        }
+        return ack;
+    }
 
-        answer.setSelectedAnswer(toJson(request.getSelectedAnswer()));
-        if (request.getTimeSpentSeconds() != null) {
-            answer.setTimeSpentSeconds(request.getTimeSpentSeconds());
+    private void openAnswerSession(UUID attemptId, UUID studentId) {
+        TestAttempt attempt = attemptRepository.findWithAssignmentByIdAndStudentId(attemptId, studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("TestAttempt", "id", attemptId));
+
+        if (attempt.getStatus() != AttemptStatus.IN_PROGRESS) {
+            throw BusinessException.ofKey("test.taking.attempt.not.in.progress");
         }
-        if (request.getBookmarked() != null) {
-            answer.setBookmarked(request.getBookmarked());
+
+        LocalDateTime deadline = AttemptAutoSubmitService.deadlineOf(attempt);
+        if (deadline != null && LocalDateTime.now().isAfter(deadline)) {
+            answerWriteBuffer.awaitOtherNodes(attemptId);
+            autoSubmitService.autoSubmit(attemptId);
+            throw BusinessException.ofKey("test.taking.time.expired");
         }
 
-        answer = answerRepository.save(answer);
+        // The variant as the exam UI lists it, so indexes match what the client sends
+        int variantIdx = attempt.getVariantIndex() != null ? attempt.getVariantIndex() : 0;
+        String variantCode = String.valueOf((char) ('A' + variantIdx));
+        UUID testHistoryId = attempt.getAssignment().getTestHistoryId();
+        List<UUID> questionIds = testHistoryId == null ? List.of()
+                : questionCache.get(testHistoryId, variantCode, false, false,
+                        () -> buildQuestionsForAttempt(testHistoryId, variantCode, false, false))
+                .stream().map(AttemptQuestionDto::getId).toList();
 
-        // Broadcast WebSocket event
-        try {
-            long answeredCount = answerRepository.countByAttemptIdAndSelectedAnswerIsNotNull(attemptId);
-            long totalCount = answerRepository.countByAttemptId(attemptId);
-            liveMonitoringService.broadcastEvent(LiveTestEvent.builder()
-                    .eventType(LiveTestEvent.EventType.ANSWER_SAVED)
-                    .assignmentId(attempt.getAssignment().getId())
-                    .studentId(studentId)
-                    .answeredQuestions((int) answeredCount)
-                    .totalQuestions((int) totalCount)
-                    .tabSwitchCount(attempt.getTabSwitchCount())
-                    .build());
-        } catch (Exception e) {
-            log.warn("Failed to broadcast answer event: {}", e.getMessage());
-        }
+        answerWriteBuffer.open(attempt, deadline, answerRepository.findByAttemptIdOrderByQuestionIndexAsc(attemptId),
+                questionIds);
+    }
+
+    // Failures that reject every answer of a batch, not just the one being processed
+    private static boolean isAttemptLevel(BusinessException e) {
+        return "test.taking.attempt.not.in.progress".equals(e.getMessageKey())
+                || "test.taking.time.expired".equals(e.getMessageKey());
+    }
 
+    private AnswerDto toAnswerDto(SubmitAnswerRequest request, String json, AnswerWriteBuffer.Ack ack) {
         return AnswerDto.builder()
-                .id(answer.getId())
-                .questionId(answer.getQuestionId())
-                .questionIndex(answer.getQuestionIndex())
-                .selectedAnswer(parseJson(answer.getSelectedAnswer()))
-                .bookmarked(answer.getBookmarked())
-                .timeSpentSeconds(answer.getTimeSpentSeconds())
+                .id(ack.answerId())
+                .questionId(request.getQuestionId())
+                .questionIndex(ack.questionIndex())
+                .selectedAnswer(parseJson(json))
+                .bookmarked(ack.bookmarked())
+                .timeSpentSeconds(ack.timeSpentSeconds())
                 .build();
     }
 
+    /**
+     * Collect the autosaves other nodes still buffer for an attempt about to be submitted. Waits
+     * for their flushes, so it runs before {@link #submitAttempt} opens its transaction.
+     */
+    public void awaitBufferedAnswers(UUID attemptId) {
+        answerWriteBuffer.awaitOtherNodes(attemptId);
+    }
+
     @Transactional
     public AttemptDto submitAttempt(UUID attemptId, UUID studentId) {
         TestAttempt attempt = attemptRepository.findByIdAndStudentId(attemptId, studentId)
@@ -289,6 +290,8 @@ public class TestTakingService {
         attempt.setSubmittedAt(LocalDateTime.now());
         attempt.setStatus(AttemptStatus.SUBMITTED);
         attempt = attemptRepository.save(attempt);
+        assignmentStudentService.markSubmitted(attempt.getAssignment().getId(), attempt.getStudentId());
+        deadlineScheduler.cancel(attemptId);
 
         // Auto-grade
         attempt = gradingService.gradeAttempt(attempt);
@@ -304,15 +307,9 @@ public class TestTakingService {
             log.warn("Failed to notify parents: {}", e.getMessage());
         }
 
-        // Broadcast WebSocket event
+        // Track live progress and broadcast WebSocket event
         try {
-            liveMonitoringService.broadcastEvent(LiveTestEvent.builder()
-                    .eventType(LiveTestEvent.EventType.SUBMITTED)
-                    .assignmentId(attempt.getAssignment().getId())
-                    .studentId(studentId)
-                    .percentage(attempt.getPercentage())
-                    .tabSwitchCount(attempt.getTabSwitchCount())
-                    .build());
+            liveMonitoringService.attemptSubmitted(attempt);
         } catch (Exception e) {
             log.warn("Failed to broadcast submit event: {}", e.getMessage());
         }
@@ -348,21 +345,18 @@ public class TestTakingService {
                 case "AUTO_SUBMIT" -> {
                     attempt.setFlagged(true);
                     attempt.setFlagReason("Auto-submitted: tab switch threshold exceeded");
+                    // A penalty submit: answers still buffered on other nodes are not waited for,
+                    // which would hold this transaction's connection
                     attempt.setSubmittedAt(LocalDateTime.now());
                     attempt.setStatus(AttemptStatus.SUBMITTED);
                     attemptRepository.save(attempt);
+                    assignmentStudentService.markSubmitted(attempt.getAssignment().getId(), attempt.getStudentId());
                     gradingService.gradeAttempt(attempt);
                     log.warn("Attempt {} auto-submitted due to excessive tab switching", attemptId);
 
                     // Broadcast auto-submit event
                     try {
-                        liveMonitoringService.broadcastEvent(LiveTestEvent.builder()
-                                .eventType(LiveTestEvent.EventType.SUBMITTED)
-                                .assignmentId(assignment.getId())
-                                .studentId(studentId)
-                                .tabSwitchCount(attempt.getTabSwitchCount())
-                                .percentage(attempt.getPercentage())
-                                .build());
+                        liveMonitoringService.attemptSubmitted(attempt);
                     } catch (Exception e) {
                         log.warn("Failed to broadcast auto-submit event: {}", e.getMessage());
                     }
@@ -379,12 +373,7 @@ public class TestTakingService {
 
         // Broadcast tab switch event
         try {
-            liveMonitoringService.broadcastEvent(LiveTestEvent.builder()
-                    .eventType(LiveTestEvent.EventType.TAB_SWITCH)
-                    .assignmentId(assignment.getId())
-                    .studentId(studentId)
-                    .tabSwitchCount(attempt.getTabSwitchCount())
-                    .build());
+            liveMonitoringService.tabSwitched(attempt);
         } catch (Exception e) {
             log.warn("Failed to broadcast tab switch event: {}", e.getMessage());
         }
@@ -411,9 +400,7 @@ public class TestTakingService {
         Page<TestAttempt> page = attemptRepository.findByStudentIdOrderByCreatedAtDesc(studentId, pageable);
 
         // All attempts belong to the same student — fetch name once to avoid N+1
-        String studentName = userRepository.findById(studentId)
-                .map(u -> u.getFirstName() + " " + u.getLastName())
-                .orElse(null);
+        String studentName = lookupResolver.context().userFullName(studentId);
 
         List<AttemptDto> dtos = page.getContent().stream()
                 .map(a -> mapToDto(a, a.getAssignment(), studentName))
@@ -423,6 +410,19 @@ public class TestTakingService {
                 page.getTotalElements(), page.getTotalPages());
     }
 
+    @Transactional(readOnly = true)
+    public CursorResponse<AttemptDto> scrollStudentAttempts(UUID studentId, String cursor, int size, boolean includeTotal) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.pageSize(size);
+        List<TestAttempt> rows = attemptRepository.scrollByStudentId(
+                studentId, after.createdAt(), after.id(), PageCursor.fetch(pageSize));
+        Long total = includeTotal ? attemptRepository.countByStudentId(studentId) : null;
+
+        String studentName = lookupResolver.context().userFullName(studentId);
+        return CursorResponse.of(rows, pageSize, a -> new PageCursor(a.getCreatedAt(), a.getId()),
+                page -> page.stream().map(a -> mapToDto(a, a.getAssignment(), studentName)).toList(), total);
+    }
+
     private void checkTimeExpired(TestAttempt attempt) {
         TestAssignment assignment = attempt.getAssignment();
         if (assignment == null || assignment.getDurationMinutes() == null) {
@@ -434,15 +434,14 @@ public class TestTakingService {
             attempt.setSubmittedAt(deadline);
             attempt.setStatus(AttemptStatus.SUBMITTED);
             attemptRepository.save(attempt);
+            assignmentStudentService.markSubmitted(attempt.getAssignment().getId(), attempt.getStudentId());
             gradingService.gradeAttempt(attempt);
             throw BusinessException.ofKey("test.taking.time.expired");
         }
     }
 
     private AttemptDto mapToDto(TestAttempt attempt, TestAssignment assignment) {
-        String studentName = userRepository.findById(attempt.getStudentId())
-                .map(u -> u.getFirstName() + " " + u.getLastName())
-                .orElse(null);
+        String studentName = lookupResolver.context().userFullName(attempt.getStudentId());
         return mapToDto(attempt, assignment, studentName);
     }
 
@@ -529,54 +528,60 @@ public class TestTakingService {
     private List<AttemptQuestionDto> loadQuestionsForAttempt(
             UUID testHistoryId, int variantIndex, boolean includeCorrectAnswer, boolean includeProof) {
         if (testHistoryId == null) return List.of();
+        // Convert numeric index to variant code: 0→A, 1→B, etc.
+        String variantCode = String.valueOf((char) ('A' + variantIndex));
         try {
-            // Convert numeric index to variant code: 0→A, 1→B, etc.
-            String variantCode = String.valueOf((char) ('A' + variantIndex));
-            List<TestQuestion> testQuestions = testQuestionRepository
-                    .findByTestIdAndVariantCodeOrderByQuestionOrderAsc(testHistoryId, variantCode);
-
-            if (testQuestions.isEmpty()) {
-                log.debug("No questions found for testHistoryId={} variantCode={}", testHistoryId, variantCode);
-                return List.of();
-            }
-
-            // Batch-load Question entities by their IDs
-            List<UUID> questionIds = testQuestions.stream()
-                    .map(TestQuestion::getQuestionId).toList();
-            Map<UUID, Question> questionMap = new HashMap<>();
-            questionRepository.findAllById(questionIds)
-                    .forEach(q -> questionMap.put(q.getId(), q));
-
-            return testQuestions.stream()
-                    .map(tq -> {
-                        Question q = questionMap.get(tq.getQuestionId());
-                        if (q == null) return null;
-                        AttemptQuestionDto.AttemptQuestionDtoBuilder builder = AttemptQuestionDto.builder()
-                                .id(q.getId())
-                                .questionText(extractText(q.getQuestionText()))
-                                .questionType(q.getQuestionType() != null ? q.getQuestionType().name() : null)
-                                .difficulty(q.getDifficulty() != null ? q.getDifficulty().name() : null)
-                                .points(q.getPoints() != null ? q.getPoints().doubleValue() : 1.0)
-                                .timeLimitSeconds(q.getTimeLimitSeconds())
-                                .media(q.getMedia())
-                                .options(parseJson(q.getOptions()))
-                                .optionsOrder(tq.getOptionsOrder());
-                        if (includeCorrectAnswer) {
-                            builder.correctAnswer(parseJson(q.getCorrectAnswer()));
-                        }
-                        if (includeProof && q.getProof() != null && !q.getProof().isEmpty()) {
-                            builder.proof(extractText(q.getProof()));
-                        }
-                        return builder.build();
-                    })
-                    .filter(java.util.Objects::nonNull)
-                    .toList();
+            return questionCache.get(testHistoryId, variantCode, includeCorrectAnswer, includeProof,
+                    () -> buildQuestionsForAttempt(testHistoryId, variantCode, includeCorrectAnswer, includeProof));
         } catch (Exception e) {
             log.warn("Failed to load questions for testHistoryId={}: {}", testHistoryId, e.getMessage());
             return List.of();
         }
     }
 
+    private List<AttemptQuestionDto> buildQuestionsForAttempt(
+            UUID testHistoryId, String variantCode, boolean includeCorrectAnswer, boolean includeProof) {
+        List<TestQuestion> testQuestions = testQuestionRepository
+                .findByTestIdAndVariantCodeOrderByQuestionOrderAsc(testHistoryId, variantCode);
+
+        if (testQuestions.isEmpty()) {
+            log.debug("No questions found for testHistoryId={} variantCode={}", testHistoryId, variantCode);
+            return List.of();
+        }
+
+        // Batch-load Question entities by their IDs
+        List<UUID> questionIds = testQuestions.stream()
+                .map(TestQuestion::getQuestionId).toList();
+        Map<UUID, Question> questionMap = new HashMap<>();
+        questionRepository.findAllById(questionIds)
+                .forEach(q -> questionMap.put(q.getId(), q));
+
+        return testQuestions.stream()
+                .map(tq -> {
+                    Question q = questionMap.get(tq.getQuestionId());
+                    if (q == null) return null;
+                    AttemptQuestionDto.AttemptQuestionDtoBuilder builder = AttemptQuestionDto.builder()
+                            .id(q.getId())
+                            .questionText(extractText(q.getQuestionText()))
+                            .questionType(q.getQuestionType() != null ? q.getQuestionType().name() : null)
+                            .difficulty(q.getDifficulty() != null ? q.getDifficulty().name() : null)
+                            .points(q.getPoints() != null ? q.getPoints().doubleValue() : 1.0)
+                            .timeLimitSeconds(q.getTimeLimitSeconds())
+                            .media(q.getMedia())
+                            .options(parseJson(q.getOptions()))
+                            .optionsOrder(tq.getOptionsOrder());
+                    if (includeCorrectAnswer) {
+                        builder.correctAnswer(parseJson(q.getCorrectAnswer()));
+                    }
+                    if (includeProof && q.getProof() != null && !q.getProof().isEmpty()) {
+                        builder.proof(extractText(q.getProof()));
+                    }
+                    return builder.build();
+                })
+                .filter(java.util.Objects::nonNull)
+                .toList();
+    }
+
     private String extractText(Map<String, String> textMap) {
         if (textMap == null || textMap.isEmpty()) return "";
         for (String lang : new String[]{"uz_latn", "uz_cyrl", "en", "ru"}) {
@@ -1,30 +1,46 @@
 package uz.eduplatform.modules.assessment.service.export;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
 import uz.eduplatform.modules.assessment.domain.ExportJob;
 import uz.eduplatform.modules.assessment.domain.ExportJobStatus;
 import uz.eduplatform.modules.assessment.dto.ExportJobDto;
 import uz.eduplatform.modules.assessment.repository.ExportJobRepository;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Locale;
 import java.util.UUID;
 
+/**
+ * Entry point for result exports. Requests only enqueue a row in {@code export_jobs};
+ * {@link ExportJobWorker} does the rendering.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AsyncExportService {
 
-    private static final int EXPORT_EXPIRY_HOURS = 1;
-
     private final ExportJobRepository exportJobRepository;
-    private final ResultExportFacade resultExportFacade;
+    private final ExportJobWorker exportJobWorker;
+    private final Path uploadDir;
+
+    public AsyncExportService(ExportJobRepository exportJobRepository,
+                              ExportJobWorker exportJobWorker,
+                              @Value("${app.storage.upload-dir:./uploads}") String uploadPath) {
+        this.exportJobRepository = exportJobRepository;
+        this.exportJobWorker = exportJobWorker;
+        this.uploadDir = Paths.get(uploadPath).toAbsolutePath().normalize();
+    }
 
     @Transactional
     public ExportJobDto startExport(UUID assignmentId, UUID teacherId,
@@ -35,52 +51,22 @@ public class AsyncExportService {
                 .format(format)
                 .locale(locale != null ? locale.toLanguageTag() : "en")
                 .status(ExportJobStatus.PENDING)
-                .expiresAt(LocalDateTime.now().plusHours(EXPORT_EXPIRY_HOURS))
                 .build();
 
         job = exportJobRepository.save(job);
-        log.info("Export job created: id={}, assignment={}, format={}", job.getId(), assignmentId, format);
-
-        processExportAsync(job.getId());
-
-        return toDto(job);
-    }
-
-    @Async("exportExecutor")
-    public void processExportAsync(UUID jobId) {
-        ExportJob job = exportJobRepository.findById(jobId).orElse(null);
-        if (job == null) {
-            log.warn("Export job not found for async processing: {}", jobId);
-            return;
+        log.info("Export job queued: id={}, assignment={}, format={}", job.getId(), assignmentId, format);
+
+        // Workers poll on their own; this only saves the wait for the next tick
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    exportJobWorker.wakeUp();
+                }
+            });
         }
 
-        job.setStatus(ExportJobStatus.PROCESSING);
-        exportJobRepository.save(job);
-
-        try {
-            Locale locale = Locale.forLanguageTag(job.getLocale() != null ? job.getLocale() : "en");
-            byte[] data = resultExportFacade.exportAssignmentResults(
-                    job.getAssignmentId(), job.getTeacherId(), job.getFormat(), locale);
-
-            String fileName = buildFileName(job);
-            String contentType = resolveContentType(job.getFormat());
-
-            job.setFileData(data);
-            job.setFileName(fileName);
-            job.setContentType(contentType);
-            job.setStatus(ExportJobStatus.COMPLETED);
-            job.setCompletedAt(LocalDateTime.now());
-
-            exportJobRepository.save(job);
-            log.info("Export job completed: id={}, size={} bytes", jobId, data.length);
-
-        } catch (Exception e) {
-            log.error("Export job failed: id={}", jobId, e);
-            job.setStatus(ExportJobStatus.FAILED);
-            job.setErrorMessage(e.getMessage());
-            job.setCompletedAt(LocalDateTime.now());
-            exportJobRepository.save(job);
-        }
+        return toDto(job);
     }
 
     @Transactional(readOnly = true)
@@ -100,24 +86,42 @@ public class AsyncExportService {
         return job;
     }
 
+    /**
+     * Location of a completed job's file on disk.
+     */
+    public Path resolveFile(ExportJob job) {
+        Path file = job.getFilePath() != null ? uploadDir.resolve(job.getFilePath()).normalize() : null;
+        if (file == null || !file.startsWith(uploadDir) || !Files.exists(file)) {
+            throw BusinessException.ofKey("file.not.found");
+        }
+        return file;
+    }
+
+    /**
+     * Drops finished jobs and their files once the download window set by {@link ExportJobQueue}
+     * has passed. Queued and running jobs have no expiry, however long the queue is.
+     */
     @Scheduled(fixedRate = 3600000) // every hour
     @Transactional
     public void cleanupExpiredJobs() {
-        int deleted = exportJobRepository.deleteExpiredJobs(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        for (ExportJob job : exportJobRepository.findFinishedExpiredBefore(now)) {
+            if (job.getFilePath() != null) {
+                deleteQuietly(uploadDir.resolve(job.getFilePath()).normalize());
+            }
+        }
+        int deleted = exportJobRepository.deleteFinishedExpiredBefore(now);
         if (deleted > 0) {
             log.info("Cleaned up {} expired export jobs", deleted);
         }
     }
 
-    private String buildFileName(ExportJob job) {
-        String ext = job.getFormat() == ResultExportFormat.EXCEL ? ".xlsx" : ".csv";
-        return "results-" + job.getAssignmentId() + ext;
-    }
-
-    private String resolveContentType(ResultExportFormat format) {
-        return format == ResultExportFormat.EXCEL
-                ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
-                : "text/csv; charset=UTF-8";
+    private void deleteQuietly(Path file) {
+        try {
+            if (file.startsWith(uploadDir)) Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export file {}: {}", file, e.getMessage());
+        }
     }
 
     private ExportJobDto toDto(ExportJob job) {
@@ -127,6 +131,8 @@ public class AsyncExportService {
                 .status(job.getStatus())
                 .format(job.getFormat())
                 .fileName(job.getFileName())
+                .progress(job.getProgress())
+                .attempts(job.getAttempts())
                 .errorMessage(job.getErrorMessage())
                 .createdAt(job.getCreatedAt())
                 .completedAt(job.getCompletedAt())
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Service;
 import uz.eduplatform.modules.assessment.dto.AssignmentResultDto;
 import uz.eduplatform.modules.assessment.dto.StudentResultDto;
 
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
@@ -16,30 +17,41 @@ public class CsvResultExportService implements ResultExportService {
 
     @Override
     public byte[] exportResults(AssignmentResultDto results, Locale locale) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(BOM);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeResults(results, locale, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public void writeResults(AssignmentResultDto results, Locale locale, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.append(BOM);
 
         // Header
-        sb.append("Student Name,Score,Max Score,%,Attempts,Tab Switches,Status,Submitted At\n");
+        writer.append("Student Name,Score,Max Score,%,Attempts,Tab Switches,Status,Submitted At\n");
 
         // Data rows
         if (results.getStudents() != null) {
             for (StudentResultDto student : results.getStudents()) {
                 String name = (student.getFirstName() != null ? student.getFirstName() : "")
                         + " " + (student.getLastName() != null ? student.getLastName() : "");
-                sb.append(escapeCsv(name.trim())).append(',');
-                sb.append(student.getScore() != null ? student.getScore().toPlainString() : "").append(',');
-                sb.append(student.getMaxScore() != null ? student.getMaxScore().toPlainString() : "").append(',');
-                sb.append(student.getPercentage() != null ? student.getPercentage().toPlainString() : "").append(',');
-                sb.append(student.getAttemptCount() != null ? student.getAttemptCount() : 0).append(',');
-                sb.append(student.getTabSwitches() != null ? student.getTabSwitches() : 0).append(',');
-                sb.append(student.getStatus() != null ? student.getStatus() : "").append(',');
-                sb.append(student.getSubmittedAt() != null ? student.getSubmittedAt().format(DATE_FORMAT) : "");
-                sb.append('\n');
+                writer.append(escapeCsv(name.trim())).append(',');
+                writer.append(student.getScore() != null ? student.getScore().toPlainString() : "").append(',');
+                writer.append(student.getMaxScore() != null ? student.getMaxScore().toPlainString() : "").append(',');
+                writer.append(student.getPercentage() != null ? student.getPercentage().toPlainString() : "").append(',');
+                writer.append(String.valueOf(student.getAttemptCount() != null ? student.getAttemptCount() : 0)).append(',');
+                writer.append(String.valueOf(student.getTabSwitches() != null ? student.getTabSwitches() : 0)).append(',');
+                writer.append(student.getStatus() != null ? student.getStatus() : "").append(',');
+                writer.append(student.getSubmittedAt() != null ? student.getSubmittedAt().format(DATE_FORMAT) : "");
+                writer.append('\n');
             }
         }
 
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
+        writer.flush();
     }
 
     @Override
@@ -10,6 +10,7 @@ import uz.eduplatform.modules.assessment.dto.StudentResultDto;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
@@ -21,6 +22,19 @@ public class ExcelResultExportService implements ResultExportService {
 
     @Override
     public byte[] exportResults(AssignmentResultDto results, Locale locale) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeResults(results, locale, out);
+            return out.toByteArray();
+
+        } catch (IOException e) {
+            log.error("Failed to generate Excel export", e);
+            throw BusinessException.ofKey("result.export.excel.failed");
+        }
+    }
+
+    @Override
+    public void writeResults(AssignmentResultDto results, Locale locale, OutputStream out) throws IOException {
         try (XSSFWorkbook workbook = new XSSFWorkbook()) {
             // ── Sheet 1: Summary ──
             Sheet summarySheet = workbook.createSheet("Summary");
@@ -91,13 +105,7 @@ public class ExcelResultExportService implements ResultExportService {
                 resultsSheet.autoSizeColumn(i);
             }
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
             workbook.write(out);
-            return out.toByteArray();
-
-        } catch (IOException e) {
-            log.error("Failed to generate Excel export", e);
-            throw BusinessException.ofKey("result.export.excel.failed");
         }
     }
 
@@ -0,0 +1,139 @@
+package uz.eduplatform.modules.assessment.service.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uz.eduplatform.modules.assessment.domain.ExportJob;
+import uz.eduplatform.modules.assessment.domain.ExportJobStatus;
+import uz.eduplatform.modules.assessment.repository.ExportJobRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * State transitions of {@code export_jobs} rows. Each method is its own short transaction so
+ * row locks are never held while a worker renders a file. The ones reachable from
+ * {@link ExportJobWorker#poll()} use REQUIRES_NEW: a wake-up can run on the caller's thread
+ * from an afterCommit callback, where REQUIRED would join the already committed transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportJobQueue {
+
+    static final int MAX_ATTEMPTS = 3;
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(15);
+
+    // Completed files stay downloadable for this long
+    private static final int RESULT_TTL_HOURS = 1;
+
+    private final ExportJobRepository exportJobRepository;
+
+    /**
+     * Lock up to {@code limit} due PENDING jobs with SKIP LOCKED and mark them PROCESSING for
+     * {@code workerId}. Rows claimed by other nodes at the same moment are simply not returned.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<ExportJob> claim(int limit, String workerId) {
+        if (limit <= 0) return List.of();
+        LocalDateTime now = LocalDateTime.now();
+        List<ExportJob> jobs = exportJobRepository.lockClaimable(now, limit);
+        List<ExportJob> claimed = new ArrayList<>(jobs.size());
+        for (ExportJob job : jobs) {
+            if (job.getAttempts() >= MAX_ATTEMPTS) {
+                // Released by releaseStale after its worker died on the last attempt
+                job.setStatus(ExportJobStatus.FAILED);
+                job.setCompletedAt(now);
+                job.setExpiresAt(now.plusHours(RESULT_TTL_HOURS));
+                continue;
+            }
+            claimed.add(job);
+            job.setStatus(ExportJobStatus.PROCESSING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setProgress(0);
+            job.setLockedBy(workerId);
+            job.setLockedAt(now);
+        }
+        exportJobRepository.saveAll(jobs);
+        return claimed;
+    }
+
+    @Transactional
+    public void reportProgress(UUID jobId, String workerId, int progress) {
+        exportJobRepository.updateProgress(jobId, workerId, progress, LocalDateTime.now());
+    }
+
+    /**
+     * Keep the locks of jobs {@code workerId} is still rendering fresh, so
+     * {@link #releaseStale} only hands back jobs whose worker stopped.
+     */
+    @Transactional
+    public void heartbeat(Collection<UUID> jobIds, String workerId) {
+        if (jobIds.isEmpty()) return;
+        exportJobRepository.refreshLocks(jobIds, workerId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void complete(UUID jobId, String fileName, String contentType, String filePath, long fileSize) {
+        exportJobRepository.findById(jobId).ifPresent(job -> {
+            LocalDateTime now = LocalDateTime.now();
+            job.setStatus(ExportJobStatus.COMPLETED);
+            job.setProgress(100);
+            job.setFileName(fileName);
+            job.setContentType(contentType);
+            job.setFilePath(filePath);
+            job.setFileSize(fileSize);
+            job.setErrorMessage(null);
+            job.setLockedBy(null);
+            job.setLockedAt(null);
+            job.setCompletedAt(now);
+            job.setExpiresAt(now.plusHours(RESULT_TTL_HOURS));
+            exportJobRepository.save(job);
+        });
+    }
+
+    /**
+     * Put a failed job back in the queue with exponential backoff, or mark it FAILED when
+     * the error is permanent or the attempts are used up.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void fail(UUID jobId, String errorMessage, boolean retryable) {
+        exportJobRepository.findById(jobId).ifPresent(job -> {
+            LocalDateTime now = LocalDateTime.now();
+            job.setErrorMessage(errorMessage);
+            job.setLockedBy(null);
+            job.setLockedAt(null);
+
+            if (retryable && job.getAttempts() < MAX_ATTEMPTS) {
+                job.setStatus(ExportJobStatus.PENDING);
+                job.setProgress(0);
+                job.setNextAttemptAt(now.plus(backoff(job.getAttempts())));
+                log.warn("Export job {} failed (attempt {}/{}), retrying at {}",
+                        jobId, job.getAttempts(), MAX_ATTEMPTS, job.getNextAttemptAt());
+            } else {
+                job.setStatus(ExportJobStatus.FAILED);
+                job.setCompletedAt(now);
+                job.setExpiresAt(now.plusHours(RESULT_TTL_HOURS));
+            }
+            exportJobRepository.save(job);
+        });
+    }
+
+    /**
+     * Return PROCESSING jobs whose worker went away (node crash, restart) to the queue.
+     */
+    @Transactional
+    public int releaseStale(LocalDateTime lockedBefore) {
+        return exportJobRepository.releaseStale(lockedBefore);
+    }
+
+    static Duration backoff(int attempts) {
+        return BASE_BACKOFF.multipliedBy(1L << Math.max(0, attempts - 1));
+    }
+}
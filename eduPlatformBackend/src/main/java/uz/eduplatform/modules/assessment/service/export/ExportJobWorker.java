@@ -0,0 +1,171 @@
+package uz.eduplatform.modules.assessment.service.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.modules.assessment.domain.ExportJob;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Pulls export jobs from the {@code export_jobs} queue and renders them to files under
+ * {@code app.storage.upload-dir/exports}. Every node runs one worker; {@code SKIP LOCKED}
+ * claiming keeps them from picking the same job, so with a shared upload directory any
+ * node can serve the download. Running jobs heartbeat their lock; each claim renders into its
+ * own temporary file, so a job re-claimed after a missed heartbeat never shares one.
+ */
+@Slf4j
+@Component
+public class ExportJobWorker {
+
+    static final String EXPORT_DIR = "exports";
+
+    // A PROCESSING job whose lock has not been refreshed within this window is assumed lost
+    private static final int STALE_LOCK_MINUTES = 10;
+
+    private final ExportJobQueue queue;
+    private final ResultExportFacade resultExportFacade;
+    private final Executor exportExecutor;
+    private final Path uploadDir;
+    private final Semaphore slots;
+    private final String workerId;
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+
+    public ExportJobWorker(ExportJobQueue queue,
+                           ResultExportFacade resultExportFacade,
+                           @Qualifier("exportExecutor") Executor exportExecutor,
+                           @Value("${app.storage.upload-dir:./uploads}") String uploadPath,
+                           @Value("${app.export.jobs.concurrency:2}") int concurrency) {
+        this.queue = queue;
+        this.resultExportFacade = resultExportFacade;
+        this.exportExecutor = exportExecutor;
+        this.uploadDir = Paths.get(uploadPath).toAbsolutePath().normalize();
+        this.slots = new Semaphore(concurrency);
+        this.workerId = ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * Claim as many jobs as there are free slots. Runs on a timer and right after a job is
+     * submitted, so new exports start without waiting for the next tick.
+     */
+    @Scheduled(fixedDelayString = "${app.export.jobs.poll-interval-ms:2000}")
+    public synchronized void poll() {
+        int free = slots.availablePermits();
+        if (free == 0) return;
+
+        List<ExportJob> jobs = queue.claim(free, workerId);
+        for (ExportJob job : jobs) {
+            slots.acquireUninterruptibly();
+            try {
+                exportExecutor.execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                slots.release();
+                queue.fail(job.getId(), e.getMessage(), true);
+            }
+        }
+    }
+
+    /**
+     * Trigger a poll off the caller's thread, e.g. after the transaction that created a job commits.
+     */
+    public void wakeUp() {
+        exportExecutor.execute(this::poll);
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void heartbeat() {
+        Set<UUID> jobIds = Set.copyOf(running);
+        if (!jobIds.isEmpty()) queue.heartbeat(jobIds, workerId);
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void releaseStaleJobs() {
+        int released = queue.releaseStale(LocalDateTime.now().minusMinutes(STALE_LOCK_MINUTES));
+        if (released > 0) {
+            log.warn("Released {} stale export jobs back to the queue", released);
+        }
+    }
+
+    void process(ExportJob job) {
+        String relativePath = EXPORT_DIR + "/" + job.getId() + extension(job.getFormat());
+        Path target = uploadDir.resolve(relativePath);
+        Path partial = target.resolveSibling(job.getId() + "-" + job.getAttempts() + ".part");
+
+        running.add(job.getId());
+        try {
+            Files.createDirectories(target.getParent());
+            Locale locale = Locale.forLanguageTag(job.getLocale() != null ? job.getLocale() : "en");
+
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                resultExportFacade.writeAssignmentResults(job.getAssignmentId(), job.getTeacherId(),
+                        job.getFormat(), locale, out, progress -> queue.reportProgress(job.getId(), workerId, progress));
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            long size = Files.size(target);
+            queue.complete(job.getId(), fileName(job), contentType(job.getFormat()), relativePath, size);
+            log.info("Export job completed: id={}, attempt={}, size={} bytes", job.getId(), job.getAttempts(), size);
+
+        } catch (Exception e) {
+            log.error("Export job failed: id={}, attempt={}", job.getId(), job.getAttempts(), e);
+            deleteQuietly(partial);
+            queue.fail(job.getId(), e.getMessage(), isRetryable(e));
+        } finally {
+            running.remove(job.getId());
+        }
+    }
+
+    // Missing assignment or wrong owner will not fix itself on retry
+    private boolean isRetryable(Exception e) {
+        return !(e instanceof ResourceNotFoundException
+                || e instanceof BusinessException
+                || e instanceof AccessDeniedException);
+    }
+
+    static String extension(ResultExportFormat format) {
+        return format == ResultExportFormat.EXCEL ? ".xlsx" : ".csv";
+    }
+
+    private static String fileName(ExportJob job) {
+        return "results-" + job.getAssignmentId() + extension(job.getFormat());
+    }
+
+    private static String contentType(ResultExportFormat format) {
+        return format == ResultExportFormat.EXCEL
+                ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
+                : "text/csv; charset=UTF-8";
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete partial export {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -6,11 +6,14 @@ import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.modules.assessment.dto.AssignmentResultDto;
 import uz.eduplatform.modules.assessment.service.ResultService;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,6 +35,17 @@ public class ResultExportFacade {
         return getService(format).exportResults(results, locale);
     }
 
+    /**
+     * Stream the export to {@code out}; {@code progress} receives a percentage as stages finish.
+     */
+    public void writeAssignmentResults(UUID assignmentId, UUID teacherId, ResultExportFormat format,
+                                       Locale locale, OutputStream out, IntConsumer progress) throws IOException {
+        ResultExportService service = getService(format);
+        AssignmentResultDto results = resultService.getAssignmentResults(assignmentId, teacherId);
+        progress.accept(50);
+        service.writeResults(results, locale, out);
+    }
+
     private ResultExportService getService(ResultExportFormat format) {
         ResultExportService service = exportServices.get(format);
         if (service == null) {
@@ -2,11 +2,18 @@ package uz.eduplatform.modules.assessment.service.export;
 
 import uz.eduplatform.modules.assessment.dto.AssignmentResultDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Locale;
 
 public interface ResultExportService {
 
     byte[] exportResults(AssignmentResultDto results, Locale locale);
 
+    /**
+     * Write the export to {@code out} without building it in memory first. Does not close {@code out}.
+     */
+    void writeResults(AssignmentResultDto results, Locale locale, OutputStream out) throws IOException;
+
     ResultExportFormat getFormat();
 }
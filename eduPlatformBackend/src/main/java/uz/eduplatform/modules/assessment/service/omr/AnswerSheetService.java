@@ -0,0 +1,272 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.ChecksumException;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.LookupContext;
+import uz.eduplatform.core.common.utils.LookupResolver;
+import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.core.i18n.LocaleKeys;
+import uz.eduplatform.core.i18n.TranslatedField;
+import uz.eduplatform.core.pdf.DocumentFont;
+import uz.eduplatform.core.pdf.PdfFonts;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.repository.AssignmentStudentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static uz.eduplatform.modules.assessment.service.omr.OmrSheetLayout.*;
+
+/**
+ * Prints bubble answer sheets for an assignment: one page per assigned student, variants dealt
+ * out in turn over the roster sorted by name. Each page carries a QR {@link SheetCode} naming the
+ * assignment, variant and student, so {@link OmrGradingService} can grade it unattended.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnswerSheetService {
+
+    // Keep up to 50MB of the document in memory, spill the rest to a temp file
+    private static final long MAX_MAIN_MEMORY_BYTES = 50L * 1024 * 1024;
+    // Fraction of the control point distance that makes four Béziers a circle
+    private static final float CIRCLE_KAPPA = 0.5523f;
+    private static final int QR_MASK_PATTERNS = 8;
+    // Module sizes in pixels the QR code must read back at: 150 DPI and 300 DPI scans, and smaller
+    private static final int[] QR_CHECK_MODULE_PIXELS = {4, 6, 12};
+
+    private final TestAssignmentRepository assignmentRepository;
+    private final AssignmentStudentRepository assignmentStudentRepository;
+    private final SheetVariantLoader variantLoader;
+    private final LookupResolver lookupResolver;
+    private final MessageService messageService;
+    private final PdfFonts pdfFonts;
+
+    public byte[] printSheets(UUID assignmentId, UUID teacherId, Locale locale) {
+        TestAssignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("TestAssignment", "id", assignmentId));
+
+        // teacherId == null means admin/super_admin — skip ownership check
+        if (teacherId != null && !assignment.getTeacherId().equals(teacherId)) {
+            throw new BusinessException("error.access.denied", null, HttpStatus.FORBIDDEN);
+        }
+
+        List<SheetVariant> variants = variantLoader.load(assignment.getTestHistoryId());
+        if (variants.isEmpty()) throw BusinessException.ofKey("omr.no.variants");
+        for (SheetVariant variant : variants) {
+            if (OmrSheetLayout.of(variant.questionIds().size(), variant.choiceCount()) == null) {
+                throw BusinessException.ofKey("omr.too.many.questions", variant.code());
+            }
+        }
+
+        List<UUID> studentIds = new ArrayList<>(assignmentStudentRepository.findStudentIdsByAssignmentId(assignmentId));
+        if (studentIds.isEmpty()) throw BusinessException.ofKey("omr.no.students");
+        LookupContext lookup = lookupResolver.context().preloadUsers(studentIds);
+        Map<UUID, String> names = new HashMap<>();
+        for (UUID studentId : studentIds) {
+            String name = lookup.userFullName(studentId);
+            names.put(studentId, name != null ? name : "");
+        }
+        studentIds.sort(Comparator.comparing((UUID id) -> names.get(id), String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(Comparator.naturalOrder()));
+
+        String title = resolveTitle(assignment, LocaleKeys.fromLocale(locale));
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES))) {
+            DocumentFont fontBold = pdfFonts.bold().embedIn(document);
+            DocumentFont fontRegular = pdfFonts.regular().embedIn(document);
+            for (int i = 0; i < studentIds.size(); i++) {
+                UUID studentId = studentIds.get(i);
+                SheetVariant variant = variants.get(i % variants.size());
+                SheetCode code = new SheetCode(assignmentId, variant.code(), studentId,
+                        variant.questionIds().size(), variant.choiceCount());
+                drawSheet(document, fontBold, fontRegular, code, title, names.get(studentId), locale);
+            }
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos);
+            return baos.toByteArray();
+
+        } catch (IOException e) {
+            log.error("Failed to generate answer sheets for assignment {}", assignmentId, e);
+            throw new BusinessException(messageService.get("export.pdf.fail", locale, e.getMessage()));
+        }
+    }
+
+    /**
+     * Add one answer sheet page for {@code code} to {@code document}.
+     */
+    void drawSheet(PDDocument document, DocumentFont fontBold, DocumentFont fontRegular, SheetCode code,
+                   String title, String studentName, Locale locale) throws IOException {
+        OmrSheetLayout layout = OmrSheetLayout.of(code);
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+
+        try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+            for (int corner = 0; corner < 4; corner++) {
+                cs.addRect(markX(corner) - MARK_SIZE / 2, PAGE_HEIGHT - markY(corner) - MARK_SIZE / 2,
+                        MARK_SIZE, MARK_SIZE);
+            }
+            cs.fill();
+            drawQrCode(cs, code.encode());
+
+            float headerWidth = QR_X - HEADER_X - 16;
+            List<String> titleLines = fontBold.wrap(title, 14, headerWidth);
+            drawText(cs, fontBold, 14, HEADER_X, 58, titleLines.isEmpty() ? "" : titleLines.get(0));
+            drawText(cs, fontRegular, 12, HEADER_X, 80, studentName);
+            drawText(cs, fontBold, 12, HEADER_X, 100,
+                    messageService.get("export.variant", locale, code.variantCode()));
+            List<String> instructions = fontRegular.wrap(
+                    messageService.get("omr.sheet.instructions", locale), 9, headerWidth);
+            for (int i = 0; i < Math.min(3, instructions.size()); i++) {
+                drawText(cs, fontRegular, 9, HEADER_X, 120 + i * 11, instructions.get(i));
+            }
+
+            // Text first: a path may not stay open across text objects
+            for (int q = 0; q < layout.questionCount(); q++) {
+                if (layout.startsColumn(q)) {
+                    for (int c = 0; c < layout.choices(); c++) {
+                        float x = layout.bubbleX(q, c) - fontBold.width(LABELS[c], 8) / 2;
+                        drawText(cs, fontBold, 8, x, GRID_TOP - 4, LABELS[c]);
+                    }
+                }
+                String number = String.valueOf(q + 1);
+                float x = layout.columnX(q) + NUMBER_WIDTH - 6 - fontRegular.width(number, 9);
+                drawText(cs, fontRegular, 9, x, layout.rowY(q) + 3, number);
+            }
+
+            cs.setLineWidth(0.8f);
+            for (int q = 0; q < layout.questionCount(); q++) {
+                for (int c = 0; c < layout.choices(); c++) {
+                    addCircle(cs, layout.bubbleX(q, c), PAGE_HEIGHT - layout.bubbleY(q), BUBBLE_RADIUS);
+                }
+            }
+            cs.stroke();
+        }
+    }
+
+    private static void drawQrCode(PDPageContentStream cs, String text) throws IOException {
+        BitMatrix matrix;
+        try {
+            matrix = encodeQrCode(text);
+        } catch (WriterException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        // One rectangle per run of dark modules in a row
+        float module = QR_SIZE / matrix.getWidth();
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            int x = 0;
+            while (x < matrix.getWidth()) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < matrix.getWidth() && matrix.get(x, y)) x++;
+                cs.addRect(QR_X + start * module, PAGE_HEIGHT - QR_Y - (y + 1) * module,
+                        (x - start) * module, module);
+            }
+        }
+        cs.fill();
+    }
+
+    /**
+     * The QR matrix for {@code text}, without quiet zone. Some payloads leave patterns that the
+     * decoder takes for finder patterns whatever the module size, so the automatic mask is
+     * checked by reading it back and the other masks are tried until one reads.
+     */
+    static BitMatrix encodeQrCode(String text) throws WriterException {
+        QRCodeWriter writer = new QRCodeWriter();
+        BitMatrix first = null;
+        for (int mask = -1; mask < QR_MASK_PATTERNS; mask++) {
+            Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+            hints.put(EncodeHintType.MARGIN, 0);
+            hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+            if (mask >= 0) hints.put(EncodeHintType.QR_MASK_PATTERN, mask);
+            BitMatrix matrix = writer.encode(text, BarcodeFormat.QR_CODE, 0, 0, hints);
+            if (first == null) first = matrix;
+            if (readsBack(matrix, text)) return matrix;
+        }
+        return first;
+    }
+
+    private static boolean readsBack(BitMatrix matrix, String text) {
+        for (int pixelsPerModule : QR_CHECK_MODULE_PIXELS) {
+            int quietZone = 4 * pixelsPerModule;
+            int size = matrix.getWidth() * pixelsPerModule + 2 * quietZone;
+            byte[] pixels = new byte[size * size];
+            Arrays.fill(pixels, (byte) 0xFF);
+            for (int y = 0; y < matrix.getHeight(); y++) {
+                for (int x = 0; x < matrix.getWidth(); x++) {
+                    if (!matrix.get(x, y)) continue;
+                    for (int dy = 0; dy < pixelsPerModule; dy++) {
+                        int offset = (quietZone + y * pixelsPerModule + dy) * size + quietZone + x * pixelsPerModule;
+                        Arrays.fill(pixels, offset, offset + pixelsPerModule, (byte) 0);
+                    }
+                }
+            }
+            PlanarYUVLuminanceSource source = new PlanarYUVLuminanceSource(pixels, size, size, 0, 0, size, size, false);
+            try {
+                Result result = new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(source)));
+                if (!text.equals(result.getText())) return false;
+            } catch (NotFoundException | ChecksumException | FormatException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void drawText(PDPageContentStream cs, DocumentFont font, float size,
+                                 float x, float baselineY, String text) throws IOException {
+        String safe = font.sanitize(text);
+        if (safe.isEmpty()) return;
+        cs.beginText();
+        cs.setFont(font.font(), size);
+        cs.newLineAtOffset(x, PAGE_HEIGHT - baselineY);
+        cs.showText(safe);
+        cs.endText();
+    }
+
+    private static void addCircle(PDPageContentStream cs, float cx, float cy, float r) throws IOException {
+        float k = r * CIRCLE_KAPPA;
+        cs.moveTo(cx + r, cy);
+        cs.curveTo(cx + r, cy + k, cx + k, cy + r, cx, cy + r);
+        cs.curveTo(cx - k, cy + r, cx - r, cy + k, cx - r, cy);
+        cs.curveTo(cx - r, cy - k, cx - k, cy - r, cx, cy - r);
+        cs.curveTo(cx + k, cy - r, cx + r, cy - k, cx + r, cy);
+        cs.closePath();
+    }
+
+    private static String resolveTitle(TestAssignment assignment, String localeKey) {
+        if (assignment.getTitleTranslations() != null && !assignment.getTitleTranslations().isEmpty()) {
+            String resolved = TranslatedField.resolve(assignment.getTitleTranslations(), localeKey);
+            if (resolved != null) return resolved;
+        }
+        return assignment.getTitle();
+    }
+}
@@ -0,0 +1,235 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.modules.assessment.domain.Answer;
+import uz.eduplatform.modules.assessment.domain.AttemptStatus;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.modules.assessment.dto.OmrBatchResultDto;
+import uz.eduplatform.modules.assessment.repository.AssignmentStudentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
+import uz.eduplatform.modules.assessment.service.AssignmentStudentService;
+import uz.eduplatform.modules.assessment.service.GradingService;
+import uz.eduplatform.modules.content.domain.QuestionType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Grades a stack of scanned answer sheets printed by {@link AnswerSheetService}. Sheets are
+ * decoded in parallel by {@link OmrScanDecoder}; every readable sheet for a rostered student
+ * without an attempt becomes a submitted attempt, graded and inserted in chunks of
+ * {@link #CHUNK_SIZE} through {@link GradingService#gradeNewAttempts}, one transaction each.
+ * Sheets that cannot be used are reported back one by one and do not stop the batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OmrGradingService {
+
+    static final int CHUNK_SIZE = 100;
+
+    private final TestAssignmentRepository assignmentRepository;
+    private final AssignmentStudentRepository assignmentStudentRepository;
+    private final TestAttemptRepository attemptRepository;
+    private final SheetVariantLoader variantLoader;
+    private final OmrScanDecoder scanDecoder;
+    private final GradingService gradingService;
+    private final AssignmentStudentService assignmentStudentService;
+    private final MessageService messageService;
+    private final ObjectMapper objectMapper;
+
+    public OmrBatchResultDto gradeScans(UUID assignmentId, UUID teacherId, MultipartFile file, Locale locale) {
+        TestAssignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("TestAssignment", "id", assignmentId));
+
+        // teacherId == null means admin/super_admin — skip ownership check
+        if (teacherId != null && !assignment.getTeacherId().equals(teacherId)) {
+            throw new BusinessException("error.access.denied", null, HttpStatus.FORBIDDEN);
+        }
+
+        long started = System.currentTimeMillis();
+        List<OmrScanDecoder.DecodedSheet> sheets = decodeUpload(file);
+
+        Map<String, SheetVariant> variants = variantLoader.load(assignment.getTestHistoryId()).stream()
+                .collect(Collectors.toMap(SheetVariant::code, Function.identity(), (a, b) -> a));
+        Set<UUID> roster = new HashSet<>(assignmentStudentRepository.findStudentIdsByAssignmentId(assignmentId));
+        // Students with an attempt already, and those whose sheet is earlier in this batch
+        Set<UUID> taken = new HashSet<>(attemptRepository.findStudentIdsByAssignmentId(assignmentId));
+
+        List<OmrBatchResultDto.SheetError> errors = new ArrayList<>();
+        List<OmrScanDecoder.DecodedSheet> accepted = new ArrayList<>();
+        for (OmrScanDecoder.DecodedSheet sheet : sheets) {
+            String errorKey = sheet.errorKey() != null ? sheet.errorKey()
+                    : validate(sheet.scan().code(), assignmentId, variants, roster, taken);
+            if (errorKey != null) {
+                errors.add(error(sheet, errorKey, locale));
+                continue;
+            }
+            taken.add(sheet.scan().code().studentId());
+            accepted.add(sheet);
+        }
+
+        int graded = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < accepted.size(); from += CHUNK_SIZE) {
+            List<OmrScanDecoder.DecodedSheet> chunk = accepted.subList(from, Math.min(accepted.size(), from + CHUNK_SIZE));
+            if (save(assignment, variants, chunk, now)) {
+                graded += chunk.size();
+                continue;
+            }
+            // One conflicting row (say, the student started the test online meanwhile) rolls back
+            // the whole chunk; save its sheets one by one so only that sheet is reported
+            for (OmrScanDecoder.DecodedSheet sheet : chunk) {
+                if (save(assignment, variants, List.of(sheet), now)) {
+                    graded++;
+                } else {
+                    errors.add(error(sheet, "omr.sheet.save.failed", locale));
+                }
+            }
+        }
+        errors.sort(Comparator.comparingInt(OmrBatchResultDto.SheetError::getSheet));
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Graded scanned sheets for assignment {}: {} sheets, {} graded, {} failed in {} ms",
+                assignmentId, sheets.size(), graded, errors.size(), duration);
+
+        return OmrBatchResultDto.builder()
+                .assignmentId(assignmentId)
+                .sheets(sheets.size())
+                .graded(graded)
+                .failed(errors.size())
+                .durationMs(duration)
+                .errors(errors)
+                .build();
+    }
+
+    private List<OmrScanDecoder.DecodedSheet> decodeUpload(MultipartFile file) {
+        if (file == null || file.isEmpty()) throw BusinessException.ofKey("omr.upload.empty");
+        Path upload = null;
+        try {
+            upload = Files.createTempFile("omr-scans-", ".upload");
+            file.transferTo(upload);
+            return scanDecoder.decode(upload);
+        } catch (IOException e) {
+            log.error("Failed to read scanned answer sheets", e);
+            throw BusinessException.ofKey("omr.upload.unsupported");
+        } finally {
+            if (upload != null) {
+                try {
+                    Files.deleteIfExists(upload);
+                } catch (IOException e) {
+                    log.warn("Failed to delete scan upload {}: {}", upload, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Grade and insert the attempts of {@code sheets} in one transaction. The attempts are built
+     * afresh on every call, since a rolled-back insert leaves its generated ids on the entities.
+     */
+    private boolean save(TestAssignment assignment, Map<String, SheetVariant> variants,
+                         List<OmrScanDecoder.DecodedSheet> sheets, LocalDateTime now) {
+        List<TestAttempt> attempts = new ArrayList<>(sheets.size());
+        for (OmrScanDecoder.DecodedSheet sheet : sheets) {
+            SheetCode code = sheet.scan().code();
+            attempts.add(buildAttempt(assignment, variants.get(code.variantCode()), code.studentId(),
+                    sheet.scan().marks(), now));
+        }
+        try {
+            gradingService.gradeNewAttempts(attempts);
+        } catch (RuntimeException e) {
+            log.warn("Saving {} scanned attempts for assignment {} failed: {}",
+                    attempts.size(), assignment.getId(), e.getMessage());
+            return false;
+        }
+        try {
+            assignmentStudentService.markSubmitted(assignment.getId(),
+                    attempts.stream().map(TestAttempt::getStudentId).toList());
+        } catch (RuntimeException e) {
+            // The attempts are committed, so retrying them would only conflict; just the roster status lags
+            log.error("Marking {} scanned attempts submitted for assignment {} failed: {}",
+                    attempts.size(), assignment.getId(), e.getMessage());
+        }
+        return true;
+    }
+
+    private static String validate(SheetCode code, UUID assignmentId, Map<String, SheetVariant> variants,
+                                   Set<UUID> roster, Set<UUID> taken) {
+        if (!code.assignmentId().equals(assignmentId)) return "omr.sheet.wrong.assignment";
+        SheetVariant variant = variants.get(code.variantCode());
+        // The test's variants changed since the sheet was printed
+        if (variant == null || variant.questionIds().size() != code.questionCount()
+                || variant.choiceCount() != code.choices()) {
+            return "omr.sheet.unknown.variant";
+        }
+        if (!roster.contains(code.studentId())) return "omr.sheet.unknown.student";
+        if (taken.contains(code.studentId())) return "omr.sheet.already.graded";
+        return null;
+    }
+
+    private TestAttempt buildAttempt(TestAssignment assignment, SheetVariant variant, UUID studentId,
+                                     boolean[][] marks, LocalDateTime now) {
+        TestAttempt attempt = TestAttempt.builder()
+                .assignment(assignment)
+                .studentId(studentId)
+                .attemptNumber(1)
+                .variantIndex(variant.index())
+                .startedAt(now)
+                .submittedAt(now)
+                .status(AttemptStatus.SUBMITTED)
+                .build();
+        for (int q = 0; q < variant.questionIds().size(); q++) {
+            attempt.getAnswers().add(Answer.builder()
+                    .attempt(attempt)
+                    .questionId(variant.questionIds().get(q))
+                    .questionIndex(q)
+                    .selectedAnswer(selection(variant.types().get(q), variant.choices().get(q), marks[q]))
+                    .build());
+        }
+        return attempt;
+    }
+
+    /**
+     * The filled bubbles of one row as the JSON an online answer would store: an option id, or an
+     * array of them for MCQ_MULTI and for several bubbles filled where one was expected (which
+     * then grades as wrong). {@code null} when nothing is filled.
+     */
+    String selection(QuestionType type, List<String> choices, boolean[] filled) {
+        List<String> selected = new ArrayList<>();
+        for (int c = 0; c < Math.min(choices.size(), filled.length); c++) {
+            if (filled[c]) selected.add(choices.get(c));
+        }
+        if (selected.isEmpty()) return null;
+        try {
+            Object value = type != QuestionType.MCQ_MULTI && selected.size() == 1 ? selected.get(0) : selected;
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private OmrBatchResultDto.SheetError error(OmrScanDecoder.DecodedSheet sheet, String messageKey, Locale locale) {
+        return OmrBatchResultDto.SheetError.builder()
+                .sheet(sheet.index())
+                .fileName(sheet.fileName())
+                .message(messageService.get(messageKey, locale))
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.exception.BusinessException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Turns an uploaded stack of scans — a multi-page PDF or a ZIP of images — into read sheets,
+ * decoding them in parallel on {@code omrExecutor}. PDFs are split into page ranges, each task
+ * opening its own {@link PDDocument} (documents are not thread-safe); ZIP entries are read
+ * concurrently from one {@link ZipFile}. Results come back in upload order.
+ */
+@Slf4j
+@Component
+public class OmrScanDecoder {
+
+    static final int MAX_SHEETS = 2000;
+    // Pages rendered per task; a task pays for parsing the document once
+    static final int PDF_PAGES_PER_TASK = 10;
+    // Enough for bubbles and the QR code, a quarter of the pixels of a 300 DPI scan
+    static final float RENDER_DPI = 150;
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "tif", "tiff", "bmp", "gif");
+
+    private final Executor omrExecutor;
+
+    public OmrScanDecoder(@Qualifier("omrExecutor") Executor omrExecutor) {
+        this.omrExecutor = omrExecutor;
+    }
+
+    /**
+     * One page or image of the upload: what was read from it, or the message key saying why not.
+     */
+    record DecodedSheet(int index, String fileName, OmrSheetReader.SheetScan scan, String errorKey) {
+
+        static DecodedSheet read(int index, String fileName, BufferedImage image) {
+            if (image == null) return new DecodedSheet(index, fileName, null, "omr.sheet.unreadable");
+            try {
+                return new DecodedSheet(index, fileName, OmrSheetReader.read(image), null);
+            } catch (OmrSheetReader.UnreadableSheetException e) {
+                return new DecodedSheet(index, fileName, null, e.getMessageKey());
+            }
+        }
+    }
+
+    List<DecodedSheet> decode(Path upload) throws IOException {
+        byte[] magic = new byte[4];
+        try (InputStream in = Files.newInputStream(upload)) {
+            if (in.readNBytes(magic, 0, magic.length) < magic.length) {
+                throw BusinessException.ofKey("omr.upload.unsupported");
+            }
+        }
+        if (magic[0] == 'P' && magic[1] == 'K') return decodeZip(upload);
+        if (magic[0] == '%' && magic[1] == 'P' && magic[2] == 'D' && magic[3] == 'F') return decodePdf(upload);
+        throw BusinessException.ofKey("omr.upload.unsupported");
+    }
+
+    private List<DecodedSheet> decodePdf(Path upload) throws IOException {
+        int pages;
+        try (PDDocument document = PDDocument.load(upload.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+            pages = document.getNumberOfPages();
+        }
+        checkSheetCount(pages);
+
+        List<CompletableFuture<List<DecodedSheet>>> tasks = new ArrayList<>();
+        for (int from = 0; from < pages; from += PDF_PAGES_PER_TASK) {
+            int start = from;
+            int end = Math.min(pages, from + PDF_PAGES_PER_TASK);
+            tasks.add(CompletableFuture.supplyAsync(() -> decodePages(upload, start, end), omrExecutor));
+        }
+        return joinAll(tasks);
+    }
+
+    private static List<DecodedSheet> decodePages(Path upload, int start, int end) {
+        List<DecodedSheet> sheets = new ArrayList<>(end - start);
+        try (PDDocument document = PDDocument.load(upload.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+            PDFRenderer renderer = new PDFRenderer(document);
+            for (int page = start; page < end; page++) {
+                BufferedImage image;
+                try {
+                    image = renderer.renderImageWithDPI(page, RENDER_DPI, ImageType.GRAY);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to render scanned page {}: {}", page + 1, e.getMessage());
+                    image = null;
+                }
+                sheets.add(DecodedSheet.read(page + 1, null, image));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sheets;
+    }
+
+    private List<DecodedSheet> decodeZip(Path upload) throws IOException {
+        try (ZipFile zip = new ZipFile(upload.toFile())) {
+            List<ZipEntry> entries = zip.stream()
+                    .filter(entry -> !entry.isDirectory() && isImage(entry.getName()))
+                    .sorted(Comparator.comparing(ZipEntry::getName))
+                    .map(ZipEntry.class::cast)
+                    .toList();
+            checkSheetCount(entries.size());
+
+            List<CompletableFuture<List<DecodedSheet>>> tasks = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                int index = i + 1;
+                ZipEntry entry = entries.get(i);
+                tasks.add(CompletableFuture.supplyAsync(() -> List.of(decodeEntry(zip, entry, index)), omrExecutor));
+            }
+            // Every task must finish before the archive is closed
+            return joinAll(tasks);
+        }
+    }
+
+    private static DecodedSheet decodeEntry(ZipFile zip, ZipEntry entry, int index) {
+        BufferedImage image;
+        try (InputStream in = zip.getInputStream(entry)) {
+            image = ImageIO.read(in);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read scanned image {}: {}", entry.getName(), e.getMessage());
+            image = null;
+        }
+        return DecodedSheet.read(index, entry.getName(), image);
+    }
+
+    private static boolean isImage(String name) {
+        String base = name.substring(name.lastIndexOf('/') + 1);
+        // Skip hidden files and macOS resource forks
+        if (base.startsWith(".") || name.startsWith("__MACOSX/")) return false;
+        int dot = base.lastIndexOf('.');
+        return dot > 0 && IMAGE_EXTENSIONS.contains(base.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static void checkSheetCount(int count) {
+        if (count == 0) throw BusinessException.ofKey("omr.upload.empty");
+        if (count > MAX_SHEETS) throw BusinessException.ofKey("omr.upload.too.many.sheets", MAX_SHEETS);
+    }
+
+    private static List<DecodedSheet> joinAll(List<CompletableFuture<List<DecodedSheet>>> tasks) throws IOException {
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        List<DecodedSheet> sheets = new ArrayList<>();
+        for (CompletableFuture<List<DecodedSheet>> task : tasks) {
+            try {
+                sheets.addAll(task.join());
+            } catch (RuntimeException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof UncheckedIOException io) throw io.getCause();
+                throw e;
+            }
+        }
+        return sheets;
+    }
+}
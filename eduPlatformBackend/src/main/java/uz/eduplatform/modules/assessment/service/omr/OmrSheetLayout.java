@@ -0,0 +1,112 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+/**
+ * Geometry of a printed answer sheet, shared by {@link AnswerSheetService} (drawing) and
+ * {@link OmrSheetReader} (reading). Coordinates are PDF points with the origin at the top-left
+ * corner of an A4 page, y growing downwards, as in a scanned image.
+ * <p>
+ * Four solid corner marks anchor the page; the bubble grid is placed relative to them, so a
+ * scan that is shifted, scaled or slightly rotated still maps onto the grid. The QR code and
+ * header text stay clear of the areas searched for the marks.
+ */
+final class OmrSheetLayout {
+
+    static final float PAGE_WIDTH = PDRectangle.A4.getWidth();
+    static final float PAGE_HEIGHT = PDRectangle.A4.getHeight();
+
+    static final float MARK_SIZE = 18;
+    static final float MARK_INSET = 36;
+    // Half-size of the square searched for each mark around its nominal centre
+    static final float MARK_SEARCH = 40;
+
+    static final float QR_SIZE = 96;
+    static final float QR_X = 412;
+    static final float QR_Y = 40;
+
+    static final float HEADER_X = 90;
+    static final float GRID_TOP = 185;
+    static final float GRID_BOTTOM = PAGE_HEIGHT - MARK_INSET - MARK_SEARCH - 4;
+    static final float GRID_LEFT = 50;
+    static final float GRID_RIGHT = PAGE_WIDTH - 50;
+
+    static final float ROW_HEIGHT = 18;
+    static final float NUMBER_WIDTH = 24;
+    static final float BUBBLE_PITCH = 20;
+    static final float BUBBLE_RADIUS = 6.5f;
+    static final float COLUMN_GAP = 16;
+
+    static final String[] LABELS = {"A", "B", "C", "D", "E", "F", "G", "H"};
+    static final int MAX_CHOICES = LABELS.length;
+
+    private final int questionCount;
+    private final int choices;
+    private final int rowsPerColumn;
+
+    private OmrSheetLayout(int questionCount, int choices, int rowsPerColumn) {
+        this.questionCount = questionCount;
+        this.choices = choices;
+        this.rowsPerColumn = rowsPerColumn;
+    }
+
+    /**
+     * @return the layout, or {@code null} when the questions do not fit on one page
+     */
+    static OmrSheetLayout of(int questionCount, int choices) {
+        if (questionCount <= 0 || choices < 2 || choices > MAX_CHOICES) return null;
+        int maxRows = (int) ((GRID_BOTTOM - GRID_TOP) / ROW_HEIGHT);
+        float columnWidth = NUMBER_WIDTH + choices * BUBBLE_PITCH;
+        int maxColumns = (int) ((GRID_RIGHT - GRID_LEFT + COLUMN_GAP) / (columnWidth + COLUMN_GAP));
+        if (questionCount > maxRows * maxColumns) return null;
+
+        int columns = (questionCount + maxRows - 1) / maxRows;
+        return new OmrSheetLayout(questionCount, choices, (questionCount + columns - 1) / columns);
+    }
+
+    static OmrSheetLayout of(SheetCode code) {
+        return of(code.questionCount(), code.choices());
+    }
+
+    int questionCount() {
+        return questionCount;
+    }
+
+    int choices() {
+        return choices;
+    }
+
+    /**
+     * Centre of corner mark {@code corner}: 0 top-left, 1 top-right, 2 bottom-left, 3 bottom-right.
+     */
+    static float markX(int corner) {
+        return corner % 2 == 0 ? MARK_INSET : PAGE_WIDTH - MARK_INSET;
+    }
+
+    static float markY(int corner) {
+        return corner < 2 ? MARK_INSET : PAGE_HEIGHT - MARK_INSET;
+    }
+
+    float columnX(int question) {
+        return GRID_LEFT + (question / rowsPerColumn) * (NUMBER_WIDTH + choices * BUBBLE_PITCH + COLUMN_GAP);
+    }
+
+    float rowY(int question) {
+        return GRID_TOP + (question % rowsPerColumn) * ROW_HEIGHT + ROW_HEIGHT / 2;
+    }
+
+    float bubbleX(int question, int choice) {
+        return columnX(question) + NUMBER_WIDTH + choice * BUBBLE_PITCH + BUBBLE_PITCH / 2;
+    }
+
+    float bubbleY(int question) {
+        return rowY(question);
+    }
+
+    /**
+     * Whether {@code question} starts a grid column (its letters are printed above it).
+     */
+    boolean startsColumn(int question) {
+        return question % rowsPerColumn == 0;
+    }
+}
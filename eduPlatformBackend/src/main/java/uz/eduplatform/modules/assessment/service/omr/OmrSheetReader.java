@@ -0,0 +1,307 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.ChecksumException;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+
+import static uz.eduplatform.modules.assessment.service.omr.OmrSheetLayout.*;
+
+/**
+ * Reads one scanned answer sheet: the QR code, then the corner marks, then every bubble of the
+ * grid the code describes. Stateless and thread-safe; {@link OmrScanDecoder} runs one call per
+ * sheet on each core.
+ * <p>
+ * The image is reduced to an 8-bit luminance array once and everything else samples that array.
+ * Pixels are dark below an Otsu threshold computed per sheet, so light or dark scans read alike.
+ */
+final class OmrSheetReader {
+
+    // Share of dark pixels inside a bubble for it to count as filled
+    static final float FILL_THRESHOLD = 0.45f;
+    // Sample inside this share of the bubble radius, clear of the printed outline
+    private static final float SAMPLE_RADIUS = 0.65f;
+    // A mark's dark area may differ this much from the printed size (blur, scaling)
+    private static final float MIN_MARK_AREA = 0.5f;
+    private static final float MAX_MARK_AREA = 1.8f;
+    // Room around the printed QR code for a shifted scan
+    private static final float QR_MARGIN = 30;
+
+    record SheetScan(SheetCode code, boolean[][] marks) {
+    }
+
+    static final class UnreadableSheetException extends Exception {
+
+        private final String messageKey;
+
+        UnreadableSheetException(String messageKey) {
+            super(messageKey, null, false, false);
+            this.messageKey = messageKey;
+        }
+
+        String getMessageKey() {
+            return messageKey;
+        }
+    }
+
+    private OmrSheetReader() {
+    }
+
+    static SheetScan read(BufferedImage image) throws UnreadableSheetException {
+        Luminance gray = Luminance.of(image);
+        SheetCode code = decodeCode(gray);
+        OmrSheetLayout layout = OmrSheetLayout.of(code);
+        if (layout == null) throw new UnreadableSheetException("omr.sheet.qr.not.found");
+
+        int threshold = gray.otsuThreshold();
+        float[][] marks = locateMarks(gray, threshold);
+
+        float scale = Math.min(
+                distance(marks[0], marks[1]) / (markX(1) - markX(0)),
+                distance(marks[0], marks[2]) / (markY(2) - markY(0)));
+        float radius = BUBBLE_RADIUS * SAMPLE_RADIUS * scale;
+
+        boolean[][] filled = new boolean[layout.questionCount()][layout.choices()];
+        for (int q = 0; q < layout.questionCount(); q++) {
+            for (int c = 0; c < layout.choices(); c++) {
+                float[] centre = toPixel(marks, layout.bubbleX(q, c), layout.bubbleY(q));
+                filled[q][c] = gray.darkShare(threshold, centre[0], centre[1], radius) >= FILL_THRESHOLD;
+            }
+        }
+        return new SheetScan(code, filled);
+    }
+
+    private static SheetCode decodeCode(Luminance gray) throws UnreadableSheetException {
+        float sx = gray.width / PAGE_WIDTH;
+        float sy = gray.height / PAGE_HEIGHT;
+        int left = clamp((QR_X - QR_MARGIN) * sx, gray.width);
+        int top = clamp((QR_Y - QR_MARGIN) * sy, gray.height);
+        int right = clamp((QR_X + QR_SIZE + QR_MARGIN) * sx, gray.width);
+        int bottom = clamp((QR_Y + QR_SIZE + QR_MARGIN) * sy, gray.height);
+
+        // Where it was printed first; the whole page only for badly placed or upside-down scans
+        Result result = decode(gray, left, top, right - left, bottom - top, false);
+        if (result == null) {
+            result = decode(gray, 0, 0, gray.width, gray.height, true);
+            if (result == null) throw new UnreadableSheetException("omr.sheet.qr.not.found");
+            if (isInLowerHalf(result, gray.height)) gray.rotate180();
+        }
+
+        SheetCode code = SheetCode.parse(result.getText());
+        if (code == null) throw new UnreadableSheetException("omr.sheet.qr.not.found");
+        return code;
+    }
+
+    private static Result decode(Luminance gray, int left, int top, int width, int height, boolean tryHarder) {
+        if (width <= 0 || height <= 0) return null;
+        PlanarYUVLuminanceSource source = new PlanarYUVLuminanceSource(
+                gray.pixels, gray.width, gray.height, left, top, width, height, false);
+        Map<DecodeHintType, ?> hints = tryHarder ? Map.of(DecodeHintType.TRY_HARDER, Boolean.TRUE) : Map.of();
+        // The binarizers misjudge different codes; either one reading it is enough
+        for (Binarizer binarizer : List.of(new HybridBinarizer(source), new GlobalHistogramBinarizer(source))) {
+            try {
+                return new QRCodeReader().decode(new BinaryBitmap(binarizer), hints);
+            } catch (NotFoundException | ChecksumException | FormatException e) {
+                // try the next one
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInLowerHalf(Result result, int height) {
+        ResultPoint[] points = result.getResultPoints();
+        if (points == null || points.length == 0) return false;
+        float y = 0;
+        for (ResultPoint point : points) y += point.getY();
+        return y / points.length > height / 2f;
+    }
+
+    /**
+     * Pixel centres of the four corner marks, in {@link OmrSheetLayout#markX} order. Each is the
+     * centroid of the dark pixels near its nominal position, refined in a mark-sized window.
+     */
+    private static float[][] locateMarks(Luminance gray, int threshold) throws UnreadableSheetException {
+        float sx = gray.width / PAGE_WIDTH;
+        float sy = gray.height / PAGE_HEIGHT;
+        float expectedArea = MARK_SIZE * sx * MARK_SIZE * sy;
+
+        float[][] marks = new float[4][];
+        for (int corner = 0; corner < 4; corner++) {
+            float[] coarse = gray.darkCentroid(threshold, markX(corner) * sx, markY(corner) * sy,
+                    MARK_SEARCH * sx, MARK_SEARCH * sy);
+            if (coarse == null) throw new UnreadableSheetException("omr.sheet.marks.not.found");
+            float[] fine = gray.darkCentroid(threshold, coarse[0], coarse[1], MARK_SIZE * sx, MARK_SIZE * sy);
+            if (fine == null || fine[2] < expectedArea * MIN_MARK_AREA || fine[2] > expectedArea * MAX_MARK_AREA) {
+                throw new UnreadableSheetException("omr.sheet.marks.not.found");
+            }
+            marks[corner] = fine;
+        }
+        return marks;
+    }
+
+    /**
+     * Sheet point to image pixel, interpolated bilinearly between the four marks so that shift,
+     * scale, rotation and mild perspective are all absorbed.
+     */
+    private static float[] toPixel(float[][] marks, float x, float y) {
+        float u = (x - markX(0)) / (markX(1) - markX(0));
+        float v = (y - markY(0)) / (markY(2) - markY(0));
+        float w0 = (1 - u) * (1 - v), w1 = u * (1 - v), w2 = (1 - u) * v, w3 = u * v;
+        return new float[]{
+                w0 * marks[0][0] + w1 * marks[1][0] + w2 * marks[2][0] + w3 * marks[3][0],
+                w0 * marks[0][1] + w1 * marks[1][1] + w2 * marks[2][1] + w3 * marks[3][1]};
+    }
+
+    private static float distance(float[] a, float[] b) {
+        return (float) Math.hypot(a[0] - b[0], a[1] - b[1]);
+    }
+
+    private static int clamp(float value, int max) {
+        return Math.max(0, Math.min(max, Math.round(value)));
+    }
+
+    /**
+     * 8-bit luminance of the scan, row-major.
+     */
+    private static final class Luminance {
+
+        private byte[] pixels;
+        private final int width;
+        private final int height;
+
+        private Luminance(byte[] pixels, int width, int height) {
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+        }
+
+        static Luminance of(BufferedImage image) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                byte[] pixels = (byte[]) image.getRaster().getDataElements(0, 0, width, height, null);
+                return new Luminance(pixels, width, height);
+            }
+            byte[] pixels = new byte[width * height];
+            int[] row = new int[width];
+            for (int y = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+                int offset = y * width;
+                for (int x = 0; x < width; x++) {
+                    int rgb = row[x];
+                    int luma = (((rgb >> 16) & 0xFF) * 299 + ((rgb >> 8) & 0xFF) * 587 + (rgb & 0xFF) * 114) / 1000;
+                    pixels[offset + x] = (byte) luma;
+                }
+            }
+            return new Luminance(pixels, width, height);
+        }
+
+        void rotate180() {
+            byte[] rotated = new byte[pixels.length];
+            for (int i = 0; i < pixels.length; i++) {
+                rotated[pixels.length - 1 - i] = pixels[i];
+            }
+            pixels = rotated;
+        }
+
+        /**
+         * Otsu's threshold over a sample of every fourth pixel in both directions.
+         */
+        int otsuThreshold() {
+            int[] histogram = new int[256];
+            int total = 0;
+            for (int y = 0; y < height; y += 4) {
+                int offset = y * width;
+                for (int x = 0; x < width; x += 4) {
+                    histogram[pixels[offset + x] & 0xFF]++;
+                    total++;
+                }
+            }
+            long sumAll = 0;
+            for (int i = 0; i < 256; i++) sumAll += (long) i * histogram[i];
+
+            long sumBackground = 0;
+            int weightBackground = 0;
+            double bestVariance = -1;
+            int threshold = 128;
+            for (int t = 0; t < 256; t++) {
+                weightBackground += histogram[t];
+                if (weightBackground == 0) continue;
+                int weightForeground = total - weightBackground;
+                if (weightForeground == 0) break;
+                sumBackground += (long) t * histogram[t];
+                double meanBackground = (double) sumBackground / weightBackground;
+                double meanForeground = (double) (sumAll - sumBackground) / weightForeground;
+                double variance = (double) weightBackground * weightForeground
+                        * (meanBackground - meanForeground) * (meanBackground - meanForeground);
+                if (variance > bestVariance) {
+                    bestVariance = variance;
+                    threshold = t;
+                }
+            }
+            return threshold;
+        }
+
+        /**
+         * Centroid and count of the dark pixels in the window around {@code (cx, cy)}, or
+         * {@code null} when it has none.
+         */
+        float[] darkCentroid(int threshold, float cx, float cy, float halfWidth, float halfHeight) {
+            int x0 = Math.max(0, (int) (cx - halfWidth));
+            int x1 = Math.min(width - 1, (int) (cx + halfWidth));
+            int y0 = Math.max(0, (int) (cy - halfHeight));
+            int y1 = Math.min(height - 1, (int) (cy + halfHeight));
+            long sumX = 0;
+            long sumY = 0;
+            int count = 0;
+            for (int y = y0; y <= y1; y++) {
+                int offset = y * width;
+                for (int x = x0; x <= x1; x++) {
+                    if ((pixels[offset + x] & 0xFF) <= threshold) {
+                        sumX += x;
+                        sumY += y;
+                        count++;
+                    }
+                }
+            }
+            if (count == 0) return null;
+            return new float[]{(float) sumX / count, (float) sumY / count, count};
+        }
+
+        /**
+         * Share of dark pixels in the disc of {@code radius} around {@code (cx, cy)}.
+         */
+        float darkShare(int threshold, float cx, float cy, float radius) {
+            int x0 = Math.max(0, (int) Math.floor(cx - radius));
+            int x1 = Math.min(width - 1, (int) Math.ceil(cx + radius));
+            int y0 = Math.max(0, (int) Math.floor(cy - radius));
+            int y1 = Math.min(height - 1, (int) Math.ceil(cy + radius));
+            float r2 = radius * radius;
+            int dark = 0;
+            int total = 0;
+            for (int y = y0; y <= y1; y++) {
+                float dy = y - cy;
+                int offset = y * width;
+                for (int x = x0; x <= x1; x++) {
+                    float dx = x - cx;
+                    if (dx * dx + dy * dy > r2) continue;
+                    total++;
+                    if ((pixels[offset + x] & 0xFF) <= threshold) dark++;
+                }
+            }
+            return total == 0 ? 0 : (float) dark / total;
+        }
+    }
+}
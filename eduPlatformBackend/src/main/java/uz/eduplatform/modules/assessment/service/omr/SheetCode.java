@@ -0,0 +1,45 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import java.util.UUID;
+
+/**
+ * What an answer sheet's QR code carries: whose sheet it is and the grid geometry, so a scan can
+ * be read without looking anything up.
+ * <p>
+ * The text uses only QR alphanumeric characters (upper-case hex ids, {@code :} separators),
+ * which keeps the code at version 4 with modules large enough for a 150 DPI scan.
+ */
+record SheetCode(UUID assignmentId, String variantCode, UUID studentId, int questionCount, int choices) {
+
+    private static final String PREFIX = "EDUOMR1";
+    private static final char SEPARATOR = ':';
+
+    String encode() {
+        return PREFIX + SEPARATOR + hex(assignmentId) + SEPARATOR + variantCode + SEPARATOR + hex(studentId)
+                + SEPARATOR + questionCount + SEPARATOR + choices;
+    }
+
+    /**
+     * @return the code, or {@code null} when {@code text} is not one of our sheets
+     */
+    static SheetCode parse(String text) {
+        if (text == null) return null;
+        String[] parts = text.split(String.valueOf(SEPARATOR));
+        if (parts.length != 6 || !PREFIX.equals(parts[0])) return null;
+        try {
+            return new SheetCode(uuid(parts[1]), parts[2], uuid(parts[3]),
+                    Integer.parseInt(parts[4]), Integer.parseInt(parts[5]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String hex(UUID id) {
+        return String.format("%016X%016X", id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    private static UUID uuid(String hex) {
+        if (hex.length() != 32) throw new IllegalArgumentException("Not a sheet id: " + hex);
+        return new UUID(Long.parseUnsignedLong(hex, 0, 16, 16), Long.parseUnsignedLong(hex, 16, 32, 16));
+    }
+}
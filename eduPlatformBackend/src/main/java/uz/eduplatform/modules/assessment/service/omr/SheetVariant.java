@@ -0,0 +1,28 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import uz.eduplatform.modules.content.domain.QuestionType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One printed variant as an answer sheet sees it: the questions in printed order and, for each,
+ * the option ids behind its bubbles (A, B, C, ...) in the order they were printed.
+ *
+ * @param index   position in {@code TestHistory.variants}, stored as the attempt's variant index
+ * @param choices per question, the option id of each bubble; empty for questions without options
+ */
+record SheetVariant(int index, String code, List<UUID> questionIds, List<QuestionType> types,
+                    List<List<String>> choices) {
+
+    static final List<String> TRUE_FALSE_CHOICES = List.of("true", "false");
+
+    /**
+     * Bubbles per row: enough for the question with the most options, at least two.
+     */
+    int choiceCount() {
+        int max = 2;
+        for (List<String> options : choices) max = Math.max(max, options.size());
+        return max;
+    }
+}
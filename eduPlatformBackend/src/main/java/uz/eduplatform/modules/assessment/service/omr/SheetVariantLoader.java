@@ -0,0 +1,99 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.modules.content.domain.Question;
+import uz.eduplatform.modules.content.domain.QuestionType;
+import uz.eduplatform.modules.content.repository.QuestionRepository;
+import uz.eduplatform.modules.test.domain.TestHistory;
+import uz.eduplatform.modules.test.repository.TestHistoryRepository;
+import uz.eduplatform.modules.test.service.ExportHelper;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link SheetVariant}s from a test's stored variants, resolving each question's bubbles
+ * the same way {@code PdfExportService} orders the options it prints.
+ */
+@Component
+@RequiredArgsConstructor
+class SheetVariantLoader {
+
+    private final TestHistoryRepository testHistoryRepository;
+    private final QuestionRepository questionRepository;
+    private final ExportHelper exportHelper;
+    private final ObjectMapper objectMapper;
+
+    List<SheetVariant> load(UUID testHistoryId) {
+        TestHistory test = testHistoryRepository.findById(testHistoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Test", "id", testHistoryId));
+        List<Map<String, Object>> variants = test.getVariants() != null ? test.getVariants() : List.of();
+
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (Map<String, Object> variant : variants) {
+            ids.addAll(exportHelper.parseQuestionIds(variant.get("questionIds")));
+        }
+        Map<UUID, Question> questions = ids.isEmpty() ? Map.of()
+                : questionRepository.findAllById(new ArrayList<>(ids)).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity(), (a, b) -> a));
+
+        List<SheetVariant> result = new ArrayList<>(variants.size());
+        for (int v = 0; v < variants.size(); v++) {
+            Map<String, Object> variant = variants.get(v);
+            List<List<String>> optionsOrder = exportHelper.parseOptionsOrder(variant.get("optionsOrder"));
+
+            List<UUID> questionIds = new ArrayList<>();
+            List<QuestionType> types = new ArrayList<>();
+            List<List<String>> choices = new ArrayList<>();
+            List<UUID> variantQuestionIds = exportHelper.parseQuestionIds(variant.get("questionIds"));
+            for (int qi = 0; qi < variantQuestionIds.size(); qi++) {
+                Question question = questions.get(variantQuestionIds.get(qi));
+                // Deleted questions are skipped when printing too
+                if (question == null) continue;
+                List<String> order = optionsOrder != null && qi < optionsOrder.size() ? optionsOrder.get(qi) : null;
+                questionIds.add(question.getId());
+                types.add(question.getQuestionType());
+                choices.add(choicesOf(question, order));
+            }
+            result.add(new SheetVariant(v, (String) variant.get("code"), questionIds, types, choices));
+        }
+        return result;
+    }
+
+    private List<String> choicesOf(Question question, List<String> optionsOrder) {
+        return switch (question.getQuestionType()) {
+            case TRUE_FALSE -> SheetVariant.TRUE_FALSE_CHOICES;
+            case MCQ_SINGLE, MCQ_MULTI -> {
+                List<String> optionIds = new ArrayList<>();
+                if (parseJson(question.getOptions()) instanceof List<?> options) {
+                    for (Object option : options) {
+                        if (option instanceof Map<?, ?> map && map.get("id") != null) {
+                            optionIds.add(String.valueOf(map.get("id")));
+                        }
+                    }
+                }
+                // The printed order, when it covers every option
+                if (optionsOrder != null && optionsOrder.size() == optionIds.size()
+                        && new HashSet<>(optionsOrder).equals(new HashSet<>(optionIds))) {
+                    yield List.copyOf(optionsOrder);
+                }
+                yield List.copyOf(optionIds);
+            }
+            default -> List.of();
+        };
+    }
+
+    private Object parseJson(String json) {
+        if (json == null || json.isBlank()) return null;
+        try {
+            return objectMapper.readValue(json, Object.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -10,7 +10,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created", columnList = "created_at, id"),
+        @Index(name = "idx_users_role_created", columnList = "role, created_at, id"),
+        @Index(name = "idx_users_status_created", columnList = "status, created_at, id")
+})
 @Getter
 @Setter
 @Builder
@@ -38,6 +38,31 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Page<User> findByStatus(UserStatus status, Pageable pageable);
 
+    // Keyset pages: users registered before the cursor, newest first
+
+    @Query("SELECT u FROM User u " +
+            "WHERE (u.createdAt, u.id) < (:createdAt, :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> scrollAll(@Param("createdAt") LocalDateTime createdAt,
+                         @Param("id") UUID id,
+                         Pageable limit);
+
+    @Query("SELECT u FROM User u WHERE u.role = :role " +
+            "AND (u.createdAt, u.id) < (:createdAt, :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> scrollByRole(@Param("role") Role role,
+                            @Param("createdAt") LocalDateTime createdAt,
+                            @Param("id") UUID id,
+                            Pageable limit);
+
+    @Query("SELECT u FROM User u WHERE u.status = :status " +
+            "AND (u.createdAt, u.id) < (:createdAt, :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> scrollByStatus(@Param("status") UserStatus status,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") UUID id,
+                              Pageable limit);
+
     @Query("SELECT u FROM User u WHERE " +
             "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
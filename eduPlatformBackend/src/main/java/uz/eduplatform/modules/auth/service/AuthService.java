@@ -15,6 +15,7 @@ import uz.eduplatform.core.common.utils.MessageService;
 import uz.eduplatform.core.security.JwtTokenProvider;
 import uz.eduplatform.core.security.TokenBlacklistService;
 import uz.eduplatform.core.security.TokenPair;
+import uz.eduplatform.core.security.UserPrincipalCache;
 import uz.eduplatform.modules.auth.domain.Role;
 import uz.eduplatform.modules.auth.domain.User;
 import uz.eduplatform.modules.auth.domain.UserSession;
@@ -42,6 +43,7 @@ public class AuthService {
     private final UserService userService;
     private final AuditService auditService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final UserPrincipalCache principalCache;
     private final MessageService messageService;
     private final NotificationService notificationService;
     private final GoogleOAuthService googleOAuthService;
@@ -274,6 +276,7 @@ public class AuthService {
             tokenBlacklistService.blacklistAllForUser(userId, tokenProvider.getAccessExpiration());
             sessionRepository.deactivateAllByUserId(userId);
         }
+        principalCache.evict(userId);
 
         auditService.log(userId, null, "LOGOUT", "AUTH");
     }
@@ -389,6 +392,7 @@ public class AuthService {
 
         tokenBlacklistService.blacklistAllForUser(userId, tokenProvider.getAccessExpiration());
         sessionRepository.deactivateAllByUserId(userId);
+        principalCache.evict(userId);
 
         auditService.log(user.getId(), user.getRole().name(),
                 "PASSWORD_RESET_COMPLETED", "AUTH");
@@ -410,6 +414,7 @@ public class AuthService {
         // Invalidate all other sessions
         tokenBlacklistService.blacklistAllForUser(userId, tokenProvider.getAccessExpiration());
         sessionRepository.deactivateAllByUserId(userId);
+        principalCache.evict(userId);
 
         auditService.log(userId, user.getRole().name(),
                 "PASSWORD_CHANGED", "AUTH");
@@ -15,6 +15,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import uz.eduplatform.core.common.dto.ApiResponse;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.utils.MessageService;
 import uz.eduplatform.core.i18n.AcceptLanguage;
@@ -24,6 +25,7 @@ import uz.eduplatform.modules.content.domain.QuestionStatus;
 import uz.eduplatform.modules.content.domain.QuestionType;
 import uz.eduplatform.modules.content.dto.*;
 import uz.eduplatform.modules.content.service.QuestionImportService;
+import uz.eduplatform.modules.content.service.QuestionImportWorker;
 import uz.eduplatform.modules.content.service.QuestionSearchService;
 import uz.eduplatform.modules.content.service.QuestionService;
 
@@ -38,6 +40,7 @@ public class QuestionController {
 
     private final QuestionService questionService;
     private final QuestionImportService importService;
+    private final QuestionImportWorker importWorker;
     private final QuestionSearchService searchService;
     private final MessageService messageService;
 
@@ -73,6 +76,34 @@ public class QuestionController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/questions/scroll")
+    @Operation(summary = "Savollarni kursor bilan olish", description = "Katta savollar banki uchun kursorli sahifalash: eng yangilari birinchi, /questions bilan bir xil filtrlar (qidiruvsiz). Keyingi sahifa uchun javobdagi nextCursor qiymatini cursor sifatida yuboring; includeTotal=true bo'lsa umumiy son ham hisoblanadi.")
+    public ResponseEntity<ApiResponse<CursorResponse<QuestionDto>>> scrollQuestions(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) UUID subjectId,
+            @RequestParam(required = false) UUID topicId,
+            @RequestParam(required = false) QuestionType questionType,
+            @RequestParam(required = false) Difficulty difficulty,
+            @RequestParam(required = false) QuestionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language) {
+
+        QuestionFilterRequest filter = QuestionFilterRequest.builder()
+                .subjectId(subjectId)
+                .topicId(topicId)
+                .questionType(questionType)
+                .difficulty(difficulty)
+                .status(status)
+                .build();
+
+        CursorResponse<QuestionDto> response = questionService.scrollQuestions(
+                principal.getId(), filter, cursor, size, includeTotal, language);
+
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PostMapping("/questions")
     @Operation(summary = "Yangi savol yaratish", description = "Yangi savol yaratish. Ko'p tilli matn (uzl, uzc, ru, en), javob variantlari, qiyinlik darajasi va izoh kiritiladi.")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'SUPER_ADMIN')")
@@ -214,18 +245,28 @@ public class QuestionController {
     }
 
     @PostMapping("/questions/import")
-    @Operation(summary = "Excel dan savollar import qilish", description = "Excel (.xlsx) fayldan savollarni ommaviy import qilish. Shablon formatiga mos bo'lishi shart.")
+    @Operation(summary = "Excel dan savollar import qilish", description = "Excel (.xlsx) fayldan savollarni ommaviy import qilish. Fayl fonda qayta ishlanadi — holatini /questions/import/{jobId} orqali kuzating.")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<ApiResponse<ImportResult>> importQuestions(
+    public ResponseEntity<ApiResponse<ImportJobDto>> importQuestions(
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestParam UUID topicId,
             @RequestParam("file") MultipartFile file,
             @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language) {
 
-        ImportResult result = importService.importFromExcel(principal.getId(), topicId, file);
-        return ResponseEntity.ok(ApiResponse.success(result,
-                messageService.get("question.import.result", language.toLocale(),
-                        result.getSuccessCount(), result.getErrorCount())));
+        ImportJobDto job = importService.startImport(principal.getId(), topicId, file, language.toLocale());
+        importWorker.submit(job.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(job, messageService.get("question.import.started", language.toLocale())));
+    }
+
+    @GetMapping("/questions/import/{jobId}")
+    @Operation(summary = "Import holatini olish", description = "Import jarayoni: qayta ishlangan qatorlar, muvaffaqiyatli, takroriy va xato qatorlar soni.")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<ApiResponse<ImportJobDto>> getImportJob(
+            @PathVariable UUID jobId,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        return ResponseEntity.ok(ApiResponse.success(importService.getJob(jobId, principal.getId())));
     }
 
     @GetMapping("/questions/export-template")
@@ -0,0 +1,8 @@
+package uz.eduplatform.modules.content.domain;
+
+public enum ImportJobStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -21,7 +21,8 @@ import java.util.UUID;
         @Index(name = "idx_questions_user", columnList = "user_id"),
         @Index(name = "idx_questions_status", columnList = "status"),
         @Index(name = "idx_questions_type", columnList = "question_type"),
-        @Index(name = "idx_questions_difficulty", columnList = "difficulty")
+        @Index(name = "idx_questions_difficulty", columnList = "difficulty"),
+        @Index(name = "idx_questions_user_created", columnList = "user_id, created_at, id")
 })
 @Getter
 @Setter
@@ -103,12 +104,20 @@ public class Question {
     @Column(name = "times_used")
     private Integer timesUsed = 0;
 
-    @Column(name = "correct_rate", precision = 5, scale = 2)
+    // Item statistics are written only by ItemAnalysisService
+    @Column(name = "correct_rate", precision = 5, scale = 2, insertable = false, updatable = false)
     private BigDecimal correctRate;
 
-    @Column(name = "avg_time_seconds")
+    @Column(name = "avg_time_seconds", insertable = false, updatable = false)
     private Integer avgTimeSeconds;
 
+    @Column(precision = 5, scale = 4, insertable = false, updatable = false)
+    private BigDecimal discrimination;
+
+    @Column(name = "response_count", insertable = false, updatable = false,
+            columnDefinition = "integer not null default 0")
+    private Integer responseCount;
+
     @Builder.Default
     private Integer version = 1;
 
@@ -0,0 +1,41 @@
+package uz.eduplatform.modules.content.domain;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pre-parsed, immutable view of a question that is valid for printed test generation
+ * (MCQ with at least two options and one correct answer). Built once by
+ * {@link uz.eduplatform.modules.content.service.QuestionCandidateIndex} so generation
+ * never has to re-read the options JSON.
+ *
+ * @param options       options in their stored order
+ * @param correctLabels answer labels (A, B, ...) of the correct options in stored order
+ */
+public record QuestionCandidate(
+        UUID id,
+        UUID topicId,
+        UUID ownerId,
+        QuestionStatus status,
+        Difficulty difficulty,
+        QuestionType questionType,
+        int version,
+        List<Option> options,
+        List<String> correctLabels
+) {
+
+    public record Option(String id, boolean correct) {
+    }
+
+    /**
+     * Same visibility rule as {@code QuestionRepository.findByTopicIdsForTeacher}:
+     * ACTIVE/APPROVED from everyone, plus the teacher's own DRAFT/PENDING.
+     */
+    public boolean isVisibleTo(UUID userId) {
+        if (status == QuestionStatus.ACTIVE || status == QuestionStatus.APPROVED) {
+            return true;
+        }
+        return ownerId != null && ownerId.equals(userId)
+                && (status == QuestionStatus.DRAFT || status == QuestionStatus.PENDING);
+    }
+}
@@ -0,0 +1,104 @@
+package uz.eduplatform.modules.content.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import uz.eduplatform.modules.content.dto.ImportResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Entity
+@Table(name = "question_import_jobs", indexes = {
+        @Index(name = "idx_import_job_user", columnList = "user_id"),
+        @Index(name = "idx_import_job_status", columnList = "status")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class QuestionImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "topic_id", nullable = false)
+    private UUID topicId;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportJobStatus status = ImportJobStatus.PENDING;
+
+    @Column(length = 10)
+    private String locale;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    // Uploaded workbook, relative to app.storage.upload-dir; deleted when the job finishes
+    @Column(name = "file_path", length = 500)
+    private String filePath;
+
+    // Data rows in the sheet, counted before the first chunk
+    @Column(name = "total_rows")
+    private Integer totalRows;
+
+    // Sheet row index of the last row in the last committed chunk; a resumed job skips up to it
+    @Builder.Default
+    @Column(name = "last_committed_row", nullable = false)
+    private Integer lastCommittedRow = 0;
+
+    @Builder.Default
+    @Column(name = "processed_rows", nullable = false)
+    private Integer processedRows = 0;
+
+    @Builder.Default
+    @Column(name = "success_count", nullable = false)
+    private Integer successCount = 0;
+
+    @Builder.Default
+    @Column(name = "duplicate_count", nullable = false)
+    private Integer duplicateCount = 0;
+
+    @Builder.Default
+    @Column(name = "error_count", nullable = false)
+    private Integer errorCount = 0;
+
+    // First errors only; errorCount has the total
+    @Builder.Default
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<ImportResult.ImportError> errors = new ArrayList<>();
+
+    // Node whose upload-dir holds the file; only it resumes the job
+    @Column(name = "owner_node")
+    private String ownerNode;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
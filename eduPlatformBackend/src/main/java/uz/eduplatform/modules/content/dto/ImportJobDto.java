@@ -0,0 +1,33 @@
+package uz.eduplatform.modules.content.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.eduplatform.modules.content.domain.ImportJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+
+    private UUID id;
+    private UUID topicId;
+    private ImportJobStatus status;
+    private String fileName;
+    private Integer totalRows;
+    private Integer processedRows;
+    private Integer progress;
+    private Integer successCount;
+    private Integer duplicateCount;
+    private Integer errorCount;
+    private List<ImportResult.ImportError> errors;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
@@ -52,6 +52,8 @@ public class QuestionDto {
     private Integer timesUsed;
     private BigDecimal correctRate;
     private Integer avgTimeSeconds;
+    private BigDecimal discrimination;
+    private Integer responseCount;
 
     private Integer version;
 
@@ -0,0 +1,41 @@
+package uz.eduplatform.modules.content.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.eduplatform.modules.content.domain.QuestionImportJob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface QuestionImportJobRepository extends JpaRepository<QuestionImportJob, UUID> {
+
+    Optional<QuestionImportJob> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Take the job for this worker unless another worker holds a fresh lock on it. Returns 0 when
+     * the job is finished or already running elsewhere.
+     */
+    @Modifying
+    @Query("UPDATE QuestionImportJob j SET j.status = 'PROCESSING', j.lockedBy = :workerId, j.lockedAt = :now " +
+            "WHERE j.id = :id AND (j.status = 'PENDING' OR (j.status = 'PROCESSING' AND j.lockedAt < :staleBefore))")
+    int claim(@Param("id") UUID id, @Param("workerId") String workerId,
+              @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Jobs of this node nobody is working on: never started, or their worker stopped heartbeating
+    @Query("SELECT j.id FROM QuestionImportJob j WHERE (j.ownerNode IS NULL OR j.ownerNode = :node) " +
+            "AND ((j.status = 'PENDING' AND j.createdAt < :pendingBefore) " +
+            "OR (j.status = 'PROCESSING' AND j.lockedAt < :staleBefore)) ORDER BY j.createdAt")
+    List<UUID> findResumable(@Param("node") String node,
+                             @Param("pendingBefore") LocalDateTime pendingBefore,
+                             @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("DELETE FROM QuestionImportJob j WHERE j.completedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -9,14 +9,26 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import uz.eduplatform.core.i18n.LocaleKeys;
 import uz.eduplatform.modules.content.domain.*;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, UUID>, JpaSpecificationExecutor<Question> {
 
+    // Text search goes through questions.search_text (V29): every locale, lower-case, Cyrillic folded
+    // to Latin, behind a trigram index. The term is folded the same way by search_pattern/search_fold.
+    // :search is cast at every use: a null term is otherwise bound as bytea and the functions don't resolve.
+    String SEARCH_MATCH = "q.search_text LIKE search_pattern(CAST(:search AS TEXT))";
+    // Closest matches first; without a term (subject browsing) the newest first
+    String SEARCH_RANK = "word_similarity(search_fold(CAST(:search AS TEXT)), q.search_text) DESC NULLS LAST, " +
+            "q.created_at DESC";
+    // Search counts stop here: past it the total is a lower bound, not worth a full scan per page
+    int SEARCH_COUNT_LIMIT = 1000;
+
     Page<Question> findByTopicIdAndStatusNot(UUID topicId, QuestionStatus status, Pageable pageable);
 
     Page<Question> findByUserIdAndStatusNot(UUID userId, QuestionStatus status, Pageable pageable);
@@ -40,6 +52,12 @@ public interface QuestionRepository extends JpaRepository<Question, UUID>, JpaSp
     @Query("SELECT COUNT(q) FROM Question q WHERE q.topic.id = :topicId")
     long countByTopicId(@Param("topicId") UUID topicId);
 
+    // Lower-cased, trimmed default-locale texts from the given set that the topic already has
+    @Query(value = "SELECT DISTINCT lower(btrim(q.question_text ->> '" + LocaleKeys.DEFAULT_KEY + "')) " +
+            "FROM questions q WHERE q.topic_id = :topicId AND q.deleted_at IS NULL " +
+            "AND lower(btrim(q.question_text ->> '" + LocaleKeys.DEFAULT_KEY + "')) IN (:texts)", nativeQuery = true)
+    List<String> findExistingNormalizedTexts(@Param("topicId") UUID topicId, @Param("texts") Collection<String> texts);
+
     @Query("SELECT COUNT(q) FROM Question q WHERE q.status = :status")
     long countByStatus(@Param("status") QuestionStatus status);
 
@@ -57,18 +75,12 @@ public interface QuestionRepository extends JpaRepository<Question, UUID>, JpaSp
                                   @Param("status") QuestionStatus status,
                                   Pageable pageable);
 
-    @Query(value = "SELECT q.* FROM questions q WHERE q.deleted_at IS NULL AND " +
-            "q.user_id = :userId AND " +
-            "(LOWER(q.question_text ->> 'uz_latn') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'uz_cyrl') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'en') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'ru') LIKE LOWER(CONCAT('%', :search, '%')))",
-            countQuery = "SELECT COUNT(*) FROM questions q WHERE q.deleted_at IS NULL AND " +
-                    "q.user_id = :userId AND " +
-                    "(LOWER(q.question_text ->> 'uz_latn') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'uz_cyrl') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'en') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'ru') LIKE LOWER(CONCAT('%', :search, '%')))",
+    @Query(value = "SELECT q.* FROM questions q WHERE q.deleted_at IS NULL " +
+            "AND q.user_id = :userId AND " + SEARCH_MATCH + " " +
+            "ORDER BY " + SEARCH_RANK,
+            countQuery = "SELECT COUNT(*) FROM (SELECT 1 FROM questions q WHERE q.deleted_at IS NULL " +
+                    "AND q.user_id = :userId AND " + SEARCH_MATCH + " " +
+                    "LIMIT " + SEARCH_COUNT_LIMIT + ") matches",
             nativeQuery = true)
     Page<Question> searchByUser(@Param("userId") UUID userId,
                                 @Param("search") String search,
@@ -85,6 +97,18 @@ public interface QuestionRepository extends JpaRepository<Question, UUID>, JpaSp
     List<Question> findByTopicIdsForTeacher(@Param("topicIds") List<UUID> topicIds,
                                             @Param("userId") UUID userId);
 
+    // [id, topic_id, user_id, status, difficulty, question_type, version, options] for QuestionCandidateIndex.
+    // Loads every status a teacher could see; per-teacher visibility is applied in memory.
+    @Query("SELECT q.id, q.topic.id, q.user.id, q.status, q.difficulty, q.questionType, q.version, q.options " +
+           "FROM Question q WHERE q.topic.id IN :topicIds " +
+           "AND q.status IN ('ACTIVE', 'APPROVED', 'DRAFT', 'PENDING') " +
+           "AND q.questionType IN ('MCQ_SINGLE', 'MCQ_MULTI') " +
+           "ORDER BY q.id")
+    List<Object[]> findCandidateRowsByTopicIds(@Param("topicIds") Collection<UUID> topicIds);
+
+    @Query("SELECT q.id, q.version FROM Question q WHERE q.id IN :ids")
+    List<Object[]> findVersionsByIds(@Param("ids") Collection<UUID> ids);
+
     // --- With difficulty filter ---
 
     @EntityGraph(attributePaths = {"topic", "topic.subject", "user"})
@@ -144,19 +168,15 @@ public interface QuestionRepository extends JpaRepository<Question, UUID>, JpaSp
             "AND (q.status IN ('ACTIVE', 'APPROVED') OR (q.user_id = :userId AND q.status IN ('DRAFT', 'PENDING', 'APPROVED'))) " +
             "AND (:difficulty IS NULL OR q.difficulty = CAST(:difficulty AS VARCHAR)) " +
             "AND (:status IS NULL OR q.status = CAST(:status AS VARCHAR)) " +
-            "AND (LOWER(q.question_text ->> 'uz_latn') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'uz_cyrl') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'en') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'ru') LIKE LOWER(CONCAT('%', :search, '%')))",
-            countQuery = "SELECT COUNT(*) FROM questions q WHERE q.deleted_at IS NULL " +
+            "AND " + SEARCH_MATCH + " " +
+            "ORDER BY " + SEARCH_RANK,
+            countQuery = "SELECT COUNT(*) FROM (SELECT 1 FROM questions q WHERE q.deleted_at IS NULL " +
                     "AND q.topic_id IN :topicIds " +
                     "AND (q.status IN ('ACTIVE', 'APPROVED') OR (q.user_id = :userId AND q.status IN ('DRAFT', 'PENDING', 'APPROVED'))) " +
                     "AND (:difficulty IS NULL OR q.difficulty = CAST(:difficulty AS VARCHAR)) " +
                     "AND (:status IS NULL OR q.status = CAST(:status AS VARCHAR)) " +
-                    "AND (LOWER(q.question_text ->> 'uz_latn') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'uz_cyrl') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'en') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'ru') LIKE LOWER(CONCAT('%', :search, '%')))",
+                    "AND " + SEARCH_MATCH + " " +
+                    "LIMIT " + SEARCH_COUNT_LIMIT + ") matches",
             nativeQuery = true)
     Page<Question> searchByTopicIdsForTeacher(@Param("topicIds") List<UUID> topicIds,
                                                @Param("userId") UUID userId,
@@ -184,22 +204,16 @@ public interface QuestionRepository extends JpaRepository<Question, UUID>, JpaSp
             "AND (q.status IN ('ACTIVE', 'APPROVED') OR (q.user_id = :userId AND q.status IN ('DRAFT', 'PENDING', 'APPROVED'))) " +
             "AND (CAST(:difficulty AS TEXT) IS NULL OR q.difficulty = CAST(:difficulty AS VARCHAR)) " +
             "AND (CAST(:status AS TEXT) IS NULL OR q.status = CAST(:status AS VARCHAR)) " +
-            "AND (CAST(:search AS TEXT) IS NULL OR " +
-            " LOWER(q.question_text ->> 'uz_latn') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'uz_cyrl') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'en') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            " LOWER(q.question_text ->> 'ru') LIKE LOWER(CONCAT('%', :search, '%')))",
-            countQuery = "SELECT COUNT(*) FROM questions q " +
+            "AND (CAST(:search AS TEXT) IS NULL OR " + SEARCH_MATCH + ") " +
+            "ORDER BY " + SEARCH_RANK,
+            countQuery = "SELECT COUNT(*) FROM (SELECT 1 FROM questions q " +
                     "JOIN topics t ON q.topic_id = t.id " +
                     "WHERE q.deleted_at IS NULL AND t.subject_id = :subjectId AND t.deleted_at IS NULL " +
                     "AND (q.status IN ('ACTIVE', 'APPROVED') OR (q.user_id = :userId AND q.status IN ('DRAFT', 'PENDING', 'APPROVED'))) " +
                     "AND (CAST(:difficulty AS TEXT) IS NULL OR q.difficulty = CAST(:difficulty AS VARCHAR)) " +
                     "AND (CAST(:status AS TEXT) IS NULL OR q.status = CAST(:status AS VARCHAR)) " +
-                    "AND (CAST(:search AS TEXT) IS NULL OR " +
-                    " LOWER(q.question_text ->> 'uz_latn') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'uz_cyrl') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'en') LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                    " LOWER(q.question_text ->> 'ru') LIKE LOWER(CONCAT('%', :search, '%')))",
+                    "AND (CAST(:search AS TEXT) IS NULL OR " + SEARCH_MATCH + ") " +
+                    "LIMIT " + SEARCH_COUNT_LIMIT + ") matches",
             nativeQuery = true)
     Page<Question> searchBySubjectIdForTeacher(@Param("subjectId") UUID subjectId,
                                                 @Param("userId") UUID userId,
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uz.eduplatform.modules.content.domain.Topic;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,6 +26,9 @@ public interface TopicRepository extends JpaRepository<Topic, UUID> {
 
     List<Topic> findByParentIdOrderBySortOrderAsc(UUID parentId);
 
+    @Query("SELECT t.id FROM Topic t WHERE t.subject.id = :subjectId")
+    List<UUID> findIdsBySubjectId(@Param("subjectId") UUID subjectId);
+
     Optional<Topic> findByIdAndSubjectId(UUID id, UUID subjectId);
 
     @Query("SELECT MAX(t.sortOrder) FROM Topic t WHERE t.subject.id = :subjectId AND t.user.id = :userId " +
@@ -67,5 +71,57 @@ public interface TopicRepository extends JpaRepository<Topic, UUID> {
             nativeQuery = true)
     Optional<Topic> findBySubjectIdAndDefaultName(@Param("subjectId") UUID subjectId, @Param("name") String name);
 
+    /**
+     * The user's root topics in a subject together with all their descendants, parents before
+     * children and siblings in sort order. A subtree is the path range {@code [root, root + '/')}:
+     * its own path and every path continuing with {@code '.'}, the character just before {@code '/'}.
+     */
+    @Query(value = "SELECT t.* FROM topics r " +
+            "JOIN topics t ON t.path ~>=~ r.path AND t.path ~<~ (r.path || '/') AND t.deleted_at IS NULL " +
+            "WHERE r.subject_id = :subjectId AND r.user_id = :userId AND r.parent_id IS NULL " +
+            "AND r.deleted_at IS NULL " +
+            "AND (CAST(:gradeLevel AS integer) IS NULL OR r.grade_level = :gradeLevel) " +
+            "ORDER BY t.level, t.sort_order",
+            nativeQuery = true)
+    List<Topic> findTreeBySubjectIdAndUserId(
+            @Param("subjectId") UUID subjectId,
+            @Param("userId") UUID userId,
+            @Param("gradeLevel") Integer gradeLevel);
+
+    @Query("SELECT COALESCE(SUM(t.questionCount), 0) FROM Topic t " +
+            "WHERE t.path = :path OR t.path LIKE CONCAT(:path, '.%')")
+    long sumQuestionCountInSubtree(@Param("path") String path);
+
+    @Query("SELECT MAX(t.level) FROM Topic t WHERE t.path = :path OR t.path LIKE CONCAT(:path, '.%')")
+    int findMaxLevelInSubtree(@Param("path") String path);
+
+    /**
+     * Re-roots a whole subtree in one statement: {@code oldPath} becomes {@code newPath} as a prefix
+     * of every path under it, levels shift by {@code levelShift} and the subtree moves to {@code subjectId}.
+     */
+    @Modifying
+    @Query(value = "UPDATE topics SET path = :newPath || substr(path, length(:oldPath) + 1), " +
+            "level = level + :levelShift, subject_id = :subjectId, updated_at = NOW() " +
+            "WHERE deleted_at IS NULL AND (path = :oldPath OR path LIKE :oldPath || '.%')",
+            nativeQuery = true)
+    int moveSubtree(@Param("oldPath") String oldPath,
+                    @Param("newPath") String newPath,
+                    @Param("levelShift") int levelShift,
+                    @Param("subjectId") UUID subjectId);
+
+    @Query("SELECT t.id FROM Topic t WHERE t.id IN :ids AND t.user.id = :userId")
+    List<UUID> findIdsByIdInAndUserId(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
+
+    /**
+     * Sets the sort order of many topics in one statement. Both arguments are array literals of the
+     * same length, {@code "{id1,id2}"} and {@code "{0,1}"}.
+     */
+    @Modifying
+    @Query(value = "UPDATE topics t SET sort_order = v.sort_order, updated_at = NOW() " +
+            "FROM unnest(CAST(:ids AS uuid[]), CAST(:sortOrders AS integer[])) AS v(id, sort_order) " +
+            "WHERE t.id = v.id AND t.deleted_at IS NULL",
+            nativeQuery = true)
+    int updateSortOrders(@Param("ids") String ids, @Param("sortOrders") String sortOrders);
+
     long count();
 }
@@ -0,0 +1,188 @@
+package uz.eduplatform.modules.content.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.utils.AfterCommit;
+import uz.eduplatform.modules.content.domain.*;
+import uz.eduplatform.modules.content.repository.QuestionRepository;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * In-memory pool of test generation candidates, keyed by topic and bucketed by difficulty.
+ * Each entry holds pre-parsed {@link QuestionCandidate}s for every question a teacher could
+ * see in that topic; per-teacher visibility is applied on read.
+ * <p>
+ * Every code path that creates, edits, moderates or deletes questions must call one of the
+ * {@code evict*} methods so the next generation reloads the topic.
+ */
+@Slf4j
+@Component
+public class QuestionCandidateIndex {
+
+    private static final String[] LABELS = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
+
+    private static final Duration POOL_TTL = Duration.ofMinutes(30);
+
+    private final Cache<UUID, TopicPool> pools;
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+
+    public QuestionCandidateIndex(QuestionRepository questionRepository, ObjectMapper objectMapper) {
+        this.pools = Caffeine.newBuilder()
+                .expireAfterWrite(POOL_TTL)
+                .maximumSize(5_000)
+                .build();
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Candidates from the given topics visible to {@code userId}, grouped by difficulty.
+     * Topics not yet indexed are loaded together in one query.
+     */
+    public Map<Difficulty, List<QuestionCandidate>> candidatesFor(Collection<UUID> topicIds, UUID userId) {
+        Map<Difficulty, List<QuestionCandidate>> result = new EnumMap<>(Difficulty.class);
+        if (topicIds == null || topicIds.isEmpty()) return result;
+
+        Set<UUID> keys = new LinkedHashSet<>(topicIds);
+        keys.remove(null);
+        Map<UUID, TopicPool> loaded = pools.getAll(keys, this::loadPools);
+
+        for (UUID topicId : keys) {
+            TopicPool pool = loaded.get(topicId);
+            if (pool == null) continue;
+            pool.byDifficulty().forEach((difficulty, candidates) -> {
+                for (QuestionCandidate c : candidates) {
+                    if (c.isVisibleTo(userId)) {
+                        result.computeIfAbsent(difficulty, d -> new ArrayList<>()).add(c);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Parse a loaded question outside the index (manual selection).
+     *
+     * @return empty when the question is not a valid MCQ for printed tests
+     */
+    public Optional<QuestionCandidate> describe(Question q) {
+        return toCandidate(q.getId(),
+                q.getTopic() != null ? q.getTopic().getId() : null,
+                q.getUser() != null ? q.getUser().getId() : null,
+                q.getStatus(), q.getDifficulty(), q.getQuestionType(), q.getVersion(), q.getOptions());
+    }
+
+    public void evict(Question question) {
+        evictQuestions(List.of(question));
+    }
+
+    public void evictQuestions(Collection<Question> questions) {
+        Set<UUID> topicIds = new HashSet<>();
+        for (Question q : questions) {
+            if (q.getTopic() != null && q.getTopic().getId() != null) {
+                topicIds.add(q.getTopic().getId());
+            }
+        }
+        evictTopics(topicIds);
+    }
+
+    public void evictTopic(UUID topicId) {
+        if (topicId != null) evictTopics(Set.of(topicId));
+    }
+
+    public void evictTopics(Collection<UUID> topicIds) {
+        if (topicIds.isEmpty()) return;
+        Set<UUID> keys = Set.copyOf(topicIds);
+        AfterCommit.evict(() -> pools.invalidateAll(keys));
+    }
+
+    private Map<UUID, TopicPool> loadPools(Set<? extends UUID> topicIds) {
+        Map<UUID, Map<Difficulty, List<QuestionCandidate>>> buckets = new HashMap<>();
+        for (UUID topicId : topicIds) {
+            buckets.put(topicId, new EnumMap<>(Difficulty.class));
+        }
+
+        List<Object[]> rows = questionRepository.findCandidateRowsByTopicIds(Set.copyOf(topicIds));
+        int skipped = 0;
+        for (Object[] row : rows) {
+            Optional<QuestionCandidate> candidate = toCandidate((UUID) row[0], (UUID) row[1], (UUID) row[2],
+                    (QuestionStatus) row[3], (Difficulty) row[4], (QuestionType) row[5],
+                    (Integer) row[6], (String) row[7]);
+            if (candidate.isEmpty()) {
+                skipped++;
+                continue;
+            }
+            QuestionCandidate c = candidate.get();
+            buckets.computeIfAbsent(c.topicId(), t -> new EnumMap<>(Difficulty.class))
+                    .computeIfAbsent(c.difficulty(), d -> new ArrayList<>())
+                    .add(c);
+        }
+        log.debug("Indexed {} candidates ({} invalid) for {} topics", rows.size() - skipped, skipped, topicIds.size());
+
+        Map<UUID, TopicPool> result = new HashMap<>();
+        buckets.forEach((topicId, byDifficulty) -> {
+            Map<Difficulty, List<QuestionCandidate>> frozen = new EnumMap<>(Difficulty.class);
+            byDifficulty.forEach((d, list) -> frozen.put(d, List.copyOf(list)));
+            result.put(topicId, new TopicPool(Collections.unmodifiableMap(frozen)));
+        });
+        return result;
+    }
+
+    /**
+     * A question is a candidate when it is MCQ_SINGLE/MCQ_MULTI with at least two options,
+     * every option has text, and at least one option is marked correct.
+     */
+    private Optional<QuestionCandidate> toCandidate(UUID id, UUID topicId, UUID ownerId, QuestionStatus status,
+                                                    Difficulty difficulty, QuestionType type,
+                                                    Integer version, String optionsJson) {
+        if (type != QuestionType.MCQ_SINGLE && type != QuestionType.MCQ_MULTI) {
+            return Optional.empty();
+        }
+
+        Object parsed = parseJson(optionsJson);
+        if (!(parsed instanceof List<?> optionsList) || optionsList.size() < 2) {
+            return Optional.empty();
+        }
+
+        List<QuestionCandidate.Option> options = new ArrayList<>(optionsList.size());
+        List<String> correctLabels = new ArrayList<>();
+        for (int i = 0; i < optionsList.size(); i++) {
+            if (!(optionsList.get(i) instanceof Map<?, ?> optMap) || optMap.get("text") == null) {
+                return Optional.empty();
+            }
+            boolean correct = Boolean.TRUE.equals(optMap.get("isCorrect"));
+            options.add(new QuestionCandidate.Option(String.valueOf(optMap.get("id")), correct));
+            if (correct && i < LABELS.length) {
+                correctLabels.add(LABELS[i]);
+            }
+        }
+        if (options.stream().noneMatch(QuestionCandidate.Option::correct)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new QuestionCandidate(id, topicId, ownerId, status,
+                difficulty != null ? difficulty : Difficulty.MEDIUM, type,
+                version != null ? version : 1,
+                List.copyOf(options), List.copyOf(correctLabels)));
+    }
+
+    private Object parseJson(String json) {
+        if (json == null || json.isBlank()) return null;
+        try {
+            return objectMapper.readValue(json, Object.class);
+        } catch (Exception e) {
+            log.warn("Failed to parse JSON: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record TopicPool(Map<Difficulty, List<QuestionCandidate>> byDifficulty) {
+    }
+}
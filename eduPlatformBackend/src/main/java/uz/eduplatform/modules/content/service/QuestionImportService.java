@@ -2,91 +2,301 @@ package uz.eduplatform.modules.content.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import uz.eduplatform.core.audit.AuditService;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.core.i18n.LocaleKeys;
 import uz.eduplatform.core.i18n.TranslatedField;
 import uz.eduplatform.modules.auth.domain.User;
 import uz.eduplatform.modules.auth.repository.UserRepository;
 import uz.eduplatform.modules.content.domain.*;
+import uz.eduplatform.modules.content.dto.ImportJobDto;
 import uz.eduplatform.modules.content.dto.ImportResult;
+import uz.eduplatform.modules.content.repository.QuestionImportJobRepository;
 import uz.eduplatform.modules.content.repository.QuestionRepository;
 import uz.eduplatform.modules.content.repository.TopicRepository;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class QuestionImportService {
 
+    static final String IMPORT_DIR = "imports";
+
+    private static final int MAX_REPORTED_ERRORS = 500;
+    private static final int FINISHED_JOB_RETENTION_DAYS = 7;
+
     private final QuestionRepository questionRepository;
+    private final QuestionImportJobRepository importJobRepository;
     private final TopicRepository topicRepository;
     private final UserRepository userRepository;
     private final AuditService auditService;
+    private final MessageService messageService;
     private final ObjectMapper objectMapper;
+    private final QuestionCandidateIndex candidateIndex;
+    private final Path uploadDir;
+    private final String nodeId;
+
+    public QuestionImportService(QuestionRepository questionRepository,
+                                 QuestionImportJobRepository importJobRepository,
+                                 TopicRepository topicRepository,
+                                 UserRepository userRepository,
+                                 AuditService auditService,
+                                 MessageService messageService,
+                                 ObjectMapper objectMapper,
+                                 QuestionCandidateIndex candidateIndex,
+                                 @Value("${app.storage.upload-dir:./uploads}") String uploadPath,
+                                 @Value("${app.storage.node-id:}") String nodeId) {
+        this.questionRepository = questionRepository;
+        this.importJobRepository = importJobRepository;
+        this.topicRepository = topicRepository;
+        this.userRepository = userRepository;
+        this.auditService = auditService;
+        this.messageService = messageService;
+        this.objectMapper = objectMapper;
+        this.candidateIndex = candidateIndex;
+        this.uploadDir = Paths.get(uploadPath).toAbsolutePath().normalize();
+        this.nodeId = nodeId.isBlank() ? hostName() : nodeId;
+    }
 
+    /**
+     * Store the upload and queue an import job for it. Rows are read, validated and saved in
+     * the background by {@link QuestionImportWorker}, which the caller hands the job to once
+     * this commits; poll {@link #getJob} for progress.
+     */
     @Transactional
-    public ImportResult importFromExcel(UUID userId, UUID topicId, MultipartFile file) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-        Topic topic = topicRepository.findById(topicId)
-                .orElseThrow(() -> new ResourceNotFoundException("Topic", "id", topicId));
+    public ImportJobDto startImport(UUID userId, UUID topicId, MultipartFile file, Locale locale) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        if (!topicRepository.existsById(topicId)) {
+            throw new ResourceNotFoundException("Topic", "id", topicId);
+        }
 
-        ImportResult result = ImportResult.builder()
-                .errors(new ArrayList<>())
-                .build();
+        QuestionImportJob job = importJobRepository.save(QuestionImportJob.builder()
+                .userId(userId)
+                .topicId(topicId)
+                .fileName(file.getOriginalFilename())
+                .locale(locale != null ? locale.toLanguageTag() : "en")
+                .status(ImportJobStatus.PENDING)
+                .ownerNode(nodeId)
+                .build());
+
+        String relativePath = IMPORT_DIR + "/" + job.getId() + ".upload";
+        Path target = uploadDir.resolve(relativePath);
+        try {
+            Files.createDirectories(target.getParent());
+            file.transferTo(target);
+        } catch (IOException e) {
+            throw BusinessException.ofKey("question.import.read.failed", e.getMessage());
+        }
+        job.setFilePath(relativePath);
 
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            int totalRows = sheet.getLastRowNum(); // excluding header
-            result.setTotalRows(totalRows);
-
-            int successCount = 0;
-
-            for (int i = 1; i <= totalRows; i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                try {
-                    Question question = parseRow(row, i, topic, user);
-                    questionRepository.save(question);
-                    successCount++;
-                } catch (Exception e) {
-                    result.getErrors().add(ImportResult.ImportError.builder()
-                            .row(i + 1)
-                            .message(e.getMessage())
-                            .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) deleteQuietly(target);
                 }
+            });
+        }
+
+        log.info("Question import queued: id={}, topic={}, file={}", job.getId(), topicId, file.getOriginalFilename());
+        return toDto(job);
+    }
+
+    @Transactional(readOnly = true)
+    public ImportJobDto getJob(UUID jobId, UUID userId) {
+        QuestionImportJob job = importJobRepository.findByIdAndUserId(jobId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("QuestionImportJob", "id", jobId));
+        return toDto(job);
+    }
+
+    /**
+     * Take the job for this worker; {@code null} when it is finished or another worker holds it.
+     */
+    @Transactional
+    public QuestionImportJob claimJob(UUID jobId, String workerId, LocalDateTime staleBefore) {
+        if (importJobRepository.claim(jobId, workerId, LocalDateTime.now(), staleBefore) == 0) return null;
+        return importJobRepository.findById(jobId).orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> findResumableJobs(LocalDateTime pendingBefore, LocalDateTime staleBefore) {
+        return importJobRepository.findResumable(nodeId, pendingBefore, staleBefore);
+    }
+
+    @Transactional
+    public void recordTotalRows(UUID jobId, int totalRows) {
+        importJobRepository.findById(jobId).ifPresent(job -> job.setTotalRows(totalRows));
+    }
+
+    /**
+     * Save one chunk of validated rows and advance the job past it, in one transaction. Rows
+     * whose text the topic already has, or that repeat an earlier row of the chunk, are reported
+     * as duplicates; existing texts are found with one query for the whole chunk.
+     */
+    @Transactional
+    public void commitChunk(UUID jobId, List<ImportRow> rows, List<ImportResult.ImportError> rowErrors,
+                            int lastRowIndex) {
+        QuestionImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("QuestionImportJob", "id", jobId));
+        Locale locale = Locale.forLanguageTag(job.getLocale() != null ? job.getLocale() : "en");
+
+        Set<String> texts = new HashSet<>();
+        for (ImportRow row : rows) texts.add(row.normalizedText());
+        Set<String> existing = texts.isEmpty() ? Set.of()
+                : new HashSet<>(questionRepository.findExistingNormalizedTexts(job.getTopicId(), texts));
+
+        Topic topic = topicRepository.getReferenceById(job.getTopicId());
+        User user = userRepository.getReferenceById(job.getUserId());
+        List<Question> toSave = new ArrayList<>(rows.size());
+        List<ImportResult.ImportError> errors = new ArrayList<>(rowErrors);
+        Set<String> seen = new HashSet<>();
+        int duplicates = 0;
+        for (ImportRow row : rows) {
+            if (existing.contains(row.normalizedText()) || !seen.add(row.normalizedText())) {
+                duplicates++;
+                errors.add(ImportResult.ImportError.builder()
+                        .row(row.rowIndex() + 1)
+                        .message(messageService.get("question.import.row.duplicate", locale, row.rowIndex() + 1))
+                        .build());
+                continue;
             }
+            Question question = row.question();
+            question.setTopic(topic);
+            question.setUser(user);
+            toSave.add(question);
+        }
+        questionRepository.saveAll(toSave);
+
+        job.setLastCommittedRow(lastRowIndex);
+        job.setProcessedRows(job.getProcessedRows() + rows.size() + rowErrors.size());
+        job.setSuccessCount(job.getSuccessCount() + toSave.size());
+        job.setDuplicateCount(job.getDuplicateCount() + duplicates);
+        job.setErrorCount(job.getErrorCount() + errors.size());
+        List<ImportResult.ImportError> reported = new ArrayList<>(job.getErrors() != null ? job.getErrors() : List.of());
+        for (ImportResult.ImportError error : errors) {
+            if (reported.size() >= MAX_REPORTED_ERRORS) break;
+            reported.add(error);
+        }
+        job.setErrors(reported);
+        job.setLockedAt(LocalDateTime.now());
+    }
 
-            result.setSuccessCount(successCount);
-            result.setErrorCount(result.getErrors().size());
+    @Transactional
+    public void completeJob(UUID jobId) {
+        QuestionImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("QuestionImportJob", "id", jobId));
+
+        Topic topic = topicRepository.findById(job.getTopicId())
+                .orElseThrow(() -> new ResourceNotFoundException("Topic", "id", job.getTopicId()));
+        topic.setQuestionCount((int) questionRepository.countByTopicId(topic.getId()));
+        topicRepository.save(topic);
+        candidateIndex.evictTopic(topic.getId());
+
+        job.setStatus(ImportJobStatus.COMPLETED);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+
+        auditService.log(job.getUserId(), null, "QUESTIONS_IMPORTED", "CONTENT",
+                "Topic", topic.getId());
+        log.info("Question import completed: id={}, imported={}, duplicates={}, errors={}",
+                jobId, job.getSuccessCount(), job.getDuplicateCount(), job.getErrorCount());
+    }
 
-            // Update topic question count
-            long count = questionRepository.countByTopicId(topicId);
-            topic.setQuestionCount((int) count);
-            topicRepository.save(topic);
+    @Transactional
+    public void failJob(UUID jobId, String message) {
+        importJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(ImportJobStatus.FAILED);
+            job.setErrorMessage(message);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setLockedBy(null);
+            job.setLockedAt(null);
+        });
+    }
 
-            auditService.log(userId, null, "QUESTIONS_IMPORTED", "CONTENT",
-                    "Topic", topicId);
+    /**
+     * Rows parsed from the sheet, before duplicate checks. {@code question} has no topic or
+     * author yet; {@link #commitChunk} sets them.
+     */
+    record ImportRow(int rowIndex, Question question, String normalizedText) {
+    }
+
+    ImportRow parseRow(String[] cells, int rowIndex) {
+        Question question = parseRow(cells, rowIndex, null, null);
+        String text = question.getQuestionText().get(LocaleKeys.DEFAULT_KEY);
+        return new ImportRow(rowIndex, question, normalize(text));
+    }
 
+    static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    Path resolveFile(QuestionImportJob job) {
+        return uploadDir.resolve(job.getFilePath()).normalize();
+    }
+
+    void deleteQuietly(Path file) {
+        try {
+            if (file != null && file.startsWith(uploadDir)) Files.deleteIfExists(file);
         } catch (IOException e) {
-            throw BusinessException.ofKey("question.import.read.failed");
+            log.warn("Failed to delete import upload {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 0 4 * * ?")
+    @Transactional
+    public void cleanupFinishedJobs() {
+        int deleted = importJobRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(FINISHED_JOB_RETENTION_DAYS));
+        if (deleted > 0) {
+            log.info("Cleaned up {} finished question import jobs", deleted);
         }
+    }
 
-        return result;
+    private ImportJobDto toDto(QuestionImportJob job) {
+        Integer total = job.getTotalRows();
+        int progress = job.getStatus() == ImportJobStatus.COMPLETED ? 100
+                : total == null || total == 0 ? 0
+                : (int) Math.min(99, 100L * job.getProcessedRows() / total);
+        return ImportJobDto.builder()
+                .id(job.getId())
+                .topicId(job.getTopicId())
+                .status(job.getStatus())
+                .fileName(job.getFileName())
+                .totalRows(total)
+                .processedRows(job.getProcessedRows())
+                .progress(progress)
+                .successCount(job.getSuccessCount())
+                .duplicateCount(job.getDuplicateCount())
+                .errorCount(job.getErrorCount())
+                .errors(job.getErrors())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
     }
 
     public byte[] generateExportTemplate() {
@@ -143,13 +353,13 @@ public class QuestionImportService {
         }
     }
 
-    private Question parseRow(Row row, int rowIndex, Topic topic, User user) {
-        String questionText = getCellStringValue(row, 0);
+    private Question parseRow(String[] cells, int rowIndex, Topic topic, User user) {
+        String questionText = cell(cells, 0);
         if (questionText == null || questionText.isBlank()) {
             throw BusinessException.ofKey("question.import.row.text.required", rowIndex + 1);
         }
 
-        String typeStr = getCellStringValue(row, 1);
+        String typeStr = cell(cells, 1);
         QuestionType type;
         try {
             type = QuestionType.valueOf(typeStr != null ? typeStr.trim().toUpperCase() : "MCQ_SINGLE");
@@ -157,7 +367,7 @@ public class QuestionImportService {
             throw BusinessException.ofKey("question.import.row.invalid.type", rowIndex + 1, typeStr);
         }
 
-        String diffStr = getCellStringValue(row, 2);
+        String diffStr = cell(cells, 2);
         Difficulty difficulty;
         try {
             difficulty = Difficulty.valueOf(diffStr != null ? diffStr.trim().toUpperCase() : "MEDIUM");
@@ -165,13 +375,13 @@ public class QuestionImportService {
             difficulty = Difficulty.MEDIUM;
         }
 
-        String optA = getCellStringValue(row, 3);
-        String optB = getCellStringValue(row, 4);
-        String optC = getCellStringValue(row, 5);
-        String optD = getCellStringValue(row, 6);
-        String correctStr = getCellStringValue(row, 7);
-        String pointsStr = getCellStringValue(row, 8);
-        String proof = getCellStringValue(row, 9);
+        String optA = cell(cells, 3);
+        String optB = cell(cells, 4);
+        String optC = cell(cells, 5);
+        String optD = cell(cells, 6);
+        String correctStr = cell(cells, 7);
+        String pointsStr = cell(cells, 8);
+        String proof = cell(cells, 9);
 
         // Build options
         List<Map<String, Object>> options = new ArrayList<>();
@@ -234,14 +444,15 @@ public class QuestionImportService {
         }
     }
 
-    private String getCellStringValue(Row row, int cellIndex) {
-        Cell cell = row.getCell(cellIndex);
-        if (cell == null) return null;
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
-            case NUMERIC -> String.valueOf((int) cell.getNumericCellValue());
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            default -> null;
-        };
+    private static String cell(String[] cells, int index) {
+        return index < cells.length ? cells[index] : null;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot resolve the host name; set app.storage.node-id", e);
+        }
     }
 }
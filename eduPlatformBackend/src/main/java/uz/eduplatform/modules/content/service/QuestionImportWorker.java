@@ -0,0 +1,148 @@
+package uz.eduplatform.modules.content.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.modules.content.domain.QuestionImportJob;
+import uz.eduplatform.modules.content.dto.ImportResult;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs question import jobs on {@code importExecutor}. The sheet is streamed row by row and
+ * saved in chunks of {@link #CHUNK_SIZE}, one short transaction each, so an import never holds
+ * a connection for longer than a chunk and memory stays bounded by the chunk.
+ * <p>
+ * Each chunk commit records the last sheet row it covered and refreshes the job's lock. A job
+ * whose worker died (restart, crash) goes stale and is resumed from that row by the node that
+ * accepted the upload, since the file is in that node's upload-dir; a job whose node never comes
+ * back stays unfinished.
+ */
+@Slf4j
+@Component
+public class QuestionImportWorker {
+
+    static final int CHUNK_SIZE = 200;
+
+    // A PROCESSING job that has not committed a chunk within this window is assumed lost
+    private static final int STALE_LOCK_MINUTES = 5;
+
+    private final QuestionImportService importService;
+    private final MessageService messageService;
+    private final Executor importExecutor;
+    private final String workerId;
+
+    public QuestionImportWorker(QuestionImportService importService,
+                                MessageService messageService,
+                                @Qualifier("importExecutor") Executor importExecutor) {
+        this.importService = importService;
+        this.messageService = messageService;
+        this.importExecutor = importExecutor;
+        this.workerId = ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * Start the job in the background. If the executor is full the job stays queued and
+     * {@link #resumeStalled()} picks it up.
+     */
+    public void submit(UUID jobId) {
+        try {
+            importExecutor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Import executor is full, job {} will start on the next sweep", jobId);
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void resumeStalled() {
+        LocalDateTime now = LocalDateTime.now();
+        for (UUID jobId : importService.findResumableJobs(now.minusMinutes(1), now.minusMinutes(STALE_LOCK_MINUTES))) {
+            submit(jobId);
+        }
+    }
+
+    void run(UUID jobId) {
+        QuestionImportJob job = importService.claimJob(jobId, workerId, LocalDateTime.now().minusMinutes(STALE_LOCK_MINUTES));
+        if (job == null) return;
+
+        Path file = importService.resolveFile(job);
+        Locale locale = Locale.forLanguageTag(job.getLocale() != null ? job.getLocale() : "en");
+        try {
+            if (job.getTotalRows() == null) {
+                importService.recordTotalRows(jobId, QuestionSheetReader.countRows(file));
+            }
+            if (job.getLastCommittedRow() > 0) {
+                log.info("Resuming question import {} after row {}", jobId, job.getLastCommittedRow() + 1);
+            }
+
+            ChunkBuffer buffer = new ChunkBuffer(jobId, locale);
+            int resumeAfter = job.getLastCommittedRow();
+            QuestionSheetReader.read(file, (rowIndex, cells) -> {
+                if (rowIndex == 0 || rowIndex <= resumeAfter) return;
+                buffer.add(rowIndex, cells);
+            });
+            buffer.flush();
+
+            importService.completeJob(jobId);
+            importService.deleteQuietly(file);
+
+        } catch (Exception e) {
+            log.error("Question import failed: id={}", jobId, e);
+            String message = e instanceof BusinessException be && be.getMessageKey() != null
+                    ? messageService.get(be.getMessageKey(), locale, be.getMessageArgs())
+                    : messageService.get("question.import.read.failed", locale, e.getMessage());
+            importService.failJob(jobId, message);
+            importService.deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Rows of the chunk being read: parsed and validated as they arrive, saved together.
+     */
+    private final class ChunkBuffer {
+
+        private final UUID jobId;
+        private final Locale locale;
+        private final List<QuestionImportService.ImportRow> rows = new ArrayList<>(CHUNK_SIZE);
+        private final List<ImportResult.ImportError> errors = new ArrayList<>();
+        private int lastRowIndex;
+
+        ChunkBuffer(UUID jobId, Locale locale) {
+            this.jobId = jobId;
+            this.locale = locale;
+        }
+
+        void add(int rowIndex, String[] cells) {
+            try {
+                rows.add(importService.parseRow(cells, rowIndex));
+            } catch (BusinessException e) {
+                errors.add(ImportResult.ImportError.builder()
+                        .row(rowIndex + 1)
+                        .message(e.getMessageKey() != null
+                                ? messageService.get(e.getMessageKey(), locale, e.getMessageArgs())
+                                : e.getMessage())
+                        .build());
+            }
+            lastRowIndex = rowIndex;
+            if (rows.size() + errors.size() >= CHUNK_SIZE) flush();
+        }
+
+        void flush() {
+            if (rows.isEmpty() && errors.isEmpty()) return;
+            importService.commitChunk(jobId, List.copyOf(rows), List.copyOf(errors), lastRowIndex);
+            rows.clear();
+            errors.clear();
+        }
+    }
+}
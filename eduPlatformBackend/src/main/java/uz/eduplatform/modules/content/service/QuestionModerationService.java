@@ -33,6 +33,7 @@ public class QuestionModerationService {
     private final QuestionService questionService;
     private final AuditService auditService;
     private final MessageService messageService;
+    private final QuestionCandidateIndex candidateIndex;
 
     @Transactional(readOnly = true)
     public PagedResponse<QuestionDto> getPendingQuestions(Pageable pageable, AcceptLanguage language) {
@@ -63,6 +64,7 @@ public class QuestionModerationService {
         question.setPublishedAt(LocalDateTime.now());
 
         question = questionRepository.save(question);
+        candidateIndex.evict(question);
 
         auditService.log(moderatorId, "MODERATOR", "QUESTION_APPROVED", "CONTENT",
                 "Question", questionId);
@@ -90,6 +92,7 @@ public class QuestionModerationService {
         question.setModeratedAt(LocalDateTime.now());
 
         question = questionRepository.save(question);
+        candidateIndex.evict(question);
 
         auditService.log(moderatorId, "MODERATOR", "QUESTION_REJECTED", "CONTENT",
                 "Question", questionId);
@@ -122,6 +125,7 @@ public class QuestionModerationService {
         }
 
         questionRepository.saveAll(pendingQuestions);
+        candidateIndex.evictQuestions(pendingQuestions);
 
         return BulkModerationResponse.builder()
                 .totalRequested(questionIds.size())
@@ -161,6 +165,7 @@ public class QuestionModerationService {
         }
 
         questionRepository.saveAll(pendingQuestions);
+        candidateIndex.evictQuestions(pendingQuestions);
 
         return BulkModerationResponse.builder()
                 .totalRequested(questionIds.size())
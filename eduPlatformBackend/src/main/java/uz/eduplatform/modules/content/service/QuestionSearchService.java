@@ -2,6 +2,7 @@ package uz.eduplatform.modules.content.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,7 +25,9 @@ public class QuestionSearchService {
     @Transactional(readOnly = true)
     public PagedResponse<QuestionDto> search(UUID userId, String query, Pageable pageable, AcceptLanguage language) {
         String localeKey = language.toLocaleKey();
-        Page<Question> page = questionRepository.searchByUser(userId, query.trim(), pageable);
+        // Search results come ranked by the query itself
+        Pageable nativePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Question> page = questionRepository.searchByUser(userId, query.trim(), nativePageable);
 
         List<QuestionDto> dtos = page.getContent().stream()
                 .map(q -> questionService.mapToDto(q, localeKey))
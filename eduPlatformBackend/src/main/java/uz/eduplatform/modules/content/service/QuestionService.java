@@ -11,12 +11,17 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.audit.AuditService;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
 import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.core.common.utils.PageCursor;
 import uz.eduplatform.core.i18n.AcceptLanguage;
 import uz.eduplatform.core.i18n.TranslatedField;
+import uz.eduplatform.modules.analytics.service.ItemAnalysisService;
+import uz.eduplatform.modules.assessment.service.AttemptQuestionCache;
+import uz.eduplatform.modules.assessment.service.GradingPlanCache;
 import uz.eduplatform.modules.auth.domain.User;
 import uz.eduplatform.modules.auth.repository.UserRepository;
 import uz.eduplatform.modules.content.domain.*;
@@ -43,6 +48,12 @@ public class QuestionService {
     private final AuditService auditService;
     private final MessageService messageService;
     private final ObjectMapper objectMapper;
+    private final QuestionCandidateIndex candidateIndex;
+    private final AttemptQuestionCache attemptQuestionCache;
+    private final GradingPlanCache gradingPlanCache;
+    private final ItemAnalysisService itemAnalysisService;
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
 
     private static final Set<String> PROOF_REQUIRED_SUBJECTS = Set.of(
             "matematika", "fizika", "kimyo", "informatika"
@@ -54,10 +65,8 @@ public class QuestionService {
         Page<Question> page;
 
         if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
-            // Native query requires actual DB column names for sorting
-            Pageable nativePageable = PageRequest.of(
-                    pageable.getPageNumber(), pageable.getPageSize(),
-                    Sort.by(Sort.Direction.DESC, "created_at"));
+            // Search results come ranked by the query itself
+            Pageable nativePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
             page = questionRepository.searchByUser(userId, filter.getSearch().trim(), nativePageable);
         } else {
             page = questionRepository.findAll(
@@ -73,6 +82,26 @@ public class QuestionService {
                 page.getTotalElements(), page.getTotalPages());
     }
 
+    /**
+     * Cursor mode of {@link #getQuestions} for large banks: newest first, same filters, no text
+     * search (search results are ranked, not ordered by creation).
+     */
+    @Transactional(readOnly = true)
+    public CursorResponse<QuestionDto> scrollQuestions(UUID userId, QuestionFilterRequest filter, String cursor,
+                                                       int size, boolean includeTotal, AcceptLanguage language) {
+        String localeKey = language.toLocaleKey();
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.pageSize(size);
+
+        Specification<Question> spec = buildFilterSpec(userId, filter);
+        List<Question> rows = questionRepository.findBy(spec.and(createdBefore(after)),
+                q -> q.sortBy(KEYSET_SORT).limit(pageSize + 1).all());
+        Long total = includeTotal ? questionRepository.count(spec) : null;
+
+        return CursorResponse.of(rows, pageSize, q -> new PageCursor(q.getCreatedAt(), q.getId()),
+                page -> page.stream().map(q -> mapToDto(q, localeKey)).toList(), total);
+    }
+
     @Transactional(readOnly = true)
     public PagedResponse<QuestionDto> getQuestionsByTopic(UUID topicId, UUID userId, Pageable pageable, AcceptLanguage language) {
         String localeKey = language.toLocaleKey();
@@ -165,6 +194,7 @@ public class QuestionService {
                 .build();
 
         question = questionRepository.save(question);
+        candidateIndex.evict(question);
 
         // Update topic question count
         updateTopicQuestionCount(topic.getId());
@@ -279,6 +309,10 @@ public class QuestionService {
         }
 
         question = questionRepository.save(question);
+        candidateIndex.evict(question);
+        attemptQuestionCache.evictQuestion(question.getId());
+        gradingPlanCache.evict(question.getId());
+        itemAnalysisService.resetQuestion(question);
 
         auditService.log(userId, null, "QUESTION_UPDATED", "CONTENT",
                 "Question", questionId);
@@ -302,6 +336,7 @@ public class QuestionService {
         UUID topicId = question.getTopic().getId();
         question.setDeletedAt(LocalDateTime.now());
         questionRepository.save(question);
+        candidateIndex.evictTopic(topicId);
 
         // Update topic question count
         updateTopicQuestionCount(topicId);
@@ -332,6 +367,7 @@ public class QuestionService {
 
         question.setStatus(QuestionStatus.PENDING);
         question = questionRepository.save(question);
+        candidateIndex.evict(question);
 
         auditService.log(userId, null, "QUESTION_SUBMITTED", "CONTENT",
                 "Question", questionId);
@@ -404,6 +440,10 @@ public class QuestionService {
         question.setStatus(QuestionStatus.DRAFT);
 
         question = questionRepository.save(question);
+        candidateIndex.evict(question);
+        attemptQuestionCache.evictQuestion(question.getId());
+        gradingPlanCache.evict(question.getId());
+        itemAnalysisService.resetQuestion(question);
 
         auditService.log(userId, null, "QUESTION_ROLLBACK", "CONTENT",
                 "Question", questionId);
@@ -547,6 +587,15 @@ public class QuestionService {
         };
     }
 
+    // Criteria has no row-value comparison; the redundant upper bound gives the planner an index range
+    private static Specification<Question> createdBefore(PageCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                cb.or(cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                        cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()),
+                                cb.lessThan(root.get("id"), cursor.id()))));
+    }
+
     public QuestionDto mapToDto(Question q, String localeKey) {
         return QuestionDto.builder()
                 .id(q.getId())
@@ -577,6 +626,8 @@ public class QuestionService {
                 .timesUsed(q.getTimesUsed())
                 .correctRate(q.getCorrectRate())
                 .avgTimeSeconds(q.getAvgTimeSeconds())
+                .discrimination(q.getDiscrimination())
+                .responseCount(q.getResponseCount())
                 .version(q.getVersion())
                 .createdAt(q.getCreatedAt())
                 .updatedAt(q.getUpdatedAt())
@@ -0,0 +1,133 @@
+package uz.eduplatform.modules.content.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Reads the first sheet of an import workbook row by row, as formatted cell text. XLSX files are
+ * parsed with the SAX event model, so memory stays flat however many rows the sheet has; legacy
+ * XLS files (at most 65,536 rows) fall back to the in-memory model.
+ */
+final class QuestionSheetReader {
+
+    static final int COLUMNS = 10;
+
+    @FunctionalInterface
+    interface RowHandler {
+        /**
+         * @param rowIndex zero-based sheet row index; 0 is the header
+         * @param cells    {@link #COLUMNS} values, {@code null} for empty cells
+         */
+        void row(int rowIndex, String[] cells);
+    }
+
+    private QuestionSheetReader() {
+    }
+
+    static void read(Path file, RowHandler handler) throws IOException {
+        FileMagic magic;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            magic = FileMagic.valueOf(in);
+        }
+        if (magic == FileMagic.OOXML) {
+            readXlsx(file, handler);
+        } else {
+            readWorkbook(file, handler);
+        }
+    }
+
+    /**
+     * Data rows in the sheet (rows after the header).
+     */
+    static int countRows(Path file) throws IOException {
+        int[] count = {0};
+        read(file, (rowIndex, cells) -> {
+            if (rowIndex > 0) count[0]++;
+        });
+        return count[0];
+    }
+
+    private static void readXlsx(Path file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) return;
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, new RowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static void readWorkbook(Path file, RowHandler handler) throws IOException {
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                String[] cells = new String[COLUMNS];
+                for (Cell cell : row) {
+                    if (cell.getColumnIndex() < COLUMNS && cell.getCellType() != CellType.BLANK) {
+                        cells[cell.getColumnIndex()] = formatter.formatCellValue(cell);
+                    }
+                }
+                handler.row(row.getRowNum(), cells);
+            }
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private String[] cells;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new String[COLUMNS];
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (column < COLUMNS && formattedValue != null && !formattedValue.isEmpty()) {
+                cells[column] = formattedValue;
+            }
+        }
+    }
+}
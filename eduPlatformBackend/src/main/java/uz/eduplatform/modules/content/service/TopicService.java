@@ -37,12 +37,24 @@ public class TopicService {
                 .orElseThrow(() -> new ResourceNotFoundException("Subject", "id", subjectId));
 
         String localeKey = language.toLocaleKey();
-        List<Topic> rootTopics = gradeLevel != null
-                ? topicRepository.findBySubjectIdAndGradeLevelAndUserIdAndParentIsNullOrderBySortOrderAsc(subjectId, gradeLevel, userId)
-                : topicRepository.findBySubjectIdAndUserIdAndParentIsNullOrderBySortOrderAsc(subjectId, userId);
-        return rootTopics.stream()
-                .map(t -> buildTreeDto(t, localeKey))
-                .toList();
+        List<Topic> topics = topicRepository.findTreeBySubjectIdAndUserId(subjectId, userId, gradeLevel);
+
+        // Rows come parents first, siblings in sort order, so each node's parent is already placed
+        Map<UUID, TopicTreeDto> nodes = new HashMap<>();
+        List<TopicTreeDto> roots = new ArrayList<>();
+        for (Topic topic : topics) {
+            TopicTreeDto dto = buildTreeDto(topic, localeKey);
+            nodes.put(topic.getId(), dto);
+            if (dto.getParentId() == null) {
+                roots.add(dto);
+            } else {
+                TopicTreeDto parent = nodes.get(dto.getParentId());
+                if (parent != null) {
+                    parent.getChildren().add(dto);
+                }
+            }
+        }
+        return roots;
     }
 
     @Transactional
@@ -205,7 +217,7 @@ public class TopicService {
         }
 
         // Check for questions in this topic and its children
-        int totalQuestions = countQuestionsRecursive(topic);
+        long totalQuestions = topicRepository.sumQuestionCountInSubtree(topic.getPath());
         if (totalQuestions > 0) {
             throw new BusinessException(messageService.get("topic.has.questions", language.toLocale()));
         }
@@ -222,19 +234,21 @@ public class TopicService {
 
     @Transactional
     public void reorderTopics(UUID userId, ReorderTopicsRequest request) {
-        for (ReorderTopicsRequest.TopicOrderItem item : request.getItems()) {
-            Topic topic = topicRepository.findById(item.getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Topic", "id", item.getId()));
+        List<ReorderTopicsRequest.TopicOrderItem> items = request.getItems();
 
-            // Verify ownership via topic's user
-            if (!topic.getUser().getId().equals(userId)) {
+        // Verify ownership of every topic before touching any of them
+        Set<UUID> owned = new HashSet<>(topicRepository.findIdsByIdInAndUserId(
+                items.stream().map(ReorderTopicsRequest.TopicOrderItem::getId).toList(), userId));
+        for (ReorderTopicsRequest.TopicOrderItem item : items) {
+            if (!owned.contains(item.getId())) {
                 throw new ResourceNotFoundException("Topic", "id", item.getId());
             }
-
-            topic.setSortOrder(item.getSortOrder());
-            topicRepository.save(topic);
         }
 
+        topicRepository.updateSortOrders(
+                arrayLiteral(items.stream().map(ReorderTopicsRequest.TopicOrderItem::getId).toList()),
+                arrayLiteral(items.stream().map(ReorderTopicsRequest.TopicOrderItem::getSortOrder).toList()));
+
         auditService.log(userId, null, "TOPICS_REORDERED", "CONTENT");
     }
 
@@ -251,40 +265,42 @@ public class TopicService {
         UUID oldSubjectId = topic.getSubject().getId();
 
         // If moving to different subject
+        Subject newSubject = topic.getSubject();
         if (request.getNewSubjectId() != null && !request.getNewSubjectId().equals(oldSubjectId)) {
-            Subject newSubject = subjectRepository.findById(request.getNewSubjectId())
+            newSubject = subjectRepository.findById(request.getNewSubjectId())
                     .orElseThrow(() -> new ResourceNotFoundException("Target subject", "id", request.getNewSubjectId()));
-            topic.setSubject(newSubject);
         }
 
         // If changing parent
+        Topic newParent = null;
+        int newLevel = 1;
         if (request.getNewParentId() != null) {
-            Topic newParent = topicRepository.findById(request.getNewParentId())
+            newParent = topicRepository.findById(request.getNewParentId())
                     .orElseThrow(() -> new ResourceNotFoundException("New parent topic", "id", request.getNewParentId()));
 
             // Prevent circular reference
-            if (isDescendant(topic, newParent)) {
+            if (isInSubtree(newParent, topic)) {
                 throw new BusinessException(messageService.get("topic.circular.reference", language.toLocale()));
             }
 
-            int newLevel = newParent.getLevel() + 1;
-            int depthBelow = getMaxDepthBelow(topic);
+            newLevel = newParent.getLevel() + 1;
+            int depthBelow = topicRepository.findMaxLevelInSubtree(topic.getPath()) - topic.getLevel() + 1;
 
             if (newLevel + depthBelow - 1 > Topic.MAX_DEPTH) {
                 throw new BusinessException(messageService.get("topic.max.depth", language.toLocale()));
             }
-
-            topic.setParent(newParent);
-            updateLevelsRecursive(topic, newLevel);
-        } else {
-            // Moving to root
-            topic.setParent(null);
-            updateLevelsRecursive(topic, 1);
         }
 
-        // Rebuild path
-        rebuildPathRecursive(topic);
+        // Rewrite paths, levels and subject of the whole subtree at once
+        String newPath = newParent != null
+                ? newParent.getPath() + "." + topic.getId()
+                : topic.getId().toString();
+        topicRepository.moveSubtree(topic.getPath(), newPath, newLevel - topic.getLevel(), newSubject.getId());
 
+        topic.setSubject(newSubject);
+        topic.setParent(newParent);
+        topic.setLevel(newLevel);
+        topic.setPath(newPath);
         topic = topicRepository.save(topic);
 
         // Update counters for affected subjects
@@ -299,67 +315,19 @@ public class TopicService {
         return mapToDto(topic, language.toLocaleKey());
     }
 
-    private boolean isDescendant(Topic ancestor, Topic potentialDescendant) {
-        if (potentialDescendant.getId().equals(ancestor.getId())) {
-            return true;
-        }
-        Topic current = potentialDescendant.getParent();
-        while (current != null) {
-            if (current.getId().equals(ancestor.getId())) {
-                return true;
-            }
-            current = current.getParent();
-        }
-        return false;
+    private boolean isInSubtree(Topic candidate, Topic root) {
+        return candidate.getPath().equals(root.getPath())
+                || candidate.getPath().startsWith(root.getPath() + ".");
     }
 
-    private int getMaxDepthBelow(Topic topic) {
-        if (topic.getChildren() == null || topic.getChildren().isEmpty()) {
-            return 1;
-        }
-        int max = 0;
-        for (Topic child : topic.getChildren()) {
-            max = Math.max(max, getMaxDepthBelow(child));
-        }
-        return max + 1;
-    }
-
-    private void updateLevelsRecursive(Topic topic, int newLevel) {
-        topic.setLevel(newLevel);
-        topicRepository.save(topic);
-        if (topic.getChildren() != null) {
-            for (Topic child : topic.getChildren()) {
-                updateLevelsRecursive(child, newLevel + 1);
-            }
-        }
-    }
-
-    private void rebuildPathRecursive(Topic topic) {
-        String path = topic.getParent() != null
-                ? topic.getParent().getPath() + "." + topic.getId()
-                : topic.getId().toString();
-        topic.setPath(path);
-        topicRepository.save(topic);
-
-        if (topic.getChildren() != null) {
-            for (Topic child : topic.getChildren()) {
-                rebuildPathRecursive(child);
-            }
-        }
-    }
-
-    private int countQuestionsRecursive(Topic topic) {
-        int count = topic.getQuestionCount() != null ? topic.getQuestionCount() : 0;
-        if (topic.getChildren() != null) {
-            for (Topic child : topic.getChildren()) {
-                count += countQuestionsRecursive(child);
-            }
-        }
-        return count;
+    private static String arrayLiteral(List<?> values) {
+        StringJoiner literal = new StringJoiner(",", "{", "}");
+        values.forEach(value -> literal.add(String.valueOf(value)));
+        return literal.toString();
     }
 
     private TopicTreeDto buildTreeDto(Topic topic, String localeKey) {
-        TopicTreeDto dto = TopicTreeDto.builder()
+        return TopicTreeDto.builder()
                 .id(topic.getId())
                 .subjectId(topic.getSubject().getId())
                 .parentId(topic.getParent() != null ? topic.getParent().getId() : null)
@@ -375,15 +343,6 @@ public class TopicService {
                 .isActive(topic.getIsActive())
                 .children(new ArrayList<>())
                 .build();
-
-        if (topic.getChildren() != null && !topic.getChildren().isEmpty()) {
-            List<TopicTreeDto> children = topic.getChildren().stream()
-                    .map(t -> buildTreeDto(t, localeKey))
-                    .toList();
-            dto.setChildren(new ArrayList<>(children));
-        }
-
-        return dto;
     }
 
     public TopicDto mapToDto(Topic topic, String localeKey) {
@@ -2,18 +2,19 @@ package uz.eduplatform.modules.parent.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
-import uz.eduplatform.core.i18n.TranslatedField;
-import uz.eduplatform.modules.assessment.domain.TestAssignment;
-import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.core.common.utils.LookupContext;
+import uz.eduplatform.core.common.utils.LookupResolver;
+import uz.eduplatform.modules.analytics.domain.StudentAnalyticsRollup;
+import uz.eduplatform.modules.analytics.service.StudentAnalyticsRollupService;
+import uz.eduplatform.modules.analytics.service.StudentRollupSnapshot;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
-import uz.eduplatform.modules.content.repository.SubjectRepository;
-import uz.eduplatform.modules.test.repository.TestHistoryRepository;
 import uz.eduplatform.modules.auth.domain.Role;
 import uz.eduplatform.modules.auth.domain.User;
 import uz.eduplatform.modules.auth.repository.UserRepository;
@@ -25,11 +26,10 @@ import uz.eduplatform.modules.parent.repository.ParentChildRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.security.SecureRandom;
-import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoField;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -40,8 +40,8 @@ public class ParentService {
     private final UserRepository userRepository;
     private final TestAttemptRepository attemptRepository;
     private final TestAssignmentRepository assignmentRepository;
-    private final SubjectRepository subjectRepository;
-    private final TestHistoryRepository testHistoryRepository;
+    private final LookupResolver lookupResolver;
+    private final StudentAnalyticsRollupService rollupService;
     private final QRCodeService qrCodeService;
 
     private static final SecureRandom RANDOM = new SecureRandom();
@@ -174,10 +174,7 @@ public class ParentService {
      */
     @Transactional(readOnly = true)
     public List<ParentChildDto> getMyChildren(UUID parentId) {
-        return parentChildRepository.findByParentIdAndStatus(parentId, PairingStatus.ACTIVE)
-                .stream()
-                .map(this::mapToDto)
-                .toList();
+        return mapToDtos(parentChildRepository.findByParentIdAndStatus(parentId, PairingStatus.ACTIVE));
     }
 
     /**
@@ -185,10 +182,7 @@ public class ParentService {
      */
     @Transactional(readOnly = true)
     public List<ParentChildDto> getMyParents(UUID studentId) {
-        return parentChildRepository.findByChildIdAndStatus(studentId, PairingStatus.ACTIVE)
-                .stream()
-                .map(this::mapToDto)
-                .toList();
+        return mapToDtos(parentChildRepository.findByChildIdAndStatus(studentId, PairingStatus.ACTIVE));
     }
 
     /**
@@ -204,28 +198,16 @@ public class ParentService {
         User child = userRepository.findById(childId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", childId));
 
-        // Get attempt stats
-        List<TestAttempt> attempts = attemptRepository.findByStudentIdOrderByCreatedAtDesc(childId);
-
-        long completedCount = attempts.stream()
-                .filter(a -> "SUBMITTED".equals(a.getStatus().name()) || "GRADED".equals(a.getStatus().name()))
-                .count();
-
-        BigDecimal averageScore = BigDecimal.ZERO;
-        if (!attempts.isEmpty()) {
-            BigDecimal totalPercentage = attempts.stream()
-                    .filter(a -> a.getPercentage() != null)
-                    .map(TestAttempt::getPercentage)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            long scoredCount = attempts.stream().filter(a -> a.getPercentage() != null).count();
-            if (scoredCount > 0) {
-                averageScore = totalPercentage.divide(BigDecimal.valueOf(scoredCount), 2, RoundingMode.HALF_UP);
-            }
-        }
+        // Aggregates come from the incrementally maintained rollup, not from attempt history
+        StudentRollupSnapshot rollup = rollupService.getSnapshot(childId);
+
+        long completedCount = rollup.getGradedCount();
+        BigDecimal averageScore = rollup.getAverageScore();
 
         // Recent attempts (last 10)
-        List<ChildDashboardDto.RecentAttemptDto> recentAttempts = attempts.stream()
-                .limit(10)
+        List<ChildDashboardDto.RecentAttemptDto> recentAttempts = attemptRepository
+                .findByStudentIdOrderByCreatedAtDesc(childId, PageRequest.of(0, 10))
+                .getContent().stream()
                 .map(attempt -> {
                     String assignmentTitle = attempt.getAssignment() != null
                             ? attempt.getAssignment().getTitle()
@@ -242,18 +224,16 @@ public class ParentService {
                 .toList();
 
         // Count total assignments (how many the student has been assigned to)
-        String studentIdJson = "[\"" + childId + "\"]";
-        long totalAssignments = assignmentRepository.findAssignmentsForStudent(
-                studentIdJson, org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
+        long totalAssignments = assignmentRepository.countAssignmentsForStudent(childId);
 
         // Subject breakdown
-        List<ChildDashboardDto.SubjectScoreDto> subjectBreakdown = buildSubjectBreakdown(attempts);
+        List<ChildDashboardDto.SubjectScoreDto> subjectBreakdown = buildSubjectBreakdown(rollup);
 
         // Score trend
-        String scoreTrend = calculateScoreTrend(attempts);
+        String scoreTrend = calculateScoreTrend(rollup.getRecentPoints());
 
         // Weekly activity
-        ChildDashboardDto.WeeklyActivityDto weeklyActivity = buildWeeklyActivity(attempts);
+        ChildDashboardDto.WeeklyActivityDto weeklyActivity = buildWeeklyActivity(rollup);
 
         return ChildDashboardDto.builder()
                 .childId(childId)
@@ -271,36 +251,20 @@ public class ParentService {
 
     // ── Dashboard Helpers ──
 
-    private List<ChildDashboardDto.SubjectScoreDto> buildSubjectBreakdown(List<TestAttempt> attempts) {
-        Map<UUID, List<TestAttempt>> bySubject = new HashMap<>();
-
-        for (TestAttempt attempt : attempts) {
-            if (attempt.getAssignment() == null) continue;
-            UUID testHistoryId = attempt.getAssignment().getTestHistoryId();
-            if (testHistoryId == null) continue;
-
-            testHistoryRepository.findById(testHistoryId).ifPresent(th -> {
-                UUID subjectId = th.getSubjectId();
-                if (subjectId != null) {
-                    bySubject.computeIfAbsent(subjectId, k -> new ArrayList<>()).add(attempt);
-                }
-            });
-        }
-
-        return bySubject.entrySet().stream()
-                .map(entry -> {
-                    String subjectName = subjectRepository.findById(entry.getKey())
-                            .map(s -> TranslatedField.resolve(s.getName()))
-                            .orElse("Unknown");
+    private List<ChildDashboardDto.SubjectScoreDto> buildSubjectBreakdown(StudentRollupSnapshot rollup) {
+        if (rollup.getSubjects().isEmpty()) return List.of();
 
-                    BigDecimal avg = calculateAvg(entry.getValue());
-                    String level = getPerformanceLevel(avg);
+        LookupContext lookup = lookupResolver.context().preloadSubjects(rollup.getSubjects().stream()
+                .map(StudentAnalyticsRollup::getScopeId).toList());
 
+        return rollup.getSubjects().stream()
+                .map(r -> {
+                    BigDecimal avg = StudentRollupSnapshot.average(r);
                     return ChildDashboardDto.SubjectScoreDto.builder()
-                            .subjectName(subjectName)
+                            .subjectName(Objects.requireNonNullElse(lookup.subjectName(r.getScopeId()), "Unknown"))
                             .averageScore(avg)
-                            .attemptCount(entry.getValue().size())
-                            .level(level)
+                            .attemptCount(r.getAttemptCount())
+                            .level(getPerformanceLevel(avg))
                             .build();
                 })
                 .sorted(Comparator.comparing(ChildDashboardDto.SubjectScoreDto::getSubjectName))
@@ -314,10 +278,10 @@ public class ParentService {
         return "CRITICAL";
     }
 
-    private String calculateScoreTrend(List<TestAttempt> attempts) {
-        List<TestAttempt> scored = attempts.stream()
-                .filter(a -> a.getPercentage() != null && a.getSubmittedAt() != null)
-                .sorted(Comparator.comparing(TestAttempt::getSubmittedAt).reversed())
+    private String calculateScoreTrend(List<StudentRollupSnapshot.TrendPoint> recentPoints) {
+        List<StudentRollupSnapshot.TrendPoint> scored = recentPoints.stream()
+                .filter(p -> p.percentage() != null && p.submittedAt() != null)
+                .sorted(Comparator.comparing(StudentRollupSnapshot.TrendPoint::submittedAt).reversed())
                 .toList();
         if (scored.size() < 2) return "STABLE";
 
@@ -331,45 +295,31 @@ public class ParentService {
         return "STABLE";
     }
 
-    private ChildDashboardDto.WeeklyActivityDto buildWeeklyActivity(List<TestAttempt> attempts) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfToday = now.toLocalDate().atStartOfDay();
-        LocalDateTime startOfThisWeek = now.with(ChronoField.DAY_OF_WEEK, 1).toLocalDate().atStartOfDay();
-        LocalDateTime startOfThisMonth = now.withDayOfMonth(1).toLocalDate().atStartOfDay();
+    private ChildDashboardDto.WeeklyActivityDto buildWeeklyActivity(StudentRollupSnapshot rollup) {
+        LocalDate today = LocalDate.now();
+        LocalDate tomorrow = today.plusDays(1);
+        LocalDate startOfThisWeek = today.with(ChronoField.DAY_OF_WEEK, 1);
+        LocalDate startOfThisMonth = today.withDayOfMonth(1);
 
-        List<TestAttempt> today = attempts.stream()
-                .filter(a -> a.getSubmittedAt() != null && a.getSubmittedAt().isAfter(startOfToday))
-                .toList();
-        List<TestAttempt> thisWeek = attempts.stream()
-                .filter(a -> a.getSubmittedAt() != null && a.getSubmittedAt().isAfter(startOfThisWeek))
-                .toList();
-        List<TestAttempt> thisMonth = attempts.stream()
-                .filter(a -> a.getSubmittedAt() != null && a.getSubmittedAt().isAfter(startOfThisMonth))
-                .toList();
-
-        BigDecimal avgThisWeek = calculateAvg(thisWeek);
-        long timeToday = today.stream()
-                .filter(a -> a.getStartedAt() != null && a.getSubmittedAt() != null)
-                .mapToLong(a -> Duration.between(a.getStartedAt(), a.getSubmittedAt()).toMinutes())
-                .sum();
+        StudentRollupSnapshot.DayTotals todayTotals = rollup.activityBetween(today, tomorrow);
+        StudentRollupSnapshot.DayTotals thisWeek = rollup.activityBetween(startOfThisWeek, tomorrow);
+        StudentRollupSnapshot.DayTotals thisMonth = rollup.activityBetween(startOfThisMonth, tomorrow);
 
         return ChildDashboardDto.WeeklyActivityDto.builder()
-                .testsCompletedToday(today.size())
-                .testsCompletedThisWeek(thisWeek.size())
-                .testsCompletedThisMonth(thisMonth.size())
-                .averageScoreThisWeek(avgThisWeek)
-                .totalTimeSpentMinutesToday(timeToday)
+                .testsCompletedToday((int) todayTotals.count())
+                .testsCompletedThisWeek((int) thisWeek.count())
+                .testsCompletedThisMonth((int) thisMonth.count())
+                .averageScoreThisWeek(thisWeek.averageScore())
+                .totalTimeSpentMinutesToday(todayTotals.seconds() / 60)
                 .build();
     }
 
-    private BigDecimal calculateAvg(List<TestAttempt> attempts) {
-        List<BigDecimal> scores = attempts.stream()
-                .filter(a -> a.getPercentage() != null)
-                .map(TestAttempt::getPercentage)
-                .toList();
-        if (scores.isEmpty()) return BigDecimal.ZERO;
-        BigDecimal total = scores.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-        return total.divide(BigDecimal.valueOf(scores.size()), 2, RoundingMode.HALF_UP);
+    private BigDecimal calculateAvg(List<StudentRollupSnapshot.TrendPoint> points) {
+        if (points.isEmpty()) return BigDecimal.ZERO;
+        BigDecimal total = points.stream()
+                .map(StudentRollupSnapshot.TrendPoint::percentage)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return total.divide(BigDecimal.valueOf(points.size()), 2, RoundingMode.HALF_UP);
     }
 
     // ── Code Helpers ──
@@ -388,20 +338,34 @@ public class ParentService {
         throw BusinessException.ofKey("parent.code.generation.failed");
     }
 
+    private List<ParentChildDto> mapToDtos(List<ParentChild> pairings) {
+        Set<UUID> userIds = new HashSet<>();
+        pairings.forEach(pc -> {
+            userIds.add(pc.getParentId());
+            userIds.add(pc.getChildId());
+        });
+        LookupContext lookup = lookupResolver.context().preloadUsers(userIds);
+        return pairings.stream().map(pc -> mapToDto(pc, lookup)).toList();
+    }
+
     private ParentChildDto mapToDto(ParentChild pc) {
-        String parentName = userRepository.findById(pc.getParentId())
-                .map(u -> u.getFirstName() + " " + u.getLastName())
+        return mapToDto(pc, lookupResolver.context());
+    }
+
+    private ParentChildDto mapToDto(ParentChild pc, LookupContext lookup) {
+        String parentName = lookup.user(pc.getParentId())
+                .map(u -> u.firstName() + " " + u.lastName())
                 .orElse(null);
 
-        User child = userRepository.findById(pc.getChildId()).orElse(null);
+        LookupContext.UserRef child = lookup.user(pc.getChildId()).orElse(null);
 
         return ParentChildDto.builder()
                 .id(pc.getId())
                 .parentId(pc.getParentId())
                 .parentName(parentName)
                 .childId(pc.getChildId())
-                .childName(child != null ? child.getFirstName() + " " + child.getLastName() : null)
-                .childEmail(child != null ? child.getEmail() : null)
+                .childName(child != null ? child.firstName() + " " + child.lastName() : null)
+                .childEmail(child != null ? child.email() : null)
                 .status(pc.getStatus())
                 .pairedAt(pc.getPairedAt())
                 .revokedAt(pc.getRevokedAt())
@@ -20,6 +20,7 @@ import uz.eduplatform.modules.assessment.domain.AssignmentStatus;
 import uz.eduplatform.modules.assessment.domain.TestAssignment;
 import uz.eduplatform.modules.assessment.dto.AttemptDto;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+import uz.eduplatform.modules.assessment.service.AssignmentStudentService;
 import uz.eduplatform.modules.assessment.service.TestTakingService;
 import uz.eduplatform.modules.test.domain.GlobalStatus;
 import uz.eduplatform.modules.test.domain.TestCategory;
@@ -43,6 +44,7 @@ public class GlobalTestController {
     private final TestHistoryRepository testHistoryRepository;
     private final TestAssignmentRepository assignmentRepository;
     private final TestTakingService testTakingService;
+    private final AssignmentStudentService assignmentStudentService;
     private final MessageService messageService;
 
     @GetMapping
@@ -77,7 +79,6 @@ public class GlobalTestController {
             @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language) {
 
         UUID studentId = principal.getId();
-        String studentIdJson = "[\"" + studentId + "\"]";
 
         // Validate: test must be approved global
         TestHistory test = testHistoryRepository.findByIdAndDeletedAtIsNull(id)
@@ -86,23 +87,8 @@ public class GlobalTestController {
 
         // Find or create assignment for this student + global test
         TestAssignment assignment = assignmentRepository
-                .findGlobalAssignmentForStudent(id, studentIdJson)
-                .orElseGet(() -> assignmentRepository.save(TestAssignment.builder()
-                        .testHistoryId(id)
-                        .teacherId(test.getUserId())
-                        .title(test.getTitle())
-                        .description("Global test")
-                        .durationMinutes(test.getPublicDurationMinutes() != null ? test.getPublicDurationMinutes() : 60)
-                        .maxAttempts(Integer.MAX_VALUE)
-                        .showResults(true)
-                        .showCorrectAnswers(true)
-                        .showProofs(true)
-                        .shufflePerStudent(true)
-                        .preventCopyPaste(false)
-                        .preventTabSwitch(false)
-                        .assignedStudentIds(new ArrayList<>(List.of(studentId)))
-                        .status(AssignmentStatus.ACTIVE)
-                        .build()));
+                .findGlobalAssignmentForStudent(id, studentId)
+                .orElseGet(() -> createGlobalAssignment(test, studentId));
 
         // Ensure student is in assignedStudentIds
         if (assignment.getAssignedStudentIds() == null ||
@@ -113,6 +99,7 @@ public class GlobalTestController {
             updated.add(studentId);
             assignment.setAssignedStudentIds(updated);
             assignmentRepository.save(assignment);
+            assignmentStudentService.sync(assignment);
         }
 
         // Extract IP address from HTTP request
@@ -132,6 +119,27 @@ public class GlobalTestController {
         return ResponseEntity.ok(ApiResponse.success(response, messageService.get("test.started", language.toLocale())));
     }
 
+    private TestAssignment createGlobalAssignment(TestHistory test, UUID studentId) {
+        TestAssignment assignment = assignmentRepository.save(TestAssignment.builder()
+                .testHistoryId(test.getId())
+                .teacherId(test.getUserId())
+                .title(test.getTitle())
+                .description("Global test")
+                .durationMinutes(test.getPublicDurationMinutes() != null ? test.getPublicDurationMinutes() : 60)
+                .maxAttempts(Integer.MAX_VALUE)
+                .showResults(true)
+                .showCorrectAnswers(true)
+                .showProofs(true)
+                .shufflePerStudent(true)
+                .preventCopyPaste(false)
+                .preventTabSwitch(false)
+                .assignedStudentIds(new ArrayList<>(List.of(studentId)))
+                .status(AssignmentStatus.ACTIVE)
+                .build());
+        assignmentStudentService.sync(assignment);
+        return assignment;
+    }
+
     private String getClientIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
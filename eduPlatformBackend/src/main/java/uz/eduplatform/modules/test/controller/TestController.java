@@ -13,7 +13,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uz.eduplatform.core.common.dto.ApiResponse;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.utils.MessageService;
 import uz.eduplatform.core.i18n.AcceptLanguage;
@@ -127,6 +129,21 @@ public class TestController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/history/scroll")
+    @Operation(summary = "Test tarixini kursor bilan olish", description = "Test tarixini kursorli sahifalash — eng yangilari birinchi. Keyingi sahifa uchun nextCursor qiymatini cursor sifatida yuboring; includeTotal=true bo'lsa umumiy son ham hisoblanadi.")
+    public ResponseEntity<ApiResponse<CursorResponse<TestHistoryDto>>> scrollTestHistory(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        CursorResponse<TestHistoryDto> response = historyService.scrollTestHistory(
+                principal.getId(), cursor, size, includeTotal, language);
+
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/history/{id}")
     @Operation(summary = "Test tafsilotlarini olish", description = "Yaratilgan testning to'liq ma'lumotlarini olish — savollar, variantlar, javoblar kaliti.")
     public ResponseEntity<ApiResponse<TestHistoryDto>> getTestDetails(
@@ -226,53 +243,57 @@ public class TestController {
 
     @GetMapping("/history/{id}/export/test")
     @Operation(summary = "Testni eksport qilish", description = "Testni PDF yoki DOCX formatida yuklab olish. Faqat savollar va variantlar chiqariladi.")
-    public ResponseEntity<byte[]> exportTest(
+    public ResponseEntity<StreamingResponseBody> exportTest(
             @PathVariable UUID id,
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language,
             @RequestParam(defaultValue = "PDF") ExportFormat format) {
 
-        byte[] data = exportFacade.exportTest(id, principal.getId(), format, language.toLocale());
-        return buildExportResponse(data, "test_" + id, format);
+        StreamingResponseBody body = exportFacade.streamExportTest(id, principal.getId(), format, language.toLocale());
+        return buildExportResponse(body, "test_" + id, format);
     }
 
     @GetMapping("/history/{id}/export/answer-key")
     @Operation(summary = "Javoblar kalitini eksport qilish", description = "Test javoblari kalitini PDF yoki DOCX formatida yuklab olish.")
-    public ResponseEntity<byte[]> exportAnswerKey(
+    public ResponseEntity<StreamingResponseBody> exportAnswerKey(
             @PathVariable UUID id,
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language,
             @RequestParam(defaultValue = "PDF") ExportFormat format) {
 
-        byte[] data = exportFacade.exportAnswerKey(id, principal.getId(), format, language.toLocale());
-        return buildExportResponse(data, "answer_key_" + id, format);
+        StreamingResponseBody body = exportFacade.streamExportAnswerKey(id, principal.getId(), format, language.toLocale());
+        return buildExportResponse(body, "answer_key_" + id, format);
     }
 
     @GetMapping("/history/{id}/export/combined")
     @Operation(summary = "Test + javoblar kalitini birga eksport qilish", description = "Test va javoblar kalitini bitta faylda PDF yoki DOCX formatida yuklab olish.")
-    public ResponseEntity<byte[]> exportCombined(
+    public ResponseEntity<StreamingResponseBody> exportCombined(
             @PathVariable UUID id,
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language,
             @RequestParam(defaultValue = "PDF") ExportFormat format) {
 
-        byte[] data = exportFacade.exportCombined(id, principal.getId(), format, language.toLocale());
-        return buildExportResponse(data, "combined_" + id, format);
+        StreamingResponseBody body = exportFacade.streamExportCombined(id, principal.getId(), format, language.toLocale());
+        return buildExportResponse(body, "combined_" + id, format);
     }
 
     @GetMapping("/history/{id}/export/proofs")
     @Operation(summary = "Yechimlar (proof) ni eksport qilish", description = "Savollarning batafsil yechimlari va izohlarini PDF yoki DOCX formatida yuklab olish.")
-    public ResponseEntity<byte[]> exportProofs(
+    public ResponseEntity<StreamingResponseBody> exportProofs(
             @PathVariable UUID id,
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestHeader(value = "Accept-Language", defaultValue = "uzl") AcceptLanguage language,
             @RequestParam(defaultValue = "PDF") ExportFormat format) {
 
-        byte[] data = exportFacade.exportProofs(id, principal.getId(), format, language.toLocale());
-        return buildExportResponse(data, "proofs_" + id, format);
+        StreamingResponseBody body = exportFacade.streamExportProofs(id, principal.getId(), format, language.toLocale());
+        return buildExportResponse(body, "proofs_" + id, format);
     }
 
-    private ResponseEntity<byte[]> buildExportResponse(byte[] data, String filename, ExportFormat format) {
+    /**
+     * No Content-Length is set: the document is written as it is rendered and goes out chunked.
+     */
+    private ResponseEntity<StreamingResponseBody> buildExportResponse(StreamingResponseBody body, String filename,
+                                                                      ExportFormat format) {
         String extension = format == ExportFormat.PDF ? ".pdf" : ".docx";
         MediaType mediaType = format == ExportFormat.PDF
                 ? MediaType.APPLICATION_PDF
@@ -281,6 +302,6 @@ public class TestController {
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + extension + "\"")
                 .contentType(mediaType)
-                .body(data);
+                .body(body);
     }
 }
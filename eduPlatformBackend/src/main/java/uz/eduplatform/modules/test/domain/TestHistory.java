@@ -16,7 +16,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "test_history", indexes = {
         @Index(name = "idx_test_history_user", columnList = "user_id"),
-        @Index(name = "idx_test_history_subject", columnList = "subject_id")
+        @Index(name = "idx_test_history_subject", columnList = "subject_id"),
+        @Index(name = "idx_test_history_user_created", columnList = "user_id, created_at, id")
 })
 @Getter
 @Setter
@@ -20,6 +20,15 @@ public interface TestHistoryRepository extends JpaRepository<TestHistory, UUID>
 
     Page<TestHistory> findByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(UUID userId, Pageable pageable);
 
+    // Keyset page: the user's tests created before the cursor, newest first
+    @Query("SELECT t FROM TestHistory t WHERE t.userId = :userId AND t.deletedAt IS NULL " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TestHistory> scrollByUserId(@Param("userId") UUID userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") UUID id,
+                                     Pageable limit);
+
     Optional<TestHistory> findByIdAndUserIdAndDeletedAtIsNull(UUID id, UUID userId);
 
     Optional<TestHistory> findByIdAndDeletedAtIsNull(UUID id);
@@ -1,6 +1,8 @@
 package uz.eduplatform.modules.test.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uz.eduplatform.modules.test.domain.TestQuestion;
 
@@ -14,5 +16,10 @@ public interface TestQuestionRepository extends JpaRepository<TestQuestion, UUID
 
     List<TestQuestion> findByTestIdAndVariantCodeOrderByQuestionOrderAsc(UUID testId, String variantCode);
 
+    // Current version of each question in the variant, in question order, for AttemptQuestionCache keys
+    @Query("SELECT q.version FROM TestQuestion tq, Question q WHERE q.id = tq.questionId " +
+           "AND tq.testId = :testId AND tq.variantCode = :variantCode ORDER BY tq.questionOrder")
+    List<Integer> findCurrentQuestionVersions(@Param("testId") UUID testId, @Param("variantCode") String variantCode);
+
     void deleteByTestId(UUID testId);
 }
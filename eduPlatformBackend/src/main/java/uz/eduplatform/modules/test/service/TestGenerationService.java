@@ -1,6 +1,5 @@
 package uz.eduplatform.modules.test.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -10,13 +9,14 @@ import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.i18n.TranslatedField;
 import uz.eduplatform.modules.content.domain.Difficulty;
 import uz.eduplatform.modules.content.domain.Question;
+import uz.eduplatform.modules.content.domain.QuestionCandidate;
 import uz.eduplatform.modules.content.domain.QuestionStatus;
-import uz.eduplatform.modules.content.domain.QuestionType;
 import uz.eduplatform.modules.content.domain.Subject;
 import uz.eduplatform.modules.content.domain.Topic;
 import uz.eduplatform.modules.content.repository.QuestionRepository;
 import uz.eduplatform.modules.content.repository.SubjectRepository;
 import uz.eduplatform.modules.content.repository.TopicRepository;
+import uz.eduplatform.modules.content.service.QuestionCandidateIndex;
 import uz.eduplatform.modules.test.domain.TestHistory;
 import uz.eduplatform.modules.test.domain.TestQuestion;
 import uz.eduplatform.modules.test.domain.TestStatus;
@@ -39,9 +39,10 @@ public class TestGenerationService {
     private final SubjectRepository subjectRepository;
     private final TestValidationService validationService;
     private final AuditService auditService;
-    private final ObjectMapper objectMapper;
+    private final QuestionCandidateIndex candidateIndex;
 
     private static final String[] VARIANT_CODES = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
+    private static final String[] OPTION_LABELS = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
 
     @Transactional
     public GenerateTestResponse generateTest(UUID userId, GenerateTestRequest request) {
@@ -75,7 +76,7 @@ public class TestGenerationService {
         }
 
         boolean isManualMode = request.getQuestionIds() != null && !request.getQuestionIds().isEmpty();
-        List<Question> selected;
+        List<QuestionCandidate> selected;
         int questionCount;
         Map<String, Integer> actualDistribution;
 
@@ -84,14 +85,14 @@ public class TestGenerationService {
 
         if (isManualMode) {
             // Manual mode: fetch selected questions directly
-            selected = questionRepository.findAllById(request.getQuestionIds());
+            List<Question> fetched = questionRepository.findAllById(request.getQuestionIds());
 
-            if (selected.isEmpty()) {
+            if (fetched.isEmpty()) {
                 throw BusinessException.ofKey("test.manual.questions.not.found");
             }
 
             // Validate ownership: user must own the question or its subject
-            for (Question q : selected) {
+            for (Question q : fetched) {
                 boolean isQuestionOwner = q.getUser().getId().equals(userId);
                 boolean isSubjectOwner = q.getTopic() != null
                         && q.getTopic().getSubject() != null
@@ -108,14 +109,14 @@ public class TestGenerationService {
             }
 
             // Filter only valid MCQ questions with options (A, B, C, D)
-            List<Question> invalidQuestions = selected.stream()
-                    .filter(q -> !isValidForTest(q))
+            selected = fetched.stream()
+                    .map(candidateIndex::describe)
+                    .flatMap(Optional::stream)
                     .toList();
 
-            if (!invalidQuestions.isEmpty()) {
+            if (selected.size() < fetched.size()) {
                 log.warn("Manual mode: {} out of {} questions are not valid MCQ with options, filtering out",
-                        invalidQuestions.size(), selected.size());
-                selected = new ArrayList<>(selected.stream().filter(this::isValidForTest).toList());
+                        fetched.size() - selected.size(), fetched.size());
                 if (selected.isEmpty()) {
                     throw BusinessException.ofKey("test.manual.no.valid.mcq.questions");
                 }
@@ -125,7 +126,7 @@ public class TestGenerationService {
 
             // Calculate actual difficulty distribution from selected questions
             Map<Difficulty, Long> counts = selected.stream()
-                    .collect(Collectors.groupingBy(Question::getDifficulty, Collectors.counting()));
+                    .collect(Collectors.groupingBy(QuestionCandidate::difficulty, Collectors.counting()));
             actualDistribution = Map.of(
                     "easy", counts.getOrDefault(Difficulty.EASY, 0L).intValue(),
                     "medium", counts.getOrDefault(Difficulty.MEDIUM, 0L).intValue(),
@@ -135,32 +136,25 @@ public class TestGenerationService {
             // Override questionCount in request for history saving
             request.setQuestionCount(questionCount);
         } else {
-            // Auto mode: fetch questions from topics or subject-wide
+            // Auto mode: draw from the candidate index for the topics (or all topics of the subject)
             boolean hasTopics = request.getTopicIds() != null && !request.getTopicIds().isEmpty();
-            List<Question> candidates;
+            List<UUID> topicIds;
             if (hasTopics) {
-                candidates = questionRepository.findByTopicIdsForTeacher(request.getTopicIds(), userId);
+                topicIds = request.getTopicIds();
             } else if (request.getSubjectId() != null) {
-                candidates = questionRepository.findBySubjectIdForTeacher(request.getSubjectId(), userId);
+                topicIds = topicRepository.findIdsBySubjectId(request.getSubjectId());
             } else {
                 throw BusinessException.ofKey("test.no.active.questions");
             }
 
-            if (candidates.isEmpty()) {
-                throw BusinessException.ofKey("test.no.active.questions");
-            }
-
-            // 2.1 Filter only valid MCQ questions with options (A, B, C, D)
-            candidates = candidates.stream().filter(this::isValidForTest).toList();
-            if (candidates.isEmpty()) {
+            // 2-3. Valid MCQ candidates, already grouped by difficulty
+            Map<Difficulty, List<QuestionCandidate>> byDifficulty = candidateIndex.candidatesFor(topicIds, userId);
+            if (byDifficulty.isEmpty()) {
                 throw BusinessException.ofKey("test.no.valid.mcq.questions");
             }
 
-            log.debug("Auto mode: {} valid MCQ questions found for test generation", candidates.size());
-
-            // 3. Group by difficulty
-            Map<Difficulty, List<Question>> byDifficulty = candidates.stream()
-                    .collect(Collectors.groupingBy(Question::getDifficulty));
+            log.debug("Auto mode: {} valid MCQ questions found for test generation",
+                    byDifficulty.values().stream().mapToInt(List::size).sum());
 
             // 4. Calculate counts based on distribution
             DifficultyDistribution dist = request.getDifficultyDistribution() != null
@@ -215,7 +209,7 @@ public class TestGenerationService {
                     selected,
                     Boolean.TRUE.equals(request.getShuffleQuestions()),
                     Boolean.TRUE.equals(request.getShuffleOptions()),
-                    random
+                    new Random(variantSeed(seed, i))
             );
             variantDtos.add(variant);
 
@@ -276,18 +270,18 @@ public class TestGenerationService {
             history = testHistoryRepository.save(history);
 
             // Save test questions (batch)
-            Map<UUID, Question> selectedMap = selected.stream()
-                    .collect(Collectors.toMap(Question::getId, q -> q, (a, b) -> a));
+            Map<UUID, QuestionCandidate> selectedMap = selected.stream()
+                    .collect(Collectors.toMap(QuestionCandidate::id, q -> q, (a, b) -> a));
             List<TestQuestion> allTestQuestions = new ArrayList<>();
             for (VariantDto variant : variantDtos) {
                 for (int qi = 0; qi < variant.getQuestionIds().size(); qi++) {
                     UUID qId = variant.getQuestionIds().get(qi);
-                    Question q = selectedMap.get(qId);
+                    QuestionCandidate q = selectedMap.get(qId);
 
                     allTestQuestions.add(TestQuestion.builder()
                             .testId(history.getId())
                             .questionId(qId)
-                            .questionVersion(q != null ? q.getVersion() : 1)
+                            .questionVersion(q != null ? q.version() : 1)
                             .variantCode(variant.getCode())
                             .questionOrder(qi + 1)
                             .optionsOrder(variant.getOptionsOrder() != null && qi < variant.getOptionsOrder().size()
@@ -298,7 +292,7 @@ public class TestGenerationService {
             testQuestionRepository.saveAll(allTestQuestions);
 
             // Update question stats (times_used)
-            List<UUID> selectedIds = selected.stream().map(Question::getId).toList();
+            List<UUID> selectedIds = selected.stream().map(QuestionCandidate::id).toList();
             questionRepository.incrementTimesUsed(selectedIds);
 
             auditService.log(userId, null, "TEST_GENERATED", "TEST",
@@ -331,16 +325,24 @@ public class TestGenerationService {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private VariantDto createVariant(String code, List<Question> questions,
+    /**
+     * Independent, reproducible seed for each variant, derived from the test seed.
+     * Variants no longer consume a shared {@link Random}, so each one can be rebuilt
+     * (or rendered) on its own and still match the stored answer key.
+     */
+    static long variantSeed(long seed, int variantIndex) {
+        return new SplittableRandom(seed + (variantIndex + 1) * 0x9E3779B97F4A7C15L).nextLong();
+    }
+
+    private VariantDto createVariant(String code, List<QuestionCandidate> questions,
                                      boolean shuffleQ, boolean shuffleOpt, Random random) {
-        List<Question> variantQuestions = new ArrayList<>(questions);
+        List<QuestionCandidate> variantQuestions = new ArrayList<>(questions);
 
         // Fisher-Yates shuffle for questions
         if (shuffleQ) {
             for (int i = variantQuestions.size() - 1; i > 0; i--) {
                 int j = random.nextInt(i + 1);
-                Question temp = variantQuestions.get(i);
+                QuestionCandidate temp = variantQuestions.get(i);
                 variantQuestions.set(i, variantQuestions.get(j));
                 variantQuestions.set(j, temp);
             }
@@ -350,173 +352,68 @@ public class TestGenerationService {
         List<List<String>> allOptionsOrder = new ArrayList<>();
 
         for (int i = 0; i < variantQuestions.size(); i++) {
-            Question q = variantQuestions.get(i);
-
-            Object parsedOptions = parseJson(q.getOptions());
-
-            // Always process MCQ questions with valid options (regardless of shuffleOpt flag)
-            if ((q.getQuestionType() == QuestionType.MCQ_SINGLE
-                    || q.getQuestionType() == QuestionType.MCQ_MULTI)
-                    && parsedOptions instanceof List<?> optionsList
-                    && !optionsList.isEmpty()) {
-
-                List<Map<String, Object>> options = new ArrayList<>();
-                for (Object opt : optionsList) {
-                    if (opt instanceof Map) {
-                        options.add(new LinkedHashMap<>((Map<String, Object>) opt));
-                    }
+            QuestionCandidate q = variantQuestions.get(i);
+
+            // Candidates are always MCQ with pre-parsed options
+            List<QuestionCandidate.Option> options = new ArrayList<>(q.options());
+
+            // Fisher-Yates shuffle for options (only if shuffleOpt is enabled)
+            if (shuffleOpt) {
+                for (int k = options.size() - 1; k > 0; k--) {
+                    int j = random.nextInt(k + 1);
+                    QuestionCandidate.Option temp = options.get(k);
+                    options.set(k, options.get(j));
+                    options.set(j, temp);
                 }
+            }
 
-                // Fisher-Yates shuffle for options (only if shuffleOpt is enabled)
-                if (shuffleOpt) {
-                    for (int k = options.size() - 1; k > 0; k--) {
-                        int j = random.nextInt(k + 1);
-                        Map<String, Object> temp = options.get(k);
-                        options.set(k, options.get(j));
-                        options.set(j, temp);
-                    }
-                }
-
-                // Find correct answer positions (after shuffle if applicable)
-                List<String> correctIds = new ArrayList<>();
-                List<String> optionOrder = new ArrayList<>();
-                String[] labels = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
-
+            // Find correct answer positions (after shuffle if applicable)
+            List<String> correctIds;
+            List<String> optionOrder = new ArrayList<>(options.size());
+            if (shuffleOpt) {
+                correctIds = new ArrayList<>();
                 for (int k = 0; k < options.size(); k++) {
-                    Map<String, Object> opt = options.get(k);
-                    optionOrder.add(String.valueOf(opt.get("id")));
-                    if (Boolean.TRUE.equals(opt.get("isCorrect"))) {
-                        correctIds.add(labels[k]);
+                    QuestionCandidate.Option opt = options.get(k);
+                    optionOrder.add(opt.id());
+                    if (opt.correct() && k < OPTION_LABELS.length) {
+                        correctIds.add(OPTION_LABELS[k]);
                     }
                 }
-
-                if (correctIds.isEmpty()) {
-                    log.warn("Question {} has no correct answer marked in options", q.getId());
-                }
-
-                Map<String, Object> keyEntry = new LinkedHashMap<>();
-                keyEntry.put("questionNumber", i + 1);
-                keyEntry.put("answer", String.join(",", correctIds));
-                answerKey.add(keyEntry);
-                allOptionsOrder.add(optionOrder);
-
-            } else if (q.getQuestionType() == QuestionType.TRUE_FALSE) {
-                // TRUE_FALSE: answer key from correctAnswer field
-                String correctAnswer = findCorrectAnswer(q);
-                Map<String, Object> keyEntry = new LinkedHashMap<>();
-                keyEntry.put("questionNumber", i + 1);
-                keyEntry.put("answer", correctAnswer);
-                answerKey.add(keyEntry);
-                allOptionsOrder.add(null);
             } else {
-                // Fallback for any other type - should not reach here after isValidForTest filter
-                log.warn("Question {} (type={}) has no valid MCQ options, included with empty answer",
-                        q.getId(), q.getQuestionType());
-                String correctAnswer = findCorrectAnswer(q);
-                Map<String, Object> keyEntry = new LinkedHashMap<>();
-                keyEntry.put("questionNumber", i + 1);
-                keyEntry.put("answer", correctAnswer);
-                answerKey.add(keyEntry);
-                allOptionsOrder.add(null);
+                correctIds = q.correctLabels();
+                for (QuestionCandidate.Option opt : options) {
+                    optionOrder.add(opt.id());
+                }
             }
+
+            Map<String, Object> keyEntry = new LinkedHashMap<>();
+            keyEntry.put("questionNumber", i + 1);
+            keyEntry.put("answer", String.join(",", correctIds));
+            answerKey.add(keyEntry);
+            allOptionsOrder.add(optionOrder);
         }
 
         return VariantDto.builder()
                 .code(code)
-                .questionIds(variantQuestions.stream().map(Question::getId).toList())
+                .questionIds(variantQuestions.stream().map(QuestionCandidate::id).toList())
                 .answerKey(answerKey)
                 .optionsOrder(allOptionsOrder)
                 .build();
     }
 
-    @SuppressWarnings("unchecked")
-    private String findCorrectAnswer(Question q) {
-        Object parsedOpts = parseJson(q.getOptions());
-        if (parsedOpts instanceof List<?> optionsList) {
-            String[] labels = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
-            List<String> correctLabels = new ArrayList<>();
-
-            for (int i = 0; i < optionsList.size(); i++) {
-                Object opt = optionsList.get(i);
-                if (opt instanceof Map<?, ?> optMap && Boolean.TRUE.equals(optMap.get("isCorrect"))) {
-                    if (i < labels.length) {
-                        correctLabels.add(labels[i]);
-                    }
-                }
-            }
-            return String.join(",", correctLabels);
-        }
-
-        if (q.getCorrectAnswer() != null) {
-            Object parsed = parseJson(q.getCorrectAnswer());
-            return parsed != null ? parsed.toString() : q.getCorrectAnswer();
-        }
-
-        return "";
-    }
-
-    private List<Question> randomSelect(List<Question> source, int count, Random random) {
+    private List<QuestionCandidate> randomSelect(List<QuestionCandidate> source, int count, Random random) {
         if (count <= 0) return List.of();
         if (source.size() <= count) return new ArrayList<>(source);
 
-        List<Question> shuffled = new ArrayList<>(source);
+        List<QuestionCandidate> shuffled = new ArrayList<>(source);
         // Fisher-Yates partial shuffle
         for (int i = shuffled.size() - 1; i > 0 && (shuffled.size() - i) <= count; i--) {
             int j = random.nextInt(i + 1);
-            Question temp = shuffled.get(i);
+            QuestionCandidate temp = shuffled.get(i);
             shuffled.set(i, shuffled.get(j));
             shuffled.set(j, temp);
         }
 
         return new ArrayList<>(shuffled.subList(shuffled.size() - count, shuffled.size()));
     }
-
-    /**
-     * Validates that a question is suitable for test generation:
-     * - Must be MCQ_SINGLE or MCQ_MULTI type
-     * - Must have a non-empty list of options (minimum 2)
-     * - Each option must have an "id" and "text" field
-     * - At least one option must be marked as correct (isCorrect=true)
-     */
-    @SuppressWarnings("unchecked")
-    private boolean isValidForTest(Question q) {
-        // Only MCQ types are valid for printed tests
-        if (q.getQuestionType() != QuestionType.MCQ_SINGLE
-                && q.getQuestionType() != QuestionType.MCQ_MULTI) {
-            return false;
-        }
-
-        // Parse options JSON
-        Object parsed = parseJson(q.getOptions());
-        if (!(parsed instanceof List<?> optionsList) || optionsList.size() < 2) {
-            return false;
-        }
-
-        // Verify options have required structure and at least one correct answer
-        boolean hasCorrect = false;
-        for (Object opt : optionsList) {
-            if (!(opt instanceof Map<?, ?> optMap)) {
-                return false;
-            }
-            // Each option must have text
-            if (optMap.get("text") == null) {
-                return false;
-            }
-            if (Boolean.TRUE.equals(optMap.get("isCorrect"))) {
-                hasCorrect = true;
-            }
-        }
-
-        return hasCorrect;
-    }
-
-    private Object parseJson(String json) {
-        if (json == null || json.isBlank()) return null;
-        try {
-            return objectMapper.readValue(json, Object.class);
-        } catch (Exception e) {
-            log.warn("Failed to parse JSON: {}", e.getMessage());
-            return null;
-        }
-    }
 }
@@ -6,12 +6,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.eduplatform.core.audit.AuditService;
+import uz.eduplatform.core.common.dto.CursorResponse;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.PageCursor;
 import uz.eduplatform.core.i18n.AcceptLanguage;
 import uz.eduplatform.core.i18n.LocaleKeys;
 import uz.eduplatform.core.i18n.TranslatedField;
+import uz.eduplatform.modules.assessment.service.AttemptQuestionCache;
 import uz.eduplatform.modules.auth.domain.User;
 import uz.eduplatform.modules.auth.repository.UserRepository;
 import uz.eduplatform.modules.content.domain.Subject;
@@ -23,6 +26,7 @@ import uz.eduplatform.modules.test.domain.TestStatus;
 import uz.eduplatform.modules.test.dto.*;
 import uz.eduplatform.modules.test.repository.TestHistoryRepository;
 import uz.eduplatform.modules.test.repository.TestQuestionRepository;
+import uz.eduplatform.modules.test.service.export.ExportArtifactCache;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -38,14 +42,36 @@ public class TestHistoryService {
     private final SubjectRepository subjectRepository;
     private final AuditService auditService;
     private final UserRepository userRepository;
+    private final ExportArtifactCache artifactCache;
+    private final AttemptQuestionCache attemptQuestionCache;
 
     @Transactional(readOnly = true)
     public PagedResponse<TestHistoryDto> getTestHistory(UUID userId, Pageable pageable, AcceptLanguage language) {
         Page<TestHistory> page = testHistoryRepository.findByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(
                 userId, pageable);
 
+        List<TestHistoryDto> dtos = mapToDtos(page.getContent(), language);
+
+        return PagedResponse.of(dtos, page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorResponse<TestHistoryDto> scrollTestHistory(UUID userId, String cursor, int size,
+                                                            boolean includeTotal, AcceptLanguage language) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.pageSize(size);
+        List<TestHistory> rows = testHistoryRepository.scrollByUserId(
+                userId, after.createdAt(), after.id(), PageCursor.fetch(pageSize));
+        Long total = includeTotal ? testHistoryRepository.countByUserId(userId) : null;
+
+        return CursorResponse.of(rows, pageSize, h -> new PageCursor(h.getCreatedAt(), h.getId()),
+                page -> mapToDtos(page, language), total);
+    }
+
+    private List<TestHistoryDto> mapToDtos(List<TestHistory> tests, AcceptLanguage language) {
         // Batch-fetch all subjects to avoid N+1 queries
-        Set<UUID> subjectIds = page.getContent().stream()
+        Set<UUID> subjectIds = tests.stream()
                 .map(TestHistory::getSubjectId)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
@@ -54,12 +80,9 @@ public class TestHistoryService {
                 : subjectRepository.findAllById(subjectIds).stream()
                         .collect(Collectors.toMap(Subject::getId, s -> s, (a, b) -> a));
 
-        List<TestHistoryDto> dtos = page.getContent().stream()
+        return tests.stream()
                 .map(h -> mapToDto(h, language, subjectMap.get(h.getSubjectId())))
                 .toList();
-
-        return PagedResponse.of(dtos, page.getNumber(), page.getSize(),
-                page.getTotalElements(), page.getTotalPages());
     }
 
     @Transactional(readOnly = true)
@@ -77,6 +100,8 @@ public class TestHistoryService {
         history.setDeletedAt(LocalDateTime.now());
         history.setStatus(TestStatus.DELETED);
         testHistoryRepository.save(history);
+        artifactCache.invalidate(testId);
+        attemptQuestionCache.evictTest(testId);
 
         auditService.log(userId, null, "TEST_DELETED", "TEST",
                 "TestHistory", testId);
@@ -129,6 +154,8 @@ public class TestHistoryService {
         original.setDeletedAt(LocalDateTime.now());
         original.setStatus(TestStatus.DELETED);
         testHistoryRepository.save(original);
+        artifactCache.invalidate(testId);
+        attemptQuestionCache.evictTest(testId);
 
         return generationService.generateTest(userId, request);
     }
@@ -267,6 +294,7 @@ public class TestHistoryService {
         }
 
         testHistoryRepository.save(history);
+        artifactCache.invalidate(testId);
 
         auditService.log(userId, null, "TEST_UPDATED", "TEST",
                 "TestHistory", testId);
@@ -1,12 +1,10 @@
 package uz.eduplatform.modules.test.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import uz.eduplatform.core.common.dto.PagedResponse;
 import uz.eduplatform.core.common.exception.BusinessException;
@@ -15,16 +13,19 @@ import uz.eduplatform.core.i18n.AcceptLanguage;
 import uz.eduplatform.modules.content.domain.Difficulty;
 import uz.eduplatform.modules.content.domain.Question;
 import uz.eduplatform.modules.content.domain.QuestionStatus;
-import uz.eduplatform.modules.content.domain.QuestionType;
+import uz.eduplatform.modules.content.domain.QuestionCandidate;
 import uz.eduplatform.modules.content.dto.QuestionDto;
 import uz.eduplatform.modules.content.repository.QuestionRepository;
 import uz.eduplatform.modules.content.repository.SubjectRepository;
+import uz.eduplatform.modules.content.repository.TopicRepository;
+import uz.eduplatform.modules.content.service.QuestionCandidateIndex;
 import uz.eduplatform.modules.content.service.QuestionService;
 import uz.eduplatform.modules.test.dto.AvailableQuestionsResponse;
 import uz.eduplatform.modules.test.dto.DifficultyDistribution;
 import uz.eduplatform.modules.test.dto.GenerateTestRequest;
 import uz.eduplatform.modules.test.exception.InsufficientQuestionsException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -38,7 +39,8 @@ public class TestValidationService {
     private final SubjectRepository subjectRepository;
     private final QuestionRepository questionRepository;
     private final QuestionService questionService;
-    private final ObjectMapper objectMapper;
+    private final TopicRepository topicRepository;
+    private final QuestionCandidateIndex candidateIndex;
 
     public void validateRequest(GenerateTestRequest request) {
         // Validate subject exists
@@ -69,7 +71,7 @@ public class TestValidationService {
         }
     }
 
-    public void checkAvailability(GenerateTestRequest request, Map<Difficulty, List<Question>> byDifficulty) {
+    public void checkAvailability(GenerateTestRequest request, Map<Difficulty, ? extends Collection<?>> byDifficulty) {
         DifficultyDistribution dist = request.getDifficultyDistribution() != null
                 ? request.getDifficultyDistribution()
                 : DifficultyDistribution.builder().build();
@@ -78,9 +80,9 @@ public class TestValidationService {
         int mediumCount = (int) Math.ceil(request.getQuestionCount() * dist.getMedium() / 100.0);
         int hardCount = request.getQuestionCount() - easyCount - mediumCount;
 
-        int availEasy = byDifficulty.getOrDefault(Difficulty.EASY, List.of()).size();
-        int availMedium = byDifficulty.getOrDefault(Difficulty.MEDIUM, List.of()).size();
-        int availHard = byDifficulty.getOrDefault(Difficulty.HARD, List.of()).size();
+        int availEasy = sizeOf(byDifficulty, Difficulty.EASY);
+        int availMedium = sizeOf(byDifficulty, Difficulty.MEDIUM);
+        int availHard = sizeOf(byDifficulty, Difficulty.HARD);
 
         if (availEasy < easyCount || availMedium < mediumCount || availHard < hardCount) {
             throw new InsufficientQuestionsException(
@@ -96,40 +98,33 @@ public class TestValidationService {
 
     public AvailableQuestionsResponse getAvailableQuestions(List<UUID> topicIds, UUID subjectId, UUID userId) {
         boolean hasTopics = topicIds != null && !topicIds.isEmpty();
-        List<Question> questions;
+        List<UUID> sourceTopicIds;
         if (hasTopics) {
-            questions = questionRepository.findByTopicIdsForTeacher(topicIds, userId);
+            sourceTopicIds = topicIds;
         } else if (subjectId != null) {
-            questions = questionRepository.findBySubjectIdForTeacher(subjectId, userId);
+            sourceTopicIds = topicRepository.findIdsBySubjectId(subjectId);
         } else {
             return AvailableQuestionsResponse.builder()
                     .totalAvailable(0).easyCount(0).mediumCount(0).hardCount(0).maxPossibleQuestions(0)
                     .build();
         }
 
-        // Filter only valid MCQ questions with options for test generation
-        List<Question> validMcq = questions.stream()
-                .filter(this::isValidMcqForTest)
-                .toList();
-
-        if (validMcq.size() < questions.size()) {
-            log.debug("Available questions: {} total, {} valid MCQ with options",
-                    questions.size(), validMcq.size());
-        }
-
-        Map<Difficulty, Long> counts = validMcq.stream()
-                .collect(Collectors.groupingBy(Question::getDifficulty, Collectors.counting()));
+        // Same valid-MCQ pool that test generation draws from
+        Map<Difficulty, List<QuestionCandidate>> byDifficulty = candidateIndex.candidatesFor(sourceTopicIds, userId);
+        Map<Difficulty, Long> counts = byDifficulty.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> (long) e.getValue().size()));
+        int total = counts.values().stream().mapToInt(Long::intValue).sum();
 
         int easy = counts.getOrDefault(Difficulty.EASY, 0L).intValue();
         int medium = counts.getOrDefault(Difficulty.MEDIUM, 0L).intValue();
         int hard = counts.getOrDefault(Difficulty.HARD, 0L).intValue();
 
         return AvailableQuestionsResponse.builder()
-                .totalAvailable(validMcq.size())
+                .totalAvailable(total)
                 .easyCount(easy)
                 .mediumCount(medium)
                 .hardCount(hard)
-                .maxPossibleQuestions(validMcq.size())
+                .maxPossibleQuestions(total)
                 .build();
     }
 
@@ -147,18 +142,14 @@ public class TestValidationService {
 
         Page<Question> page;
         if (!useTopics && subjectId != null) {
-            // Subject-wide mode: single native query handles search/difficulty/status
-            Pageable nativePageable = PageRequest.of(
-                    pageable.getPageNumber(), pageable.getPageSize(),
-                    Sort.by(Sort.Direction.DESC, "created_at"));
+            // Subject-wide mode: single native query handles search/difficulty/status and ranking
+            Pageable nativePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
             page = questionRepository.searchBySubjectIdForTeacher(subjectId, userId, searchTerm,
                     difficulty != null ? difficulty.name() : null,
                     status != null ? status.name() : null, nativePageable);
         } else if (searchTerm != null) {
-            // Native query requires actual DB column names for sorting (created_at, not createdAt)
-            Pageable nativePageable = PageRequest.of(
-                    pageable.getPageNumber(), pageable.getPageSize(),
-                    Sort.by(Sort.Direction.DESC, "created_at"));
+            // Search results come ranked by the query itself
+            Pageable nativePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
             // Text search across all accessible questions in given topics
             page = questionRepository.searchByTopicIdsForTeacher(topicIds, userId, searchTerm,
                     difficulty != null ? difficulty.name() : null,
@@ -188,44 +179,8 @@ public class TestValidationService {
                 page.getTotalElements(), page.getTotalPages());
     }
 
-    /**
-     * Checks if a question is a valid MCQ with options for test generation.
-     * Requires: MCQ_SINGLE or MCQ_MULTI type, at least 2 options, at least 1 correct answer.
-     */
-    @SuppressWarnings("unchecked")
-    private boolean isValidMcqForTest(Question q) {
-        if (q.getQuestionType() != QuestionType.MCQ_SINGLE
-                && q.getQuestionType() != QuestionType.MCQ_MULTI) {
-            return false;
-        }
-
-        Object parsed = parseJson(q.getOptions());
-        if (!(parsed instanceof List<?> optionsList) || optionsList.size() < 2) {
-            return false;
-        }
-
-        boolean hasCorrect = false;
-        for (Object opt : optionsList) {
-            if (!(opt instanceof Map<?, ?> optMap)) {
-                return false;
-            }
-            if (optMap.get("text") == null) {
-                return false;
-            }
-            if (Boolean.TRUE.equals(optMap.get("isCorrect"))) {
-                hasCorrect = true;
-            }
-        }
-
-        return hasCorrect;
-    }
-
-    private Object parseJson(String json) {
-        if (json == null || json.isBlank()) return null;
-        try {
-            return objectMapper.readValue(json, Object.class);
-        } catch (Exception e) {
-            return null;
-        }
+    private static int sizeOf(Map<Difficulty, ? extends Collection<?>> byDifficulty, Difficulty difficulty) {
+        Collection<?> bucket = byDifficulty.get(difficulty);
+        return bucket != null ? bucket.size() : 0;
     }
 }
@@ -48,6 +48,9 @@ public class DocxExportService implements TestExportService {
         try (XWPFDocument document = new XWPFDocument()) {
             setA4PageSize(document);
 
+            // One batch fetch for all variants; they share the same questions
+            Map<UUID, Question> questionMap = fetchQuestions(test.getVariants());
+
             boolean firstVariant = true;
             for (Map<String, Object> variant : test.getVariants()) {
                 if (!firstVariant) addPageBreak(document);
@@ -59,10 +62,6 @@ public class DocxExportService implements TestExportService {
 
                 writeTestHeader(document, test, variantCode, locale);
 
-                // Batch-fetch all questions for this variant
-                Map<UUID, Question> questionMap = questionRepository.findAllById(questionIds).stream()
-                        .collect(Collectors.toMap(Question::getId, Function.identity(), (a, b) -> a));
-
                 int questionNum = 1;
                 for (int qi = 0; qi < questionIds.size(); qi++) {
                     Question q = questionMap.get(questionIds.get(qi));
@@ -86,6 +85,9 @@ public class DocxExportService implements TestExportService {
         try (XWPFDocument document = new XWPFDocument()) {
             setA4PageSize(document);
 
+            // One batch fetch for all variants; they share the same questions
+            Map<UUID, Question> questionMap = fetchQuestions(test.getVariants());
+
             boolean firstVariant = true;
             for (Map<String, Object> variant : test.getVariants()) {
                 if (!firstVariant) addPageBreak(document);
@@ -97,9 +99,6 @@ public class DocxExportService implements TestExportService {
 
                 writeTestHeader(document, test, variantCode, locale);
 
-                Map<UUID, Question> questionMap = questionRepository.findAllById(questionIds).stream()
-                        .collect(Collectors.toMap(Question::getId, Function.identity(), (a, b) -> a));
-
                 int questionNum = 1;
                 for (int qi = 0; qi < questionIds.size(); qi++) {
                     Question q = questionMap.get(questionIds.get(qi));
@@ -115,6 +114,16 @@ public class DocxExportService implements TestExportService {
         }
     }
 
+    private Map<UUID, Question> fetchQuestions(List<Map<String, Object>> variants) {
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (Map<String, Object> variant : variants) {
+            ids.addAll(exportHelper.parseQuestionIds(variant.get("questionIds")));
+        }
+        if (ids.isEmpty()) return Map.of();
+        return questionRepository.findAllById(new ArrayList<>(ids)).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity(), (a, b) -> a));
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public byte[] exportAnswerKey(TestHistory test, ExportFormat format, Locale locale) {
@@ -157,6 +166,9 @@ public class DocxExportService implements TestExportService {
         try (XWPFDocument document = new XWPFDocument()) {
             setA4PageSize(document);
 
+            // One batch fetch for all variants; they share the same questions
+            Map<UUID, Question> questionMap = fetchQuestions(test.getVariants());
+
             boolean firstVariant = true;
             for (Map<String, Object> variant : test.getVariants()) {
                 if (!firstVariant) addPageBreak(document);
@@ -168,13 +180,9 @@ public class DocxExportService implements TestExportService {
 
                 writeTestHeader(document, test, variantCode, locale);
 
-                // Batch-fetch all questions for this variant
-                Map<UUID, Question> qMap = questionRepository.findAllById(questionIds).stream()
-                        .collect(Collectors.toMap(Question::getId, Function.identity(), (a, b) -> a));
-
                 int questionNum = 1;
                 for (int qi = 0; qi < questionIds.size(); qi++) {
-                    Question q = qMap.get(questionIds.get(qi));
+                    Question q = questionMap.get(questionIds.get(qi));
                     if (q == null) continue;
 
                     List<String> optOrder = (optionsOrder != null && qi < optionsOrder.size())
@@ -213,10 +221,10 @@ public class DocxExportService implements TestExportService {
             int num = 1;
             for (UUID qId : questionIds) {
                 Question q = questionMap.get(qId);
-                String proofText = q != null ? TranslatedField.resolve(q.getProof()) : null;
+                String proofText = q != null ? TranslatedField.resolve(q.getProof(), localeKey) : null;
                 if (q == null || proofText == null || proofText.isBlank()) continue;
 
-                addBoldParagraph(document, num + ". " + TranslatedField.resolve(q.getQuestionText()), 11);
+                addBoldParagraph(document, num + ". " + TranslatedField.resolve(q.getQuestionText(), localeKey), 11);
 
                 XWPFParagraph proofLabel = document.createParagraph();
                 proofLabel.setIndentationLeft(400);
@@ -305,7 +313,9 @@ public class DocxExportService implements TestExportService {
         numRun.setText(num + ". ");
         XWPFRun textRun = qPara.createRun();
         textRun.setFontSize(11);
-        textRun.setText(TranslatedField.resolve(q.getQuestionText()));
+        // Rendering runs inside a StreamingResponseBody, off the request thread, so the locale is explicit
+        String localeKey = LocaleKeys.fromLocale(locale);
+        textRun.setText(TranslatedField.resolve(q.getQuestionText(), localeKey));
 
         Object optionsObj = parseJson(q.getOptions());
         boolean isMcq = q.getQuestionType() == QuestionType.MCQ_SINGLE
@@ -332,7 +342,7 @@ public class DocxExportService implements TestExportService {
             }
 
             for (int i = 0; i < options.size(); i++) {
-                String text = resolveExportOptionText(options.get(i).get("text"));
+                String text = resolveExportOptionText(options.get(i).get("text"), localeKey);
                 String label = i < labels.length ? labels[i] : String.valueOf(i + 1);
                 XWPFParagraph optPara = document.createParagraph();
                 optPara.setIndentationLeft(600);
@@ -352,9 +362,9 @@ public class DocxExportService implements TestExportService {
     }
 
     @SuppressWarnings("unchecked")
-    private String resolveExportOptionText(Object text) {
+    private String resolveExportOptionText(Object text, String localeKey) {
         if (text instanceof Map) {
-            return TranslatedField.resolve((Map<String, String>) text);
+            return TranslatedField.resolve((Map<String, String>) text, localeKey);
         }
         return text != null ? String.valueOf(text) : "";
     }
@@ -0,0 +1,340 @@
+package uz.eduplatform.modules.test.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uz.eduplatform.modules.content.repository.QuestionRepository;
+import uz.eduplatform.modules.test.domain.TestHistory;
+import uz.eduplatform.modules.test.service.ExportHelper;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Disk cache of rendered export documents under {@code app.storage.upload-dir/export-cache}.
+ * <p>
+ * Files are named by a SHA-256 of everything that goes into the document (test id, title,
+ * header, variants, current question versions, kind, format, locale), so an edited test or
+ * question simply maps to a new file. {@link #invalidate(UUID)} only frees the space early.
+ * The directory is bounded by total size and evicts least recently served files first.
+ */
+@Slf4j
+@Component
+public class ExportArtifactCache {
+
+    /** Bump when the PDF/DOCX layout changes so old artifacts stop matching. */
+    private static final int RENDER_VERSION = 1;
+
+    private static final String CACHE_DIR = "export-cache";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    public enum Kind {
+        TEST(false),
+        ANSWER_KEY(true),
+        COMBINED(true),
+        PROOFS(false);
+
+        // Answer key pages print the export date
+        private final boolean printsDate;
+
+        Kind(boolean printsDate) {
+            this.printsDate = printsDate;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream out) throws IOException;
+    }
+
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final QuestionRepository questionRepository;
+    private final ExportHelper exportHelper;
+    private final ObjectWriter keyWriter;
+
+    // Access-ordered: iteration starts at the least recently served file
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public ExportArtifactCache(@Value("${app.storage.upload-dir:./uploads}") String uploadPath,
+                               @Value("${app.export.cache.max-bytes:536870912}") long maxBytes,
+                               QuestionRepository questionRepository,
+                               ExportHelper exportHelper,
+                               ObjectMapper objectMapper) {
+        this.cacheDir = Paths.get(uploadPath).toAbsolutePath().normalize().resolve(CACHE_DIR);
+        this.maxBytes = maxBytes;
+        this.questionRepository = questionRepository;
+        this.exportHelper = exportHelper;
+        this.keyWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        try {
+            Files.createDirectories(cacheDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create export cache directory: " + cacheDir, e);
+        }
+        reindex();
+    }
+
+    /**
+     * Copy the cached artifact to {@code out}, rendering and storing it first on a miss.
+     * A miss streams to the client and the cache file at the same time.
+     */
+    public void serve(TestHistory test, Kind kind, ExportFormat format, Locale locale,
+                      Renderer renderer, OutputStream out) throws IOException {
+        String key = key(test, kind, format, locale);
+        Path cached = lookup(key);
+        if (cached != null) {
+            try {
+                transfer(cached, out);
+                return;
+            } catch (NoSuchFileException e) {
+                // Evicted between lookup and open; fall through and render
+                forget(key);
+            }
+        }
+
+        Path target = cacheDir.resolve(key + extension(format));
+        Path tmp = Files.createTempFile(cacheDir, key, TMP_SUFFIX);
+        try {
+            try (OutputStream file = Files.newOutputStream(tmp);
+                 OutputStream tee = new TeeOutputStream(out, file)) {
+                renderer.render(tee);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            store(key, test.getId(), target);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Drop every cached artifact of a test. Called when a test is edited or regenerated.
+     */
+    public void invalidate(UUID testId) {
+        List<Path> doomed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry e = it.next();
+                if (testId.equals(e.testId())) {
+                    it.remove();
+                    totalBytes -= e.size();
+                    doomed.add(e.path());
+                }
+            }
+        }
+        doomed.forEach(this::deleteQuietly);
+    }
+
+    String key(TestHistory test, Kind kind, ExportFormat format, Locale locale) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, RENDER_VERSION);
+            update(digest, test.getId());
+            update(digest, kind);
+            update(digest, format);
+            update(digest, locale.toLanguageTag());
+            update(digest, test.getTitle());
+            digest.update(keyWriter.writeValueAsBytes(test.getTitleTranslations()));
+            digest.update(keyWriter.writeValueAsBytes(test.getHeaderConfig()));
+            digest.update(keyWriter.writeValueAsBytes(test.getVariants()));
+            for (Object[] row : questionVersions(test)) {
+                update(digest, row[0]);
+                update(digest, row[1]);
+            }
+            if (kind.printsDate) {
+                update(digest, LocalDate.now());
+            }
+            return testPrefix(test.getId()) + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Could not compute export cache key", e);
+        }
+    }
+
+    private List<Object[]> questionVersions(TestHistory test) {
+        Set<UUID> ids = new TreeSet<>();
+        if (test.getVariants() != null) {
+            for (Map<String, Object> variant : test.getVariants()) {
+                ids.addAll(exportHelper.parseQuestionIds(variant.get("questionIds")));
+            }
+        }
+        if (ids.isEmpty()) return List.of();
+        List<Object[]> rows = new ArrayList<>(questionRepository.findVersionsByIds(ids));
+        rows.sort(Comparator.comparing(row -> (UUID) row[0]));
+        return rows;
+    }
+
+    private static void update(MessageDigest digest, Object value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    // ===== Index =====
+
+    private synchronized Path lookup(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.path() : null;
+    }
+
+    private synchronized void forget(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) totalBytes -= removed.size();
+    }
+
+    private void store(String key, UUID testId, Path path) throws IOException {
+        long size = Files.size(path);
+        List<Path> evicted = new ArrayList<>();
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(testId, path, size));
+            if (previous != null) totalBytes -= previous.size();
+            totalBytes += size;
+
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Entry> eldest = it.next();
+                if (eldest.getKey().equals(key)) continue;
+                it.remove();
+                totalBytes -= eldest.getValue().size();
+                evicted.add(eldest.getValue().path());
+            }
+        }
+        evicted.forEach(this::deleteQuietly);
+        if (!evicted.isEmpty()) {
+            log.debug("Export cache evicted {} files, now {} bytes", evicted.size(), totalBytes);
+        }
+    }
+
+    /**
+     * Rebuild the index from files left by a previous run, oldest first so they are evicted first.
+     * Leftover temp files from interrupted renders are removed.
+     */
+    private void reindex() {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            files = stream.toList();
+        } catch (IOException e) {
+            log.warn("Could not scan export cache directory {}: {}", cacheDir, e.getMessage());
+            return;
+        }
+
+        List<Path> artifacts = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TMP_SUFFIX)) {
+                deleteQuietly(file);
+            } else {
+                artifacts.add(file);
+            }
+        }
+        artifacts.sort(Comparator.comparingLong(this::lastModified));
+        for (Path file : artifacts) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String key = dot > 0 ? name.substring(0, dot) : name;
+            try {
+                store(key, parseTestId(key), file);
+            } catch (IOException | IllegalArgumentException e) {
+                deleteQuietly(file);
+            }
+        }
+        log.info("Export cache at {}: {} files, {} bytes", cacheDir, entries.size(), totalBytes);
+    }
+
+    // Keys start with the test id so the index can be rebuilt per test after a restart
+    private static String testPrefix(UUID testId) {
+        return testId + "-";
+    }
+
+    private static UUID parseTestId(String key) {
+        return UUID.fromString(key.substring(0, 36));
+    }
+
+    // ===== Files =====
+
+    /**
+     * Copies via {@link FileChannel#transferTo} so the document is never held on the heap.
+     */
+    private static void transfer(Path path, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        out.flush();
+    }
+
+    private static String extension(ExportFormat format) {
+        return format == ExportFormat.PDF ? ".pdf" : ".docx";
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private record Entry(UUID testId, Path path, long size) {
+    }
+
+    /**
+     * Writes to the client and the cache file at once; closing leaves the client stream open.
+     */
+    private static final class TeeOutputStream extends FilterOutputStream {
+
+        private final OutputStream branch;
+
+        TeeOutputStream(OutputStream out, OutputStream branch) {
+            super(out);
+            this.branch = branch;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            branch.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            branch.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+            branch.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
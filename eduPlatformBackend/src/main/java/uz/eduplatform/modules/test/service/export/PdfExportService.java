@@ -1,58 +1,64 @@
 package uz.eduplatform.modules.test.service.export;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.utils.MessageService;
 import uz.eduplatform.core.i18n.LocaleKeys;
 import uz.eduplatform.core.i18n.TranslatedField;
+import uz.eduplatform.core.pdf.DocumentFont;
+import uz.eduplatform.core.pdf.PdfFonts;
 import uz.eduplatform.modules.content.domain.Question;
 import uz.eduplatform.modules.content.domain.QuestionType;
 import uz.eduplatform.modules.content.repository.QuestionRepository;
 import uz.eduplatform.modules.test.domain.TestHistory;
 import uz.eduplatform.modules.test.service.ExportHelper;
 
-import jakarta.annotation.PostConstruct;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PdfExportService implements TestExportService {
 
     private final QuestionRepository questionRepository;
     private final MessageService messageService;
     private final ExportHelper exportHelper;
     private final ObjectMapper objectMapper;
-
-    @PostConstruct
-    void validateFontsAvailable() {
-        String[] fontPaths = {"/fonts/NotoSans-Regular.ttf", "/fonts/NotoSans-Bold.ttf"};
-        for (String path : fontPaths) {
-            if (getClass().getResourceAsStream(path) == null) {
-                log.error("CRITICAL: Required font missing from classpath: {}", path);
-                throw new IllegalStateException("Required font missing: " + path
-                        + ". PDF export will not work without Unicode fonts.");
-            }
-        }
-        log.info("PDF export fonts validated successfully");
+    private final Executor variantRenderExecutor;
+    private final PdfFonts pdfFonts;
+
+    public PdfExportService(QuestionRepository questionRepository,
+                            MessageService messageService,
+                            ExportHelper exportHelper,
+                            ObjectMapper objectMapper,
+                            @Qualifier("variantRenderExecutor") Executor variantRenderExecutor,
+                            PdfFonts pdfFonts) {
+        this.questionRepository = questionRepository;
+        this.messageService = messageService;
+        this.exportHelper = exportHelper;
+        this.objectMapper = objectMapper;
+        this.variantRenderExecutor = variantRenderExecutor;
+        this.pdfFonts = pdfFonts;
     }
 
     private static final float PAGE_WIDTH = PDRectangle.A4.getWidth();
@@ -62,6 +68,9 @@ public class PdfExportService implements TestExportService {
     private static final float LINE_HEIGHT = 16;
     private static final float QUESTION_SPACING = 12;
 
+    // Per open document; anything beyond spills to a scratch file in java.io.tmpdir
+    private static final long MAX_MAIN_MEMORY_BYTES = 16L * 1024 * 1024;
+
     @Override
     public ExportFormat getFormat() {
         return ExportFormat.PDF;
@@ -69,156 +78,169 @@ public class PdfExportService implements TestExportService {
 
     @Override
     public byte[] exportTest(TestHistory test, ExportFormat format, Locale locale) {
-        try (PDDocument document = new PDDocument()) {
-            PDFont fontBold = loadFont(document, true);
-            PDFont fontRegular = loadFont(document, false);
-
-            for (Map<String, Object> variant : test.getVariants()) {
-                String variantCode = (String) variant.get("code");
-                List<UUID> questionIds = exportHelper.parseQuestionIds(variant.get("questionIds"));
-                List<List<String>> optionsOrder = exportHelper.parseOptionsOrder(variant.get("optionsOrder"));
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            writeTest(test, locale, false, baos);
+            return baos.toByteArray();
 
-                // Batch-fetch all questions for this variant
-                Map<UUID, Question> questionMap = questionRepository.findAllById(questionIds).stream()
-                        .collect(Collectors.toMap(Question::getId, Function.identity(), (a, b) -> a));
+        } catch (IOException e) {
+            log.error("Failed to generate PDF", e);
+            throw new BusinessException(messageService.get("export.pdf.fail", locale, e.getMessage()));
+        }
+    }
 
-                PDPage page = new PDPage(PDRectangle.A4);
-                document.addPage(page);
-                PDPageContentStream cs = new PDPageContentStream(document, page);
+    @Override
+    public void exportTestToStream(TestHistory test, ExportFormat format, Locale locale, OutputStream out) throws IOException {
+        writeTest(test, locale, false, out);
+    }
 
-                float y = PAGE_HEIGHT - MARGIN;
-                y = drawHeader(cs, fontBold, fontRegular, test, variantCode, y, locale);
-                y -= 20;
+    @Override
+    public void exportAnswerKeyToStream(TestHistory test, ExportFormat format, Locale locale, OutputStream out) throws IOException {
+        writeAnswerKey(test, locale, out);
+    }
 
-                int questionNum = 1;
-                for (int qi = 0; qi < questionIds.size(); qi++) {
-                    Question q = questionMap.get(questionIds.get(qi));
-                    if (q == null) continue;
+    @Override
+    public void exportCombinedToStream(TestHistory test, ExportFormat format, Locale locale, OutputStream out) throws IOException {
+        writeTest(test, locale, true, out);
+    }
 
-                    float estimatedHeight = estimateQuestionHeight(q);
-                    if (y - estimatedHeight < MARGIN + 30) {
-                        cs.close();
-                        page = new PDPage(PDRectangle.A4);
-                        document.addPage(page);
-                        cs = new PDPageContentStream(document, page);
-                        y = PAGE_HEIGHT - MARGIN;
-                    }
+    @Override
+    public void exportProofsToStream(TestHistory test, ExportFormat format, Locale locale, OutputStream out) throws IOException {
+        writeProofs(test, locale, out);
+    }
 
-                    List<String> optOrder = (optionsOrder != null && qi < optionsOrder.size())
-                            ? optionsOrder.get(qi) : null;
-                    y = drawQuestion(cs, fontBold, fontRegular, q, questionNum++, y, optOrder, locale);
-                    y -= QUESTION_SPACING;
-                }
-                cs.close();
-            }
+    @Override
+    public byte[] exportAnswerKey(TestHistory test, ExportFormat format, Locale locale) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            writeAnswerKey(test, locale, baos);
+            return baos.toByteArray();
 
-            addPageNumbers(document, fontRegular);
+        } catch (IOException e) {
+            log.error("Failed to generate answer key PDF", e);
+            throw new BusinessException(messageService.get("export.answer.key.pdf.fail", locale, e.getMessage()));
+        }
+    }
 
+    @Override
+    public byte[] exportCombined(TestHistory test, ExportFormat format, Locale locale) {
+        try {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
+            writeTest(test, locale, true, baos);
             return baos.toByteArray();
 
         } catch (IOException e) {
-            log.error("Failed to generate PDF", e);
+            log.error("Failed to generate combined PDF", e);
             throw new BusinessException(messageService.get("export.pdf.fail", locale, e.getMessage()));
         }
     }
 
     @Override
-    public void exportTestToStream(TestHistory test, ExportFormat format, Locale locale, OutputStream out) throws IOException {
-        try (PDDocument document = new PDDocument()) {
-            PDFont fontBold = loadFont(document, true);
-            PDFont fontRegular = loadFont(document, false);
+    public byte[] exportProofs(TestHistory test, ExportFormat format, Locale locale) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            writeProofs(test, locale, baos);
+            return baos.toByteArray();
 
-            for (Map<String, Object> variant : test.getVariants()) {
-                String variantCode = (String) variant.get("code");
-                List<UUID> questionIds = exportHelper.parseQuestionIds(variant.get("questionIds"));
-                List<List<String>> optionsOrder = exportHelper.parseOptionsOrder(variant.get("optionsOrder"));
+        } catch (IOException e) {
+            log.error("Failed to generate proofs PDF", e);
+            throw new BusinessException(messageService.get("export.proofs.pdf.fail", locale, e.getMessage()));
+        }
+    }
 
-                Map<UUID, Question> questionMap = questionRepository.findAllById(questionIds).stream()
-                        .collect(Collectors.toMap(Question::getId, Function.identity(), (a, b) -> a));
+    // ===== Document writers =====
 
-                PDPage page = new PDPage(PDRectangle.A4);
-                document.addPage(page);
-                PDPageContentStream cs = new PDPageContentStream(document, page);
+    private static MemoryUsageSetting memoryUsage() {
+        return MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES);
+    }
 
-                float y = PAGE_HEIGHT - MARGIN;
-                y = drawHeader(cs, fontBold, fontRegular, test, variantCode, y, locale);
-                y -= 20;
+    /**
+     * Renders every variant concurrently on the variant executor into its own scratch file,
+     * then appends the pages in variant order and saves straight to {@code out}. Each variant
+     * is saved on its own first so that its font subset is embedded before the pages move.
+     * With {@code withAnswerKey} the answer key is drawn into the same document.
+     */
+    private void writeTest(TestHistory test, Locale locale, boolean withAnswerKey, OutputStream out) throws IOException {
+        List<Map<String, Object>> variants = test.getVariants();
+
+        // One fetch and one options parse for all variants
+        Map<UUID, Question> questionMap = fetchQuestions(variants);
+        Map<UUID, Object> optionsById = new HashMap<>();
+        for (Question q : questionMap.values()) {
+            optionsById.put(q.getId(), parseJson(q.getOptions()));
+        }
 
-                int questionNum = 1;
-                for (int qi = 0; qi < questionIds.size(); qi++) {
-                    Question q = questionMap.get(questionIds.get(qi));
-                    if (q == null) continue;
+        List<CompletableFuture<Path>> futures = variants.stream()
+                .map(variant -> CompletableFuture.supplyAsync(
+                        () -> renderVariant(test, variant, questionMap, optionsById, locale),
+                        variantRenderExecutor))
+                .toList();
 
-                    float estimatedHeight = estimateQuestionHeight(q);
-                    if (y - estimatedHeight < MARGIN + 30) {
-                        cs.close();
-                        page = new PDPage(PDRectangle.A4);
-                        document.addPage(page);
-                        cs = new PDPageContentStream(document, page);
-                        y = PAGE_HEIGHT - MARGIN;
-                    }
+        List<PDDocument> parts = new ArrayList<>();
+        try {
+            for (CompletableFuture<Path> future : futures) {
+                parts.add(PDDocument.load(await(future).toFile(), memoryUsage()));
+            }
+            if (parts.isEmpty()) {
+                parts.add(new PDDocument(memoryUsage()));
+            }
 
-                    List<String> optOrder = (optionsOrder != null && qi < optionsOrder.size())
-                            ? optionsOrder.get(qi) : null;
-                    y = drawQuestion(cs, fontBold, fontRegular, q, questionNum++, y, optOrder, locale);
-                    y -= QUESTION_SPACING;
+            PDDocument document = parts.get(0);
+            for (int p = 1; p < parts.size(); p++) {
+                PDDocument part = parts.get(p);
+                for (int i = 0; i < part.getNumberOfPages(); i++) {
+                    document.addPage(part.getPage(i));
                 }
-                cs.close();
             }
 
-            addPageNumbers(document, fontRegular);
+            int testPages = document.getNumberOfPages();
+            DocumentFont fontRegular = loadFont(document, false);
+            if (withAnswerKey) {
+                drawAnswerKey(document, loadFont(document, true), fontRegular, test, locale);
+            }
+
+            // Test and answer key keep separate numbering, as when printed apart
+            addPageNumbers(document, fontRegular, 0, testPages);
+            addPageNumbers(document, fontRegular, testPages, document.getNumberOfPages());
             document.save(out);
+        } finally {
+            for (PDDocument part : parts) {
+                part.close();
+            }
+            // Wait for stragglers too, so no scratch file outlives the request
+            for (CompletableFuture<Path> future : futures) {
+                Path file = future.handle((path, error) -> path).join();
+                if (file != null) Files.deleteIfExists(file);
+            }
         }
     }
 
-    @Override
-    public void exportAnswerKeyToStream(TestHistory test, ExportFormat format, Locale locale, OutputStream out) throws IOException {
-        byte[] data = exportAnswerKey(test, format, locale);
-        out.write(data);
-    }
-
-    @Override
-    public void exportCombinedToStream(TestHistory test, ExportFormat format, Locale locale, OutputStream out) throws IOException {
-        // Combined still uses byte[] merge — streaming not possible with PDF merge
-        byte[] data = exportCombined(test, format, locale);
-        out.write(data);
-    }
-
-    @Override
-    public void exportProofsToStream(TestHistory test, ExportFormat format, Locale locale, OutputStream out) throws IOException {
-        byte[] data = exportProofs(test, format, locale);
-        out.write(data);
-    }
+    private Path renderVariant(TestHistory test, Map<String, Object> variant, Map<UUID, Question> questionMap,
+                               Map<UUID, Object> optionsById, Locale locale) {
+        try (PDDocument document = new PDDocument(memoryUsage())) {
+            DocumentFont fontBold = loadFont(document, true);
+            DocumentFont fontRegular = loadFont(document, false);
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public byte[] exportAnswerKey(TestHistory test, ExportFormat format, Locale locale) {
-        try (PDDocument document = new PDDocument()) {
-            PDFont fontBold = loadFont(document, true);
-            PDFont fontRegular = loadFont(document, false);
+            String variantCode = (String) variant.get("code");
+            List<UUID> questionIds = exportHelper.parseQuestionIds(variant.get("questionIds"));
+            List<List<String>> optionsOrder = exportHelper.parseOptionsOrder(variant.get("optionsOrder"));
 
             PDPage page = new PDPage(PDRectangle.A4);
             document.addPage(page);
             PDPageContentStream cs = new PDPageContentStream(document, page);
 
-            String localeKey = LocaleKeys.fromLocale(locale);
             float y = PAGE_HEIGHT - MARGIN;
-            y = drawCenteredText(cs, fontBold, 18, messageService.get("export.answer.key.title", locale), y);
-            y -= 10;
-            y = drawCenteredText(cs, fontRegular, 12, resolveTitle(test, localeKey), y);
-            y -= 5;
-            y = drawCenteredText(cs, fontRegular, 10,
-                    messageService.get("export.created.date", locale,
-                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy"))), y);
-            y -= 25;
+            y = drawHeader(cs, fontBold, fontRegular, test, variantCode, y, locale);
+            y -= 20;
 
-            for (Map<String, Object> variant : test.getVariants()) {
-                String code = (String) variant.get("code");
-                List<Map<String, Object>> answerKey = (List<Map<String, Object>>) variant.get("answerKey");
+            int questionNum = 1;
+            for (int qi = 0; qi < questionIds.size(); qi++) {
+                Question q = questionMap.get(questionIds.get(qi));
+                if (q == null) continue;
+                Object optionsObj = optionsById.get(q.getId());
 
-                if (y < MARGIN + 150) {
+                float estimatedHeight = estimateQuestionHeight(optionsObj);
+                if (y - estimatedHeight < MARGIN + 30) {
                     cs.close();
                     page = new PDPage(PDRectangle.A4);
                     document.addPage(page);
@@ -226,56 +248,122 @@ public class PdfExportService implements TestExportService {
                     y = PAGE_HEIGHT - MARGIN;
                 }
 
-                y = drawCenteredText(cs, fontBold, 14, messageService.get("export.variant.header", locale, code), y);
-                y -= 15;
-                y = drawAnswerKeyTable(cs, fontBold, fontRegular, answerKey, y, locale);
-                y -= 25;
+                List<String> optOrder = (optionsOrder != null && qi < optionsOrder.size())
+                        ? optionsOrder.get(qi) : null;
+                y = drawQuestion(cs, fontBold, fontRegular, q, optionsObj, questionNum++, y, optOrder, locale);
+                y -= QUESTION_SPACING;
             }
+            cs.close();
 
-            y -= 10;
-            cs.beginText();
-            cs.setFont(fontBold, 11);
-            cs.newLineAtOffset(MARGIN, y);
-            cs.showText(sanitizeForPdf(messageService.get("export.grading.title", locale), fontBold));
-            cs.endText();
-            y -= LINE_HEIGHT;
-
-            String[] gradeKeys = {"export.grade.excellent", "export.grade.good",
-                    "export.grade.satisfactory", "export.grade.unsatisfactory"};
-            for (String key : gradeKeys) {
-                cs.beginText();
-                cs.setFont(fontRegular, 10);
-                cs.newLineAtOffset(MARGIN + 10, y);
-                cs.showText(sanitizeForPdf("- " + messageService.get(key, locale), fontRegular));
-                cs.endText();
-                y -= LINE_HEIGHT;
+            Path file = Files.createTempFile("test-variant-", ".pdf");
+            try {
+                document.save(file.toFile());
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
             }
+            return file;
 
-            cs.close();
-            addPageNumbers(document, fontRegular);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
-            return baos.toByteArray();
+    private Path await(CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
 
-        } catch (IOException e) {
-            log.error("Failed to generate answer key PDF", e);
-            throw new BusinessException(messageService.get("export.answer.key.pdf.fail", locale, e.getMessage()));
+
+    private Map<UUID, Question> fetchQuestions(List<Map<String, Object>> variants) {
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (Map<String, Object> variant : variants) {
+            ids.addAll(exportHelper.parseQuestionIds(variant.get("questionIds")));
         }
+        if (ids.isEmpty()) return Map.of();
+        return questionRepository.findAllById(new ArrayList<>(ids)).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity(), (a, b) -> a));
     }
 
-    @Override
-    public byte[] exportCombined(TestHistory test, ExportFormat format, Locale locale) {
-        byte[] testPdf = exportTest(test, format, locale);
-        byte[] answerKeyPdf = exportAnswerKey(test, format, locale);
-        return mergePdfs(testPdf, answerKeyPdf, locale);
+    private void writeAnswerKey(TestHistory test, Locale locale, OutputStream out) throws IOException {
+        try (PDDocument document = new PDDocument(memoryUsage())) {
+            DocumentFont fontRegular = loadFont(document, false);
+            drawAnswerKey(document, loadFont(document, true), fontRegular, test, locale);
+            addPageNumbers(document, fontRegular, 0, document.getNumberOfPages());
+            document.save(out);
+        }
     }
 
-    @Override
-    public byte[] exportProofs(TestHistory test, ExportFormat format, Locale locale) {
-        try (PDDocument document = new PDDocument()) {
-            PDFont fontBold = loadFont(document, true);
-            PDFont fontRegular = loadFont(document, false);
+    /**
+     * Appends the answer key pages (all variants plus grading scale) to {@code document}.
+     */
+    @SuppressWarnings("unchecked")
+    private void drawAnswerKey(PDDocument document, DocumentFont fontBold, DocumentFont fontRegular,
+                               TestHistory test, Locale locale) throws IOException {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        PDPageContentStream cs = new PDPageContentStream(document, page);
+
+        String localeKey = LocaleKeys.fromLocale(locale);
+        float y = PAGE_HEIGHT - MARGIN;
+        y = drawCenteredText(cs, fontBold, 18, messageService.get("export.answer.key.title", locale), y);
+        y -= 10;
+        y = drawCenteredText(cs, fontRegular, 12, resolveTitle(test, localeKey), y);
+        y -= 5;
+        y = drawCenteredText(cs, fontRegular, 10,
+                messageService.get("export.created.date", locale,
+                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy"))), y);
+        y -= 25;
+
+        for (Map<String, Object> variant : test.getVariants()) {
+            String code = (String) variant.get("code");
+            List<Map<String, Object>> answerKey = (List<Map<String, Object>>) variant.get("answerKey");
+
+            if (y < MARGIN + 150) {
+                cs.close();
+                page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                cs = new PDPageContentStream(document, page);
+                y = PAGE_HEIGHT - MARGIN;
+            }
+
+            y = drawCenteredText(cs, fontBold, 14, messageService.get("export.variant.header", locale, code), y);
+            y -= 15;
+            y = drawAnswerKeyTable(cs, fontBold, fontRegular, answerKey, y, locale);
+            y -= 25;
+        }
+
+        y -= 10;
+        cs.beginText();
+        cs.setFont(fontBold.font(), 11);
+        cs.newLineAtOffset(MARGIN, y);
+        cs.showText(fontBold.sanitize(messageService.get("export.grading.title", locale)));
+        cs.endText();
+        y -= LINE_HEIGHT;
+
+        String[] gradeKeys = {"export.grade.excellent", "export.grade.good",
+                "export.grade.satisfactory", "export.grade.unsatisfactory"};
+        for (String key : gradeKeys) {
+            cs.beginText();
+            cs.setFont(fontRegular.font(), 10);
+            cs.newLineAtOffset(MARGIN + 10, y);
+            cs.showText(fontRegular.sanitize("- " + messageService.get(key, locale)));
+            cs.endText();
+            y -= LINE_HEIGHT;
+        }
+
+        cs.close();
+    }
+
+    private void writeProofs(TestHistory test, Locale locale, OutputStream out) throws IOException {
+        try (PDDocument document = new PDDocument(memoryUsage())) {
+            DocumentFont fontBold = loadFont(document, true);
+            DocumentFont fontRegular = loadFont(document, false);
 
             PDPage page = new PDPage(PDRectangle.A4);
             document.addPage(page);
@@ -298,10 +386,10 @@ public class PdfExportService implements TestExportService {
             int num = 1;
             for (UUID qId : questionIds) {
                 Question q = questionMap.get(qId);
-                String proofText = q != null ? TranslatedField.resolve(q.getProof()) : null;
+                String proofText = q != null ? TranslatedField.resolve(q.getProof(), localeKey) : null;
                 if (q == null || proofText == null || proofText.isBlank()) continue;
 
-                String qText = TranslatedField.resolve(q.getQuestionText());
+                String qText = TranslatedField.resolve(q.getQuestionText(), localeKey);
                 float estimatedHeight = 80 + (proofText.length() / 60) * LINE_HEIGHT;
                 if (y - estimatedHeight < MARGIN + 30) {
                     cs.close();
@@ -312,20 +400,20 @@ public class PdfExportService implements TestExportService {
                 }
 
                 cs.beginText();
-                cs.setFont(fontBold, 11);
+                cs.setFont(fontBold.font(), 11);
                 cs.newLineAtOffset(MARGIN, y);
-                cs.showText(sanitizeForPdf(num + ". " + exportHelper.truncateText(qText, 80), fontBold));
+                cs.showText(fontBold.sanitize(num + ". " + exportHelper.truncateText(qText, 80)));
                 cs.endText();
                 y -= LINE_HEIGHT + 5;
 
                 cs.beginText();
-                cs.setFont(fontRegular, 10);
+                cs.setFont(fontRegular.font(), 10);
                 cs.newLineAtOffset(MARGIN + 15, y);
-                cs.showText(sanitizeForPdf(messageService.get("export.proof.label", locale), fontRegular));
+                cs.showText(fontRegular.sanitize(messageService.get("export.proof.label", locale)));
                 cs.endText();
                 y -= LINE_HEIGHT;
 
-                for (String line : exportHelper.wrapText(proofText, 85)) {
+                for (String line : fontRegular.wrap(proofText, 9, CONTENT_WIDTH - 20)) {
                     if (y < MARGIN + 30) {
                         cs.close();
                         page = new PDPage(PDRectangle.A4);
@@ -334,9 +422,9 @@ public class PdfExportService implements TestExportService {
                         y = PAGE_HEIGHT - MARGIN;
                     }
                     cs.beginText();
-                    cs.setFont(fontRegular, 9);
+                    cs.setFont(fontRegular.font(), 9);
                     cs.newLineAtOffset(MARGIN + 20, y);
-                    cs.showText(sanitizeForPdf(line, fontRegular));
+                    cs.showText(line);
                     cs.endText();
                     y -= LINE_HEIGHT - 2;
                 }
@@ -345,18 +433,12 @@ public class PdfExportService implements TestExportService {
             }
 
             cs.close();
-            addPageNumbers(document, fontRegular);
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
-            return baos.toByteArray();
-
-        } catch (IOException e) {
-            log.error("Failed to generate proofs PDF", e);
-            throw new BusinessException(messageService.get("export.proofs.pdf.fail", locale, e.getMessage()));
+            addPageNumbers(document, fontRegular, 0, document.getNumberOfPages());
+            document.save(out);
         }
     }
 
+
     // ===== Translation helpers =====
 
     private String resolveTitle(TestHistory test, String localeKey) {
@@ -381,25 +463,14 @@ public class PdfExportService implements TestExportService {
 
     // ===== Font loading =====
 
-    private PDFont loadFont(PDDocument document, boolean bold) throws IOException {
-        String path = bold ? "/fonts/NotoSans-Bold.ttf" : "/fonts/NotoSans-Regular.ttf";
-        InputStream is = getClass().getResourceAsStream(path);
-        if (is != null) {
-            try {
-                return PDType0Font.load(document, is);
-            } finally {
-                is.close();
-            }
-        }
-        log.error("NotoSans font not found at {}. PDF export requires embedded Unicode fonts for Cyrillic/Uzbek text.", path);
-        throw new IOException("Required font not found: " + path
-                + ". Ensure NotoSans-Regular.ttf and NotoSans-Bold.ttf are in src/main/resources/fonts/");
+    private DocumentFont loadFont(PDDocument document, boolean bold) throws IOException {
+        return (bold ? pdfFonts.bold() : pdfFonts.regular()).embedIn(document);
     }
 
     // ===== Private helpers =====
 
-    private float drawHeader(PDPageContentStream cs, PDFont fontBold,
-                             PDFont fontRegular, TestHistory test,
+    private float drawHeader(PDPageContentStream cs, DocumentFont fontBold,
+                             DocumentFont fontRegular, TestHistory test,
                              String variantCode, float y, Locale locale) throws IOException {
         String localeKey = LocaleKeys.fromLocale(locale);
         Map<String, Object> header = test.getHeaderConfig();
@@ -419,23 +490,23 @@ public class PdfExportService implements TestExportService {
         y -= 15;
 
         cs.beginText();
-        cs.setFont(fontRegular, 11);
+        cs.setFont(fontRegular.font(), 11);
         cs.newLineAtOffset(MARGIN, y);
-        cs.showText(sanitizeForPdf(messageService.get("export.student.name", locale), fontRegular));
+        cs.showText(fontRegular.sanitize(messageService.get("export.student.name", locale)));
         cs.endText();
         y -= LINE_HEIGHT + 3;
 
         cs.beginText();
-        cs.setFont(fontRegular, 11);
+        cs.setFont(fontRegular.font(), 11);
         cs.newLineAtOffset(MARGIN, y);
-        cs.showText(sanitizeForPdf(messageService.get("export.class.date", locale, className), fontRegular));
+        cs.showText(fontRegular.sanitize(messageService.get("export.class.date", locale, className)));
         cs.endText();
         y -= LINE_HEIGHT + 3;
 
         cs.beginText();
-        cs.setFont(fontRegular, 10);
+        cs.setFont(fontRegular.font(), 10);
         cs.newLineAtOffset(MARGIN, y);
-        cs.showText(sanitizeForPdf(messageService.get("export.question.count", locale, test.getQuestionCount()), fontRegular));
+        cs.showText(fontRegular.sanitize(messageService.get("export.question.count", locale, test.getQuestionCount())));
         cs.endText();
         y -= LINE_HEIGHT;
 
@@ -448,24 +519,25 @@ public class PdfExportService implements TestExportService {
     }
 
     @SuppressWarnings("unchecked")
-    private float drawQuestion(PDPageContentStream cs, PDFont fontBold,
-                                PDFont fontRegular, Question q,
+    private float drawQuestion(PDPageContentStream cs, DocumentFont fontBold,
+                                DocumentFont fontRegular, Question q, Object optionsObj,
                                 int num, float y, List<String> optionsOrder, Locale locale) throws IOException {
-        String questionText = num + ". " + TranslatedField.resolve(q.getQuestionText());
-        // Sanitize before wrapping to avoid glyph errors for unsupported Unicode chars
-        questionText = sanitizeForPdf(questionText, fontRegular);
-        List<String> lines = exportHelper.wrapText(questionText, 85);
+        // Variants render on pool threads, so the locale is passed explicitly, not read from the context
+        String localeKey = LocaleKeys.fromLocale(locale);
+        String questionText = num + ". " + TranslatedField.resolve(q.getQuestionText(), localeKey);
+        // Measured with the bold face, the wider of the two, since the first line is bold
+        List<String> lines = fontBold.wrap(questionText, 11, CONTENT_WIDTH);
         for (int i = 0; i < lines.size(); i++) {
+            DocumentFont font = i == 0 ? fontBold : fontRegular;
             cs.beginText();
-            cs.setFont(i == 0 ? fontBold : fontRegular, 11);
+            cs.setFont(font.font(), 11);
             cs.newLineAtOffset(MARGIN, y);
-            cs.showText(lines.get(i));
+            cs.showText(font.sanitize(lines.get(i)));
             cs.endText();
             y -= LINE_HEIGHT;
         }
         y -= 3;
 
-        Object optionsObj = parseJson(q.getOptions());
         boolean isMcq = q.getQuestionType() == QuestionType.MCQ_SINGLE
                 || q.getQuestionType() == QuestionType.MCQ_MULTI;
 
@@ -490,21 +562,21 @@ public class PdfExportService implements TestExportService {
             }
 
             for (int i = 0; i < options.size(); i++) {
-                String text = resolveExportOptionText(options.get(i).get("text"));
+                String text = resolveExportOptionText(options.get(i).get("text"), localeKey);
                 String label = i < labels.length ? labels[i] : String.valueOf(i + 1);
                 cs.beginText();
-                cs.setFont(fontRegular, 10);
+                cs.setFont(fontRegular.font(), 10);
                 cs.newLineAtOffset(MARGIN + 20, y);
-                cs.showText(sanitizeForPdf(label + ") " + exportHelper.truncateText(text, 75), fontRegular));
+                cs.showText(fontRegular.sanitize(label + ") " + exportHelper.truncateText(text, 75)));
                 cs.endText();
                 y -= LINE_HEIGHT;
             }
         } else if (q.getQuestionType() == QuestionType.TRUE_FALSE) {
             cs.beginText();
-            cs.setFont(fontRegular, 10);
+            cs.setFont(fontRegular.font(), 10);
             cs.newLineAtOffset(MARGIN + 20, y);
-            cs.showText(sanitizeForPdf("A) " + messageService.get("export.true.option", locale)
-                    + "     B) " + messageService.get("export.false.option", locale), fontRegular));
+            cs.showText(fontRegular.sanitize("A) " + messageService.get("export.true.option", locale)
+                    + "     B) " + messageService.get("export.false.option", locale)));
             cs.endText();
             y -= LINE_HEIGHT;
         }
@@ -514,8 +586,8 @@ public class PdfExportService implements TestExportService {
     }
 
     @SuppressWarnings("unchecked")
-    private float drawAnswerKeyTable(PDPageContentStream cs, PDFont fontBold,
-                                      PDFont fontRegular,
+    private float drawAnswerKeyTable(PDPageContentStream cs, DocumentFont fontBold,
+                                      DocumentFont fontRegular,
                                       List<Map<String, Object>> answerKey, float y,
                                       Locale locale) throws IOException {
         // Table with 4 question-answer pairs per row (8 visual columns: #, Ans, #, Ans, ...)
@@ -535,15 +607,15 @@ public class PdfExportService implements TestExportService {
 
             // Header text
             cs.beginText();
-            cs.setFont(fontBold, 9);
+            cs.setFont(fontBold.font(), 9);
             cs.newLineAtOffset(xNum + 4, headerY - 12);
             cs.showText("#");
             cs.endText();
 
             cs.beginText();
-            cs.setFont(fontBold, 9);
+            cs.setFont(fontBold.font(), 9);
             cs.newLineAtOffset(xAns + 4, headerY - 12);
-            cs.showText(sanitizeForPdf(messageService.get("export.answer.column.short", locale), fontBold));
+            cs.showText(fontBold.sanitize(messageService.get("export.answer.column.short", locale)));
             cs.endText();
         }
 
@@ -582,15 +654,15 @@ public class PdfExportService implements TestExportService {
                 float xAns = xNum + numColWidth;
 
                 cs.beginText();
-                cs.setFont(fontRegular, 10);
+                cs.setFont(fontRegular.font(), 10);
                 cs.newLineAtOffset(xNum + 4, rowTop - 12);
-                cs.showText(sanitizeForPdf(numStr, fontRegular));
+                cs.showText(fontRegular.sanitize(numStr));
                 cs.endText();
 
                 cs.beginText();
-                cs.setFont(fontBold, 10);
+                cs.setFont(fontBold.font(), 10);
                 cs.newLineAtOffset(xAns + 4, rowTop - 12);
-                cs.showText(sanitizeForPdf(answer, fontBold));
+                cs.showText(fontBold.sanitize(answer));
                 cs.endText();
             }
 
@@ -627,29 +699,32 @@ public class PdfExportService implements TestExportService {
         cs.stroke();
     }
 
-    private float drawCenteredText(PDPageContentStream cs, PDFont font,
+    private float drawCenteredText(PDPageContentStream cs, DocumentFont font,
                                     float fontSize, String text, float y) throws IOException {
-        text = sanitizeForPdf(text, font);
-        float textWidth = font.getStringWidth(text) / 1000 * fontSize;
+        text = font.sanitize(text);
+        float textWidth = font.width(text, fontSize);
         float x = (PAGE_WIDTH - textWidth) / 2;
         cs.beginText();
-        cs.setFont(font, fontSize);
+        cs.setFont(font.font(), fontSize);
         cs.newLineAtOffset(x, y);
         cs.showText(text);
         cs.endText();
         return y - fontSize - 3;
     }
 
-    private void addPageNumbers(PDDocument document, PDFont font) throws IOException {
-        int totalPages = document.getNumberOfPages();
-        for (int i = 0; i < totalPages; i++) {
+    /**
+     * Stamps "n / total" on pages {@code [from, to)}, numbered relative to that range.
+     */
+    private void addPageNumbers(PDDocument document, DocumentFont font, int from, int to) throws IOException {
+        int totalPages = to - from;
+        for (int i = from; i < to; i++) {
             PDPage page = document.getPage(i);
             PDPageContentStream cs = new PDPageContentStream(document, page,
                     PDPageContentStream.AppendMode.APPEND, true, true);
-            String text = sanitizeForPdf((i + 1) + " / " + totalPages, font);
-            float textWidth = font.getStringWidth(text) / 1000 * 9;
+            String text = font.sanitize((i - from + 1) + " / " + totalPages);
+            float textWidth = font.width(text, 9);
             cs.beginText();
-            cs.setFont(font, 9);
+            cs.setFont(font.font(), 9);
             cs.newLineAtOffset((PAGE_WIDTH - textWidth) / 2, 25);
             cs.showText(text);
             cs.endText();
@@ -657,9 +732,8 @@ public class PdfExportService implements TestExportService {
         }
     }
 
-    private float estimateQuestionHeight(Question q) {
+    private float estimateQuestionHeight(Object optionsObj) {
         float height = LINE_HEIGHT * 2;
-        Object optionsObj = parseJson(q.getOptions());
         if (optionsObj instanceof List<?> opts) {
             height += opts.size() * LINE_HEIGHT;
         }
@@ -668,9 +742,9 @@ public class PdfExportService implements TestExportService {
     }
 
     @SuppressWarnings("unchecked")
-    private String resolveExportOptionText(Object text) {
+    private String resolveExportOptionText(Object text, String localeKey) {
         if (text instanceof Map) {
-            return TranslatedField.resolve((Map<String, String>) text);
+            return TranslatedField.resolve((Map<String, String>) text, localeKey);
         }
         return text != null ? String.valueOf(text) : "";
     }
@@ -683,70 +757,4 @@ public class PdfExportService implements TestExportService {
             return null;
         }
     }
-
-    /**
-     * Sanitizes text for PDF rendering by replacing characters unsupported by the font.
-     * NotoSans lacks many math/special Unicode glyphs — this prevents IllegalArgumentException.
-     */
-    private String sanitizeForPdf(String text, PDFont font) {
-        if (text == null || text.isEmpty()) return "";
-        StringBuilder sb = new StringBuilder(text.length());
-        for (int i = 0; i < text.length(); ) {
-            int cp = text.codePointAt(i);
-            String ch = new String(Character.toChars(cp));
-            try {
-                font.encode(ch);
-                sb.append(ch);
-            } catch (Exception e) {
-                sb.append(mapUnsupportedChar(cp));
-            }
-            i += Character.charCount(cp);
-        }
-        return sb.toString();
-    }
-
-    private String mapUnsupportedChar(int codePoint) {
-        return switch (codePoint) {
-            case 0x221A -> "sqrt";   // √
-            case 0x03C0 -> "pi";     // π
-            case 0x2211 -> "sum";    // ∑
-            case 0x222B -> "int";    // ∫
-            case 0x2260 -> "!=";     // ≠
-            case 0x2264 -> "<=";     // ≤
-            case 0x2265 -> ">=";     // ≥
-            case 0x00B2 -> "^2";     // ²
-            case 0x00B3 -> "^3";     // ³
-            case 0x2248 -> "~=";     // ≈
-            case 0x221E -> "inf";    // ∞
-            case 0x00B1 -> "+/-";    // ±
-            case 0x00D7 -> "*";      // ×
-            case 0x00F7 -> "/";      // ÷
-            case 0x2013 -> "-";      // –
-            case 0x2014 -> "--";     // —
-            case 0x2018, 0x2019 -> "'";  // ' '
-            case 0x201C, 0x201D -> "\""; // " "
-            case 0x2026 -> "...";    // …
-            case 0x0394 -> "delta";  // Δ
-            case 0x03B1 -> "alpha";  // α
-            case 0x03B2 -> "beta";   // β
-            case 0x03B3 -> "gamma";  // γ
-            default -> "?";
-        };
-    }
-
-    private byte[] mergePdfs(byte[] pdf1, byte[] pdf2, Locale locale) {
-        try (PDDocument doc1 = PDDocument.load(pdf1);
-             PDDocument doc2 = PDDocument.load(pdf2)) {
-
-            for (int i = 0; i < doc2.getNumberOfPages(); i++) {
-                doc1.addPage(doc2.getPage(i));
-            }
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            doc1.save(baos);
-            return baos.toByteArray();
-        } catch (IOException e) {
-            throw new BusinessException(messageService.get("export.merge.pdf.fail", locale, e.getMessage()));
-        }
-    }
 }
@@ -2,12 +2,12 @@ package uz.eduplatform.modules.test.service.export;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.modules.test.domain.TestHistory;
 import uz.eduplatform.modules.test.service.ExportHelper;
+import uz.eduplatform.modules.test.service.export.ExportArtifactCache.Kind;
 
-import java.io.IOException;
-import java.io.OutputStream;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -21,11 +21,14 @@ public class TestExportFacade {
 
     private final Map<ExportFormat, TestExportService> exportServices;
     private final ExportHelper exportHelper;
+    private final ExportArtifactCache artifactCache;
 
-    public TestExportFacade(List<TestExportService> services, ExportHelper exportHelper) {
+    public TestExportFacade(List<TestExportService> services, ExportHelper exportHelper,
+                            ExportArtifactCache artifactCache) {
         this.exportServices = services.stream()
                 .collect(Collectors.toMap(TestExportService::getFormat, Function.identity()));
         this.exportHelper = exportHelper;
+        this.artifactCache = artifactCache;
     }
 
     public byte[] exportTest(UUID testId, UUID userId, ExportFormat format, Locale locale) {
@@ -53,27 +56,42 @@ public class TestExportFacade {
     }
 
     // ===== Streaming methods =====
+    // The test is loaded and the format resolved up front so that 404s and unsupported
+    // formats still produce a normal error response; only rendering runs inside the body.
+    // Repeat downloads of an unchanged test are served from the artifact cache.
 
-    public void streamExportTest(UUID testId, UUID userId, ExportFormat format, Locale locale, OutputStream out) throws IOException {
+    public StreamingResponseBody streamExportTest(UUID testId, UUID userId, ExportFormat format, Locale locale) {
         TestHistory test = exportHelper.getTestHistory(testId, userId);
-        getService(format).exportTestToStream(test, format, locale, out);
-        exportHelper.updateDownloadCount(test);
+        TestExportService service = getService(format);
+        return out -> {
+            artifactCache.serve(test, Kind.TEST, format, locale,
+                    o -> service.exportTestToStream(test, format, locale, o), out);
+            exportHelper.updateDownloadCount(test);
+        };
     }
 
-    public void streamExportAnswerKey(UUID testId, UUID userId, ExportFormat format, Locale locale, OutputStream out) throws IOException {
+    public StreamingResponseBody streamExportAnswerKey(UUID testId, UUID userId, ExportFormat format, Locale locale) {
         TestHistory test = exportHelper.getTestHistory(testId, userId);
-        getService(format).exportAnswerKeyToStream(test, format, locale, out);
+        TestExportService service = getService(format);
+        return out -> artifactCache.serve(test, Kind.ANSWER_KEY, format, locale,
+                o -> service.exportAnswerKeyToStream(test, format, locale, o), out);
     }
 
-    public void streamExportCombined(UUID testId, UUID userId, ExportFormat format, Locale locale, OutputStream out) throws IOException {
+    public StreamingResponseBody streamExportCombined(UUID testId, UUID userId, ExportFormat format, Locale locale) {
         TestHistory test = exportHelper.getTestHistory(testId, userId);
-        getService(format).exportCombinedToStream(test, format, locale, out);
-        exportHelper.updateDownloadCount(test);
+        TestExportService service = getService(format);
+        return out -> {
+            artifactCache.serve(test, Kind.COMBINED, format, locale,
+                    o -> service.exportCombinedToStream(test, format, locale, o), out);
+            exportHelper.updateDownloadCount(test);
+        };
     }
 
-    public void streamExportProofs(UUID testId, UUID userId, ExportFormat format, Locale locale, OutputStream out) throws IOException {
+    public StreamingResponseBody streamExportProofs(UUID testId, UUID userId, ExportFormat format, Locale locale) {
         TestHistory test = exportHelper.getTestHistory(testId, userId);
-        getService(format).exportProofsToStream(test, format, locale, out);
+        TestExportService service = getService(format);
+        return out -> artifactCache.serve(test, Kind.PROOFS, format, locale,
+                o -> service.exportProofsToStream(test, format, locale, o), out);
     }
 
     private TestExportService getService(ExportFormat format) {
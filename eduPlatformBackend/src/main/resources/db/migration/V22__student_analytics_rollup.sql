@@ -0,0 +1,117 @@
+-- ============================================
+-- V22: Per-student analytics rollup
+--
+-- Incrementally maintained by GradingService so that the student
+-- analytics and parent child-dashboard endpoints read a handful of
+-- rows instead of replaying every test attempt.
+--
+-- scope_type = OVERALL : one row per student (scope_id = nil UUID),
+--                        also carries recent trend points and daily activity
+-- scope_type = SUBJECT : one row per student per subject
+-- scope_type = TOPIC   : one row per student per topic (subject_id = parent subject)
+-- ============================================
+
+CREATE TABLE student_analytics_rollup (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+
+    student_id UUID        NOT NULL REFERENCES users(id),
+    scope_type VARCHAR(10) NOT NULL,
+    scope_id   UUID        NOT NULL,
+    subject_id UUID,
+
+    attempt_count      INTEGER       NOT NULL DEFAULT 0,
+    score_sum          NUMERIC(12,2) NOT NULL DEFAULT 0,
+    time_spent_seconds BIGINT        NOT NULL DEFAULT 0,
+    question_count     BIGINT        NOT NULL DEFAULT 0,
+    last_attempt_at    TIMESTAMP,
+
+    recent_points  JSONB,
+    daily_activity JSONB,
+
+    updated_at TIMESTAMP DEFAULT NOW(),
+
+    CONSTRAINT uk_rollup_student_scope UNIQUE (student_id, scope_type, scope_id),
+    CONSTRAINT check_rollup_scope_type CHECK (scope_type IN ('OVERALL', 'SUBJECT', 'TOPIC'))
+);
+
+CREATE INDEX idx_rollup_student ON student_analytics_rollup(student_id);
+
+-- ── Backfill from existing graded attempts ──
+
+CREATE TEMP TABLE tmp_graded_attempts AS
+SELECT ta.id,
+       ta.student_id,
+       ta.percentage,
+       ta.started_at,
+       ta.submitted_at,
+       tsg.title AS assignment_title,
+       th.subject_id,
+       th.topic_ids,
+       CASE WHEN ta.submitted_at IS NOT NULL AND ta.started_at IS NOT NULL
+            THEN GREATEST(EXTRACT(EPOCH FROM (ta.submitted_at - ta.started_at))::BIGINT, 0)
+            ELSE 0 END AS seconds,
+       (SELECT COUNT(*) FROM answers an WHERE an.attempt_id = ta.id) AS questions
+FROM test_attempts ta
+JOIN test_assignments tsg ON tsg.id = ta.assignment_id
+LEFT JOIN test_history th ON th.id = tsg.test_history_id
+WHERE ta.percentage IS NOT NULL;
+
+INSERT INTO student_analytics_rollup (student_id, scope_type, scope_id, attempt_count, score_sum,
+                                      time_spent_seconds, question_count, last_attempt_at)
+SELECT student_id, 'OVERALL', '00000000-0000-0000-0000-000000000000',
+       COUNT(*), SUM(percentage), SUM(seconds), SUM(questions), MAX(submitted_at)
+FROM tmp_graded_attempts
+GROUP BY student_id;
+
+INSERT INTO student_analytics_rollup (student_id, scope_type, scope_id, subject_id, attempt_count, score_sum,
+                                      time_spent_seconds, question_count, last_attempt_at)
+SELECT student_id, 'SUBJECT', subject_id, subject_id,
+       COUNT(*), SUM(percentage), SUM(seconds), SUM(questions), MAX(submitted_at)
+FROM tmp_graded_attempts
+WHERE subject_id IS NOT NULL
+GROUP BY student_id, subject_id;
+
+INSERT INTO student_analytics_rollup (student_id, scope_type, scope_id, subject_id, attempt_count, score_sum,
+                                      time_spent_seconds, question_count, last_attempt_at)
+SELECT g.student_id, 'TOPIC', CAST(t.topic_id AS UUID), (ARRAY_AGG(g.subject_id))[1],
+       COUNT(*), SUM(g.percentage), SUM(g.seconds), SUM(g.questions), MAX(g.submitted_at)
+FROM tmp_graded_attempts g
+CROSS JOIN LATERAL jsonb_array_elements_text(g.topic_ids) AS t(topic_id)
+WHERE jsonb_typeof(g.topic_ids) = 'array'
+GROUP BY g.student_id, t.topic_id;
+
+-- Last 20 scored attempts, newest first
+UPDATE student_analytics_rollup r
+SET recent_points = p.points
+FROM (SELECT student_id,
+             jsonb_agg(jsonb_build_object(
+                     'attemptId', id,
+                     'assignmentTitle', assignment_title,
+                     'percentage', percentage,
+                     'submittedAt', submitted_at)
+                     ORDER BY submitted_at DESC) AS points
+      FROM (SELECT g.*, ROW_NUMBER() OVER (PARTITION BY student_id ORDER BY submitted_at DESC) AS rn
+            FROM tmp_graded_attempts g
+            WHERE submitted_at IS NOT NULL) ranked
+      WHERE rn <= 20
+      GROUP BY student_id) p
+WHERE r.student_id = p.student_id AND r.scope_type = 'OVERALL';
+
+-- Daily activity for the last 62 days, keyed by ISO date
+UPDATE student_analytics_rollup r
+SET daily_activity = d.days
+FROM (SELECT student_id,
+             jsonb_object_agg(day, jsonb_build_object(
+                     'count', cnt, 'scoreSum', score_sum, 'seconds', seconds)) AS days
+      FROM (SELECT student_id,
+                   TO_CHAR(submitted_at, 'YYYY-MM-DD') AS day,
+                   COUNT(*) AS cnt,
+                   SUM(percentage) AS score_sum,
+                   SUM(seconds) AS seconds
+            FROM tmp_graded_attempts
+            WHERE submitted_at >= CURRENT_DATE - INTERVAL '62 days'
+            GROUP BY student_id, day) daily
+      GROUP BY student_id) d
+WHERE r.student_id = d.student_id AND r.scope_type = 'OVERALL';
+
+DROP TABLE tmp_graded_attempts;
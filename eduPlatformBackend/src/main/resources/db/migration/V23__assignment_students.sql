@@ -0,0 +1,52 @@
+-- ============================================
+-- V23: Normalized assignment <-> student link table
+--
+-- Replaces containment scans on test_assignments.assigned_student_ids
+-- (JSONB) with index lookups. The JSONB column is kept and dual-written
+-- by AssignmentStudentService; AssignmentStudentConsistencyTask repairs
+-- any drift between the two.
+--
+-- status: ASSIGNED  -> no attempt yet
+--         STARTED   -> at least one attempt started
+--         SUBMITTED -> at least one attempt submitted
+-- ============================================
+
+CREATE TABLE assignment_students (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+
+    assignment_id UUID NOT NULL REFERENCES test_assignments(id) ON DELETE CASCADE,
+    -- no FK to users: mirrors the JSONB column exactly, which never enforced one
+    student_id    UUID NOT NULL,
+
+    status VARCHAR(20) NOT NULL DEFAULT 'ASSIGNED',
+
+    assigned_at TIMESTAMP DEFAULT NOW(),
+    updated_at  TIMESTAMP DEFAULT NOW(),
+
+    CONSTRAINT uk_assignment_student UNIQUE (assignment_id, student_id),
+    CONSTRAINT check_assignment_student_status CHECK (status IN ('ASSIGNED', 'STARTED', 'SUBMITTED'))
+);
+
+-- "my assignments" and global-test lookups start from the student
+CREATE INDEX idx_as_student_assignment ON assignment_students(student_id, assignment_id);
+-- completion counts per assignment
+CREATE INDEX idx_as_assignment_status ON assignment_students(assignment_id, status);
+
+-- ── Backfill from the JSONB column ──
+
+INSERT INTO assignment_students (assignment_id, student_id, status)
+SELECT a.id,
+       s.student_id,
+       CASE
+           WHEN EXISTS (SELECT 1 FROM test_attempts ta
+                        WHERE ta.assignment_id = a.id AND ta.student_id = s.student_id
+                          AND ta.submitted_at IS NOT NULL) THEN 'SUBMITTED'
+           WHEN EXISTS (SELECT 1 FROM test_attempts ta
+                        WHERE ta.assignment_id = a.id AND ta.student_id = s.student_id) THEN 'STARTED'
+           ELSE 'ASSIGNED'
+       END
+FROM test_assignments a
+CROSS JOIN LATERAL (SELECT DISTINCT CAST(e.value AS UUID) AS student_id
+                    FROM jsonb_array_elements_text(a.assigned_student_ids) AS e(value)) s
+WHERE jsonb_typeof(a.assigned_student_ids) = 'array'
+ON CONFLICT (assignment_id, student_id) DO NOTHING;
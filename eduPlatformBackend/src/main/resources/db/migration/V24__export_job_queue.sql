@@ -0,0 +1,27 @@
+-- ============================================
+-- V24: export_jobs as a work queue
+--
+-- Workers on any node claim PENDING rows with FOR UPDATE SKIP LOCKED.
+-- Output moves from the file_data BYTEA column to files under
+-- app.storage.upload-dir; file_path is relative to that directory.
+--
+-- attempts:        claims so far (a retry increments it again)
+-- next_attempt_at: earliest time a failed job may be claimed again
+-- locked_by/at:    worker holding a PROCESSING job; stale locks are
+--                  released back to PENDING by ExportJobWorker
+-- ============================================
+
+ALTER TABLE export_jobs
+    ADD COLUMN attempts        INT          NOT NULL DEFAULT 0,
+    ADD COLUMN progress        INT          NOT NULL DEFAULT 0,
+    ADD COLUMN next_attempt_at TIMESTAMP,
+    ADD COLUMN locked_by       VARCHAR(100),
+    ADD COLUMN locked_at       TIMESTAMP,
+    ADD COLUMN file_path       VARCHAR(500),
+    ADD COLUMN file_size       BIGINT;
+
+-- Jobs live for an hour; nothing worth migrating out of the blobs
+ALTER TABLE export_jobs DROP COLUMN file_data;
+
+CREATE INDEX idx_export_job_claim ON export_jobs (created_at)
+    WHERE status = 'PENDING';
@@ -0,0 +1,52 @@
+-- ============================================
+-- V25: Item analysis for questions
+--
+-- ItemAnalysisService streams graded attempts in (graded_at, id) order
+-- from a watermark, adds each answer to per-question running sums in
+-- question_item_stats, and writes the derived statistics back to
+-- questions in the same transaction as the watermark move.
+--
+-- questions.correct_rate:     p-value as a percentage
+-- questions.avg_time_seconds: mean time over answers that report time
+-- questions.discrimination:   point-biserial correlation between the
+--                             item and the attempt percentage
+-- ============================================
+
+ALTER TABLE test_attempts ADD COLUMN graded_at TIMESTAMP;
+
+-- Existing graded attempts enter the stream once, oldest first
+UPDATE test_attempts
+SET graded_at = COALESCE(submitted_at, updated_at, created_at)
+WHERE status IN ('AUTO_GRADED', 'NEEDS_REVIEW', 'GRADED');
+
+CREATE INDEX idx_attempt_graded_at ON test_attempts (graded_at, id)
+    WHERE graded_at IS NOT NULL;
+
+ALTER TABLE questions
+    ADD COLUMN discrimination NUMERIC(5,4),
+    ADD COLUMN response_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE question_item_stats (
+    question_id UUID PRIMARY KEY,
+
+    responses         BIGINT           NOT NULL DEFAULT 0,
+    correct_count     BIGINT           NOT NULL DEFAULT 0,
+    score_sum         DOUBLE PRECISION NOT NULL DEFAULT 0,
+    score_sq_sum      DOUBLE PRECISION NOT NULL DEFAULT 0,
+    correct_score_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    timed_count       BIGINT           NOT NULL DEFAULT 0,
+    time_sum          BIGINT           NOT NULL DEFAULT 0,
+
+    updated_at TIMESTAMP DEFAULT NOW()
+);
+
+-- Single row; locked FOR UPDATE SKIP LOCKED so one node processes at a time
+CREATE TABLE item_analysis_watermark (
+    id              SMALLINT PRIMARY KEY,
+    last_graded_at  TIMESTAMP NOT NULL,
+    last_attempt_id UUID      NOT NULL,
+    updated_at      TIMESTAMP DEFAULT NOW()
+);
+
+INSERT INTO item_analysis_watermark (id, last_graded_at, last_attempt_id)
+VALUES (1, '1970-01-01 00:00:00', '00000000-0000-0000-0000-000000000000');
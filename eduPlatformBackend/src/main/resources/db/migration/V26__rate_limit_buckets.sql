@@ -0,0 +1,16 @@
+-- ============================================
+-- V26: Shared rate-limit buckets
+--
+-- Used when app.rate-limit.store=jdbc so every replica enforces the
+-- same OTP, payment and promo-code limits. id is "<limiter>:<key>",
+-- state is the serialized Bucket4j state, and expires_at is when the
+-- bucket will be full again; rows past it are purged.
+-- ============================================
+
+CREATE TABLE rate_limit_buckets (
+    id         VARCHAR(255) PRIMARY KEY,
+    state      BYTEA,
+    expires_at TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_rate_limit_buckets_expires_at ON rate_limit_buckets (expires_at);
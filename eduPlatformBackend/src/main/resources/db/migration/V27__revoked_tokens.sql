@@ -0,0 +1,14 @@
+-- ============================================
+-- V27: Shared token blacklist
+--
+-- Revoked access/refresh token JTIs, kept until the token would have
+-- expired. Every node holds a copy in memory, loaded from this table
+-- and kept current through NOTIFY on the token_revoked channel.
+-- ============================================
+
+CREATE TABLE revoked_tokens (
+    jti        VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX idx_revoked_token_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,25 @@
+-- Background question imports: progress, per-row errors and the resume point
+CREATE TABLE question_import_jobs (
+    id                  UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id             UUID         NOT NULL,
+    topic_id            UUID         NOT NULL,
+    status              VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    locale              VARCHAR(10),
+    file_name           VARCHAR(255),
+    file_path           VARCHAR(500),
+    total_rows          INTEGER,
+    last_committed_row  INTEGER      NOT NULL DEFAULT 0,
+    processed_rows      INTEGER      NOT NULL DEFAULT 0,
+    success_count       INTEGER      NOT NULL DEFAULT 0,
+    duplicate_count     INTEGER      NOT NULL DEFAULT 0,
+    error_count         INTEGER      NOT NULL DEFAULT 0,
+    errors              JSONB,
+    locked_by           VARCHAR(100),
+    locked_at           TIMESTAMP,
+    error_message       TEXT,
+    created_at          TIMESTAMP    NOT NULL DEFAULT NOW(),
+    completed_at        TIMESTAMP
+);
+
+CREATE INDEX idx_import_job_user   ON question_import_jobs (user_id);
+CREATE INDEX idx_import_job_status ON question_import_jobs (status);
@@ -0,0 +1,57 @@
+-- ============================================
+-- V29: Indexed question search
+--
+-- Question search used to run LOWER(question_text ->> key) LIKE '%x%'
+-- over four JSONB keys, for the page and again for the count, which
+-- no index can serve. Searches now match one generated column holding
+-- every locale's text folded to lower-case Latin, through a trigram
+-- index:
+--
+-- search_fold(text):      lower-case, Cyrillic transliterated to the
+--                         Uzbek Latin alphabet, apostrophes and hard/
+--                         soft signs dropped, so "Ўзбек", "O'zbek" and
+--                         "oʻzbek" all become "ozbek"
+-- search_pattern(text):   the folded term as a LIKE '%term%' pattern
+--                         with % _ and \ escaped
+-- questions.search_text:  folded texts of all locales, newline-separated
+--
+-- The tsvector column from V10 was never queried (a 'simple' tsvector
+-- cannot match inside words), so it and its trigger are dropped.
+-- ============================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Upper-case Cyrillic is mapped by hand: lower() leaves it alone under the C locale
+CREATE OR REPLACE FUNCTION search_fold(input TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT translate(
+    replace(replace(replace(replace(replace(replace(replace(
+        lower(translate(input,
+            'АБВГДЕЁЖЗИЙКЛМНОПРСТУФХЦЧШЩЪЫЬЭЮЯҒЎҚҲ',
+            'абвгдеёжзийклмнопрстуфхцчшщъыьэюяғўқҳ')),
+        'щ', 'sh'), 'ш', 'sh'), 'ч', 'ch'), 'ц', 'ts'), 'ю', 'yu'), 'я', 'ya'), 'ё', 'yo'),
+    'абвгдежзийклмнопрстуфхыэғўқҳъь''‘’ʻʼ`',
+    'abvgdejziyklmnoprstufxiegoqh')
+$$;
+
+CREATE OR REPLACE FUNCTION search_pattern(term TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT '%' || replace(replace(replace(search_fold(term), '\', '\\'), '%', '\%'), '_', '\_') || '%'
+$$;
+
+ALTER TABLE questions ADD COLUMN search_text TEXT GENERATED ALWAYS AS (
+    search_fold(coalesce(question_text ->> 'uz_latn', '') || E'\n' ||
+                coalesce(question_text ->> 'uz_cyrl', '') || E'\n' ||
+                coalesce(question_text ->> 'en', '') || E'\n' ||
+                coalesce(question_text ->> 'ru', ''))
+) STORED;
+
+CREATE INDEX idx_questions_search_trgm ON questions USING gin (search_text gin_trgm_ops)
+    WHERE deleted_at IS NULL;
+
+DROP TRIGGER IF EXISTS trg_question_search_vector ON questions;
+DROP FUNCTION IF EXISTS update_question_search_vector();
+DROP INDEX IF EXISTS idx_question_search_vector;
+ALTER TABLE questions DROP COLUMN IF EXISTS search_vector;
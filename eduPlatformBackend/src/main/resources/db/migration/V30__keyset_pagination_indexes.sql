@@ -0,0 +1,22 @@
+-- ============================================
+-- V30: Indexes for cursor pagination
+--
+-- The /scroll listings page newest first by (created_at, id) from a
+-- cursor: WHERE (created_at, id) < (cursor) ORDER BY created_at DESC,
+-- id DESC LIMIT n. With the filter column leading and (created_at, id)
+-- after it, each page is a short backward index range scan, however
+-- deep the client has scrolled.
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_questions_user_created ON questions (user_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_test_history_user_created ON test_history (user_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_attempt_student_created ON test_attempts (student_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_created ON audit_logs (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_user_created ON audit_logs (user_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_users_created ON users (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_role_created ON users (role, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_status_created ON users (status, created_at, id);
@@ -0,0 +1,32 @@
+-- ============================================
+-- V31: Indexed topic paths
+--
+-- Topic subtrees are now read and rewritten through the materialized
+-- path ("rootId.childId.grandchildId") instead of walking parent_id one
+-- row at a time: a subtree is the topic's own path plus every path
+-- starting with "<path>.", a prefix range a text_pattern_ops btree serves
+-- for LIKE 'prefix%' and for the ~>=~ / ~<~ operators.
+--
+-- Paths are rebuilt from parent_id first so rows written before paths
+-- were maintained (or left stale by earlier moves) join their subtrees.
+-- ============================================
+
+WITH RECURSIVE tree AS (
+    SELECT id, CAST(id AS TEXT) AS path, 1 AS level
+    FROM topics
+    WHERE parent_id IS NULL
+    UNION ALL
+    SELECT c.id, tree.path || '.' || c.id, tree.level + 1
+    FROM topics c
+    JOIN tree ON c.parent_id = tree.id
+)
+UPDATE topics t
+SET path = tree.path, level = tree.level
+FROM tree
+WHERE t.id = tree.id
+  AND (t.path IS DISTINCT FROM tree.path OR t.level <> tree.level);
+
+CREATE INDEX IF NOT EXISTS idx_topics_path ON topics (path text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_topics_subject_user_roots ON topics (subject_id, user_id, sort_order)
+    WHERE parent_id IS NULL AND deleted_at IS NULL;
@@ -0,0 +1,20 @@
+-- ============================================
+-- V32: Answer buffer sessions
+--
+-- Autosaved answers are buffered in memory on whichever node took the
+-- save (AnswerWriteBuffer). Each node with a live buffer for an attempt
+-- keeps one row here and bumps flush_seq after every flush. Grading on
+-- any node waits until every other node's flush_seq for the attempt
+-- has moved on twice, i.e. until a flush that started after the submit
+-- has completed, then deletes the attempt's rows; a node whose row is
+-- gone drops its buffer for that attempt.
+-- ============================================
+
+CREATE TABLE answer_buffer_sessions (
+    attempt_id UUID   NOT NULL,
+    node_id    UUID   NOT NULL,
+    flush_seq  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (attempt_id, node_id)
+);
+
+CREATE INDEX idx_answer_buffer_sessions_node ON answer_buffer_sessions (node_id);
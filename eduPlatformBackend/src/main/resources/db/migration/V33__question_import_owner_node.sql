@@ -0,0 +1,11 @@
+-- ============================================
+-- V33: Question import owner node
+--
+-- The uploaded sheet of an import job lives in the upload-dir of the
+-- node that accepted it. owner_node records that node so only it picks
+-- the job up again after a restart; other nodes cannot read the file.
+-- Jobs queued before this column existed keep NULL and any node may
+-- resume them, as before.
+-- ============================================
+
+ALTER TABLE question_import_jobs ADD COLUMN owner_node VARCHAR(255);
@@ -0,0 +1,80 @@
+package uz.eduplatform.core.common.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import uz.eduplatform.modules.auth.domain.User;
+import uz.eduplatform.modules.auth.repository.UserRepository;
+import uz.eduplatform.modules.content.domain.Subject;
+import uz.eduplatform.modules.content.repository.SubjectRepository;
+import uz.eduplatform.modules.content.repository.TopicRepository;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LookupContextTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private SubjectRepository subjectRepository;
+    @Mock private TopicRepository topicRepository;
+
+    private LookupContext lookup;
+
+    @BeforeEach
+    void setUp() {
+        lookup = new LookupResolver(userRepository, subjectRepository, topicRepository).newContext();
+    }
+
+    @Test
+    void preloadUsers_fetchesOnceForWholePage() {
+        List<UUID> ids = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            users.add(User.builder().id(id).firstName("S" + i).lastName("L").build());
+        }
+        when(userRepository.findAllById(any())).thenReturn(users);
+
+        lookup.preloadUsers(ids);
+        for (UUID id : ids) {
+            assertThat(lookup.userFullName(id)).isNotNull();
+        }
+
+        verify(userRepository, times(1)).findAllById(any());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void missingIds_areRememberedAndNotRefetched() {
+        UUID unknown = UUID.randomUUID();
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThat(lookup.user(unknown)).isEmpty();
+        assertThat(lookup.userFullName(unknown)).isNull();
+
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void subjectName_resolvesTranslation() {
+        UUID subjectId = UUID.randomUUID();
+        when(subjectRepository.findAllById(any())).thenReturn(List.of(
+                Subject.builder().id(subjectId).name(Map.of("uz_latn", "Matematika")).build()));
+
+        assertThat(lookup.preloadSubjects(List.of(subjectId)).subjectName(subjectId)).isEqualTo("Matematika");
+        assertThat(lookup.subjectName(subjectId)).isEqualTo("Matematika");
+
+        verify(subjectRepository, times(1)).findAllById(any());
+        verifyNoInteractions(topicRepository);
+    }
+}
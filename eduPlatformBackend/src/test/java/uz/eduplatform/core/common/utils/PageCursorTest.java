@@ -0,0 +1,79 @@
+package uz.eduplatform.core.common.utils;
+
+import org.junit.jupiter.api.Test;
+import uz.eduplatform.core.common.dto.CursorResponse;
+import uz.eduplatform.core.common.exception.BusinessException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void encode_decode_roundTripsMicrosecondTimestamps() {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_000), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(PageCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_noToken_startsFromFirstPage() {
+        assertThat(PageCursor.decode(null)).isEqualTo(PageCursor.FIRST);
+        assertThat(PageCursor.decode(" ")).isEqualTo(PageCursor.FIRST);
+    }
+
+    @Test
+    void decode_tamperedToken_throwsInvalidCursor() {
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("messageKey").isEqualTo("error.cursor.invalid");
+        assertThatThrownBy(() -> PageCursor.decode("MjAyNi0wMy0xNHx4"))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void pageSize_isClamped() {
+        assertThat(PageCursor.pageSize(0)).isEqualTo(1);
+        assertThat(PageCursor.pageSize(20)).isEqualTo(20);
+        assertThat(PageCursor.pageSize(10_000)).isEqualTo(PageCursor.MAX_SIZE);
+        assertThat(PageCursor.fetch(20).getPageSize()).isEqualTo(21);
+    }
+
+    @Test
+    void cursorResponse_extraRow_trimsPageAndPointsAtItsLastRow() {
+        List<PageCursor> rows = rows(4);
+
+        CursorResponse<String> page = CursorResponse.of(rows, 3, c -> c, list -> list.stream()
+                .map(c -> c.id().toString()).toList(), null);
+
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(PageCursor.decode(page.getNextCursor())).isEqualTo(rows.get(2));
+        assertThat(page.getTotalElements()).isNull();
+    }
+
+    @Test
+    void cursorResponse_lastPage_hasNoNextCursor() {
+        CursorResponse<PageCursor> page = CursorResponse.of(rows(2), 3, c -> c, list -> list, 2L);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(2L);
+    }
+
+    private static List<PageCursor> rows(int count) {
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new PageCursor(now.minusMinutes(i), UUID.randomUUID()))
+                .toList();
+    }
+}
@@ -0,0 +1,68 @@
+package uz.eduplatform.core.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void advance_firesEachTimerAtItsTickAcrossLevels() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 0);
+        wheel.schedule("seconds", 5 * TICK);
+        wheel.schedule("minutes", 90 * TICK);          // level 1
+        wheel.schedule("hours", 3 * 3600 * TICK + 7 * TICK);  // level 2
+
+        assertThat(wheel.advance(4 * TICK)).isEmpty();
+        assertThat(wheel.advance(5 * TICK)).containsExactly("seconds");
+        assertThat(wheel.advance(89 * TICK)).isEmpty();
+        assertThat(wheel.advance(90 * TICK)).containsExactly("minutes");
+        assertThat(wheel.advance(3 * 3600 * TICK + 6 * TICK)).isEmpty();
+        assertThat(wheel.advance(3 * 3600 * TICK + 7 * TICK)).containsExactly("hours");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_tickByTick_neverFiresEarlyOrLate() {
+        long start = 123_456;
+        TimerWheel<Long> wheel = new TimerWheel<>(TICK, start * TICK);
+        List<Long> deadlines = List.of(1L, 63L, 64L, 65L, 4095L, 4096L, 4097L, 262_145L);
+        for (long d : deadlines) {
+            wheel.schedule(d, (start + d) * TICK);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long t = 1; t <= 262_145L; t++) {
+            for (Long key : wheel.advance((start + t) * TICK)) {
+                assertThat(key).isEqualTo(t);
+                fired.add(key);
+            }
+        }
+        assertThat(fired).containsExactlyElementsOf(deadlines);
+    }
+
+    @Test
+    void schedule_pastDeadlineFiresOnNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 100 * TICK);
+        wheel.schedule("late", 10 * TICK);
+
+        assertThat(wheel.advance(101 * TICK)).containsExactly("late");
+    }
+
+    @Test
+    void cancelAndReschedule_replaceEarlierTimer() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 0);
+        wheel.schedule("a", 10 * TICK);
+        wheel.schedule("b", 10 * TICK);
+        wheel.schedule("a", 20 * TICK);
+        wheel.cancel("b");
+
+        assertThat(wheel.advance(10 * TICK)).isEmpty();
+        assertThat(wheel.advance(20 * TICK)).containsExactly("a");
+    }
+}
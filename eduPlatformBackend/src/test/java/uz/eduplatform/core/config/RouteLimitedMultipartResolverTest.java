@@ -0,0 +1,56 @@
+package uz.eduplatform.core.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteLimitedMultipartResolverTest {
+
+    private static final String SCANS = "/api/v1/assignments/*/answer-sheets/scans";
+
+    private final RouteLimitedMultipartResolver resolver = new RouteLimitedMultipartResolver(100, 150, List.of(SCANS));
+
+    @Test
+    void resolveMultipart_ordinaryRoute_rejectsOversizedFile() {
+        MockHttpServletRequest request = upload("/api/v1/questions/import", 120);
+
+        MaxUploadSizeExceededException e = assertThrows(MaxUploadSizeExceededException.class,
+                () -> resolver.resolveMultipart(request));
+        assertEquals(100, e.getMaxUploadSize());
+    }
+
+    @Test
+    void resolveMultipart_ordinaryRoute_rejectsDeclaredLengthBeforeParsing() {
+        MockHttpServletRequest request = upload("/api/v1/files/upload", 10);
+        request.setContent(new byte[200]);
+
+        MaxUploadSizeExceededException e = assertThrows(MaxUploadSizeExceededException.class,
+                () -> resolver.resolveMultipart(request));
+        assertEquals(150, e.getMaxUploadSize());
+    }
+
+    @Test
+    void resolveMultipart_scanRoute_acceptsLargeFile() {
+        MockHttpServletRequest request = upload("/api/v1/assignments/" + UUID.randomUUID()
+                + "/answer-sheets/scans", 120);
+
+        MultipartHttpServletRequest multipart = resolver.resolveMultipart(request);
+
+        assertEquals(120, multipart.getFile("file").getSize());
+    }
+
+    private static MockHttpServletRequest upload(String uri, int size) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContentType("multipart/form-data; boundary=x");
+        MockPart part = new MockPart("file", "scans.pdf", new byte[size]);
+        request.addPart(part);
+        return request;
+    }
+}
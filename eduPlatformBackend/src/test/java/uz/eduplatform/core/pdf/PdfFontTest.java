@@ -0,0 +1,83 @@
+package uz.eduplatform.core.pdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfFontTest {
+
+    private static final PdfFonts FONTS = new PdfFonts();
+
+    @Test
+    void sanitize_keepsCyrillicAndReplacesMissingGlyphs() {
+        PdfFont font = FONTS.regular();
+        String cyrillic = "Ўзбекистон пойтахти қайси шаҳар?";
+
+        assertThat(font.sanitize(cyrillic)).isSameAs(cyrillic);
+        assertThat(font.sanitize("x ≠ y, ∑ a")).isEqualTo("x != y, sum a");
+        assertThat(font.sanitize("😀")).isEqualTo("?");
+    }
+
+    @Test
+    void wrap_fitsEveryLineAndBreaksLongWords() {
+        PdfFont font = FONTS.regular();
+        String text = "Қуйидаги тенгламанинг илдизларини топинг ва жавобни соддалаштиринг "
+                + "a".repeat(120) + "\nИккинчи қатор";
+
+        List<String> lines = font.wrap(text, 11, 200);
+
+        assertThat(lines).hasSizeGreaterThan(3);
+        assertThat(lines).allSatisfy(line -> assertThat(font.width(line, 11)).isLessThanOrEqualTo(200));
+        assertThat(lines.get(lines.size() - 1)).isEqualTo("Иккинчи қатор");
+        assertThat(String.join("", lines).replace(" ", ""))
+                .isEqualTo(text.replace(" ", "").replace("\n", ""));
+    }
+
+    @Test
+    void embedIn_sharedFontRendersConcurrentDocuments() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int n = i;
+                results.add(executor.submit(() -> render("Вариант " + n + ": Тошкент")));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).contains("Вариант " + i + ": Тошкент");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String render(String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            DocumentFont font = FONTS.bold().embedIn(document);
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+                cs.beginText();
+                cs.setFont(font.font(), 12);
+                cs.newLineAtOffset(50, 700);
+                cs.showText(font.sanitize(text));
+                cs.endText();
+            }
+            document.save(out);
+        }
+        try (PDDocument document = PDDocument.load(out.toByteArray())) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package uz.eduplatform.core.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryRateLimitStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new InMemoryRateLimitStore(meterRegistry, 1_000);
+    }
+
+    @Test
+    void limiter_enforcesLimitPerKeyAndRecordsMetrics() {
+        Function<String, Bucket> limiter = store.limiter("otp_send", limit(3, Duration.ofMinutes(5)));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.apply("+998901234567").tryConsume(1)).isTrue();
+        }
+        assertThat(limiter.apply("+998901234567").tryConsume(1)).isFalse();
+        assertThat(limiter.apply("+998907654321").tryConsume(1)).isTrue();
+
+        assertThat(meterRegistry.get("ratelimit.requests").tags("limiter", "otp_send", "outcome", "allowed")
+                .counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("ratelimit.requests").tags("limiter", "otp_send", "outcome", "rejected")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ratelimit.buckets").tag("limiter", "otp_send").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void limiter_namespacesDoNotShareBuckets() {
+        Function<String, Bucket> send = store.limiter("otp_send", limit(1, Duration.ofMinutes(5)));
+        Function<String, Bucket> verify = store.limiter("otp_verify", limit(1, Duration.ofMinutes(5)));
+
+        assertThat(send.apply("user@example.com").tryConsume(1)).isTrue();
+        assertThat(verify.apply("user@example.com").tryConsume(1)).isTrue();
+        assertThat(send.apply("user@example.com").tryConsume(1)).isFalse();
+    }
+
+    @Test
+    void fullRefillTime_coversTheSlowestLimit() {
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(6, Refill.intervally(2, Duration.ofMinutes(1))))
+                .addLimit(Bandwidth.classic(5, Refill.intervally(5, Duration.ofMinutes(2))))
+                .build();
+
+        assertThat(RateLimitStore.fullRefillTime(configuration)).isEqualTo(Duration.ofMinutes(3));
+    }
+
+    private static BucketConfiguration limit(long tokens, Duration period) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(tokens, Refill.intervally(tokens, period)))
+                .build();
+    }
+}
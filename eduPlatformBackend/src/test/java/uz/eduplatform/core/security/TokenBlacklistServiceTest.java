@@ -1,17 +1,24 @@
 package uz.eduplatform.core.security;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import uz.eduplatform.modules.auth.domain.UserSession;
 import uz.eduplatform.modules.auth.repository.UserSessionRepository;
 
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,11 +27,21 @@ class TokenBlacklistServiceTest {
     @Mock
     private UserSessionRepository userSessionRepository;
 
+    @Mock
+    private RevokedTokenStore revokedTokenStore;
+
     private TokenBlacklistService tokenBlacklistService;
 
     @BeforeEach
     void setUp() {
-        tokenBlacklistService = new TokenBlacklistService(userSessionRepository);
+        tokenBlacklistService = new TokenBlacklistService(userSessionRepository, revokedTokenStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -35,6 +52,33 @@ class TokenBlacklistServiceTest {
         tokenBlacklistService.blacklist(jti, ttl);
 
         assertTrue(tokenBlacklistService.isBlacklisted(jti));
+        verify(revokedTokenStore).save(argThat(m -> m.size() == 1 && m.containsKey(jti)));
+    }
+
+    @Test
+    void blacklist_inTransaction_appliesLocallyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        tokenBlacklistService.blacklist("jti", 900000);
+        assertFalse(tokenBlacklistService.isBlacklisted("jti"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(tokenBlacklistService.isBlacklisted("jti"));
+    }
+
+    @Test
+    void blacklistAllForUser_rolledBack_leavesLocalCopyUntouched() {
+        UUID userId = UUID.randomUUID();
+        UserSession session = UserSession.builder().accessJti("access").refreshJti("refresh").build();
+        when(userSessionRepository.findByUserIdAndIsActiveTrue(userId)).thenReturn(List.of(session));
+        TransactionSynchronizationManager.initSynchronization();
+
+        tokenBlacklistService.blacklistAllForUser(userId, 900000);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(tokenBlacklistService.isBlacklisted("access"));
+        assertFalse(tokenBlacklistService.isBlacklisted("refresh"));
     }
 
     @Test
@@ -47,6 +91,7 @@ class TokenBlacklistServiceTest {
     void blacklist_ignoresNonPositiveTtl() {
         tokenBlacklistService.blacklist("jti", 0);
         assertFalse(tokenBlacklistService.isBlacklisted("jti"));
+        verifyNoInteractions(revokedTokenStore);
     }
 
     @Test
@@ -92,6 +137,44 @@ class TokenBlacklistServiceTest {
         assertTrue(tokenBlacklistService.isBlacklisted("refresh-1"));
         assertTrue(tokenBlacklistService.isBlacklisted("access-2"));
         assertTrue(tokenBlacklistService.isBlacklisted("refresh-2"));
+        verify(revokedTokenStore, times(1)).save(argThat(m -> m.size() == 4));
+    }
+
+    @Test
+    void applyRemote_revocationFromAnotherNode_isHonored() {
+        Map<String, Instant> payload = RevokedTokenStore.parsePayload(RevokedTokenStore.payloads(Map.of(
+                "remote-jti", Instant.now().plusSeconds(60),
+                "stale-jti", Instant.now().minusSeconds(60))).get(0));
+
+        tokenBlacklistService.applyRemote(payload);
+
+        assertTrue(tokenBlacklistService.isBlacklisted("remote-jti"));
+        assertFalse(tokenBlacklistService.isBlacklisted("stale-jti"));
+    }
+
+    @Test
+    void reload_loadsActiveRevocationsFromStore() {
+        when(revokedTokenStore.loadActive()).thenReturn(Map.of("stored-jti", Instant.now().plusSeconds(60)));
+
+        tokenBlacklistService.reload();
+
+        assertTrue(tokenBlacklistService.isBlacklisted("stored-jti"));
+    }
+
+    @Test
+    void payloads_splitLargeBatchesUnderNotifyLimit() {
+        Map<String, Instant> revoked = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            revoked.put(UUID.randomUUID().toString(), Instant.now().plusSeconds(60));
+        }
+
+        List<String> payloads = RevokedTokenStore.payloads(revoked);
+
+        assertTrue(payloads.size() > 1);
+        assertTrue(payloads.stream().allMatch(p -> p.length() < 8000));
+        Map<String, Instant> parsed = new HashMap<>();
+        payloads.forEach(p -> parsed.putAll(RevokedTokenStore.parsePayload(p)));
+        assertEquals(revoked.keySet(), parsed.keySet());
     }
 
     @Test
@@ -0,0 +1,66 @@
+package uz.eduplatform.core.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uz.eduplatform.modules.auth.domain.Role;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPrincipalCacheTest {
+
+    private UserPrincipalCache cache;
+    private UUID userId;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserPrincipalCache(30);
+        userId = UUID.randomUUID();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_loadsOncePerUser() {
+        UserPrincipal first = cache.get(userId, this::load);
+        UserPrincipal second = cache.get(userId, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_doesNotCacheMissingUser() {
+        assertNull(cache.get(userId, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNotNull(cache.get(userId, this::load));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.estimatedSize());
+    }
+
+    @Test
+    void evict_forcesReload() {
+        cache.get(userId, this::load);
+        cache.evict(userId);
+        cache.get(userId, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private UserPrincipal load(UUID id) {
+        loads.incrementAndGet();
+        return UserPrincipal.builder()
+                .id(id)
+                .role(Role.STUDENT)
+                .enabled(true)
+                .accountNonLocked(true)
+                .authorities(List.of())
+                .build();
+    }
+}
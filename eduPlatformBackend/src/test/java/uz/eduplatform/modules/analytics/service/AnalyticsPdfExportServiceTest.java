@@ -1,6 +1,7 @@
 package uz.eduplatform.modules.analytics.service;
 
 import org.junit.jupiter.api.Test;
+import uz.eduplatform.core.pdf.PdfFonts;
 import uz.eduplatform.modules.analytics.dto.GroupStatisticsDto;
 import uz.eduplatform.modules.analytics.dto.TeacherDashboardDto;
 
@@ -12,7 +13,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class AnalyticsPdfExportServiceTest {
 
-    private final AnalyticsPdfExportService exportService = new AnalyticsPdfExportService();
+    private final AnalyticsPdfExportService exportService = new AnalyticsPdfExportService(new PdfFonts());
 
     @Test
     void exportTeacherDashboard_generatesValidPdf() {
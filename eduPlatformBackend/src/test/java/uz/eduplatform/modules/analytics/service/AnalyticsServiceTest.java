@@ -11,6 +11,9 @@ import org.mockito.quality.Strictness;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import uz.eduplatform.core.common.utils.LookupResolver;
+import uz.eduplatform.modules.analytics.domain.RollupScope;
+import uz.eduplatform.modules.analytics.domain.StudentAnalyticsRollup;
 import uz.eduplatform.modules.analytics.dto.GroupStatisticsDto;
 import uz.eduplatform.modules.analytics.dto.StudentAnalyticsDto;
 import uz.eduplatform.modules.analytics.dto.TeacherDashboardDto;
@@ -20,6 +23,7 @@ import uz.eduplatform.modules.assessment.domain.AttemptStatus;
 import uz.eduplatform.modules.assessment.domain.TestAssignment;
 import uz.eduplatform.modules.assessment.domain.TestAttempt;
 import uz.eduplatform.modules.assessment.repository.AnswerRepository;
+import uz.eduplatform.modules.assessment.repository.AssignmentStudentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
 import uz.eduplatform.modules.auth.domain.Role;
@@ -37,6 +41,7 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,13 +50,16 @@ class AnalyticsServiceTest {
 
     @Mock private TestAssignmentRepository assignmentRepository;
     @Mock private TestAttemptRepository attemptRepository;
+    @Mock private AssignmentStudentRepository assignmentStudentRepository;
     @Mock private AnswerRepository answerRepository;
     @Mock private StudentGroupRepository groupRepository;
     @Mock private GroupMemberRepository memberRepository;
     @Mock private UserRepository userRepository;
     @Mock private SubjectRepository subjectRepository;
-    @Mock private uz.eduplatform.modules.content.repository.TopicRepository topicRepository;
     @Mock private TestHistoryRepository testHistoryRepository;
+    @Mock private TeacherDashboardService teacherDashboardService;
+    @Mock private StudentAnalyticsRollupService rollupService;
+    @Mock private LookupResolver lookupResolver;
 
     @InjectMocks private AnalyticsService analyticsService;
 
@@ -73,6 +81,8 @@ class AnalyticsServiceTest {
                 .id(studentId).firstName("Student").lastName("User")
                 .role(Role.STUDENT).build();
 
+        when(lookupResolver.context()).thenAnswer(inv ->
+                new LookupResolver(userRepository, subjectRepository, null).newContext());
         when(userRepository.findById(teacherId)).thenReturn(Optional.of(teacher));
         when(userRepository.findById(studentId)).thenReturn(Optional.of(student));
     }
@@ -80,123 +90,25 @@ class AnalyticsServiceTest {
     // ── Teacher Dashboard ──
 
     @Test
-    void getTeacherDashboard_emptyData_returnsZeros() {
-        Page<StudentGroup> emptyGroups = new PageImpl<>(List.of());
-        when(groupRepository.findByTeacherIdOrderByCreatedAtDesc(eq(teacherId), any()))
-                .thenReturn(emptyGroups);
-        when(groupRepository.countByTeacherId(teacherId)).thenReturn(0L);
-
-        Page<TestAssignment> emptyAssignments = new PageImpl<>(List.of());
-        when(assignmentRepository.findByTeacherIdOrderByCreatedAtDesc(eq(teacherId), any()))
-                .thenReturn(emptyAssignments);
-        when(assignmentRepository.countByTeacherIdAndStatus(teacherId, AssignmentStatus.ACTIVE))
-                .thenReturn(0L);
+    void getTeacherDashboard_delegatesToAggregationService() {
+        TeacherDashboardDto dashboard = TeacherDashboardDto.builder().totalGroups(3).build();
+        when(teacherDashboardService.getTeacherDashboard(teacherId)).thenReturn(dashboard);
 
         TeacherDashboardDto result = analyticsService.getTeacherDashboard(teacherId);
 
-        assertThat(result).isNotNull();
-        assertThat(result.getTotalGroups()).isZero();
-        assertThat(result.getTotalStudents()).isZero();
-        assertThat(result.getTotalAssignments()).isZero();
-        assertThat(result.getActiveAssignments()).isZero();
-        assertThat(result.getOverallAverageScore()).isEqualByComparingTo(BigDecimal.ZERO);
-        assertThat(result.getTopStudents()).isEmpty();
-        assertThat(result.getAtRiskStudents()).isEmpty();
-    }
-
-    @Test
-    void getTeacherDashboard_withData_returnsCorrectStats() {
-        // Setup groups
-        StudentGroup group = StudentGroup.builder().id(UUID.randomUUID())
-                .teacherId(teacherId).name("Group 1").members(new ArrayList<>()).build();
-        Page<StudentGroup> groupPage = new PageImpl<>(List.of(group));
-        when(groupRepository.findByTeacherIdOrderByCreatedAtDesc(eq(teacherId), any()))
-                .thenReturn(groupPage);
-        when(groupRepository.countByTeacherId(teacherId)).thenReturn(1L);
-        when(groupRepository.findStudentIdsByGroupId(group.getId()))
-                .thenReturn(List.of(studentId));
-
-        // Setup assignments
-        UUID assignmentId = UUID.randomUUID();
-        TestAssignment assignment = TestAssignment.builder()
-                .id(assignmentId).teacherId(teacherId).title("Test 1")
-                .status(AssignmentStatus.ACTIVE)
-                .assignedStudentIds(List.of(studentId)).build();
-        Page<TestAssignment> assignmentPage = new PageImpl<>(List.of(assignment));
-        when(assignmentRepository.findByTeacherIdOrderByCreatedAtDesc(eq(teacherId), any()))
-                .thenReturn(assignmentPage);
-        when(assignmentRepository.countByTeacherIdAndStatus(teacherId, AssignmentStatus.ACTIVE))
-                .thenReturn(1L);
-
-        // Setup attempts
-        TestAttempt attempt = TestAttempt.builder()
-                .id(UUID.randomUUID()).studentId(studentId)
-                .assignment(assignment).status(AttemptStatus.GRADED)
-                .percentage(new BigDecimal("75.00")).build();
-        when(attemptRepository.findByAssignmentIdOrderByCreatedAtDesc(assignmentId))
-                .thenReturn(List.of(attempt));
-        when(attemptRepository.countSubmittedByAssignmentId(assignmentId)).thenReturn(1L);
-        when(attemptRepository.averagePercentageByAssignmentId(assignmentId)).thenReturn(75.0);
-
-        TeacherDashboardDto result = analyticsService.getTeacherDashboard(teacherId);
-
-        assertThat(result.getTotalGroups()).isEqualTo(1);
-        assertThat(result.getTotalStudents()).isEqualTo(1);
-        assertThat(result.getTotalAssignments()).isEqualTo(1);
-        assertThat(result.getActiveAssignments()).isEqualTo(1);
-        assertThat(result.getOverallAverageScore()).isEqualByComparingTo("75.00");
-        assertThat(result.getTopStudents()).hasSize(1);
-        assertThat(result.getRecentAssignments()).hasSize(1);
-    }
-
-    @Test
-    void getTeacherDashboard_atRiskStudents_belowThreshold() {
-        StudentGroup group = StudentGroup.builder().id(UUID.randomUUID())
-                .teacherId(teacherId).name("Group 1").members(new ArrayList<>()).build();
-        Page<StudentGroup> groupPage = new PageImpl<>(List.of(group));
-        when(groupRepository.findByTeacherIdOrderByCreatedAtDesc(eq(teacherId), any()))
-                .thenReturn(groupPage);
-        when(groupRepository.countByTeacherId(teacherId)).thenReturn(1L);
-        when(groupRepository.findStudentIdsByGroupId(group.getId()))
-                .thenReturn(List.of(studentId));
-
-        UUID assignmentId = UUID.randomUUID();
-        TestAssignment assignment = TestAssignment.builder()
-                .id(assignmentId).teacherId(teacherId).title("Test 1")
-                .status(AssignmentStatus.COMPLETED)
-                .assignedStudentIds(List.of(studentId)).build();
-        Page<TestAssignment> assignmentPage = new PageImpl<>(List.of(assignment));
-        when(assignmentRepository.findByTeacherIdOrderByCreatedAtDesc(eq(teacherId), any()))
-                .thenReturn(assignmentPage);
-        when(assignmentRepository.countByTeacherIdAndStatus(teacherId, AssignmentStatus.ACTIVE))
-                .thenReturn(0L);
-
-        // Student scored 30% — below 40% threshold
-        TestAttempt attempt = TestAttempt.builder()
-                .id(UUID.randomUUID()).studentId(studentId)
-                .assignment(assignment).status(AttemptStatus.GRADED)
-                .percentage(new BigDecimal("30.00")).build();
-        when(attemptRepository.findByAssignmentIdOrderByCreatedAtDesc(assignmentId))
-                .thenReturn(List.of(attempt));
-        when(attemptRepository.countSubmittedByAssignmentId(assignmentId)).thenReturn(1L);
-        when(attemptRepository.averagePercentageByAssignmentId(assignmentId)).thenReturn(30.0);
-
-        TeacherDashboardDto result = analyticsService.getTeacherDashboard(teacherId);
-
-        assertThat(result.getAtRiskStudents()).hasSize(1);
-        assertThat(result.getAtRiskStudents().get(0).getAverageScore())
-                .isEqualByComparingTo("30.00");
+        assertThat(result).isSameAs(dashboard);
+        verifyNoInteractions(attemptRepository, assignmentRepository, groupRepository);
     }
 
     // ── Student Analytics ──
 
     @Test
     void getStudentAnalytics_emptyData_returnsZeros() {
-        when(attemptRepository.findByStudentIdOrderByCreatedAtDesc(studentId))
-                .thenReturn(List.of());
+        when(rollupService.getSnapshot(studentId))
+                .thenReturn(new StudentRollupSnapshot(null, List.of(), List.of()));
 
         Page<TestAssignment> emptyPage = new PageImpl<>(List.of());
-        when(assignmentRepository.findAssignmentsForStudent(anyString(), any(Pageable.class)))
+        when(assignmentRepository.findAssignmentsForStudent(any(UUID.class), any(Pageable.class)))
                 .thenReturn(emptyPage);
 
         StudentAnalyticsDto result = analyticsService.getStudentAnalytics(studentId);
@@ -215,23 +127,25 @@ class AnalyticsServiceTest {
                 .id(UUID.randomUUID()).title("Physics Test")
                 .testHistoryId(UUID.randomUUID()).build();
 
-        TestAttempt attempt1 = TestAttempt.builder()
-                .id(UUID.randomUUID()).studentId(studentId)
-                .assignment(assignment).status(AttemptStatus.GRADED)
-                .percentage(new BigDecimal("80.00"))
-                .submittedAt(LocalDateTime.now().minusDays(2)).build();
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> recentPoints = new ArrayList<>();
+        recentPoints.add(Map.of("attemptId", UUID.randomUUID().toString(), "assignmentTitle", "Physics Test",
+                "percentage", new BigDecimal("90.00"), "submittedAt", now.toString()));
+        recentPoints.add(Map.of("attemptId", UUID.randomUUID().toString(), "assignmentTitle", "Physics Test",
+                "percentage", new BigDecimal("80.00"), "submittedAt", now.minusDays(2).toString()));
 
-        TestAttempt attempt2 = TestAttempt.builder()
-                .id(UUID.randomUUID()).studentId(studentId)
-                .assignment(assignment).status(AttemptStatus.GRADED)
-                .percentage(new BigDecimal("90.00"))
-                .submittedAt(LocalDateTime.now()).build();
+        StudentAnalyticsRollup overall = StudentAnalyticsRollup.builder()
+                .studentId(studentId).scopeType(RollupScope.OVERALL)
+                .scopeId(StudentAnalyticsRollup.OVERALL_SCOPE_ID)
+                .attemptCount(2).scoreSum(new BigDecimal("170.00"))
+                .recentPoints(recentPoints).build();
 
-        when(attemptRepository.findByStudentIdOrderByCreatedAtDesc(studentId))
-                .thenReturn(List.of(attempt2, attempt1));
+        when(rollupService.getSnapshot(studentId))
+                .thenReturn(new StudentRollupSnapshot(overall, List.of(), List.of()));
+        when(attemptRepository.countByStudentId(studentId)).thenReturn(2L);
 
         Page<TestAssignment> assignmentPage = new PageImpl<>(List.of(assignment));
-        when(assignmentRepository.findAssignmentsForStudent(anyString(), any(Pageable.class)))
+        when(assignmentRepository.findAssignmentsForStudent(any(UUID.class), any(Pageable.class)))
                 .thenReturn(assignmentPage);
 
         StudentAnalyticsDto result = analyticsService.getStudentAnalytics(studentId);
@@ -254,10 +168,6 @@ class AnalyticsServiceTest {
                 .thenReturn(Optional.of(group));
         when(groupRepository.findStudentIdsByGroupId(groupId)).thenReturn(List.of());
 
-        Page<TestAssignment> emptyPage = new PageImpl<>(List.of());
-        when(assignmentRepository.findByTeacherIdOrderByCreatedAtDesc(eq(teacherId), any()))
-                .thenReturn(emptyPage);
-
         GroupStatisticsDto result = analyticsService.getGroupStatistics(groupId, teacherId);
 
         assertThat(result).isNotNull();
@@ -282,9 +192,10 @@ class AnalyticsServiceTest {
                 .id(assignmentId).teacherId(teacherId).title("Test 1")
                 .status(AssignmentStatus.COMPLETED)
                 .assignedStudentIds(List.of(studentId)).build();
-        Page<TestAssignment> assignmentPage = new PageImpl<>(List.of(assignment));
-        when(assignmentRepository.findByTeacherIdOrderByCreatedAtDesc(eq(teacherId), any()))
-                .thenReturn(assignmentPage);
+        when(assignmentRepository.findByTeacherIdAssignedToAnyOf(teacherId, List.of(studentId)))
+                .thenReturn(List.of(assignment));
+        when(assignmentStudentRepository.countByAssignmentForStudents(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{assignmentId, 1L}));
 
         TestAttempt attempt = TestAttempt.builder()
                 .id(UUID.randomUUID()).studentId(studentId)
@@ -292,6 +203,7 @@ class AnalyticsServiceTest {
                 .percentage(new BigDecimal("80.00")).build();
         when(attemptRepository.findByAssignmentIdOrderByCreatedAtDesc(assignmentId))
                 .thenReturn(List.of(attempt));
+        when(userRepository.findAllById(any())).thenReturn(List.of(student));
 
         GroupStatisticsDto result = analyticsService.getGroupStatistics(groupId, teacherId);
 
@@ -0,0 +1,69 @@
+package uz.eduplatform.modules.analytics.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAnalysisServiceTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sums_computeRateTimeAndPointBiserial() {
+        ItemAnalysisService.Sums sums = new ItemAnalysisService.Sums();
+        sums.add(true, 80, 30);
+        sums.add(true, 90, 50);
+        sums.add(false, 40, null);
+        sums.add(false, 50, 0);
+
+        ItemAnalysisService.ItemStats stats = sums.toStats();
+
+        assertThat(stats.responses()).isEqualTo(4);
+        assertThat(stats.correctRate()).isEqualByComparingTo("50.00");
+        assertThat(stats.avgTimeSeconds()).isEqualTo(40);
+        // (85 - 45) / sqrt(425) * sqrt(0.25)
+        assertThat(stats.discrimination()).isEqualByComparingTo(new BigDecimal("0.9701"));
+    }
+
+    @Test
+    void sums_discriminationUndefinedWithoutVariance() {
+        ItemAnalysisService.Sums allCorrect = new ItemAnalysisService.Sums();
+        allCorrect.add(true, 70, null);
+        allCorrect.add(true, 90, null);
+
+        ItemAnalysisService.Sums sameScore = new ItemAnalysisService.Sums();
+        sameScore.add(true, 60, null);
+        sameScore.add(false, 60, null);
+
+        ItemAnalysisService.Sums manualOnly = new ItemAnalysisService.Sums();
+        manualOnly.add(null, 60, 120);
+
+        assertThat(allCorrect.toStats().discrimination()).isNull();
+        assertThat(sameScore.toStats().discrimination()).isNull();
+        assertThat(manualOnly.toStats().correctRate()).isNull();
+        assertThat(manualOnly.toStats().avgTimeSeconds()).isEqualTo(120);
+        assertThat(manualOnly.toStats().responses()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processNextBatch_watermarkHeldElsewhere_doesNothing() {
+        when(jdbcTemplate.query(startsWith("SELECT last_graded_at"), any(RowMapper.class))).thenReturn(List.of());
+
+        int consumed = new ItemAnalysisService(jdbcTemplate, 120).processNextBatch();
+
+        assertThat(consumed).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,144 @@
+package uz.eduplatform.modules.analytics.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import uz.eduplatform.modules.analytics.domain.RollupScope;
+import uz.eduplatform.modules.analytics.domain.StudentAnalyticsRollup;
+import uz.eduplatform.modules.analytics.repository.StudentAnalyticsRollupRepository;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.modules.test.domain.TestHistory;
+import uz.eduplatform.modules.test.repository.TestHistoryRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StudentAnalyticsRollupServiceTest {
+
+    @Mock private StudentAnalyticsRollupRepository rollupRepository;
+    @Mock private TestHistoryRepository testHistoryRepository;
+
+    @InjectMocks private StudentAnalyticsRollupService rollupService;
+
+    private UUID studentId;
+    private UUID subjectId;
+    private UUID topicId;
+    private TestAssignment assignment;
+    private StudentAnalyticsRollup overall;
+
+    @BeforeEach
+    void setUp() {
+        studentId = UUID.randomUUID();
+        subjectId = UUID.randomUUID();
+        topicId = UUID.randomUUID();
+
+        UUID historyId = UUID.randomUUID();
+        assignment = TestAssignment.builder()
+                .id(UUID.randomUUID()).title("Algebra").testHistoryId(historyId).build();
+        when(testHistoryRepository.findById(historyId)).thenReturn(Optional.of(
+                TestHistory.builder().id(historyId).subjectId(subjectId).topicIds(List.of(topicId)).build()));
+
+        overall = StudentAnalyticsRollup.builder()
+                .studentId(studentId).scopeType(RollupScope.OVERALL)
+                .scopeId(StudentAnalyticsRollup.OVERALL_SCOPE_ID).build();
+        when(rollupRepository.lockOverall(studentId)).thenReturn(Optional.of(overall));
+        when(rollupRepository.findByStudentId(studentId)).thenReturn(List.of(overall));
+    }
+
+    @Test
+    void recordGradedAttempt_firstGrade_updatesAllScopes() {
+        TestAttempt attempt = attempt(new BigDecimal("80.00"), LocalDateTime.now());
+
+        rollupService.recordGradedAttempt(attempt, null, 10);
+
+        List<StudentAnalyticsRollup> saved = captureSaved();
+        assertThat(saved).extracting(StudentAnalyticsRollup::getScopeType)
+                .containsExactly(RollupScope.OVERALL, RollupScope.SUBJECT, RollupScope.TOPIC);
+        assertThat(saved).allSatisfy(r -> {
+            assertThat(r.getAttemptCount()).isEqualTo(1);
+            assertThat(r.getScoreSum()).isEqualByComparingTo("80.00");
+            assertThat(r.getQuestionCount()).isEqualTo(10L);
+            assertThat(r.getTimeSpentSeconds()).isEqualTo(600L);
+        });
+        assertThat(overall.getRecentPoints()).hasSize(1);
+        assertThat(new StudentRollupSnapshot(overall, List.of(), List.of())
+                .activityBetween(LocalDate.now(), LocalDate.now().plusDays(1)).count())
+                .isEqualTo(1);
+        verify(rollupRepository).insertOverallIfAbsent(studentId);
+    }
+
+    @Test
+    void recordGradedAttempt_regrade_appliesDeltaWithoutCountingTwice() {
+        TestAttempt attempt = attempt(new BigDecimal("90.00"), LocalDateTime.now());
+        overall.setAttemptCount(1);
+        overall.setScoreSum(new BigDecimal("80.00"));
+        Map<String, Object> point = new HashMap<>();
+        point.put("attemptId", attempt.getId().toString());
+        point.put("percentage", new BigDecimal("80.00"));
+        point.put("submittedAt", attempt.getSubmittedAt().toString());
+        overall.setRecentPoints(new ArrayList<>(List.of(point)));
+
+        rollupService.recordGradedAttempt(attempt, new BigDecimal("80.00"), 10);
+
+        assertThat(overall.getAttemptCount()).isEqualTo(1);
+        assertThat(overall.getScoreSum()).isEqualByComparingTo("90.00");
+        assertThat(overall.getRecentPoints().get(0).get("percentage")).isEqualTo(new BigDecimal("90.00"));
+    }
+
+    @Test
+    void recordGradedAttempt_unchangedRegrade_isNoOp() {
+        TestAttempt attempt = attempt(new BigDecimal("80.00"), LocalDateTime.now());
+
+        rollupService.recordGradedAttempt(attempt, new BigDecimal("80.00"), 10);
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void recordGradedAttempt_capsRecentPoints() {
+        List<Map<String, Object>> points = new ArrayList<>();
+        for (int i = 0; i < StudentAnalyticsRollupService.RECENT_POINTS_LIMIT; i++) {
+            Map<String, Object> p = new HashMap<>();
+            p.put("attemptId", UUID.randomUUID().toString());
+            p.put("percentage", new BigDecimal("50.00"));
+            p.put("submittedAt", LocalDateTime.now().minusDays(i + 1).toString());
+            points.add(p);
+        }
+        overall.setRecentPoints(points);
+
+        TestAttempt attempt = attempt(new BigDecimal("70.00"), LocalDateTime.now());
+        rollupService.recordGradedAttempt(attempt, null, 5);
+
+        assertThat(overall.getRecentPoints()).hasSize(StudentAnalyticsRollupService.RECENT_POINTS_LIMIT);
+        assertThat(overall.getRecentPoints().get(0).get("attemptId")).isEqualTo(attempt.getId().toString());
+    }
+
+    private TestAttempt attempt(BigDecimal percentage, LocalDateTime submittedAt) {
+        return TestAttempt.builder()
+                .id(UUID.randomUUID()).studentId(studentId).assignment(assignment)
+                .percentage(percentage)
+                .startedAt(submittedAt.minusMinutes(10))
+                .submittedAt(submittedAt).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StudentAnalyticsRollup> captureSaved() {
+        ArgumentCaptor<List<StudentAnalyticsRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,156 @@
+package uz.eduplatform.modules.analytics.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import uz.eduplatform.modules.analytics.dto.TeacherDashboardDto;
+import uz.eduplatform.modules.analytics.repository.DashboardAggregationRepository;
+import uz.eduplatform.modules.auth.domain.Role;
+import uz.eduplatform.modules.auth.domain.User;
+import uz.eduplatform.modules.auth.repository.UserRepository;
+import uz.eduplatform.modules.content.domain.Topic;
+import uz.eduplatform.modules.content.repository.SubjectRepository;
+import uz.eduplatform.modules.content.repository.TopicRepository;
+import uz.eduplatform.modules.group.repository.StudentGroupRepository;
+import uz.eduplatform.modules.test.repository.TestHistoryRepository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TeacherDashboardServiceTest {
+
+    @Mock private DashboardAggregationRepository aggregationRepository;
+    @Mock private StudentGroupRepository groupRepository;
+    @Mock private TestHistoryRepository testHistoryRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private SubjectRepository subjectRepository;
+    @Mock private TopicRepository topicRepository;
+
+    @InjectMocks private TeacherDashboardService teacherDashboardService;
+
+    private UUID teacherId;
+
+    @BeforeEach
+    void setUp() {
+        teacherId = UUID.randomUUID();
+        when(aggregationRepository.summarizeAssignments(teacherId))
+                .thenReturn(List.<Object[]>of(new Object[]{0L, 0L, 0L}));
+    }
+
+    @Test
+    void getTeacherDashboard_emptyData_returnsZeros() {
+        TeacherDashboardDto result = teacherDashboardService.getTeacherDashboard(teacherId);
+
+        assertThat(result.getTotalGroups()).isZero();
+        assertThat(result.getTotalStudents()).isZero();
+        assertThat(result.getTotalAssignments()).isZero();
+        assertThat(result.getOverallAverageScore()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(result.getCompletionRate()).isZero();
+        assertThat(result.getTopStudents()).isEmpty();
+        assertThat(result.getAtRiskStudents()).isEmpty();
+        assertThat(result.getTestCreationTrend()).hasSize(6);
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getTeacherDashboard_withData_returnsCorrectStats() {
+        UUID studentA = UUID.randomUUID();
+        UUID studentB = UUID.randomUUID();
+        UUID assignmentId = UUID.randomUUID();
+        UUID topicId = UUID.randomUUID();
+
+        when(groupRepository.countByTeacherId(teacherId)).thenReturn(2L);
+        when(aggregationRepository.countDistinctStudentsInTeacherGroups(teacherId)).thenReturn(2L);
+        when(testHistoryRepository.countByUserId(teacherId)).thenReturn(4L);
+        when(aggregationRepository.summarizeAssignments(teacherId))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1L, 2L}));
+        when(aggregationRepository.aggregateAttemptsByStudent(teacherId)).thenReturn(List.of(
+                new Object[]{studentA, 1L, 1L, new BigDecimal("90.00"), Timestamp.valueOf(LocalDateTime.now())},
+                new Object[]{studentB, 1L, 1L, new BigDecimal("30.00"), null}));
+        when(aggregationRepository.countMissedAssignmentsByStudent(teacherId)).thenReturn(List.of());
+        when(aggregationRepository.summarizeRecentAssignments(eq(teacherId), anyInt())).thenReturn(List.<Object[]>of(
+                new Object[]{assignmentId, "Test 1", "ACTIVE", Timestamp.valueOf(LocalDateTime.now()),
+                        2, new BigDecimal("60.0000"), 2L}));
+        when(aggregationRepository.aggregateAttemptsByTopic(teacherId)).thenReturn(List.<Object[]>of(
+                new Object[]{topicId, null, 2L, 2L, new BigDecimal("120.00")}));
+        when(userRepository.findAllById(any())).thenReturn(List.of(
+                User.builder().id(studentA).firstName("Ali").lastName("Valiyev").role(Role.STUDENT).build(),
+                User.builder().id(studentB).firstName("Vali").lastName("Aliyev").role(Role.STUDENT).build()));
+        when(topicRepository.findAllById(any())).thenReturn(List.of(
+                Topic.builder().id(topicId).name(Map.of("uz_latn", "Algebra")).build()));
+
+        TeacherDashboardDto result = teacherDashboardService.getTeacherDashboard(teacherId);
+
+        assertThat(result.getTotalGroups()).isEqualTo(2);
+        assertThat(result.getTotalStudents()).isEqualTo(2);
+        assertThat(result.getTotalTests()).isEqualTo(4);
+        assertThat(result.getOverallAverageScore()).isEqualByComparingTo("60.00");
+        assertThat(result.getCompletionRate()).isEqualTo(100.0);
+        assertThat(result.getTopStudents()).extracting(TeacherDashboardDto.StudentPerformanceDto::getStudentName)
+                .containsExactly("Ali Valiyev", "Vali Aliyev");
+        assertThat(result.getAtRiskStudents()).hasSize(1);
+        assertThat(result.getAtRiskStudents().get(0).getStudentId()).isEqualTo(studentB);
+        assertThat(result.getRecentAssignments()).hasSize(1);
+        assertThat(result.getRecentAssignments().get(0).getAverageScore()).isEqualByComparingTo("60.00");
+        assertThat(result.getTopicBreakdown()).hasSize(1);
+        assertThat(result.getTopicBreakdown().get(0).getAverageScore()).isEqualByComparingTo("60.00");
+        assertThat(result.getTopicBreakdown().get(0).getDifficulty()).isEqualTo("MEDIUM");
+    }
+
+    @Test
+    void getTeacherDashboard_queryCountIndependentOfDataSize() {
+        int students = 500;
+        List<Object[]> studentRows = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            UUID id = UUID.randomUUID();
+            studentRows.add(new Object[]{id, 20L, 20L, new BigDecimal("1500.00"), null});
+            users.add(User.builder().id(id).firstName("S" + i).lastName("L").role(Role.STUDENT).build());
+        }
+        List<Object[]> topicRows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            topicRows.add(new Object[]{UUID.randomUUID(), UUID.randomUUID(), 10L, 10L, new BigDecimal("700.00")});
+        }
+
+        when(groupRepository.countByTeacherId(teacherId)).thenReturn(300L);
+        when(aggregationRepository.summarizeAssignments(teacherId))
+                .thenReturn(List.<Object[]>of(new Object[]{1000L, 50L, 20000L}));
+        when(aggregationRepository.aggregateAttemptsByStudent(teacherId)).thenReturn(studentRows);
+        when(aggregationRepository.countMissedAssignmentsByStudent(teacherId)).thenReturn(List.of());
+        when(aggregationRepository.aggregateAttemptsByTopic(teacherId)).thenReturn(topicRows);
+        when(userRepository.findAllById(any())).thenReturn(users);
+
+        TeacherDashboardDto result = teacherDashboardService.getTeacherDashboard(teacherId);
+
+        assertThat(result.getTopStudents()).hasSize(5);
+        assertThat(result.getTopicBreakdown()).hasSize(200);
+
+        verify(groupRepository, times(1)).countByTeacherId(teacherId);
+        verify(testHistoryRepository, times(1)).countByUserId(teacherId);
+        verify(aggregationRepository, times(1)).countDistinctStudentsInTeacherGroups(teacherId);
+        verify(aggregationRepository, times(1)).summarizeAssignments(teacherId);
+        verify(aggregationRepository, times(1)).aggregateAttemptsByStudent(teacherId);
+        verify(aggregationRepository, times(1)).countMissedAssignmentsByStudent(teacherId);
+        verify(aggregationRepository, times(1)).summarizeRecentAssignments(eq(teacherId), anyInt());
+        verify(aggregationRepository, times(1)).aggregateAttemptsByTopic(teacherId);
+        verify(aggregationRepository, times(1)).countMonthlyTestCreations(eq(teacherId), any());
+        verify(userRepository, times(1)).findAllById(any());
+        verify(topicRepository, times(1)).findAllById(any());
+        verify(subjectRepository, times(1)).findAllById(any());
+        verifyNoMoreInteractions(aggregationRepository, groupRepository, testHistoryRepository,
+                userRepository, topicRepository, subjectRepository);
+    }
+}
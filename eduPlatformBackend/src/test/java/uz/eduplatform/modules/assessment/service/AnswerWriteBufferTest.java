@@ -0,0 +1,229 @@
+package uz.eduplatform.modules.assessment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.modules.assessment.domain.Answer;
+import uz.eduplatform.modules.assessment.domain.AttemptStatus;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.modules.assessment.dto.SubmitAnswerRequest;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnswerWriteBufferTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private AnswerWriteBuffer buffer;
+    private UUID attemptId;
+    private UUID studentId;
+    private TestAttempt attempt;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new AnswerWriteBuffer(jdbcTemplate, 10);
+        attemptId = UUID.randomUUID();
+        studentId = UUID.randomUUID();
+        attempt = TestAttempt.builder()
+                .id(attemptId)
+                .studentId(studentId)
+                .assignment(TestAssignment.builder().id(UUID.randomUUID()).build())
+                .status(AttemptStatus.IN_PROGRESS)
+                .tabSwitchCount(0)
+                .build();
+    }
+
+    @Test
+    void accept_withoutSession_returnsNull() {
+        assertNull(buffer.accept(attemptId, studentId, request(UUID.randomUUID()), "\"A\""));
+    }
+
+    @Test
+    void accept_coalescesRepeatedSavesAndCountsFromSession() {
+        UUID answered = UUID.randomUUID();
+        UUID existingId = UUID.randomUUID();
+        UUID questionId = UUID.randomUUID();
+        buffer.open(attempt, null, List.of(Answer.builder()
+                        .id(existingId).questionId(answered).questionIndex(3).selectedAnswer("\"A\"").build()),
+                List.of(questionId, UUID.randomUUID(), UUID.randomUUID(), answered));
+
+        AnswerWriteBuffer.Ack first = buffer.accept(attemptId, studentId, request(questionId), "\"A\"");
+        AnswerWriteBuffer.Ack second = buffer.accept(attemptId, studentId, request(questionId), "\"B\"");
+        AnswerWriteBuffer.Ack update = buffer.accept(attemptId, studentId, request(answered), null);
+
+        assertEquals(first.answerId(), second.answerId());
+        assertEquals(2, second.answeredQuestions());
+        assertEquals(2, second.totalQuestions());
+        assertEquals(existingId, update.answerId());
+        assertEquals(3, update.questionIndex());
+        assertEquals(1, update.answeredQuestions());
+        assertEquals(2, buffer.pendingCount(attemptId));
+    }
+
+    @Test
+    void accept_questionOutsideVariantOrAtOtherIndex_isRejected() {
+        UUID questionId = UUID.randomUUID();
+        buffer.open(attempt, null, List.of(), List.of(questionId));
+
+        assertThrows(BusinessException.class,
+                () -> buffer.accept(attemptId, studentId, request(UUID.randomUUID()), "\"A\""));
+        SubmitAnswerRequest wrongIndex = request(questionId);
+        wrongIndex.setQuestionIndex(4);
+        assertThrows(BusinessException.class, () -> buffer.accept(attemptId, studentId, wrongIndex, "\"A\""));
+        assertEquals(0, buffer.pendingCount(attemptId));
+    }
+
+    @Test
+    void accept_otherStudentOrPastDeadline_returnsNull() {
+        buffer.open(attempt, LocalDateTime.now().minusSeconds(1), List.of(), List.of());
+
+        assertNull(buffer.accept(attemptId, studentId, request(UUID.randomUUID()), "\"A\""));
+        assertNull(buffer.accept(attemptId, UUID.randomUUID(), request(UUID.randomUUID()), "\"A\""));
+    }
+
+    @Test
+    void flush_outage_keepsEntriesForNextFlush() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        buffer.open(attempt, null, List.of(), List.of(first, second));
+        buffer.accept(attemptId, studentId, request(first), "\"A\"");
+        buffer.accept(attemptId, studentId, request(second), "\"B\"");
+        registered(jdbcTemplate, attemptId);
+
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1, 1});
+
+        buffer.flush();
+        assertEquals(2, buffer.pendingCount(attemptId));
+
+        buffer.flush();
+        assertEquals(0, buffer.pendingCount(attemptId));
+        // Failed batch, first row on its own (still down, so the rest waits), then the retried batch
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void flush_rowViolatingConstraint_isDroppedAndOthersWritten() {
+        UUID bad = UUID.randomUUID();
+        UUID good = UUID.randomUUID();
+        buffer.open(attempt, null, List.of(), List.of(bad, good));
+        buffer.accept(attemptId, studentId, request(bad), "\"A\"");
+        buffer.accept(attemptId, studentId, request(good), "\"B\"");
+        registered(jdbcTemplate, attemptId);
+
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("fk"))
+                .thenThrow(new DataIntegrityViolationException("fk"))
+                .thenReturn(new int[]{1});
+
+        buffer.flush();
+
+        assertEquals(0, buffer.pendingCount(attemptId));
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        assertNotNull(buffer.accept(attemptId, studentId, request(good), "\"C\""));
+    }
+
+    @Test
+    void flush_sessionGradedElsewhere_isClosed() {
+        UUID questionId = UUID.randomUUID();
+        buffer.open(attempt, null, List.of(), List.of(questionId));
+
+        buffer.flush();
+
+        assertNull(buffer.accept(attemptId, studentId, request(questionId), "\"A\""));
+    }
+
+    @Test
+    void close_writesPendingWithoutStatusGuardAndEndsSession() throws Exception {
+        UUID questionId = UUID.randomUUID();
+        buffer.open(attempt, null, List.of(), List.of(questionId));
+        buffer.accept(attemptId, studentId, request(questionId), "\"A\"");
+
+        buffer.close(attemptId);
+
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), setter.capture());
+        assertEquals(1, setter.getValue().getBatchSize());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, 0);
+        verify(ps).setObject(3, questionId);
+        verify(ps).setString(5, "\"A\"");
+        verify(ps).setBoolean(10, true);
+
+        assertNull(buffer.accept(attemptId, studentId, request(questionId), "\"B\""));
+        verify(jdbcTemplate).update(contains("DELETE FROM answer_buffer_sessions"), eq(attemptId));
+        // Waiting for other nodes happens before the grading transaction, never in close
+        verify(jdbcTemplate, never()).queryForList(contains("FROM answer_buffer_sessions"), eq(attemptId),
+                any(UUID.class));
+    }
+
+    @Test
+    void awaitOtherNodes_answersBufferedOnAnotherNode_areWrittenBeforeGrading() {
+        // Node A took the save; grading runs on this buffer, node B
+        JdbcTemplate nodeAJdbc = mock(JdbcTemplate.class);
+        AnswerWriteBuffer nodeA = new AnswerWriteBuffer(nodeAJdbc, 10);
+        UUID questionId = UUID.randomUUID();
+        nodeA.open(attempt, null, List.of(), List.of(questionId));
+        nodeA.accept(attemptId, studentId, request(questionId), "\"A\"");
+        registered(nodeAJdbc, attemptId);
+
+        // Each poll from B sees A flush once more
+        UUID nodeAId = UUID.randomUUID();
+        AtomicLong flushSeq = new AtomicLong(7);
+        when(jdbcTemplate.queryForList(contains("FROM answer_buffer_sessions"), eq(attemptId), any(UUID.class)))
+                .thenReturn(List.of(Map.of("node_id", nodeAId, "flush_seq", flushSeq.get())))
+                .thenAnswer(inv -> {
+                    nodeA.flush();
+                    return List.of(Map.of("node_id", nodeAId, "flush_seq", flushSeq.incrementAndGet()));
+                });
+
+        buffer.awaitOtherNodes(attemptId);
+
+        assertEquals(9, flushSeq.get());
+        assertEquals(0, nodeA.pendingCount(attemptId));
+        verify(nodeAJdbc).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void awaitOtherNodes_otherNodeUnresponsive_givesUpAfterTimeout() {
+        when(jdbcTemplate.queryForList(contains("FROM answer_buffer_sessions"), eq(attemptId), any(UUID.class)))
+                .thenReturn(List.of(Map.of("node_id", UUID.randomUUID(), "flush_seq", 3L)));
+
+        buffer.awaitOtherNodes(attemptId);
+
+        verify(jdbcTemplate, atLeast(3)).queryForList(contains("FROM answer_buffer_sessions"), eq(attemptId),
+                any(UUID.class));
+    }
+
+    // Heartbeats find the attempt's session row still there
+    private static void registered(JdbcTemplate jdbc, UUID attemptId) {
+        when(jdbc.queryForList(contains("flush_seq + 1"), eq(UUID.class), any(UUID.class), anyString()))
+                .thenReturn(List.of(attemptId));
+    }
+
+    private SubmitAnswerRequest request(UUID questionId) {
+        return SubmitAnswerRequest.builder().questionId(questionId).build();
+    }
+}
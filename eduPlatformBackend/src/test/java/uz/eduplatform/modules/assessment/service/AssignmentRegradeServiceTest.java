@@ -0,0 +1,72 @@
+package uz.eduplatform.modules.assessment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.dto.RegradeResultDto;
+import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssignmentRegradeServiceTest {
+
+    @Mock private TestAssignmentRepository assignmentRepository;
+    @Mock private TestAttemptRepository attemptRepository;
+    @Mock private GradingService gradingService;
+
+    private AssignmentRegradeService regradeService;
+    private UUID assignmentId;
+    private UUID teacherId;
+
+    @BeforeEach
+    void setUp() {
+        regradeService = new AssignmentRegradeService(assignmentRepository, attemptRepository, gradingService, Runnable::run);
+        assignmentId = UUID.randomUUID();
+        teacherId = UUID.randomUUID();
+        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(
+                TestAssignment.builder().id(assignmentId).teacherId(teacherId).build()));
+    }
+
+    @Test
+    void regradeAssignment_chunksWithoutSplittingStudents() {
+        List<Object[]> refs = new ArrayList<>();
+        UUID student = UUID.randomUUID();
+        for (int i = 0; i < AssignmentRegradeService.CHUNK_SIZE + 5; i++) {
+            // Two attempts per student, the chunk boundary falls inside a pair
+            if (i % 2 == 1) student = UUID.randomUUID();
+            refs.add(new Object[]{UUID.randomUUID(), student});
+        }
+        when(attemptRepository.findAttemptRefsByAssignmentIdAndStatusIn(eq(assignmentId), any())).thenReturn(refs);
+        when(gradingService.regradeAttempts(anyList())).thenReturn(3).thenThrow(new IllegalStateException("deadlock"));
+
+        RegradeResultDto result = regradeService.regradeAssignment(assignmentId, teacherId);
+
+        List<List<UUID>> chunks = AssignmentRegradeService.chunkByStudent(refs);
+        assertEquals(2, chunks.size());
+        assertEquals(AssignmentRegradeService.CHUNK_SIZE + 1, chunks.get(0).size());
+        assertEquals(chunks.get(0).size(), result.getRegradedAttempts());
+        assertEquals(chunks.get(1).size(), result.getFailedAttempts());
+        assertEquals(3, result.getChangedAttempts());
+    }
+
+    @Test
+    void regradeAssignment_otherTeacher_throwsForbidden() {
+        assertThrows(BusinessException.class,
+                () -> regradeService.regradeAssignment(assignmentId, UUID.randomUUID()));
+        verifyNoInteractions(gradingService);
+    }
+}
@@ -25,7 +25,8 @@ class AssignmentSchedulerTaskTest {
 
     @Mock private TestAttemptRepository attemptRepository;
     @Mock private TestAssignmentRepository assignmentRepository;
-    @Mock private GradingService gradingService;
+    @Mock private AttemptAutoSubmitService autoSubmitService;
+    @Mock private AnswerWriteBuffer answerWriteBuffer;
 
     @InjectMocks
     private AssignmentSchedulerTask schedulerTask;
@@ -54,28 +55,26 @@ class AssignmentSchedulerTaskTest {
     }
 
     @Test
-    void autoSubmitExpiredAttempts_submitsAndGrades() {
-        when(attemptRepository.findExpiredInProgressAttempts(any()))
-                .thenReturn(List.of(expiredAttempt));
-        when(attemptRepository.save(any())).thenAnswer(i -> i.getArgument(0));
-        when(gradingService.gradeAttempt(any())).thenAnswer(i -> i.getArgument(0));
+    void autoSubmitExpiredAttempts_submitsEachInItsOwnCall() {
+        UUID otherId = UUID.randomUUID();
+        when(attemptRepository.findExpiredInProgressAttemptIds(any()))
+                .thenReturn(List.of(expiredAttempt.getId(), otherId));
+        when(autoSubmitService.autoSubmit(expiredAttempt.getId())).thenThrow(new RuntimeException("boom"));
 
         schedulerTask.autoSubmitExpiredAttempts();
 
-        verify(attemptRepository).save(argThat(a ->
-                a.getStatus() == AttemptStatus.SUBMITTED && a.getSubmittedAt() != null));
-        verify(gradingService).gradeAttempt(expiredAttempt);
+        verify(autoSubmitService).autoSubmit(expiredAttempt.getId());
+        verify(autoSubmitService).autoSubmit(otherId);
     }
 
     @Test
     void autoSubmitExpiredAttempts_noExpired_doesNothing() {
-        when(attemptRepository.findExpiredInProgressAttempts(any()))
+        when(attemptRepository.findExpiredInProgressAttemptIds(any()))
                 .thenReturn(List.of());
 
         schedulerTask.autoSubmitExpiredAttempts();
 
-        verify(attemptRepository, never()).save(any());
-        verify(gradingService, never()).gradeAttempt(any());
+        verify(autoSubmitService, never()).autoSubmit(any());
     }
 
     @Test
@@ -42,6 +42,7 @@ import static org.mockito.Mockito.*;
 class AssignmentServiceTest {
 
     @Mock private TestAssignmentRepository assignmentRepository;
+    @Mock private AssignmentStudentService assignmentStudentService;
     @Mock private TestAttemptRepository attemptRepository;
     @Mock private TestHistoryRepository testHistoryRepository;
     @Mock private UserRepository userRepository;
@@ -0,0 +1,94 @@
+package uz.eduplatform.modules.assessment.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import uz.eduplatform.modules.assessment.domain.AssignmentStudent;
+import uz.eduplatform.modules.assessment.domain.AssignmentStudentStatus;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.repository.AssignmentStudentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AssignmentStudentServiceTest {
+
+    @Mock private AssignmentStudentRepository assignmentStudentRepository;
+    @Mock private TestAssignmentRepository assignmentRepository;
+
+    @InjectMocks private AssignmentStudentService assignmentStudentService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sync_insertsAddedAndDeletesRemovedStudents() {
+        UUID assignmentId = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        UUID added = UUID.randomUUID();
+        TestAssignment assignment = TestAssignment.builder()
+                .id(assignmentId).assignedStudentIds(List.of(kept, added)).build();
+        when(assignmentStudentRepository.findStudentIdsByAssignmentId(assignmentId))
+                .thenReturn(List.of(kept, removed));
+
+        assignmentStudentService.sync(assignment);
+
+        verify(assignmentStudentRepository).deleteByAssignmentIdAndStudentIdIn(assignmentId, List.of(removed));
+        ArgumentCaptor<List<AssignmentStudent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(assignmentStudentRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(AssignmentStudent::getStudentId).containsExactly(added);
+        assertThat(captor.getValue().get(0).getStatus()).isEqualTo(AssignmentStudentStatus.ASSIGNED);
+    }
+
+    @Test
+    void sync_unchangedList_writesNothing() {
+        UUID assignmentId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+        TestAssignment assignment = TestAssignment.builder()
+                .id(assignmentId).assignedStudentIds(List.of(studentId)).build();
+        when(assignmentStudentRepository.findStudentIdsByAssignmentId(assignmentId))
+                .thenReturn(List.of(studentId));
+
+        assignmentStudentService.sync(assignment);
+
+        verify(assignmentStudentRepository, never()).deleteByAssignmentIdAndStudentIdIn(any(), any());
+        verify(assignmentStudentRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void markSubmitted_onlyAdvancesFromEarlierStatuses() {
+        UUID assignmentId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+
+        assignmentStudentService.markSubmitted(assignmentId, studentId);
+
+        verify(assignmentStudentRepository).advanceStatus(assignmentId, studentId,
+                AssignmentStudentStatus.SUBMITTED,
+                List.of(AssignmentStudentStatus.ASSIGNED, AssignmentStudentStatus.STARTED));
+    }
+
+    @Test
+    void repairInconsistencies_resyncsDriftedAssignments() {
+        UUID assignmentId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+        when(assignmentStudentRepository.findInconsistentAssignmentIds(anyInt())).thenReturn(List.of(assignmentId));
+        when(assignmentRepository.findAllById(List.of(assignmentId))).thenReturn(List.of(
+                TestAssignment.builder().id(assignmentId).assignedStudentIds(List.of(studentId)).build()));
+        when(assignmentStudentRepository.findStudentIdsByAssignmentId(assignmentId)).thenReturn(List.of());
+
+        int repaired = assignmentStudentService.repairInconsistencies(100);
+
+        assertThat(repaired).isEqualTo(1);
+        verify(assignmentStudentRepository).saveAll(anyList());
+    }
+}
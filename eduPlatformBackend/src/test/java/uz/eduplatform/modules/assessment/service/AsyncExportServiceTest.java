@@ -0,0 +1,73 @@
+package uz.eduplatform.modules.assessment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.eduplatform.modules.assessment.domain.ExportJob;
+import uz.eduplatform.modules.assessment.domain.ExportJobStatus;
+import uz.eduplatform.modules.assessment.repository.ExportJobRepository;
+import uz.eduplatform.modules.assessment.service.export.AsyncExportService;
+import uz.eduplatform.modules.assessment.service.export.ExportJobWorker;
+import uz.eduplatform.modules.assessment.service.export.ResultExportFormat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncExportServiceTest {
+
+    @TempDir Path uploadDir;
+
+    @Mock private ExportJobRepository exportJobRepository;
+    @Mock private ExportJobWorker exportJobWorker;
+
+    private AsyncExportService asyncExportService;
+
+    @BeforeEach
+    void setUp() {
+        asyncExportService = new AsyncExportService(exportJobRepository, exportJobWorker, uploadDir.toString());
+    }
+
+    @Test
+    void startExport_queuedJobHasNoExpiry() {
+        when(exportJobRepository.save(any(ExportJob.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        asyncExportService.startExport(UUID.randomUUID(), UUID.randomUUID(), ResultExportFormat.CSV, Locale.ENGLISH);
+
+        ArgumentCaptor<ExportJob> saved = ArgumentCaptor.forClass(ExportJob.class);
+        verify(exportJobRepository).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(ExportJobStatus.PENDING);
+        assertThat(saved.getValue().getExpiresAt()).isNull();
+    }
+
+    @Test
+    void cleanupExpiredJobs_removesOnlyFinishedJobsAndTheirFiles() throws IOException {
+        Path file = Files.writeString(uploadDir.resolve("result.csv"), "a,b\n");
+        ExportJob finished = ExportJob.builder()
+                .id(UUID.randomUUID())
+                .status(ExportJobStatus.COMPLETED)
+                .filePath("result.csv")
+                .expiresAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+        when(exportJobRepository.findFinishedExpiredBefore(any())).thenReturn(List.of(finished));
+        when(exportJobRepository.deleteFinishedExpiredBefore(any())).thenReturn(1);
+
+        asyncExportService.cleanupExpiredJobs();
+
+        assertThat(file).doesNotExist();
+        verify(exportJobRepository).deleteFinishedExpiredBefore(any());
+    }
+}
@@ -0,0 +1,79 @@
+package uz.eduplatform.modules.assessment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import uz.eduplatform.modules.assessment.domain.*;
+import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AttemptAutoSubmitServiceTest {
+
+    @Mock private TestAttemptRepository attemptRepository;
+    @Mock private GradingService gradingService;
+    @Mock private AssignmentStudentService assignmentStudentService;
+    @Mock private LiveMonitoringService liveMonitoringService;
+
+    @InjectMocks
+    private AttemptAutoSubmitService autoSubmitService;
+
+    private TestAttempt attempt;
+
+    @BeforeEach
+    void setUp() {
+        TestAssignment assignment = TestAssignment.builder()
+                .id(UUID.randomUUID())
+                .status(AssignmentStatus.ACTIVE)
+                .durationMinutes(30)
+                .build();
+        attempt = TestAttempt.builder()
+                .id(UUID.randomUUID())
+                .assignment(assignment)
+                .studentId(UUID.randomUUID())
+                .startedAt(LocalDateTime.now().minusHours(1))
+                .status(AttemptStatus.IN_PROGRESS)
+                .build();
+        when(attemptRepository.lockById(attempt.getId())).thenReturn(Optional.of(attempt));
+    }
+
+    @Test
+    void autoSubmit_expired_submitsAtDeadlineAndGrades() {
+        boolean submitted = autoSubmitService.autoSubmit(attempt.getId());
+
+        assertThat(submitted).isTrue();
+        assertThat(attempt.getStatus()).isEqualTo(AttemptStatus.SUBMITTED);
+        assertThat(attempt.getSubmittedAt()).isEqualTo(attempt.getStartedAt().plusMinutes(30));
+        verify(assignmentStudentService).markSubmitted(attempt.getAssignment().getId(), attempt.getStudentId());
+        verify(gradingService).gradeAttempt(attempt);
+    }
+
+    @Test
+    void autoSubmit_alreadySubmitted_isNoOp() {
+        attempt.setStatus(AttemptStatus.SUBMITTED);
+
+        assertThat(autoSubmitService.autoSubmit(attempt.getId())).isFalse();
+        verify(gradingService, never()).gradeAttempt(any());
+    }
+
+    @Test
+    void autoSubmit_notYetDue_isNoOp() {
+        attempt.setStartedAt(LocalDateTime.now().minusMinutes(5));
+
+        assertThat(autoSubmitService.autoSubmit(attempt.getId())).isFalse();
+        verify(attemptRepository, never()).save(any());
+    }
+}
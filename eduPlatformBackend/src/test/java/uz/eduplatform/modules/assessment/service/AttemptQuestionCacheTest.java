@@ -0,0 +1,100 @@
+package uz.eduplatform.modules.assessment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uz.eduplatform.modules.assessment.dto.AttemptQuestionDto;
+import uz.eduplatform.modules.test.repository.TestQuestionRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AttemptQuestionCacheTest {
+
+    private TestQuestionRepository testQuestionRepository;
+    private AttemptQuestionCache cache;
+    private UUID testId;
+    private UUID questionId;
+    private AtomicInteger loads;
+    private Supplier<List<AttemptQuestionDto>> loader;
+
+    @BeforeEach
+    void setUp() {
+        testQuestionRepository = mock(TestQuestionRepository.class);
+        cache = new AttemptQuestionCache(testQuestionRepository, 1024 * 1024);
+        testId = UUID.randomUUID();
+        questionId = UUID.randomUUID();
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return List.of(AttemptQuestionDto.builder()
+                    .id(questionId)
+                    .questionText("2 + 2 = ?")
+                    .options(List.of(Map.of("id", "A", "text", "4")))
+                    .build());
+        };
+    }
+
+    @Test
+    void get_buildsOncePerVariantAndVisibility() {
+        List<AttemptQuestionDto> first = cache.get(testId, "A", false, false, loader);
+        List<AttemptQuestionDto> second = cache.get(testId, "A", false, false, loader);
+        cache.get(testId, "A", true, false, loader);
+        cache.get(testId, "B", false, false, loader);
+
+        assertSame(first, second);
+        assertEquals(3, loads.get());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new AttemptQuestionDto()));
+    }
+
+    @Test
+    void get_questionVersionBumpedElsewhere_rebuildsWithoutEviction() {
+        when(testQuestionRepository.findCurrentQuestionVersions(testId, "A")).thenReturn(List.of(1));
+        List<AttemptQuestionDto> before = cache.get(testId, "A", false, false, loader);
+
+        // Edited on another node: no local evict, only the row's version moved
+        when(testQuestionRepository.findCurrentQuestionVersions(testId, "A")).thenReturn(List.of(2));
+        List<AttemptQuestionDto> after = cache.get(testId, "A", false, false, loader);
+
+        assertNotSame(before, after);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictQuestion_dropsOnlyListsContainingIt() {
+        UUID otherTest = UUID.randomUUID();
+        cache.get(testId, "A", false, false, loader);
+        cache.get(otherTest, "A", false, false, () -> List.of(AttemptQuestionDto.builder().id(UUID.randomUUID()).build()));
+
+        cache.evictQuestion(questionId);
+        cache.get(testId, "A", false, false, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.estimatedSize());
+    }
+
+    @Test
+    void evictTest_dropsEveryVariantOfTheTest() {
+        cache.get(testId, "A", false, false, loader);
+        cache.get(testId, "B", true, true, loader);
+
+        cache.evictTest(testId);
+
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    void get_failedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(testId, "A", false, false, () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        cache.get(testId, "A", false, false, loader);
+        assertEquals(1, loads.get());
+    }
+}
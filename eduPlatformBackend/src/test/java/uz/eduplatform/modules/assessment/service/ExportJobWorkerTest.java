@@ -0,0 +1,141 @@
+package uz.eduplatform.modules.assessment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.modules.assessment.domain.ExportJob;
+import uz.eduplatform.modules.assessment.domain.ExportJobStatus;
+import uz.eduplatform.modules.assessment.service.export.ExportJobQueue;
+import uz.eduplatform.modules.assessment.service.export.ExportJobWorker;
+import uz.eduplatform.modules.assessment.service.export.ResultExportFacade;
+import uz.eduplatform.modules.assessment.service.export.ResultExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExportJobWorkerTest {
+
+    @TempDir Path uploadDir;
+
+    @Mock private ExportJobQueue queue;
+    @Mock private ResultExportFacade resultExportFacade;
+
+    private ExportJobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        // Direct executor: jobs run inside poll()
+        worker = new ExportJobWorker(queue, resultExportFacade, Runnable::run, uploadDir.toString(), 2);
+    }
+
+    @Test
+    void poll_claimsOnlyFreeSlotsAndWritesFileToDisk() throws IOException {
+        ExportJob job = job();
+        when(queue.claim(eq(2), anyString())).thenReturn(List.of(job));
+        doAnswer(inv -> {
+            inv.<IntConsumer>getArgument(5).accept(50);
+            inv.<OutputStream>getArgument(4).write("a,b\n".getBytes());
+            return null;
+        }).when(resultExportFacade).writeAssignmentResults(eq(job.getAssignmentId()), eq(job.getTeacherId()),
+                eq(ResultExportFormat.CSV), any(), any(), any());
+
+        worker.poll();
+
+        String relativePath = "exports/" + job.getId() + ".csv";
+        assertThat(Files.readString(uploadDir.resolve(relativePath))).isEqualTo("a,b\n");
+        verify(queue).reportProgress(eq(job.getId()), anyString(), eq(50));
+        verify(queue).complete(job.getId(), "results-" + job.getAssignmentId() + ".csv",
+                "text/csv; charset=UTF-8", relativePath, 4L);
+    }
+
+    @Test
+    void poll_ioFailureIsRetriedAndLeavesNoPartialFile() throws IOException {
+        ExportJob job = job();
+        when(queue.claim(anyInt(), anyString())).thenReturn(List.of(job));
+        doThrow(new IOException("disk full")).when(resultExportFacade)
+                .writeAssignmentResults(any(), any(), any(), any(), any(), any());
+
+        worker.poll();
+
+        verify(queue).fail(job.getId(), "disk full", true);
+        verify(queue, never()).complete(any(), any(), any(), any(), anyLong());
+        try (var files = Files.list(uploadDir.resolve("exports"))) {
+            assertThat(files.toList()).isEmpty();
+        }
+    }
+
+    @Test
+    void poll_eachClaimRendersIntoItsOwnPartialFile() throws IOException {
+        ExportJob job = job();
+        job.setAttempts(2);
+        when(queue.claim(anyInt(), anyString())).thenReturn(List.of(job));
+        doAnswer(inv -> {
+            try (var files = Files.list(uploadDir.resolve("exports"))) {
+                assertThat(files.map(p -> p.getFileName().toString()).toList())
+                        .containsExactly(job.getId() + "-2.part");
+            }
+            return null;
+        }).when(resultExportFacade).writeAssignmentResults(any(), any(), any(), any(), any(), any());
+
+        worker.poll();
+
+        verify(queue).complete(eq(job.getId()), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void heartbeat_refreshesOnlyJobsStillRendering() throws IOException {
+        ExportJob job = job();
+        when(queue.claim(anyInt(), anyString())).thenReturn(List.of(job));
+        doAnswer(inv -> {
+            worker.heartbeat();
+            return null;
+        }).when(resultExportFacade).writeAssignmentResults(any(), any(), any(), any(), any(), any());
+
+        worker.poll();
+        worker.heartbeat();
+
+        verify(queue, times(1)).heartbeat(eq(Set.of(job.getId())), anyString());
+    }
+
+    @Test
+    void poll_missingAssignmentFailsWithoutRetry() throws IOException {
+        ExportJob job = job();
+        when(queue.claim(anyInt(), anyString())).thenReturn(List.of(job));
+        doThrow(new ResourceNotFoundException("TestAssignment", "id", job.getAssignmentId()))
+                .when(resultExportFacade).writeAssignmentResults(any(), any(), any(), any(), any(), any());
+
+        worker.poll();
+
+        verify(queue).fail(eq(job.getId()), any(), eq(false));
+    }
+
+    private ExportJob job() {
+        return ExportJob.builder()
+                .id(UUID.randomUUID())
+                .assignmentId(UUID.randomUUID())
+                .teacherId(UUID.randomUUID())
+                .format(ResultExportFormat.CSV)
+                .locale("en")
+                .status(ExportJobStatus.PROCESSING)
+                .attempts(1)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package uz.eduplatform.modules.assessment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.eduplatform.modules.content.domain.Question;
+import uz.eduplatform.modules.content.domain.QuestionType;
+import uz.eduplatform.modules.content.repository.QuestionRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GradingPlanCacheTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private GradingPlanCache cache;
+    private UUID questionId;
+    private Question question;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GradingPlanCache(questionRepository, new ObjectMapper());
+        questionId = UUID.randomUUID();
+        question = Question.builder()
+                .id(questionId)
+                .questionType(QuestionType.MCQ_SINGLE)
+                .options("[{\"id\":\"a\",\"isCorrect\":true}]")
+                .version(1)
+                .build();
+    }
+
+    @Test
+    void planFor_sameVersion_compilesOnce() {
+        stubVersion(1);
+
+        CompiledQuestion first = cache.planFor(List.of(questionId)).get(questionId);
+        CompiledQuestion second = cache.planFor(List.of(questionId)).get(questionId);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        verify(questionRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void planFor_versionBumpedElsewhere_recompilesWithoutEviction() {
+        stubVersion(1);
+        CompiledQuestion before = cache.planFor(List.of(questionId)).get(questionId);
+
+        // Edited on another node: no local evict, only the row's version moved
+        question.setVersion(2);
+        stubVersion(2);
+        CompiledQuestion after = cache.planFor(List.of(questionId)).get(questionId);
+
+        assertNotSame(before, after);
+        verify(questionRepository, times(2)).findAllById(any());
+    }
+
+    @Test
+    void planFor_missingQuestion_isLeftOut() {
+        when(questionRepository.findVersionsByIds(any())).thenReturn(List.of());
+
+        Map<UUID, CompiledQuestion> plan = cache.planFor(List.of(questionId));
+
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    void evict_dropsEveryVersionOfTheQuestion() {
+        stubVersion(1);
+        cache.planFor(List.of(questionId));
+
+        cache.evict(questionId);
+
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    private void stubVersion(int version) {
+        when(questionRepository.findVersionsByIds(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{questionId, version}));
+        when(questionRepository.findAllById(any())).thenAnswer(inv -> List.of(question));
+    }
+}
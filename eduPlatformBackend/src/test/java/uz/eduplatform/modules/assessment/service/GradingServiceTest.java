@@ -10,6 +10,7 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.modules.analytics.service.StudentAnalyticsRollupService;
 import uz.eduplatform.modules.assessment.domain.Answer;
 import uz.eduplatform.modules.assessment.domain.AttemptStatus;
 import uz.eduplatform.modules.assessment.domain.TestAttempt;
@@ -18,7 +19,6 @@ import uz.eduplatform.modules.assessment.repository.AnswerRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
 import uz.eduplatform.modules.content.domain.Question;
 import uz.eduplatform.modules.content.domain.QuestionType;
-import uz.eduplatform.modules.content.repository.QuestionRepository;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -37,7 +37,13 @@ class GradingServiceTest {
     private AnswerRepository answerRepository;
 
     @Mock
-    private QuestionRepository questionRepository;
+    private GradingPlanCache gradingPlanCache;
+
+    @Mock
+    private StudentAnalyticsRollupService rollupService;
+
+    @Mock
+    private AnswerWriteBuffer answerWriteBuffer;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
@@ -318,6 +324,59 @@ class GradingServiceTest {
         assertEquals(AttemptStatus.NEEDS_REVIEW, result.getStatus()); // essay needs review
     }
 
+    // ==================== Re-grade ====================
+
+    @Test
+    void regradeAttempts_fixedAnswerKey_rescoresAndKeepsManualScores() {
+        UUID mcqId = UUID.randomUUID();
+        UUID essayId = UUID.randomUUID();
+        Question mcq = buildQuestion(mcqId, QuestionType.MCQ_SINGLE, null, new BigDecimal("2.00"));
+        mcq.setOptions("[{\"id\":\"a\",\"isCorrect\":false},{\"id\":\"b\",\"isCorrect\":true}]");
+        Question essay = buildQuestion(essayId, QuestionType.ESSAY, null, new BigDecimal("3.00"));
+
+        Answer mcqAnswer = buildAnswer(attemptId, mcqId, 0, "\"b\"");
+        mcqAnswer.setEarnedPoints(BigDecimal.ZERO);
+        mcqAnswer.setIsCorrect(false);
+        Answer essayAnswer = buildAnswer(attemptId, essayId, 1, "\"essay\"");
+        essayAnswer.setManualScore(new BigDecimal("1.50"));
+        essayAnswer.setEarnedPoints(new BigDecimal("1.50"));
+        essayAnswer.setNeedsManualGrading(false);
+
+        attempt.setStatus(AttemptStatus.GRADED);
+        attempt.setPercentage(new BigDecimal("30.00"));
+        Map<UUID, CompiledQuestion> plan = Map.of(
+                mcqId, CompiledQuestion.compile(mcq, objectMapper),
+                essayId, CompiledQuestion.compile(essay, objectMapper));
+        when(attemptRepository.findAllById(List.of(attemptId))).thenReturn(List.of(attempt));
+        when(answerRepository.findByAttemptIdIn(List.of(attemptId))).thenReturn(List.of(mcqAnswer, essayAnswer));
+        when(gradingPlanCache.planFor(any())).thenReturn(plan);
+
+        int changed = gradingService.regradeAttempts(List.of(attemptId));
+
+        assertEquals(1, changed);
+        assertTrue(mcqAnswer.getIsCorrect());
+        assertEquals(new BigDecimal("2.00"), mcqAnswer.getEarnedPoints());
+        assertEquals(new BigDecimal("1.50"), essayAnswer.getEarnedPoints());
+        assertFalse(essayAnswer.getNeedsManualGrading());
+        assertEquals(new BigDecimal("3.50"), attempt.getRawScore());
+        assertEquals(new BigDecimal("70.00"), attempt.getPercentage());
+        assertEquals(AttemptStatus.GRADED, attempt.getStatus());
+        verify(rollupService).recordGradedAttempt(attempt, new BigDecimal("30.00"), 2);
+        verify(attemptRepository).saveAll(List.of(attempt));
+    }
+
+    @Test
+    void regradeAttempts_skipsAttemptsNotGradedYet() {
+        attempt.setStatus(AttemptStatus.IN_PROGRESS);
+        when(attemptRepository.findAllById(List.of(attemptId))).thenReturn(List.of(attempt));
+        when(answerRepository.findByAttemptIdIn(List.of(attemptId))).thenReturn(List.of());
+        when(gradingPlanCache.planFor(any())).thenReturn(Map.of());
+
+        assertEquals(0, gradingService.regradeAttempts(List.of(attemptId)));
+        assertEquals(AttemptStatus.IN_PROGRESS, attempt.getStatus());
+        verifyNoInteractions(rollupService);
+    }
+
     // ==================== Manual Grading ====================
 
     @Test
@@ -423,7 +482,9 @@ class GradingServiceTest {
 
     private void setupMocks(List<Answer> answers, List<Question> questions) {
         when(answerRepository.findByAttemptIdOrderByQuestionIndexAsc(attemptId)).thenReturn(answers);
-        when(questionRepository.findAllById(any())).thenReturn(questions);
+        Map<UUID, CompiledQuestion> plan = new HashMap<>();
+        questions.forEach(q -> plan.put(q.getId(), CompiledQuestion.compile(q, objectMapper)));
+        when(gradingPlanCache.planFor(any())).thenReturn(plan);
         when(answerRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
     }
 
@@ -0,0 +1,110 @@
+package uz.eduplatform.modules.assessment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import uz.eduplatform.modules.assessment.dto.LiveProgressBatch;
+import uz.eduplatform.modules.assessment.dto.LiveTestEvent;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveEventCoalescerTest {
+
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    private LiveEventCoalescer coalescer;
+    private Counter framesIn;
+    private Counter framesOut;
+    private UUID assignmentId;
+    private String destination;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        framesIn = registry.counter("in");
+        framesOut = registry.counter("out");
+        coalescer = new LiveEventCoalescer(messagingTemplate, framesIn, framesOut);
+        assignmentId = UUID.randomUUID();
+        destination = "/topic/assignment/" + assignmentId + "/progress";
+    }
+
+    @Test
+    void flush_sendsOneFrameWithLatestUpdatePerStudent() {
+        UUID ali = UUID.randomUUID();
+        UUID vali = UUID.randomUUID();
+        coalescer.publish(saved(ali, 1));
+        coalescer.publish(saved(ali, 2));
+        coalescer.publish(saved(ali, 3));
+        coalescer.publish(saved(vali, 1));
+
+        verifyNoInteractions(messagingTemplate);
+        coalescer.flush();
+
+        ArgumentCaptor<LiveProgressBatch> frame = ArgumentCaptor.forClass(LiveProgressBatch.class);
+        verify(messagingTemplate).convertAndSend(eq(destination), frame.capture());
+        assertEquals(2, frame.getValue().getUpdates().size());
+        assertEquals(3, frame.getValue().getUpdates().stream()
+                .filter(e -> e.getStudentId().equals(ali)).findFirst().orElseThrow().getAnsweredQuestions());
+        assertEquals(4, framesIn.count());
+        assertEquals(1, framesOut.count());
+
+        coalescer.flush();
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void publish_submitGoesOutImmediatelyWithPendingProgress() {
+        UUID studentId = UUID.randomUUID();
+        coalescer.publish(saved(studentId, 7));
+        coalescer.publish(LiveTestEvent.builder()
+                .eventType(LiveTestEvent.EventType.SUBMITTED)
+                .assignmentId(assignmentId)
+                .studentId(studentId)
+                .percentage(new BigDecimal("80.00"))
+                .build());
+
+        ArgumentCaptor<LiveTestEvent> event = ArgumentCaptor.forClass(LiveTestEvent.class);
+        verify(messagingTemplate).convertAndSend(eq(destination), event.capture());
+        assertEquals(LiveTestEvent.EventType.SUBMITTED, event.getValue().getEventType());
+        assertEquals(7, event.getValue().getAnsweredQuestions());
+        assertEquals(new BigDecimal("80.00"), event.getValue().getPercentage());
+
+        coalescer.flush();
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void publish_brokerFailureIsSwallowed() {
+        doThrow(new RuntimeException("WebSocket error"))
+                .when(messagingTemplate).convertAndSend(anyString(), any(Object.class));
+
+        assertDoesNotThrow(() -> coalescer.publish(LiveTestEvent.builder()
+                .eventType(LiveTestEvent.EventType.TAB_SWITCH)
+                .assignmentId(assignmentId)
+                .studentId(UUID.randomUUID())
+                .build()));
+        assertEquals(0, framesOut.count());
+    }
+
+    private LiveTestEvent saved(UUID studentId, int answered) {
+        return LiveTestEvent.builder()
+                .eventType(LiveTestEvent.EventType.ANSWER_SAVED)
+                .assignmentId(assignmentId)
+                .studentId(studentId)
+                .answeredQuestions(answered)
+                .totalQuestions(10)
+                .build();
+    }
+}
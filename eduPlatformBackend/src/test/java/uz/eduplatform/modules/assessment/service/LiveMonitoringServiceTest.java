@@ -5,11 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.http.HttpStatus;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import uz.eduplatform.core.common.utils.LookupResolver;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.modules.assessment.domain.*;
 import uz.eduplatform.modules.assessment.dto.LiveMonitoringDto;
@@ -33,11 +34,13 @@ import static org.mockito.Mockito.*;
 @MockitoSettings(strictness = Strictness.LENIENT)
 class LiveMonitoringServiceTest {
 
-    @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private LiveEventCoalescer eventCoalescer;
     @Mock private TestAssignmentRepository assignmentRepository;
     @Mock private TestAttemptRepository attemptRepository;
     @Mock private AnswerRepository answerRepository;
     @Mock private UserRepository userRepository;
+    @Mock private LookupResolver lookupResolver;
+    @Spy private LiveProgressRegistry progressRegistry = new LiveProgressRegistry();
 
     @InjectMocks
     private LiveMonitoringService liveMonitoringService;
@@ -53,6 +56,9 @@ class LiveMonitoringServiceTest {
         teacherId = UUID.randomUUID();
         studentId = UUID.randomUUID();
 
+        when(lookupResolver.context()).thenAnswer(inv ->
+                new LookupResolver(userRepository, null, null).newContext());
+
         assignment = TestAssignment.builder()
                 .id(assignmentId)
                 .teacherId(teacherId)
@@ -64,7 +70,7 @@ class LiveMonitoringServiceTest {
     }
 
     @Test
-    void broadcastEvent_sendsToCorrectDestination() {
+    void broadcastEvent_publishesThroughCoalescer() {
         LiveTestEvent event = LiveTestEvent.builder()
                 .eventType(LiveTestEvent.EventType.STUDENT_STARTED)
                 .assignmentId(assignmentId)
@@ -73,15 +79,12 @@ class LiveMonitoringServiceTest {
 
         liveMonitoringService.broadcastEvent(event);
 
-        verify(messagingTemplate).convertAndSend(
-                eq("/topic/assignment/" + assignmentId + "/progress"),
-                eq(event));
+        verify(eventCoalescer).publish(event);
     }
 
     @Test
     void broadcastEvent_swallowsException() {
-        doThrow(new RuntimeException("WebSocket error"))
-                .when(messagingTemplate).convertAndSend(anyString(), any(Object.class));
+        doThrow(new RuntimeException("WebSocket error")).when(eventCoalescer).publish(any());
 
         LiveTestEvent event = LiveTestEvent.builder()
                 .eventType(LiveTestEvent.EventType.ANSWER_SAVED)
@@ -106,10 +109,10 @@ class LiveMonitoringServiceTest {
 
         when(attemptRepository.findByAssignmentIdOrderByCreatedAtDesc(assignmentId))
                 .thenReturn(List.of(attempt));
-        when(userRepository.findById(studentId))
-                .thenReturn(Optional.of(User.builder().firstName("Ali").lastName("Valiyev").build()));
-        when(answerRepository.countByAttemptId(any())).thenReturn(10L);
-        when(answerRepository.countByAttemptIdAndSelectedAnswerIsNotNull(any())).thenReturn(5L);
+        when(userRepository.findAllById(any()))
+                .thenReturn(List.of(User.builder().id(studentId).firstName("Ali").lastName("Valiyev").build()));
+        when(answerRepository.findAnswerCountsByAssignmentId(assignmentId))
+                .thenReturn(List.<Object[]>of(new Object[]{attempt.getId(), 10L, 5L}));
 
         LiveMonitoringDto result = liveMonitoringService.getLiveMonitoring(assignmentId, teacherId);
 
@@ -121,6 +124,47 @@ class LiveMonitoringServiceTest {
         assertEquals("Ali", result.getStudents().get(0).getFirstName());
         assertEquals("Valiyev", result.getStudents().get(0).getLastName());
         assertEquals(5, result.getStudents().get(0).getAnsweredQuestions());
+        assertEquals(10, result.getStudents().get(0).getTotalQuestions());
+        verify(answerRepository, never()).countByAttemptId(any());
+    }
+
+    @Test
+    void getLiveMonitoring_afterHydration_servesEventsFromMemory() {
+        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
+        when(attemptRepository.findByAssignmentIdOrderByCreatedAtDesc(assignmentId)).thenReturn(List.of());
+        when(userRepository.findAllById(any()))
+                .thenReturn(List.of(User.builder().id(studentId).firstName("Ali").lastName("Valiyev").build()));
+
+        liveMonitoringService.getLiveMonitoring(assignmentId, teacherId);
+
+        TestAttempt attempt = TestAttempt.builder()
+                .id(UUID.randomUUID())
+                .assignment(assignment)
+                .studentId(studentId)
+                .startedAt(LocalDateTime.now())
+                .status(AttemptStatus.IN_PROGRESS)
+                .tabSwitchCount(2)
+                .build();
+        liveMonitoringService.attemptStarted(attempt);
+        liveMonitoringService.answerSaved(assignmentId, attempt.getId(), studentId, 3, 4);
+        liveMonitoringService.tabSwitched(attempt);
+
+        LiveMonitoringDto.LiveStudentDto live = liveMonitoringService.getLiveMonitoring(assignmentId, teacherId)
+                .getStudents().get(0);
+        assertEquals("Ali", live.getFirstName());
+        assertEquals(3, live.getAnsweredQuestions());
+        assertEquals(4, live.getTotalQuestions());
+        assertEquals(2, live.getTabSwitches());
+        assertNotNull(live.getTimeRemaining());
+
+        attempt.setStatus(AttemptStatus.AUTO_GRADED);
+        liveMonitoringService.attemptSubmitted(attempt);
+
+        LiveMonitoringDto result = liveMonitoringService.getLiveMonitoring(assignmentId, teacherId);
+        assertEquals(0, result.getActiveStudents());
+        assertEquals(1, result.getCompletedStudents());
+        verify(attemptRepository, times(1)).findByAssignmentIdOrderByCreatedAtDesc(assignmentId);
+        verify(eventCoalescer, times(4)).publish(any());
     }
 
     @Test
@@ -35,6 +35,7 @@ class PromoCodeServiceTest {
 
     @Mock private PromoCodeRepository promoCodeRepository;
     @Mock private TestAssignmentRepository assignmentRepository;
+    @Mock private AssignmentStudentService assignmentStudentService;
     @Mock private AuditService auditService;
 
     @InjectMocks
@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
+import uz.eduplatform.core.common.utils.LookupResolver;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
 import uz.eduplatform.modules.assessment.domain.*;
@@ -35,6 +36,7 @@ class ResultServiceTest {
     @Mock private TestAssignmentRepository assignmentRepository;
     @Mock private TestAttemptRepository attemptRepository;
     @Mock private UserRepository userRepository;
+    @Mock private LookupResolver lookupResolver;
     @Mock private StudentGroupRepository studentGroupRepository;
 
     @InjectMocks
@@ -49,6 +51,9 @@ class ResultServiceTest {
         teacherId = UUID.randomUUID();
         assignmentId = UUID.randomUUID();
 
+        when(lookupResolver.context()).thenAnswer(inv ->
+                new LookupResolver(userRepository, null, null).newContext());
+
         assignment = TestAssignment.builder()
                 .id(assignmentId)
                 .teacherId(teacherId)
@@ -100,8 +105,7 @@ class ResultServiceTest {
         when(attemptRepository.averagePercentageByAssignmentId(assignmentId)).thenReturn(70.0);
         when(attemptRepository.maxPercentageByAssignmentId(assignmentId)).thenReturn(80.0);
         when(attemptRepository.minPercentageByAssignmentId(assignmentId)).thenReturn(60.0);
-        when(userRepository.findById(student1Id)).thenReturn(Optional.of(student1));
-        when(userRepository.findById(student2Id)).thenReturn(Optional.of(student2));
+        when(userRepository.findAllById(any())).thenReturn(List.of(student1, student2));
 
         AssignmentResultDto result = resultService.getAssignmentResults(assignmentId, teacherId);
 
@@ -4,12 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
+import uz.eduplatform.core.common.utils.LookupResolver;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.core.common.exception.ResourceNotFoundException;
 import uz.eduplatform.modules.assessment.domain.*;
@@ -25,6 +27,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,8 +41,14 @@ class TestTakingServiceTest {
     @Mock private TestAttemptRepository attemptRepository;
     @Mock private AnswerRepository answerRepository;
     @Mock private UserRepository userRepository;
+    @Mock private LookupResolver lookupResolver;
     @Mock private GradingService gradingService;
+    @Mock private AssignmentStudentService assignmentStudentService;
     @Mock private LiveMonitoringService liveMonitoringService;
+    @Mock private AttemptDeadlineScheduler deadlineScheduler;
+    @Mock private AttemptAutoSubmitService autoSubmitService;
+    @Mock private AnswerWriteBuffer answerWriteBuffer;
+    @Mock private AttemptQuestionCache questionCache;
     @Mock private uz.eduplatform.modules.parent.service.ParentNotificationService parentNotificationService;
     @Mock private TestHistoryRepository testHistoryRepository;
     @Spy private ObjectMapper objectMapper = new ObjectMapper();
@@ -59,6 +68,9 @@ class TestTakingServiceTest {
         studentId = UUID.randomUUID();
         attemptId = UUID.randomUUID();
 
+        when(questionCache.get(any(), any(), anyBoolean(), anyBoolean(), any()))
+                .thenAnswer(inv -> inv.<Supplier<List<AttemptQuestionDto>>>getArgument(4).get());
+
         student = User.builder()
                 .id(studentId)
                 .firstName("Jasur")
@@ -75,7 +87,9 @@ class TestTakingServiceTest {
                 .assignedStudentIds(List.of(studentId))
                 .build();
 
-        when(userRepository.findById(studentId)).thenReturn(Optional.of(student));
+        when(lookupResolver.context()).thenAnswer(inv ->
+                new LookupResolver(userRepository, null, null).newContext());
+        when(userRepository.findAllById(any())).thenReturn(List.of(student));
         when(answerRepository.countByAttemptId(any())).thenReturn(0L);
         when(answerRepository.countByAttemptIdAndSelectedAnswerIsNotNull(any())).thenReturn(0L);
     }
@@ -211,8 +225,9 @@ class TestTakingServiceTest {
     // ==================== Save Answer ====================
 
     @Test
-    void saveAnswer_newAnswer_createsAnswer() {
+    void saveAnswer_firstSave_opensSessionAndBuffersAnswer() {
         UUID questionId = UUID.randomUUID();
+        UUID answerId = UUID.randomUUID();
         TestAttempt attempt = TestAttempt.builder()
                 .id(attemptId)
                 .assignment(assignment)
@@ -221,15 +236,12 @@ class TestTakingServiceTest {
                 .status(AttemptStatus.IN_PROGRESS)
                 .build();
 
-        when(attemptRepository.findByIdAndStudentId(attemptId, studentId))
+        when(attemptRepository.findWithAssignmentByIdAndStudentId(attemptId, studentId))
                 .thenReturn(Optional.of(attempt));
-        when(answerRepository.findByAttemptIdAndQuestionId(attemptId, questionId))
-                .thenReturn(Optional.empty());
-        when(answerRepository.save(any())).thenAnswer(i -> {
-            Answer a = i.getArgument(0);
-            a.setId(UUID.randomUUID());
-            return a;
-        });
+        when(answerRepository.findByAttemptIdOrderByQuestionIndexAsc(attemptId)).thenReturn(List.of());
+        when(answerWriteBuffer.accept(eq(attemptId), eq(studentId), any(), eq("\"A\"")))
+                .thenReturn(null)
+                .thenReturn(new AnswerWriteBuffer.Ack(answerId, assignmentId, 0, 30, false, 1, 1));
 
         SubmitAnswerRequest request = SubmitAnswerRequest.builder()
                 .questionId(questionId)
@@ -241,46 +253,47 @@ class TestTakingServiceTest {
 
         AnswerDto result = testTakingService.saveAnswer(attemptId, studentId, request);
 
-        assertNotNull(result);
+        assertEquals(answerId, result.getId());
         assertEquals(questionId, result.getQuestionId());
-        verify(answerRepository).save(any());
+        assertEquals("A", result.getSelectedAnswer());
+        verify(answerWriteBuffer).open(eq(attempt), any(), eq(List.of()), any());
+        verify(answerRepository, never()).save(any());
+        verify(liveMonitoringService).answerSaved(assignmentId, attemptId, studentId, 1, 1);
     }
 
     @Test
-    void saveAnswer_existingAnswer_updatesAnswer() {
+    void saveAnswer_openSession_skipsDatabase() {
         UUID questionId = UUID.randomUUID();
-        TestAttempt attempt = TestAttempt.builder()
-                .id(attemptId)
-                .assignment(assignment)
-                .studentId(studentId)
-                .startedAt(LocalDateTime.now())
-                .status(AttemptStatus.IN_PROGRESS)
-                .build();
-
-        Answer existingAnswer = Answer.builder()
-                .id(UUID.randomUUID())
-                .attempt(attempt)
-                .questionId(questionId)
-                .questionIndex(0)
-                .selectedAnswer("\"A\"")
-                .build();
-
-        when(attemptRepository.findByIdAndStudentId(attemptId, studentId))
-                .thenReturn(Optional.of(attempt));
-        when(answerRepository.findByAttemptIdAndQuestionId(attemptId, questionId))
-                .thenReturn(Optional.of(existingAnswer));
-        when(answerRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(answerWriteBuffer.accept(eq(attemptId), eq(studentId), any(), any()))
+                .thenReturn(new AnswerWriteBuffer.Ack(UUID.randomUUID(), assignmentId, 0, null, false, 2, 3));
 
         SubmitAnswerRequest request = SubmitAnswerRequest.builder()
                 .questionId(questionId)
-                .questionIndex(0)
                 .selectedAnswer("B")
                 .build();
 
         AnswerDto result = testTakingService.saveAnswer(attemptId, studentId, request);
 
         assertNotNull(result);
-        verify(answerRepository).save(any());
+        verifyNoInteractions(attemptRepository, answerRepository);
+    }
+
+    @Test
+    void saveAnswersBatch_publishesOneProgressEventWithFinalCounts() {
+        when(answerWriteBuffer.accept(eq(attemptId), eq(studentId), any(), any()))
+                .thenReturn(new AnswerWriteBuffer.Ack(UUID.randomUUID(), assignmentId, 0, null, false, 1, 3))
+                .thenReturn(new AnswerWriteBuffer.Ack(UUID.randomUUID(), assignmentId, 1, null, false, 2, 3));
+
+        BatchSaveAnswerRequest request = BatchSaveAnswerRequest.builder().answers(List.of(
+                SubmitAnswerRequest.builder().questionId(UUID.randomUUID()).selectedAnswer("A").build(),
+                SubmitAnswerRequest.builder().questionId(UUID.randomUUID()).selectedAnswer("B").build()))
+                .build();
+
+        BatchSaveAnswerResponse result = testTakingService.saveAnswersBatch(attemptId, studentId, request);
+
+        assertEquals(2, result.getSaved());
+        verify(liveMonitoringService).answerSaved(assignmentId, attemptId, studentId, 2, 3);
+        verifyNoMoreInteractions(liveMonitoringService);
     }
 
     @Test
@@ -292,7 +305,7 @@ class TestTakingServiceTest {
                 .status(AttemptStatus.SUBMITTED)
                 .build();
 
-        when(attemptRepository.findByIdAndStudentId(attemptId, studentId))
+        when(attemptRepository.findWithAssignmentByIdAndStudentId(attemptId, studentId))
                 .thenReturn(Optional.of(attempt));
 
         SubmitAnswerRequest request = SubmitAnswerRequest.builder()
@@ -303,6 +316,33 @@ class TestTakingServiceTest {
 
         assertThrows(BusinessException.class, () ->
                 testTakingService.saveAnswer(attemptId, studentId, request));
+        verify(answerWriteBuffer, never()).open(any(), any(), any(), any());
+    }
+
+    @Test
+    void saveAnswer_deadlinePassed_autoSubmitsAndThrows() {
+        assignment.setDurationMinutes(30);
+        TestAttempt attempt = TestAttempt.builder()
+                .id(attemptId)
+                .assignment(assignment)
+                .studentId(studentId)
+                .startedAt(LocalDateTime.now().minusMinutes(31))
+                .status(AttemptStatus.IN_PROGRESS)
+                .build();
+
+        when(attemptRepository.findWithAssignmentByIdAndStudentId(attemptId, studentId))
+                .thenReturn(Optional.of(attempt));
+
+        SubmitAnswerRequest request = SubmitAnswerRequest.builder()
+                .questionId(UUID.randomUUID())
+                .selectedAnswer("A")
+                .build();
+
+        assertThrows(BusinessException.class, () ->
+                testTakingService.saveAnswer(attemptId, studentId, request));
+        InOrder order = inOrder(answerWriteBuffer, autoSubmitService);
+        order.verify(answerWriteBuffer).awaitOtherNodes(attemptId);
+        order.verify(autoSubmitService).autoSubmit(attemptId);
     }
 
     // ==================== Submit Attempt ====================
@@ -411,7 +451,6 @@ class TestTakingServiceTest {
                 .build();
 
         when(attemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
-        when(userRepository.findById(studentId)).thenReturn(Optional.of(student));
 
         AttemptDto result = testTakingService.getAttempt(attemptId, teacherId);
 
@@ -0,0 +1,162 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.modules.assessment.domain.Answer;
+import uz.eduplatform.modules.assessment.domain.AttemptStatus;
+import uz.eduplatform.modules.assessment.domain.TestAssignment;
+import uz.eduplatform.modules.assessment.domain.TestAttempt;
+import uz.eduplatform.modules.assessment.dto.OmrBatchResultDto;
+import uz.eduplatform.modules.assessment.repository.AssignmentStudentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
+import uz.eduplatform.modules.assessment.service.AssignmentStudentService;
+import uz.eduplatform.modules.assessment.service.GradingService;
+import uz.eduplatform.modules.content.domain.QuestionType;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OmrGradingServiceTest {
+
+    @Mock private TestAssignmentRepository assignmentRepository;
+    @Mock private AssignmentStudentRepository assignmentStudentRepository;
+    @Mock private TestAttemptRepository attemptRepository;
+    @Mock private SheetVariantLoader variantLoader;
+    @Mock private OmrScanDecoder scanDecoder;
+    @Mock private GradingService gradingService;
+    @Mock private AssignmentStudentService assignmentStudentService;
+    @Mock private MessageService messageService;
+
+    private OmrGradingService omrGradingService;
+    private UUID assignmentId;
+    private UUID teacherId;
+    private SheetVariant variant;
+    private final MockMultipartFile upload = new MockMultipartFile("file", "scans.pdf", "application/pdf", new byte[]{1});
+
+    @BeforeEach
+    void setUp() {
+        omrGradingService = new OmrGradingService(assignmentRepository, assignmentStudentRepository, attemptRepository,
+                variantLoader, scanDecoder, gradingService, assignmentStudentService, messageService, new ObjectMapper());
+        assignmentId = UUID.randomUUID();
+        teacherId = UUID.randomUUID();
+        variant = new SheetVariant(1, "B", List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()),
+                List.of(QuestionType.MCQ_SINGLE, QuestionType.MCQ_MULTI, QuestionType.TRUE_FALSE),
+                List.of(List.of("o1", "o2", "o3"), List.of("m1", "m2", "m3"), SheetVariant.TRUE_FALSE_CHOICES));
+    }
+
+    @Test
+    void gradeScans_gradesValidSheetsAndReportsTheRest() throws Exception {
+        givenAssignment();
+        UUID student = UUID.randomUUID();
+        UUID graded = UUID.randomUUID();
+        UUID stranger = UUID.randomUUID();
+        when(variantLoader.load(any())).thenReturn(List.of(variant));
+        when(assignmentStudentRepository.findStudentIdsByAssignmentId(assignmentId)).thenReturn(List.of(student, graded));
+        when(attemptRepository.findStudentIdsByAssignmentId(assignmentId)).thenReturn(List.of(graded));
+        when(messageService.get(anyString(), eq(Locale.ENGLISH))).thenAnswer(inv -> inv.getArgument(0));
+
+        boolean[][] marks = {{false, true, false}, {true, false, true}, {false, false, false}};
+        when(scanDecoder.decode(any())).thenReturn(List.of(
+                sheet(1, student, marks),
+                sheet(2, student, marks),
+                sheet(3, graded, marks),
+                sheet(4, stranger, marks),
+                new OmrScanDecoder.DecodedSheet(5, null, null, "omr.sheet.marks.not.found")));
+
+        OmrBatchResultDto result = omrGradingService.gradeScans(assignmentId, teacherId, upload, Locale.ENGLISH);
+
+        assertEquals(5, result.getSheets());
+        assertEquals(1, result.getGraded());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of("omr.sheet.already.graded", "omr.sheet.already.graded",
+                        "omr.sheet.unknown.student", "omr.sheet.marks.not.found"),
+                result.getErrors().stream().map(OmrBatchResultDto.SheetError::getMessage).toList());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TestAttempt>> captor = ArgumentCaptor.forClass(List.class);
+        verify(gradingService).gradeNewAttempts(captor.capture());
+        TestAttempt attempt = captor.getValue().get(0);
+        assertEquals(student, attempt.getStudentId());
+        assertEquals(1, attempt.getVariantIndex());
+        assertEquals(AttemptStatus.SUBMITTED, attempt.getStatus());
+        assertEquals(Arrays.asList("\"o2\"", "[\"m1\",\"m3\"]", null),
+                attempt.getAnswers().stream().map(Answer::getSelectedAnswer).toList());
+        verify(assignmentStudentService).markSubmitted(assignmentId, List.of(student));
+    }
+
+    @Test
+    void gradeScans_failedChunk_isRetriedSheetBySheet() throws Exception {
+        givenAssignment();
+        UUID first = UUID.randomUUID();
+        UUID conflicting = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(variantLoader.load(any())).thenReturn(List.of(variant));
+        when(assignmentStudentRepository.findStudentIdsByAssignmentId(assignmentId))
+                .thenReturn(List.of(first, conflicting, third));
+        when(attemptRepository.findStudentIdsByAssignmentId(assignmentId)).thenReturn(List.of());
+        when(messageService.get(anyString(), eq(Locale.ENGLISH))).thenAnswer(inv -> inv.getArgument(0));
+
+        boolean[][] marks = {{true, false, false}, {false, true, false}, {true, false, false}};
+        when(scanDecoder.decode(any())).thenReturn(List.of(
+                sheet(1, first, marks), sheet(2, conflicting, marks), sheet(3, third, marks)));
+        when(gradingService.gradeNewAttempts(any())).thenAnswer(inv -> {
+            List<TestAttempt> attempts = inv.getArgument(0);
+            if (attempts.stream().anyMatch(a -> a.getStudentId().equals(conflicting))) {
+                throw new DataIntegrityViolationException("duplicate attempt");
+            }
+            return attempts;
+        });
+
+        OmrBatchResultDto result = omrGradingService.gradeScans(assignmentId, teacherId, upload, Locale.ENGLISH);
+
+        assertEquals(2, result.getGraded());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getSheet());
+        assertEquals("omr.sheet.save.failed", result.getErrors().get(0).getMessage());
+        verify(gradingService, times(4)).gradeNewAttempts(any());
+        verify(assignmentStudentService).markSubmitted(assignmentId, List.of(first));
+        verify(assignmentStudentService).markSubmitted(assignmentId, List.of(third));
+    }
+
+    @Test
+    void gradeScans_otherTeacher_throwsForbidden() {
+        givenAssignment();
+        assertThrows(BusinessException.class,
+                () -> omrGradingService.gradeScans(assignmentId, UUID.randomUUID(), upload, Locale.ENGLISH));
+        verifyNoInteractions(scanDecoder, gradingService);
+    }
+
+    @Test
+    void selection_severalBubblesOnSingleChoice_isStoredAsArray() {
+        assertEquals("[\"o1\",\"o3\"]", omrGradingService.selection(QuestionType.MCQ_SINGLE,
+                List.of("o1", "o2", "o3"), new boolean[]{true, false, true}));
+        assertEquals("\"false\"", omrGradingService.selection(QuestionType.TRUE_FALSE,
+                SheetVariant.TRUE_FALSE_CHOICES, new boolean[]{false, true, false}));
+    }
+
+    private void givenAssignment() {
+        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(TestAssignment.builder()
+                .id(assignmentId).teacherId(teacherId).testHistoryId(UUID.randomUUID()).build()));
+    }
+
+    private OmrScanDecoder.DecodedSheet sheet(int index, UUID studentId, boolean[][] marks) {
+        SheetCode code = new SheetCode(assignmentId, "B", studentId, 3, 3);
+        return new OmrScanDecoder.DecodedSheet(index, null, new OmrSheetReader.SheetScan(code, marks), null);
+    }
+}
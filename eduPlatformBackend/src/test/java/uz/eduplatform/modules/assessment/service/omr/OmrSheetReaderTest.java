@@ -0,0 +1,122 @@
+package uz.eduplatform.modules.assessment.service.omr;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.junit.jupiter.api.Test;
+import uz.eduplatform.core.common.utils.LookupResolver;
+import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.core.pdf.PdfFonts;
+import uz.eduplatform.modules.assessment.repository.AssignmentStudentRepository;
+import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class OmrSheetReaderTest {
+
+    private static final PdfFonts FONTS = new PdfFonts();
+
+    private final AnswerSheetService sheetService = new AnswerSheetService(
+            mock(TestAssignmentRepository.class), mock(AssignmentStudentRepository.class),
+            mock(SheetVariantLoader.class), mock(LookupResolver.class), mock(MessageService.class), FONTS);
+
+    private final SheetCode code = new SheetCode(UUID.randomUUID(), "B", UUID.randomUUID(), 60, 4);
+
+    @Test
+    void read_printedSheet_returnsCodeAndFilledBubbles() throws Exception {
+        BufferedImage scan = render(code, 150);
+        fill(scan, 0, 0);
+        fill(scan, 31, 2);
+        fill(scan, 31, 3);
+        fill(scan, 59, 1);
+
+        OmrSheetReader.SheetScan result = OmrSheetReader.read(scan);
+
+        assertEquals(code, result.code());
+        boolean[][] marks = result.marks();
+        assertEquals(60, marks.length);
+        assertTrue(marks[0][0]);
+        assertTrue(marks[31][2]);
+        assertTrue(marks[31][3]);
+        assertTrue(marks[59][1]);
+        assertEquals(4, countFilled(marks));
+    }
+
+    @Test
+    void read_shiftedUpsideDownColourScan_findsTheSameBubbles() throws Exception {
+        BufferedImage page = render(code, 200);
+        fill(page, 7, 3);
+        fill(page, 45, 0);
+
+        // Upside down, slightly enlarged and off-centre on a bigger colour canvas
+        BufferedImage scan = new BufferedImage(page.getWidth() + 80, page.getHeight() + 120, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scan.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, scan.getWidth(), scan.getHeight());
+        AffineTransform transform = new AffineTransform();
+        transform.translate(scan.getWidth() - 30, scan.getHeight() - 50);
+        transform.scale(1.02, 1.02);
+        transform.rotate(Math.PI);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(page, transform, null);
+        g.dispose();
+
+        OmrSheetReader.SheetScan result = OmrSheetReader.read(scan);
+
+        assertEquals(code, result.code());
+        assertTrue(result.marks()[7][3]);
+        assertTrue(result.marks()[45][0]);
+        assertEquals(2, countFilled(result.marks()));
+    }
+
+    @Test
+    void read_pageWithoutCode_reportsQrNotFound() {
+        BufferedImage blank = new BufferedImage(1240, 1754, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = blank.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, blank.getWidth(), blank.getHeight());
+        g.dispose();
+
+        OmrSheetReader.UnreadableSheetException e = assertThrows(OmrSheetReader.UnreadableSheetException.class,
+                () -> OmrSheetReader.read(blank));
+        assertEquals("omr.sheet.qr.not.found", e.getMessageKey());
+    }
+
+    private BufferedImage render(SheetCode sheetCode, float dpi) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            sheetService.drawSheet(document, FONTS.bold().embedIn(document), FONTS.regular().embedIn(document),
+                    sheetCode, "Algebra", "Aliyev Vali", Locale.ENGLISH);
+            return new PDFRenderer(document).renderImageWithDPI(0, dpi, ImageType.GRAY);
+        }
+    }
+
+    // A pen mark slightly smaller than the bubble, as students tend to leave
+    private void fill(BufferedImage image, int question, int choice) {
+        OmrSheetLayout layout = OmrSheetLayout.of(code);
+        float scale = image.getWidth() / OmrSheetLayout.PAGE_WIDTH;
+        float x = layout.bubbleX(question, choice) * scale;
+        float y = layout.bubbleY(question) * scale;
+        float r = OmrSheetLayout.BUBBLE_RADIUS * 0.85f * scale;
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(40, 40, 60));
+        g.fillOval(Math.round(x - r), Math.round(y - r), Math.round(2 * r), Math.round(2 * r));
+        g.dispose();
+    }
+
+    private static int countFilled(boolean[][] marks) {
+        int count = 0;
+        for (boolean[] row : marks) {
+            for (boolean filled : row) {
+                if (filled) count++;
+            }
+        }
+        return count;
+    }
+}
@@ -13,6 +13,7 @@ import uz.eduplatform.core.common.utils.MessageService;
 import uz.eduplatform.core.security.JwtTokenProvider;
 import uz.eduplatform.core.security.TokenBlacklistService;
 import uz.eduplatform.core.security.TokenPair;
+import uz.eduplatform.core.security.UserPrincipalCache;
 import uz.eduplatform.modules.notification.service.NotificationService;
 import uz.eduplatform.modules.auth.domain.Role;
 import uz.eduplatform.modules.auth.domain.User;
@@ -41,6 +42,7 @@ class AuthServiceTest {
     @Mock private UserService userService;
     @Mock private AuditService auditService;
     @Mock private TokenBlacklistService tokenBlacklistService;
+    @Mock private UserPrincipalCache principalCache;
     @Mock private MessageService messageService;
     @Mock private NotificationService notificationService;
     @Mock private HttpServletRequest httpRequest;
@@ -144,6 +146,7 @@ class AuthServiceTest {
         verify(tokenBlacklistService).blacklist(eq("acc-jti"), anyLong());
         verify(tokenBlacklistService).blacklistAllForUser(eq(userId), anyLong());
         verify(sessionRepository).deactivateAllByUserId(userId);
+        verify(principalCache).evict(userId);
     }
 
     @Test
@@ -0,0 +1,57 @@
+package uz.eduplatform.modules.content.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionRepositoryTest {
+
+    private static final Pattern SEARCH_PARAM = Pattern.compile(":search\\b");
+    private static final String CAST_SEARCH = "CAST(:search AS TEXT)";
+
+    // A null term (subject browsing without search) is bound untyped, i.e. as bytea by the
+    // PostgreSQL dialect; only a cast lets search_pattern/search_fold/word_similarity resolve
+    @Test
+    void searchQueries_castTheTermAtEveryUse() {
+        List<String> uncast = new ArrayList<>();
+        int checked = 0;
+        for (Method method : QuestionRepository.class.getDeclaredMethods()) {
+            Query query = method.getAnnotation(Query.class);
+            if (query == null || !query.nativeQuery()) continue;
+            for (String sql : List.of(query.value(), query.countQuery())) {
+                Matcher matcher = SEARCH_PARAM.matcher(sql);
+                while (matcher.find()) {
+                    checked++;
+                    int start = matcher.start() - "CAST(".length();
+                    if (start < 0 || !sql.startsWith(CAST_SEARCH, start)) {
+                        uncast.add(method.getName() + ": " + sql);
+                    }
+                }
+            }
+        }
+
+        assertTrue(checked > 0);
+        assertEquals(List.of(), uncast);
+    }
+
+    @Test
+    void searchBySubjectIdForTeacher_nullTerm_filtersAndRanksThroughCasts() throws Exception {
+        Method method = QuestionRepository.class.getMethod("searchBySubjectIdForTeacher",
+                UUID.class, UUID.class, String.class, String.class, String.class, Pageable.class);
+        Query query = method.getAnnotation(Query.class);
+
+        assertTrue(query.value().contains("(" + CAST_SEARCH + " IS NULL OR " + QuestionRepository.SEARCH_MATCH + ")"));
+        assertTrue(query.value().endsWith("ORDER BY " + QuestionRepository.SEARCH_RANK));
+        assertTrue(QuestionRepository.SEARCH_RANK.contains("search_fold(" + CAST_SEARCH + ")"));
+        assertTrue(QuestionRepository.SEARCH_MATCH.contains("search_pattern(" + CAST_SEARCH + ")"));
+    }
+}
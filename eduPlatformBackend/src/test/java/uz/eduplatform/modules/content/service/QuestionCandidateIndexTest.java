@@ -0,0 +1,99 @@
+package uz.eduplatform.modules.content.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.eduplatform.modules.content.domain.*;
+import uz.eduplatform.modules.content.repository.QuestionRepository;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionCandidateIndexTest {
+
+    private static final String VALID_OPTIONS = "[{\"id\":\"a\",\"text\":\"1\",\"isCorrect\":false}," +
+            "{\"id\":\"b\",\"text\":\"2\",\"isCorrect\":true}]";
+
+    @Mock private QuestionRepository questionRepository;
+
+    private QuestionCandidateIndex index;
+
+    private final UUID topicId = UUID.randomUUID();
+    private final UUID teacherId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new QuestionCandidateIndex(questionRepository, new ObjectMapper());
+    }
+
+    @Test
+    void candidatesFor_loadsOnceAndBucketsByDifficulty() {
+        UUID easyId = UUID.randomUUID();
+        UUID hardId = UUID.randomUUID();
+        when(questionRepository.findCandidateRowsByTopicIds(any())).thenReturn(List.of(
+                row(easyId, teacherId, QuestionStatus.ACTIVE, Difficulty.EASY, VALID_OPTIONS),
+                row(hardId, teacherId, QuestionStatus.ACTIVE, Difficulty.HARD, VALID_OPTIONS),
+                row(UUID.randomUUID(), teacherId, QuestionStatus.ACTIVE, Difficulty.EASY,
+                        "[{\"id\":\"a\",\"text\":\"1\",\"isCorrect\":false}]")));
+
+        Map<Difficulty, List<QuestionCandidate>> first = index.candidatesFor(List.of(topicId), teacherId);
+        Map<Difficulty, List<QuestionCandidate>> second = index.candidatesFor(List.of(topicId), teacherId);
+
+        assertThat(first.get(Difficulty.EASY)).extracting(QuestionCandidate::id).containsExactly(easyId);
+        assertThat(first.get(Difficulty.HARD)).extracting(QuestionCandidate::id).containsExactly(hardId);
+        assertThat(first.get(Difficulty.EASY).get(0).correctLabels()).containsExactly("B");
+        assertThat(second).isEqualTo(first);
+        verify(questionRepository, times(1)).findCandidateRowsByTopicIds(any());
+    }
+
+    @Test
+    void candidatesFor_hidesOtherTeachersDrafts() {
+        UUID ownDraft = UUID.randomUUID();
+        UUID foreignDraft = UUID.randomUUID();
+        when(questionRepository.findCandidateRowsByTopicIds(any())).thenReturn(List.of(
+                row(ownDraft, teacherId, QuestionStatus.DRAFT, Difficulty.MEDIUM, VALID_OPTIONS),
+                row(foreignDraft, UUID.randomUUID(), QuestionStatus.PENDING, Difficulty.MEDIUM, VALID_OPTIONS)));
+
+        Map<Difficulty, List<QuestionCandidate>> result = index.candidatesFor(List.of(topicId), teacherId);
+
+        assertThat(result.get(Difficulty.MEDIUM)).extracting(QuestionCandidate::id).containsExactly(ownDraft);
+    }
+
+    @Test
+    void evictTopic_forcesReload() {
+        when(questionRepository.findCandidateRowsByTopicIds(any())).thenReturn(List.of());
+
+        index.candidatesFor(List.of(topicId), teacherId);
+        index.evictTopic(topicId);
+        index.candidatesFor(List.of(topicId), teacherId);
+
+        verify(questionRepository, times(2)).findCandidateRowsByTopicIds(any());
+    }
+
+    @Test
+    void describe_rejectsNonMcqAndMissingCorrectAnswer() {
+        Question trueFalse = Question.builder().id(UUID.randomUUID())
+                .questionType(QuestionType.TRUE_FALSE).options(VALID_OPTIONS).build();
+        Question noCorrect = Question.builder().id(UUID.randomUUID())
+                .questionType(QuestionType.MCQ_SINGLE)
+                .options("[{\"id\":\"a\",\"text\":\"1\"},{\"id\":\"b\",\"text\":\"2\"}]").build();
+        Question valid = Question.builder().id(UUID.randomUUID())
+                .questionType(QuestionType.MCQ_MULTI).options(VALID_OPTIONS).build();
+
+        assertThat(index.describe(trueFalse)).isEmpty();
+        assertThat(index.describe(noCorrect)).isEmpty();
+        assertThat(index.describe(valid)).get()
+                .extracting(c -> c.options().size()).isEqualTo(2);
+    }
+
+    private Object[] row(UUID id, UUID ownerId, QuestionStatus status, Difficulty difficulty, String options) {
+        return new Object[]{id, topicId, ownerId, status, difficulty, QuestionType.MCQ_SINGLE, 1, options};
+    }
+}
@@ -0,0 +1,165 @@
+package uz.eduplatform.modules.content.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import uz.eduplatform.core.audit.AuditService;
+import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.modules.auth.repository.UserRepository;
+import uz.eduplatform.modules.content.domain.ImportJobStatus;
+import uz.eduplatform.modules.content.domain.Question;
+import uz.eduplatform.modules.content.domain.QuestionImportJob;
+import uz.eduplatform.modules.content.dto.ImportResult;
+import uz.eduplatform.modules.content.repository.QuestionImportJobRepository;
+import uz.eduplatform.modules.content.repository.QuestionRepository;
+import uz.eduplatform.modules.content.repository.TopicRepository;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionImportServiceTest {
+
+    @Mock private QuestionRepository questionRepository;
+    @Mock private QuestionImportJobRepository importJobRepository;
+    @Mock private TopicRepository topicRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private AuditService auditService;
+    @Mock private MessageService messageService;
+    @Mock private QuestionCandidateIndex candidateIndex;
+
+    @TempDir
+    Path tempDir;
+
+    private QuestionImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new QuestionImportService(questionRepository, importJobRepository, topicRepository,
+                userRepository, auditService, messageService, new ObjectMapper(), candidateIndex,
+                tempDir.toString(), "node-1");
+    }
+
+    @Test
+    void commitChunk_skipsExistingAndRepeatedTextsWithOneLookup() {
+        QuestionImportJob job = QuestionImportJob.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .topicId(UUID.randomUUID())
+                .status(ImportJobStatus.PROCESSING)
+                .locale("en")
+                .build();
+        when(importJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(questionRepository.findExistingNormalizedTexts(eq(job.getTopicId()), anyCollection()))
+                .thenReturn(List.of("2 + 2 = ?"));
+        when(messageService.get(eq("question.import.row.duplicate"), any(Locale.class), any()))
+                .thenReturn("duplicate");
+
+        List<QuestionImportService.ImportRow> rows = List.of(
+                service.parseRow(row("2 + 2 = ?"), 1),
+                service.parseRow(row("3 + 3 = ?"), 2),
+                service.parseRow(row("  3 + 3 = ?"), 3));
+        ImportResult.ImportError invalid = ImportResult.ImportError.builder().row(5).message("invalid").build();
+
+        service.commitChunk(job.getId(), rows, List.of(invalid), 4);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Question>> saved = ArgumentCaptor.forClass(List.class);
+        verify(questionRepository).saveAll(saved.capture());
+        verify(questionRepository, times(1)).findExistingNormalizedTexts(any(), anyCollection());
+        assertThat(saved.getValue()).hasSize(1);
+        assertThat(saved.getValue().get(0).getQuestionText()).containsValue("3 + 3 = ?");
+
+        assertThat(job.getLastCommittedRow()).isEqualTo(4);
+        assertThat(job.getProcessedRows()).isEqualTo(4);
+        assertThat(job.getSuccessCount()).isEqualTo(1);
+        assertThat(job.getDuplicateCount()).isEqualTo(2);
+        assertThat(job.getErrorCount()).isEqualTo(3);
+        assertThat(job.getErrors()).extracting(ImportResult.ImportError::getRow).containsExactly(5, 2, 4);
+    }
+
+    @Test
+    void startImport_recordsThisNodeAsOwnerOfTheUpload() {
+        UUID userId = UUID.randomUUID();
+        UUID topicId = UUID.randomUUID();
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(topicRepository.existsById(topicId)).thenReturn(true);
+        when(importJobRepository.save(any(QuestionImportJob.class))).thenAnswer(inv -> {
+            QuestionImportJob job = inv.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+
+        service.startImport(userId, topicId, new MockMultipartFile("file", "q.csv", "text/csv", new byte[]{1}),
+                Locale.ENGLISH);
+
+        ArgumentCaptor<QuestionImportJob> saved = ArgumentCaptor.forClass(QuestionImportJob.class);
+        verify(importJobRepository).save(saved.capture());
+        assertThat(saved.getValue().getOwnerNode()).isEqualTo("node-1");
+        assertThat(tempDir.resolve(saved.getValue().getFilePath())).exists();
+    }
+
+    @Test
+    void findResumableJobs_onlyAsksForThisNodesJobs() {
+        LocalDateTime pendingBefore = LocalDateTime.now().minusMinutes(1);
+        LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(5);
+
+        service.findResumableJobs(pendingBefore, staleBefore);
+
+        verify(importJobRepository).findResumable("node-1", pendingBefore, staleBefore);
+    }
+
+    @Test
+    void sheetReader_streamsXlsxRowsAsFormattedText() throws Exception {
+        Path file = tempDir.resolve("questions.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            XSSFSheet sheet = workbook.createSheet("Questions");
+            sheet.createRow(0).createCell(0).setCellValue("Question");
+            XSSFRow first = sheet.createRow(1);
+            first.createCell(0).setCellValue("2 + 2 = ?");
+            first.createCell(8).setCellValue(2);
+            sheet.createRow(3).createCell(0).setCellValue("Capital of Uzbekistan?");
+            workbook.write(out);
+        }
+
+        List<Integer> indexes = new ArrayList<>();
+        List<String[]> rows = new ArrayList<>();
+        QuestionSheetReader.read(file, (rowIndex, cells) -> {
+            indexes.add(rowIndex);
+            rows.add(cells);
+        });
+
+        assertThat(indexes).containsExactly(0, 1, 3);
+        assertThat(rows.get(1)).hasSize(QuestionSheetReader.COLUMNS);
+        assertThat(rows.get(1)[0]).isEqualTo("2 + 2 = ?");
+        assertThat(rows.get(1)[1]).isNull();
+        assertThat(rows.get(1)[8]).isEqualTo("2");
+        assertThat(QuestionSheetReader.countRows(file)).isEqualTo(2);
+    }
+
+    private static String[] row(String text) {
+        String[] cells = new String[QuestionSheetReader.COLUMNS];
+        cells[0] = text;
+        cells[1] = "MCQ_SINGLE";
+        cells[3] = "3";
+        cells[4] = "4";
+        cells[7] = "B";
+        return cells;
+    }
+}
@@ -30,6 +30,7 @@ class QuestionModerationServiceTest {
     @Mock private QuestionService questionService;
     @Mock private AuditService auditService;
     @Mock private MessageService messageService;
+    @Mock private QuestionCandidateIndex candidateIndex;
 
     @InjectMocks
     private QuestionModerationService moderationService;
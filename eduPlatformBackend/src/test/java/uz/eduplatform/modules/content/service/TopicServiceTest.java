@@ -0,0 +1,148 @@
+package uz.eduplatform.modules.content.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.eduplatform.core.audit.AuditService;
+import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.core.common.exception.ResourceNotFoundException;
+import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.core.i18n.AcceptLanguage;
+import uz.eduplatform.modules.auth.domain.User;
+import uz.eduplatform.modules.auth.repository.UserRepository;
+import uz.eduplatform.modules.content.domain.Subject;
+import uz.eduplatform.modules.content.domain.Topic;
+import uz.eduplatform.modules.content.dto.MoveTopicRequest;
+import uz.eduplatform.modules.content.dto.ReorderTopicsRequest;
+import uz.eduplatform.modules.content.dto.TopicDto;
+import uz.eduplatform.modules.content.dto.TopicTreeDto;
+import uz.eduplatform.modules.content.repository.SubjectRepository;
+import uz.eduplatform.modules.content.repository.TopicRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopicServiceTest {
+
+    @Mock private TopicRepository topicRepository;
+    @Mock private SubjectRepository subjectRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private SubjectService subjectService;
+    @Mock private AuditService auditService;
+    @Mock private MessageService messageService;
+
+    @InjectMocks
+    private TopicService topicService;
+
+    private final User owner = User.builder().id(UUID.randomUUID()).build();
+    private final Subject subject = Subject.builder().id(UUID.randomUUID()).build();
+
+    @Test
+    void getTopicTree_assemblesNestedTreeFromOneQuery() {
+        Topic algebra = topic(null, 0);
+        Topic geometry = topic(null, 1);
+        Topic equations = topic(algebra, 0);
+        Topic quadratic = topic(equations, 0);
+        Topic linear = topic(equations, 1);
+
+        when(subjectRepository.findById(subject.getId())).thenReturn(Optional.of(subject));
+        when(topicRepository.findTreeBySubjectIdAndUserId(subject.getId(), owner.getId(), null))
+                .thenReturn(List.of(algebra, geometry, equations, quadratic, linear));
+
+        List<TopicTreeDto> tree = topicService.getTopicTree(subject.getId(), owner.getId(), null, AcceptLanguage.UZL);
+
+        assertEquals(List.of(algebra.getId(), geometry.getId()), tree.stream().map(TopicTreeDto::getId).toList());
+        TopicTreeDto equationsDto = tree.get(0).getChildren().get(0);
+        assertEquals(equations.getId(), equationsDto.getId());
+        assertEquals(List.of(quadratic.getId(), linear.getId()),
+                equationsDto.getChildren().stream().map(TopicTreeDto::getId).toList());
+        assertTrue(tree.get(1).getChildren().isEmpty());
+        verify(topicRepository, never()).findByParentIdOrderBySortOrderAsc(any());
+    }
+
+    @Test
+    void moveTopic_rewritesSubtreeInOneUpdate() {
+        Topic algebra = topic(null, 0);
+        Topic equations = topic(algebra, 0);
+        Topic geometry = topic(null, 1);
+        String oldPath = equations.getPath();
+
+        when(topicRepository.findById(equations.getId())).thenReturn(Optional.of(equations));
+        when(topicRepository.findById(geometry.getId())).thenReturn(Optional.of(geometry));
+        when(topicRepository.findMaxLevelInSubtree(oldPath)).thenReturn(3);
+        when(topicRepository.save(equations)).thenReturn(equations);
+
+        TopicDto moved = topicService.moveTopic(equations.getId(), owner.getId(),
+                MoveTopicRequest.builder().newParentId(geometry.getId()).build(), AcceptLanguage.UZL);
+
+        String newPath = geometry.getPath() + "." + equations.getId();
+        verify(topicRepository).moveSubtree(oldPath, newPath, 0, subject.getId());
+        assertEquals(newPath, moved.getPath());
+        assertEquals(geometry.getId(), moved.getParentId());
+    }
+
+    @Test
+    void moveTopic_underOwnDescendant_isRejected() {
+        Topic algebra = topic(null, 0);
+        Topic equations = topic(algebra, 0);
+
+        when(topicRepository.findById(algebra.getId())).thenReturn(Optional.of(algebra));
+        when(topicRepository.findById(equations.getId())).thenReturn(Optional.of(equations));
+
+        assertThrows(BusinessException.class, () -> topicService.moveTopic(algebra.getId(), owner.getId(),
+                MoveTopicRequest.builder().newParentId(equations.getId()).build(), AcceptLanguage.UZL));
+        verify(topicRepository, never()).moveSubtree(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void reorderTopics_foreignTopic_updatesNothing() {
+        UUID mine = UUID.randomUUID();
+        UUID foreign = UUID.randomUUID();
+        when(topicRepository.findIdsByIdInAndUserId(List.of(mine, foreign), owner.getId())).thenReturn(List.of(mine));
+
+        ReorderTopicsRequest request = ReorderTopicsRequest.builder().items(List.of(
+                new ReorderTopicsRequest.TopicOrderItem(mine, 1),
+                new ReorderTopicsRequest.TopicOrderItem(foreign, 0))).build();
+
+        assertThrows(ResourceNotFoundException.class, () -> topicService.reorderTopics(owner.getId(), request));
+        verify(topicRepository, never()).updateSortOrders(any(), any());
+    }
+
+    @Test
+    void reorderTopics_updatesAllInOneStatement() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(topicRepository.findIdsByIdInAndUserId(List.of(first, second), owner.getId()))
+                .thenReturn(List.of(second, first));
+
+        topicService.reorderTopics(owner.getId(), ReorderTopicsRequest.builder().items(List.of(
+                new ReorderTopicsRequest.TopicOrderItem(first, 1),
+                new ReorderTopicsRequest.TopicOrderItem(second, 0))).build());
+
+        verify(topicRepository).updateSortOrders("{" + first + "," + second + "}", "{1,0}");
+    }
+
+    private Topic topic(Topic parent, int sortOrder) {
+        UUID id = UUID.randomUUID();
+        return Topic.builder()
+                .id(id)
+                .subject(subject)
+                .user(owner)
+                .gradeLevel(5)
+                .parent(parent)
+                .name(Map.of("uz_latn", "Mavzu " + sortOrder))
+                .level(parent != null ? parent.getLevel() + 1 : 1)
+                .path(parent != null ? parent.getPath() + "." + id : id.toString())
+                .sortOrder(sortOrder)
+                .build();
+    }
+}
@@ -11,14 +11,18 @@ import org.mockito.quality.Strictness;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import uz.eduplatform.core.common.utils.LookupResolver;
 import uz.eduplatform.core.common.exception.BusinessException;
+import uz.eduplatform.modules.analytics.domain.RollupScope;
+import uz.eduplatform.modules.analytics.domain.StudentAnalyticsRollup;
+import uz.eduplatform.modules.analytics.service.StudentAnalyticsRollupService;
+import uz.eduplatform.modules.analytics.service.StudentRollupSnapshot;
 import uz.eduplatform.modules.assessment.domain.AttemptStatus;
 import uz.eduplatform.modules.assessment.domain.TestAssignment;
 import uz.eduplatform.modules.assessment.domain.TestAttempt;
 import uz.eduplatform.modules.assessment.repository.TestAssignmentRepository;
 import uz.eduplatform.modules.assessment.repository.TestAttemptRepository;
 import uz.eduplatform.modules.content.repository.SubjectRepository;
-import uz.eduplatform.modules.test.repository.TestHistoryRepository;
 import uz.eduplatform.modules.auth.domain.Role;
 import uz.eduplatform.modules.auth.domain.User;
 import uz.eduplatform.modules.auth.repository.UserRepository;
@@ -35,6 +39,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,7 +51,8 @@ class ParentServiceTest {
     @Mock private TestAttemptRepository attemptRepository;
     @Mock private TestAssignmentRepository assignmentRepository;
     @Mock private SubjectRepository subjectRepository;
-    @Mock private TestHistoryRepository testHistoryRepository;
+    @Mock private StudentAnalyticsRollupService rollupService;
+    @Mock private LookupResolver lookupResolver;
     @Mock private QRCodeService qrCodeService;
 
     @InjectMocks private ParentService parentService;
@@ -73,6 +79,9 @@ class ParentServiceTest {
 
         when(userRepository.findById(parentId)).thenReturn(Optional.of(parent));
         when(userRepository.findById(studentId)).thenReturn(Optional.of(student));
+        when(userRepository.findAllById(any())).thenReturn(List.of(parent, student));
+        when(lookupResolver.context()).thenAnswer(inv ->
+                new LookupResolver(userRepository, subjectRepository, null).newContext());
     }
 
     // ── Generate Pairing Code ──
@@ -305,12 +314,17 @@ class ParentServiceTest {
                 .percentage(new BigDecimal("85.00"))
                 .submittedAt(LocalDateTime.now()).build();
 
-        when(attemptRepository.findByStudentIdOrderByCreatedAtDesc(studentId))
-                .thenReturn(List.of(attempt));
+        when(attemptRepository.findByStudentIdOrderByCreatedAtDesc(eq(studentId), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(attempt)));
 
-        Page<TestAssignment> assignmentPage = new PageImpl<>(List.of(assignment));
-        when(assignmentRepository.findAssignmentsForStudent(anyString(), any(Pageable.class)))
-                .thenReturn(assignmentPage);
+        StudentAnalyticsRollup overall = StudentAnalyticsRollup.builder()
+                .studentId(studentId).scopeType(RollupScope.OVERALL)
+                .scopeId(StudentAnalyticsRollup.OVERALL_SCOPE_ID)
+                .attemptCount(1).scoreSum(new BigDecimal("85.00")).build();
+        when(rollupService.getSnapshot(studentId))
+                .thenReturn(new StudentRollupSnapshot(overall, List.of(), List.of()));
+
+        when(assignmentRepository.countAssignmentsForStudent(studentId)).thenReturn(1L);
 
         ChildDashboardDto result = parentService.getChildDashboard(parentId, studentId);
 
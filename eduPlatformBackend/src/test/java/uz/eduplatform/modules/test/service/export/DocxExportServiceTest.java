@@ -158,6 +158,43 @@ class DocxExportServiceTest {
         }
     }
 
+    @Test
+    void exportProofs_resolvesTextInRequestedLocale() throws IOException {
+        UUID qId = UUID.randomUUID();
+        Question question = Question.builder()
+                .id(qId)
+                .questionText(Map.of("uz_latn", "Fotosintezni tushuntiring", "en", "Explain photosynthesis"))
+                .questionType(QuestionType.MCQ_SINGLE)
+                .proof(Map.of("uz_latn", "Yorug'lik energiyasi", "en", "Light energy becomes chemical energy"))
+                .build();
+
+        Map<String, Object> variant = new HashMap<>();
+        variant.put("code", "A");
+        variant.put("questionIds", List.of(qId.toString()));
+
+        TestHistory test = TestHistory.builder()
+                .id(UUID.randomUUID())
+                .title("Biology Test")
+                .questionCount(1)
+                .variants(List.of(variant))
+                .build();
+
+        when(exportHelper.parseQuestionIds(any())).thenReturn(List.of(qId));
+        when(questionRepository.findAllById(List.of(qId))).thenReturn(List.of(question));
+        when(messageService.get(anyString(), any(Locale.class))).thenReturn("Label");
+
+        byte[] result = docxExportService.exportProofs(test, ExportFormat.DOCX, Locale.ENGLISH);
+
+        try (XWPFDocument doc = new XWPFDocument(new ByteArrayInputStream(result))) {
+            String text = doc.getParagraphs().stream()
+                    .map(p -> p.getText())
+                    .reduce("", (a, b) -> a + "\n" + b);
+            assertTrue(text.contains("Explain photosynthesis"));
+            assertTrue(text.contains("Light energy becomes chemical energy"));
+            assertFalse(text.contains("Fotosintezni"));
+        }
+    }
+
     @Test
     void exportCombined_generatesNonEmptyDocxBytes() throws IOException {
         UUID qId = UUID.randomUUID();
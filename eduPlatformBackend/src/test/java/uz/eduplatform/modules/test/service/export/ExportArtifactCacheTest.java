@@ -0,0 +1,148 @@
+package uz.eduplatform.modules.test.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import uz.eduplatform.modules.content.repository.QuestionRepository;
+import uz.eduplatform.modules.test.domain.TestHistory;
+import uz.eduplatform.modules.test.service.ExportHelper;
+import uz.eduplatform.modules.test.service.export.ExportArtifactCache.Kind;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExportArtifactCacheTest {
+
+    @TempDir Path uploadDir;
+
+    @Mock private QuestionRepository questionRepository;
+
+    private final ExportHelper exportHelper = new ExportHelper(null);
+    private final UUID questionId = UUID.randomUUID();
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private ExportArtifactCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache(1024 * 1024);
+        versions(1);
+    }
+
+    @Test
+    void serve_secondDownloadIsServedFromDisk() throws IOException {
+        TestHistory test = test();
+
+        assertThat(download(cache, test, Kind.TEST)).isEqualTo("document");
+        assertThat(download(cache, test, Kind.TEST)).isEqualTo("document");
+
+        assertThat(renders.get()).isEqualTo(1);
+        assertThat(artifacts()).hasSize(1);
+    }
+
+    @Test
+    void serve_newQuestionVersionRendersAgain() throws IOException {
+        TestHistory test = test();
+        download(cache, test, Kind.TEST);
+
+        versions(2);
+        download(cache, test, Kind.TEST);
+
+        assertThat(renders.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_removesFilesOfThatTestOnly() throws IOException {
+        TestHistory edited = test();
+        TestHistory other = test();
+        download(cache, edited, Kind.TEST);
+        download(cache, edited, Kind.PROOFS);
+        download(cache, other, Kind.TEST);
+
+        cache.invalidate(edited.getId());
+
+        assertThat(artifacts()).hasSize(1);
+        download(cache, other, Kind.TEST);
+        assertThat(renders.get()).isEqualTo(3);
+    }
+
+    @Test
+    void serve_evictsLeastRecentlyServedWhenOverBudget() throws IOException {
+        ExportArtifactCache small = newCache(2 * "document".length());
+        TestHistory first = test();
+        TestHistory second = test();
+        TestHistory third = test();
+
+        download(small, first, Kind.TEST);
+        download(small, second, Kind.TEST);
+        download(small, first, Kind.TEST);   // first is now the most recent
+        download(small, third, Kind.TEST);   // evicts second
+
+        renders.set(0);
+        download(small, first, Kind.TEST);
+        download(small, second, Kind.TEST);
+
+        assertThat(renders.get()).isEqualTo(1);
+    }
+
+    @Test
+    void constructor_reindexesExistingFiles() throws IOException {
+        TestHistory test = test();
+        download(cache, test, Kind.COMBINED);
+
+        ExportArtifactCache restarted = newCache(1024 * 1024);
+        download(restarted, test, Kind.COMBINED);
+
+        assertThat(renders.get()).isEqualTo(1);
+    }
+
+    private ExportArtifactCache newCache(long maxBytes) {
+        return new ExportArtifactCache(uploadDir.toString(), maxBytes, questionRepository,
+                exportHelper, new ObjectMapper());
+    }
+
+    private String download(ExportArtifactCache target, TestHistory test, Kind kind) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        target.serve(test, kind, ExportFormat.PDF, Locale.ENGLISH, o -> {
+            renders.incrementAndGet();
+            o.write("document".getBytes());
+        }, out);
+        return out.toString();
+    }
+
+    private void versions(int version) {
+        when(questionRepository.findVersionsByIds(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{questionId, version}));
+    }
+
+    private TestHistory test() {
+        return TestHistory.builder()
+                .id(UUID.randomUUID())
+                .title("Algebra")
+                .variants(List.of(Map.of("code", "A", "questionIds", List.of(questionId.toString()))))
+                .build();
+    }
+
+    private List<Path> artifacts() throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir.resolve("export-cache"))) {
+            return files.toList();
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package uz.eduplatform.modules.test.service.export;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uz.eduplatform.core.common.utils.MessageService;
+import uz.eduplatform.core.pdf.PdfFonts;
 import uz.eduplatform.modules.content.domain.Question;
 import uz.eduplatform.modules.content.domain.QuestionType;
 import uz.eduplatform.modules.content.repository.QuestionRepository;
 import uz.eduplatform.modules.test.domain.TestHistory;
 import uz.eduplatform.modules.test.service.ExportHelper;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +37,21 @@ class PdfExportServiceTest {
     @Mock private ExportHelper exportHelper;
     @Spy private ObjectMapper objectMapper = new ObjectMapper();
 
-    @InjectMocks
+    private final ExecutorService variantRenderExecutor = Executors.newFixedThreadPool(4);
+
     private PdfExportService pdfExportService;
 
+    @BeforeEach
+    void setUp() {
+        pdfExportService = new PdfExportService(questionRepository, messageService, exportHelper,
+                objectMapper, variantRenderExecutor, new PdfFonts());
+    }
+
+    @AfterEach
+    void tearDown() {
+        variantRenderExecutor.shutdownNow();
+    }
+
     private static final ObjectMapper mapper = new ObjectMapper();
 
     private static String toJson(Object value) {
@@ -73,7 +94,6 @@ class PdfExportServiceTest {
 
         when(exportHelper.parseQuestionIds(any())).thenReturn(List.of(qId));
         when(exportHelper.parseOptionsOrder(any())).thenReturn(List.of(List.of("1", "2", "3")));
-        when(exportHelper.wrapText(anyString(), anyInt())).thenAnswer(i -> List.of((String) i.getArgument(0)));
         when(exportHelper.truncateText(anyString(), anyInt())).thenAnswer(i -> i.getArgument(0));
         when(questionRepository.findAllById(List.of(qId))).thenReturn(List.of(question));
         when(messageService.get(anyString(), any(Locale.class), any())).thenReturn("Translated text");
@@ -138,7 +158,6 @@ class PdfExportServiceTest {
                 .build();
 
         when(exportHelper.parseQuestionIds(any())).thenReturn(List.of(qId));
-        when(exportHelper.wrapText(anyString(), anyInt())).thenAnswer(i -> List.of((String) i.getArgument(0)));
         when(exportHelper.truncateText(anyString(), anyInt())).thenAnswer(i -> i.getArgument(0));
         when(questionRepository.findAllById(List.of(qId))).thenReturn(List.of(question));
         when(messageService.get(anyString(), any(Locale.class))).thenReturn("Label");
@@ -179,7 +198,6 @@ class PdfExportServiceTest {
 
         when(exportHelper.parseQuestionIds(any())).thenReturn(List.of(qId));
         when(exportHelper.parseOptionsOrder(any())).thenReturn(List.of(List.of("1", "2")));
-        when(exportHelper.wrapText(anyString(), anyInt())).thenAnswer(i -> List.of((String) i.getArgument(0)));
         when(exportHelper.truncateText(anyString(), anyInt())).thenAnswer(i -> i.getArgument(0));
         when(questionRepository.findAllById(List.of(qId))).thenReturn(List.of(question));
         when(messageService.get(anyString(), any(Locale.class), any())).thenReturn("Label");
@@ -193,4 +211,95 @@ class PdfExportServiceTest {
         byte[] testOnly = pdfExportService.exportTest(test, ExportFormat.PDF, Locale.ENGLISH);
         assertTrue(result.length > testOnly.length);
     }
+
+    @Test
+    void exportTest_multipleVariants_rendersInVariantOrderWithSingleFetch() throws IOException {
+        UUID q1 = UUID.randomUUID();
+        UUID q2 = UUID.randomUUID();
+        String options = toJson(List.of(
+                Map.of("id", "1", "text", Map.of("uz_latn", "Yes")),
+                Map.of("id", "2", "text", Map.of("uz_latn", "No"))));
+        Question first = Question.builder().id(q1).questionText(Map.of("uz_latn", "First question"))
+                .questionType(QuestionType.MCQ_SINGLE).options(options).build();
+        Question second = Question.builder().id(q2).questionText(Map.of("uz_latn", "Second question"))
+                .questionType(QuestionType.MCQ_SINGLE).options(options).build();
+
+        List<Map<String, Object>> variants = new ArrayList<>();
+        for (String code : List.of("A", "B", "C", "D", "E", "F")) {
+            Map<String, Object> variant = new HashMap<>();
+            variant.put("code", code);
+            variant.put("questionIds", List.of(q1.toString(), q2.toString()));
+            variants.add(variant);
+        }
+
+        TestHistory test = TestHistory.builder()
+                .id(UUID.randomUUID())
+                .title("Parallel Test")
+                .questionCount(2)
+                .variants(variants)
+                .build();
+
+        when(exportHelper.parseQuestionIds(any())).thenReturn(List.of(q1, q2));
+        when(exportHelper.parseOptionsOrder(any())).thenReturn(null);
+        when(exportHelper.truncateText(anyString(), anyInt())).thenAnswer(i -> i.getArgument(0));
+        when(questionRepository.findAllById(List.of(q1, q2))).thenReturn(List.of(first, second));
+        when(messageService.get(eq("export.variant"), any(Locale.class), any()))
+                .thenAnswer(i -> "Variant " + i.getArgument(2));
+        when(messageService.get(anyString(), any(Locale.class))).thenReturn("Label");
+
+        byte[] result = pdfExportService.exportTest(test, ExportFormat.PDF, Locale.ENGLISH);
+
+        verify(questionRepository, times(1)).findAllById(any());
+        try (PDDocument document = PDDocument.load(result)) {
+            assertEquals(6, document.getNumberOfPages());
+            String text = new PDFTextStripper().getText(document);
+            int previous = -1;
+            for (String code : List.of("A", "B", "C", "D", "E", "F")) {
+                int at = text.indexOf("Variant " + code);
+                assertTrue(at > previous, "variant " + code + " out of order");
+                previous = at;
+            }
+            assertTrue(text.contains("6 / 6"));
+        }
+    }
+
+    @Test
+    void exportTest_variantsRenderInRequestedLocale() throws IOException {
+        UUID qId = UUID.randomUUID();
+        Question question = Question.builder()
+                .id(qId)
+                .questionText(Map.of("uz_latn", "Ikki qo'sh ikki?", "en", "Two plus two?"))
+                .questionType(QuestionType.MCQ_SINGLE)
+                .options(toJson(List.of(
+                        Map.of("id", "1", "text", Map.of("uz_latn", "Uch", "en", "Three")),
+                        Map.of("id", "2", "text", Map.of("uz_latn", "To'rt", "en", "Four")))))
+                .build();
+
+        Map<String, Object> variant = new HashMap<>();
+        variant.put("code", "A");
+        variant.put("questionIds", List.of(qId.toString()));
+
+        TestHistory test = TestHistory.builder()
+                .id(UUID.randomUUID())
+                .title("Locale Test")
+                .questionCount(1)
+                .variants(List.of(variant))
+                .build();
+
+        when(exportHelper.parseQuestionIds(any())).thenReturn(List.of(qId));
+        when(exportHelper.parseOptionsOrder(any())).thenReturn(null);
+        when(exportHelper.truncateText(anyString(), anyInt())).thenAnswer(i -> i.getArgument(0));
+        when(questionRepository.findAllById(List.of(qId))).thenReturn(List.of(question));
+        when(messageService.get(anyString(), any(Locale.class), any())).thenReturn("Label");
+        when(messageService.get(anyString(), any(Locale.class))).thenReturn("Label");
+
+        byte[] result = pdfExportService.exportTest(test, ExportFormat.PDF, Locale.ENGLISH);
+
+        try (PDDocument document = PDDocument.load(result)) {
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("Two plus two?"));
+            assertTrue(text.contains("Four"));
+            assertFalse(text.contains("Ikki"));
+        }
+    }
 }
@@ -5,10 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uz.eduplatform.core.common.exception.BusinessException;
 import uz.eduplatform.modules.test.domain.TestHistory;
 import uz.eduplatform.modules.test.service.ExportHelper;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
@@ -24,6 +27,7 @@ class TestExportFacadeTest {
     @Mock private ExportHelper exportHelper;
     @Mock private TestExportService pdfService;
     @Mock private TestExportService docxService;
+    @Mock private ExportArtifactCache artifactCache;
 
     private TestExportFacade facade;
 
@@ -31,7 +35,7 @@ class TestExportFacadeTest {
     void setUp() {
         when(pdfService.getFormat()).thenReturn(ExportFormat.PDF);
         when(docxService.getFormat()).thenReturn(ExportFormat.DOCX);
-        facade = new TestExportFacade(List.of(pdfService, docxService), exportHelper);
+        facade = new TestExportFacade(List.of(pdfService, docxService), exportHelper, artifactCache);
     }
 
     @Test
@@ -137,4 +141,30 @@ class TestExportFacadeTest {
 
         verify(exportHelper).getTestHistory(testId, userId);
     }
+
+    @Test
+    void streamExportCombined_rendersOnlyWhenBodyIsWritten() throws Exception {
+        UUID testId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        TestHistory test = TestHistory.builder().id(testId).userId(userId).downloadCount(0).build();
+        OutputStream out = new ByteArrayOutputStream();
+
+        when(exportHelper.getTestHistory(testId, userId)).thenReturn(test);
+        doAnswer(inv -> {
+            inv.<ExportArtifactCache.Renderer>getArgument(4).render(inv.getArgument(5));
+            return null;
+        }).when(artifactCache).serve(eq(test), eq(ExportArtifactCache.Kind.COMBINED), eq(ExportFormat.PDF),
+                eq(Locale.ENGLISH), any(), eq(out));
+
+        StreamingResponseBody body = facade.streamExportCombined(testId, userId, ExportFormat.PDF, Locale.ENGLISH);
+
+        verify(exportHelper).getTestHistory(testId, userId);
+        verify(pdfService, never()).exportCombinedToStream(any(), any(), any(), any());
+        verify(exportHelper, never()).updateDownloadCount(any());
+
+        body.writeTo(out);
+
+        verify(pdfService).exportCombinedToStream(test, ExportFormat.PDF, Locale.ENGLISH, out);
+        verify(exportHelper).updateDownloadCount(test);
+    }
 }
@@ -8,6 +8,7 @@ import type {
   UpdateQuestionRequest,
   QuestionListParams,
   BulkModerationResponse,
+  ImportJobDto,
 } from '@/types/question';
 
 const QUESTIONS = '/questions';
@@ -54,12 +55,15 @@ export const questionApi = {
 
   // Import / Export
   importQuestions: (formData: FormData) =>
-    api.post<ApiResponse<{ successCount: number; errorCount: number; errors: string[] }>>(
+    api.post<ApiResponse<ImportJobDto>>(
       `${QUESTIONS}/import`,
       formData,
       { headers: { 'Content-Type': 'multipart/form-data' } },
     ),
 
+  getImportJob: (jobId: string, signal?: AbortSignal) =>
+    api.get<ApiResponse<ImportJobDto>>(`${QUESTIONS}/import/${jobId}`, { signal }),
+
   getImportTemplate: () =>
     api.get(`${QUESTIONS}/export-template`, { responseType: 'blob' }),
 };
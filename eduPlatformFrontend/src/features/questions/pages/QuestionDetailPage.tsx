@@ -465,6 +465,24 @@ export default function QuestionDetailPage() {
               <Typography variant="body2">{question.correctRate}%</Typography>
             </Box>
           )}
+          {question.avgTimeSeconds != null && (
+            <Box>
+              <Typography variant="caption" color="text.secondary">{t('detail.avgTime')}</Typography>
+              <Typography variant="body2">{question.avgTimeSeconds}s</Typography>
+            </Box>
+          )}
+          {question.discrimination != null && (
+            <Box>
+              <Typography variant="caption" color="text.secondary">{t('detail.discrimination')}</Typography>
+              <Typography variant="body2">{question.discrimination}</Typography>
+            </Box>
+          )}
+          {question.responseCount > 0 && (
+            <Box>
+              <Typography variant="caption" color="text.secondary">{t('detail.responseCount')}</Typography>
+              <Typography variant="body2">{question.responseCount}</Typography>
+            </Box>
+          )}
         </Box>
       </Paper>
 
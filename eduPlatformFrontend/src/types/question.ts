@@ -68,6 +68,8 @@ export interface QuestionDto {
   timesUsed: number;
   correctRate: number | null;
   avgTimeSeconds: number | null;
+  discrimination: number | null;
+  responseCount: number;
   version: number;
   createdAt: string;
   updatedAt: string;
@@ -113,6 +115,25 @@ export interface BulkModerationResponse {
   errors: string[];
 }
 
+export type ImportJobStatus = 'PENDING' | 'PROCESSING' | 'COMPLETED' | 'FAILED';
+
+export interface ImportJobDto {
+  id: string;
+  topicId: string;
+  status: ImportJobStatus;
+  fileName: string;
+  totalRows?: number;
+  processedRows: number;
+  progress: number;
+  successCount: number;
+  duplicateCount: number;
+  errorCount: number;
+  errors: { row: number; field?: string; message: string }[];
+  errorMessage?: string;
+  createdAt: string;
+  completedAt?: string;
+}
+
 export interface QuestionListParams {
   subjectId?: string;
   topicId?: string;